@@ -0,0 +1,92 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.api;
+
+import com.typesafe.config.Config;
+import lombok.NonNull;
+
+import java.util.NoSuchElementException;
+import java.util.Optional;
+
+/**
+ * Immutable, consistent view of a {@link ReloadableConfig}: resolved {@link Config} of a single configuration
+ * generation together with values of registered {@link Reloadable}s (including ones derived from them using {@link
+ * Reloadable#map(java.util.function.Function)} or {@link Reloadable#filter(java.util.function.Predicate)}) that
+ * belong to it.
+ * <p>
+ * Values obtained from a single snapshot always belong to the same configuration generation, which is not guaranteed
+ * when values of multiple reloadables are read one by one while configuration refresh is being applied.
+ * <p>
+ * Implementations must be thread-safe.
+ */
+public interface ConfigSnapshot {
+    /**
+     * Returns configuration generation; generation is incremented on every assignment of changed configuration.
+     *
+     * @return configuration generation, 0 if configuration has not been assigned yet.
+     */
+    long getGeneration();
+
+    /**
+     * Tells whether this snapshot contains assigned configuration.
+     *
+     * @return true/false
+     */
+    default boolean isPresent() {
+        return getGeneration() > 0;
+    }
+
+    /**
+     * Returns configuration of this snapshot.
+     *
+     * @return configuration, empty config if this snapshot is not present.
+     * @see #isPresent()
+     */
+    Config getConfig();
+
+    /**
+     * Returns number of reloadable values contained in this snapshot.
+     *
+     * @return number of values
+     */
+    int size();
+
+    /**
+     * Returns value of given reloadable at the time of this snapshot.
+     *
+     * @param reloadable reloadable created by reloadable config this snapshot was taken from
+     * @param <T>        value type
+     * @return optional of reloadable value, empty if reloadable is not registered or it doesn't contain value.
+     * @throws NullPointerException in case of null arguments
+     */
+    <T> Optional<T> get(@NonNull Reloadable<T> reloadable);
+
+    /**
+     * Returns value of given reloadable at the time of this snapshot.
+     *
+     * @param reloadable reloadable created by reloadable config this snapshot was taken from
+     * @param <T>        value type
+     * @return reloadable value
+     * @throws NullPointerException   in case of null arguments
+     * @throws NoSuchElementException if snapshot doesn't contain value for given reloadable
+     * @see #get(Reloadable)
+     */
+    default <T> T require(@NonNull Reloadable<T> reloadable) {
+        return get(reloadable)
+            .orElseThrow(() -> new NoSuchElementException("Snapshot doesn't contain value of reloadable: " + reloadable));
+    }
+}
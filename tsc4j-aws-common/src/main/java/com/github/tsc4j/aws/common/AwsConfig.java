@@ -91,6 +91,19 @@ public final class AwsConfig implements WithConfig {
      */
     private Boolean s3PathStyleAccess = null;
 
+    /**
+     * Maximum number of AWS API requests per second issued to the service by all clients in the JVM that use the same
+     * service and region; requests are additionally paused when the service throttles them. (default: 0, unlimited)
+     */
+    private double maxRequestRate = 0;
+
+    /**
+     * Maximum number of concurrent AWS API requests issued to the service by all clients in the JVM that use the same
+     * service and region; limit is additionally lowered automatically when requests are throttled.
+     * (default: 0, unlimited)
+     */
+    private int maxConcurrentRequests = 0;
+
     @Override
     public void withConfig(@NonNull Config cfg) {
         cfgBoolean(cfg, "anonymous-auth", this::setAnonymousAuth);
@@ -104,5 +117,7 @@ public final class AwsConfig implements WithConfig {
         cfgInt(cfg, "max-connections", this::setMaxConnections);
         cfgInt(cfg, "max-error-retry", this::setMaxErrorRetry);
         cfgBoolean(cfg, "s3-path-style-access", this::setS3PathStyleAccess);
+        cfgDouble(cfg, "max-request-rate", this::setMaxRequestRate);
+        cfgInt(cfg, "max-concurrent-requests", this::setMaxConcurrentRequests);
     }
 }
@@ -82,4 +82,14 @@ public interface WithAwsConfig<T> {
         getAwsConfig().setS3PathStyleAccess(flag);
         return (T) this;
     }
+
+    default T setMaxRequestRate(double maxRate) {
+        getAwsConfig().setMaxRequestRate(maxRate);
+        return (T) this;
+    }
+
+    default T setMaxConcurrentRequests(int maxConcurrent) {
+        getAwsConfig().setMaxConcurrentRequests(maxConcurrent);
+        return (T) this;
+    }
 }
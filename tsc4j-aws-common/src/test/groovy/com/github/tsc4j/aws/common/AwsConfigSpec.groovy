@@ -49,6 +49,8 @@ class AwsConfigSpec extends Specification {
             getMaxConnections() == 100
             getMaxErrorRetry() == 0
             getS3PathStyleAccess() == null
+            getMaxRequestRate() == 0
+            getMaxConcurrentRequests() == 0
         }
     }
 
@@ -63,6 +65,8 @@ class AwsConfigSpec extends Specification {
                 max-connections: $maxConns
                 maxErrorRetry: $maxErrRetry
                 s3PathStyleAccess: true
+                max-request-rate: 12.5
+                max-concurrent-requests: 4
             """)
 
         def awsConfig = new AwsConfig()
@@ -82,6 +86,8 @@ class AwsConfigSpec extends Specification {
             getMaxConnections() == maxConns
             getMaxErrorRetry() == maxErrRetry
             getS3PathStyleAccess() == true
+            getMaxRequestRate() == 12.5
+            getMaxConcurrentRequests() == 4
         }
     }
 }
@@ -49,6 +49,8 @@ class WithAwsConfigSpec extends Specification {
             .setMaxConnections(maxConns)
             .setMaxErrorRetry(maxErrRetry)
             .setS3PathStyleAccess(true)
+            .setMaxRequestRate(12.5)
+            .setMaxConcurrentRequests(4)
 
         then:
         def config = bean.getAwsConfig()
@@ -70,6 +72,8 @@ class WithAwsConfigSpec extends Specification {
             assert getMaxErrorRetry() == maxErrRetry
 
             assert getS3PathStyleAccess() == true
+            assert getMaxRequestRate() == 12.5
+            assert getMaxConcurrentRequests() == 4
         }
 
         true
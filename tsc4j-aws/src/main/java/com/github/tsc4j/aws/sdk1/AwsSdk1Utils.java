@@ -16,7 +16,9 @@
 
 package com.github.tsc4j.aws.sdk1;
 
+import com.amazonaws.AmazonServiceException;
 import com.amazonaws.ClientConfiguration;
+import com.amazonaws.SdkBaseException;
 import com.amazonaws.SdkClientException;
 import com.amazonaws.auth.AWSCredentialsProvider;
 import com.amazonaws.auth.AWSStaticCredentialsProvider;
@@ -27,7 +29,9 @@ import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.client.builder.AwsClientBuilder.EndpointConfiguration;
 import com.amazonaws.regions.AwsRegionProvider;
 import com.amazonaws.regions.DefaultAwsRegionProviderChain;
+import com.amazonaws.retry.RetryUtils;
 import com.github.tsc4j.aws.common.AwsConfig;
+import com.github.tsc4j.core.ApiCallLimiter;
 import lombok.NonNull;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +40,7 @@ import lombok.val;
 import java.util.Optional;
 import java.util.function.Supplier;
 
+import static com.github.tsc4j.core.Tsc4jImplUtils.optString;
 import static com.github.tsc4j.core.Tsc4jImplUtils.validString;
 
 /**
@@ -170,4 +175,37 @@ public class AwsSdk1Utils {
         log.debug("created AWS SDK 1.x client: {}", client);
         return client;
     }
+
+    /**
+     * Returns API call limiter for given AWS service that is shared by all clients in the JVM calling the same service
+     * in the same region; limiter is (re)configured with limits from given aws config.
+     *
+     * @param service aws service name, ie. {@code ssm}
+     * @param config  aws config
+     * @return shared call limiter
+     * @see AwsConfig#getMaxRequestRate()
+     * @see AwsConfig#getMaxConcurrentRequests()
+     */
+    public ApiCallLimiter callLimiter(@NonNull String service, @NonNull AwsConfig config) {
+        val location = optString(config.getEndpoint())
+            .map(Optional::of)
+            .orElseGet(() -> optString(config.getRegion()))
+            .orElse("default");
+        val name = "aws." + service + "@" + location;
+        return ApiCallLimiter.shared(name, config.getMaxRequestRate(), config.getMaxConcurrentRequests(),
+            AwsSdk1Utils::isThrottlingException);
+    }
+
+    /**
+     * Tells whether given exception means that AWS API request was throttled.
+     *
+     * @param e exception
+     * @return true/false
+     */
+    public boolean isThrottlingException(Throwable e) {
+        if (e instanceof SdkBaseException && RetryUtils.isThrottlingException((SdkBaseException) e)) {
+            return true;
+        }
+        return e instanceof AmazonServiceException && ((AmazonServiceException) e).getStatusCode() == 429;
+    }
 }
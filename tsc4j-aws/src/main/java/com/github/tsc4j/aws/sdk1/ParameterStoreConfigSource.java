@@ -16,6 +16,8 @@
 
 package com.github.tsc4j.aws.sdk1;
 
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.simplesystemsmanagement.model.Parameter;
 import com.github.tsc4j.aws.common.AwsConfig;
 import com.github.tsc4j.aws.common.WithAwsConfig;
 import com.github.tsc4j.core.AbstractConfigSource;
@@ -39,11 +41,18 @@ import java.util.List;
  * <a href="https://docs.aws.amazon.com/systems-manager/latest/userguide/systems-manager-paramstore.html">AWS SSM
  * Parameter store</a> {@link ConfigSource} implementation. Fetches parameters from AWS SSM parameter store and builds
  * parameter tree.
+ * <p>
+ * Parameters are synchronized incrementally by default: only parameters that changed since previous fetch are
+ * fetched and decrypted, which requires {@code ssm:DescribeParameters} permission.
+ *
+ * @see SsmParameterSync
  */
 public final class ParameterStoreConfigSource extends AbstractConfigSource {
     private final SsmFacade ssm;
     private final List<String> paths;
     private final String atPath;
+    private final SsmParameterSync sync;
+    private volatile boolean incrementalSync;
 
     /**
      * Creates new instance.
@@ -55,6 +64,8 @@ public final class ParameterStoreConfigSource extends AbstractConfigSource {
         this.ssm = new SsmFacade(this.toString(), builder.getAwsConfig(), true, builder.isParallel());
         this.paths = Tsc4jImplUtils.toUniqueList(builder.getPaths());
         this.atPath = builder.getAtPath();
+        this.sync = new SsmParameterSync(ssm);
+        this.incrementalSync = builder.isIncrementalSync();
     }
 
     /**
@@ -70,7 +81,7 @@ public final class ParameterStoreConfigSource extends AbstractConfigSource {
     protected List<Config> fetchConfigs(@NonNull ConfigQuery query) {
         val ssmPaths = interpolateVarStrings(paths, query);
         log.debug("{} will fetch parameters using SSM param store paths: {}", this, ssmPaths);
-        val params = ssm.fetchByPath(ssmPaths);
+        val params = fetchParameters(ssmPaths);
         log.trace("{} fetched {} parameters: {}", this, params.size(), params);
 
         // convert parameters to config an install at correct path
@@ -81,6 +92,25 @@ public final class ParameterStoreConfigSource extends AbstractConfigSource {
         return Collections.singletonList(finalConfig);
     }
 
+    private List<Parameter> fetchParameters(List<String> ssmPaths) {
+        if (incrementalSync) {
+            try {
+                return sync.sync(ssmPaths);
+            } catch (Exception e) {
+                val cause = (e.getCause() == null) ? e : e.getCause();
+                if (cause instanceof AmazonServiceException &&
+                    "AccessDeniedException".equals(((AmazonServiceException) cause).getErrorCode())) {
+                    log.warn("{} disabling incremental sync, not allowed to describe SSM parameters: {}",
+                        this, cause.getMessage());
+                    incrementalSync = false;
+                } else {
+                    log.warn("{} incremental sync failed, fetching all parameters: {}", this, e.getMessage());
+                }
+            }
+        }
+        return ssm.fetchByPath(ssmPaths);
+    }
+
     @Override
     protected void doClose() {
         super.doClose();
@@ -115,6 +145,13 @@ public final class ParameterStoreConfigSource extends AbstractConfigSource {
          */
         private String atPath = "";
 
+        /**
+         * Fetch only parameters that changed since previous fetch? (default: true)
+         *
+         * @see SsmParameterSync
+         */
+        private boolean incrementalSync = true;
+
         /**
          * Adds single AWS SSM parameter store path, which might contain {@link ConfigQuery} magic variables.
          *
@@ -135,6 +172,7 @@ public final class ParameterStoreConfigSource extends AbstractConfigSource {
 
             cfgExtract(config, "paths", Config::getStringList, this::setPaths);
             cfgString(config, "at-path", this::setAtPath);
+            cfgBoolean(config, "incremental-sync", this::setIncrementalSync);
         }
 
         @Override
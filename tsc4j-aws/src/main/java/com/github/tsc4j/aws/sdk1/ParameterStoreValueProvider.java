@@ -48,7 +48,7 @@ public final class ParameterStoreValueProvider extends AbstractConfigValueProvid
      * @param builder instance builder
      */
     protected ParameterStoreValueProvider(@NonNull Builder builder) {
-        super(builder.getName(), builder.isAllowMissing(), builder.isParallel());
+        super(builder.getName(), builder.isAllowMissing(), builder.isParallel(), builder.getMaxConcurrency());
         this.ssm = new SsmFacade(this.toString(), builder.getAwsConfig(), builder.isDecrypt(), builder.isParallel());
     }
 
@@ -61,6 +61,11 @@ public final class ParameterStoreValueProvider extends AbstractConfigValueProvid
         return new Builder();
     }
 
+    @Override
+    protected int maxBatchSize() {
+        return SsmFacade.MAX_RESULTS;
+    }
+
     @Override
     protected Map<String, ConfigValue> doGet(@NonNull List<String> names) {
         val result = new LinkedHashMap<String, ConfigValue>();
@@ -19,9 +19,15 @@ package com.github.tsc4j.aws.sdk1;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3Client;
 import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.GetObjectRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3Object;
+import com.amazonaws.services.s3.model.S3ObjectInputStream;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.github.tsc4j.aws.common.AwsConfig;
 import com.github.tsc4j.aws.common.WithAwsConfig;
+import com.github.tsc4j.core.ApiCallLimiter;
 import com.github.tsc4j.core.ConfigQuery;
 import com.github.tsc4j.core.ConfigSource;
 import com.github.tsc4j.core.FilesystemLikeConfigSource;
@@ -34,15 +40,19 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.val;
 
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
 import java.io.Reader;
-import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
 import java.time.Duration;
-import java.util.Comparator;
-import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
 import java.util.Optional;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -52,20 +62,36 @@ import java.util.stream.Stream;
  * <a href="https://aws.amazon.com/s3/">Amazon S3</a> implementation of {@link ConfigSource}.
  */
 public final class S3ConfigSource
-    extends FilesystemLikeConfigSource<Map<String, S3ObjectSummary>>
+    extends FilesystemLikeConfigSource<NavigableMap<String, S3ObjectSummary>>
     implements WithCache<String, Config> {
     private static final String S3_URL_PREFIX = "s3://";
     private static final Pattern S3_URL_PATTERN = Pattern.compile("^" + S3_URL_PREFIX + "([\\w\\-\\.]+)/(.*)");
     static final String TYPE = "aws.s3";
+    static final long DEFAULT_MAX_OBJECT_SIZE = 16 * 1024 * 1024;
 
     /**
      * S3 client in use
      */
     private final AmazonS3 s3Client;
 
+    /**
+     * Max size of a single config object in bytes, unlimited if not positive.
+     */
+    private final long maxObjectSize;
+
+    /**
+     * S3 api call limiter, shared with other s3 clients in the same region.
+     */
+    private final ApiCallLimiter limiter;
+
     @Getter
     private final Tsc4jCache<String, Config> cache;
 
+    /**
+     * Latest known etag of every cached s3 object, used to evict cached configs of superseded object versions.
+     */
+    private final Map<String, String> cachedEtags = new ConcurrentHashMap<>();
+
     /**
      * Creates new instance.
      */
@@ -82,6 +108,8 @@ public final class S3ConfigSource
     protected S3ConfigSource(@NonNull Builder builder, @NonNull AmazonS3 s3Client) {
         super(builder);
         this.s3Client = s3Client;
+        this.maxObjectSize = builder.getMaxObjectSize();
+        this.limiter = AwsSdk1Utils.callLimiter("s3", builder.getAwsConfig());
         this.cache = Tsc4jImplUtils.newCache(toString(), builder.getCacheTtl(), builder.getClock());
     }
 
@@ -116,6 +144,7 @@ public final class S3ConfigSource
     @Override
     protected void doClose() {
         super.doClose();
+        cachedEtags.clear();
         s3Client.shutdown();
     }
 
@@ -134,11 +163,11 @@ public final class S3ConfigSource
     }
 
     @Override
-    protected Map<String, S3ObjectSummary> createFetchContext(@NonNull ConfigQuery query) {
+    protected NavigableMap<String, S3ObjectSummary> createFetchContext(@NonNull ConfigQuery query) {
         val tasks = createFetchContextTasks(query);
         val results = runTasks(tasks, isParallel());
 
-        val map = new LinkedHashMap<String, S3ObjectSummary>();
+        val map = new TreeMap<String, S3ObjectSummary>();
         results.forEach(e -> map.putAll(e));
         return map;
     }
@@ -166,7 +195,7 @@ public final class S3ConfigSource
     }
 
     @Override
-    protected Config loadConfig(String path, Map<String, S3ObjectSummary> context) {
+    protected Config loadConfig(String path, NavigableMap<String, S3ObjectSummary> context) {
         val etag = Optional.ofNullable(context.get(path))
             .map(e -> e.getETag())
             .orElse("");
@@ -177,12 +206,29 @@ public final class S3ConfigSource
             .orElseGet(() -> {
                 val config = super.loadConfig(path, context);
                 // put to cache with latest etag
-                return putToCache(cacheKey, config);
+                putToCache(cacheKey, config);
+                evictSupersededConfig(path, etag);
+                return config;
             });
     }
 
     /**
-     * Fetches summary for s3Url and returns map of all objects.
+     * Removes cached config of previous version of given s3 object.
+     *
+     * @param path s3 object url
+     * @param etag etag of latest cached version
+     */
+    private void evictSupersededConfig(String path, String etag) {
+        val previousEtag = cachedEtags.put(path, etag);
+        if (previousEtag != null && !previousEtag.equals(etag)) {
+            log.debug("{} s3 object {} changed, evicting cached config of etag {}", this, path, previousEtag);
+            getCache().remove(cacheKey(path, previousEtag));
+        }
+    }
+
+    /**
+     * Fetches summary for s3Url and returns map of all objects; truncated listings are followed until all objects
+     * are listed.
      *
      * @param s3Url s3 url with path
      * @return map of object summaries; empty map is returned if s3 url or bucket doesn't exist.
@@ -190,17 +236,26 @@ public final class S3ConfigSource
      * @see #createFetchContext(ConfigQuery)
      */
     private Map<String, S3ObjectSummary> fetchSummary(String s3Url) {
-        val map = new LinkedHashMap<String, S3ObjectSummary>();
+        val map = new TreeMap<String, S3ObjectSummary>();
 
         try {
-            s3Client.listObjects(bucketName(s3Url), bucketPath(s3Url))
-                .getObjectSummaries()
-                .stream()
-                .sorted(Comparator.comparing(S3ObjectSummary::getKey))
-                .forEach(summary -> {
+            val request = new ListObjectsV2Request()
+                .withBucketName(bucketName(s3Url))
+                .withPrefix(bucketPath(s3Url));
+
+            ListObjectsV2Result result;
+            int pages = 0;
+            do {
+                result = limiter.get(() -> s3Client.listObjectsV2(request));
+                pages++;
+                result.getObjectSummaries().forEach(summary -> {
                     val url = S3_URL_PREFIX + summary.getBucketName() + "/" + summary.getKey();
                     map.put(url, summary);
                 });
+                request.setContinuationToken(result.getNextContinuationToken());
+            } while (result.isTruncated() && result.getNextContinuationToken() != null);
+
+            log.trace("{} listed {} object(s) in {} page(s) for: {}", this, map.size(), pages, s3Url);
         } catch (AmazonS3Exception e) {
             if (e.getStatusCode() == 404) {
                 warnOrThrowOnMissingConfigLocation(s3Url);
@@ -225,40 +280,85 @@ public final class S3ConfigSource
         return map;
     }
 
+    /**
+     * Opens s3 object for reading; object content is streamed directly to config parser without being buffered in
+     * memory as a whole.
+     *
+     * @param s3Url   s3 object url
+     * @param context fetch context
+     * @return optional of reader
+     * @throws RuntimeException if object can't be opened or it exceeds max object size
+     */
     @Override
-    protected Optional<Reader> openConfig(@NonNull String s3Url, Map<String, S3ObjectSummary> context) {
+    protected Optional<Reader> openConfig(@NonNull String s3Url, NavigableMap<String, S3ObjectSummary> context) {
         log.debug("{} opening config: {}", this, s3Url);
+
+        // refuse oversized objects before even requesting them
+        Optional.ofNullable(context.get(s3Url))
+            .ifPresent(summary -> checkObjectSize(s3Url, summary.getSize()));
+
+        S3Object object = null;
         try {
-            val data = s3Client.getObjectAsString(bucketName(s3Url), bucketPath(s3Url));
-            return Optional.of(new StringReader(data));
+            val request = new GetObjectRequest(bucketName(s3Url), bucketPath(s3Url));
+            object = limiter.get(() -> s3Client.getObject(request));
+            checkObjectSize(s3Url, object.getObjectMetadata().getContentLength());
+
+            val content = object.getObjectContent();
+            val input = (maxObjectSize > 0) ? new SizeLimitedInputStream(content, maxObjectSize, s3Url) : content;
+            return Optional.of(new InputStreamReader(input, StandardCharsets.UTF_8));
         } catch (Exception e) {
+            abort(object);
             throw Tsc4jException.of("Error loading config %s: %%s", e, s3Url);
         }
     }
 
+    private void checkObjectSize(String s3Url, long size) {
+        if (maxObjectSize > 0 && size > maxObjectSize) {
+            throw new IllegalStateException(String.format(
+                "S3 object %s is too large: %d bytes (max object size: %d bytes)", s3Url, size, maxObjectSize));
+        }
+    }
+
+    private void abort(S3Object object) {
+        if (object != null) {
+            // abort instead of closing, closing would drain remaining content
+            object.getObjectContent().abort();
+            Tsc4jImplUtils.close(object, log);
+        }
+    }
+
     @Override
-    protected boolean isDirectory(String s3Url, Map<String, S3ObjectSummary> context) {
-        val result = context.keySet().stream()
-            .anyMatch(e -> e.startsWith(s3Url + "/"));
+    protected boolean isDirectory(String s3Url, NavigableMap<String, S3ObjectSummary> context) {
+        val result = !withPrefix(context, s3Url + "/").isEmpty();
         return debugIsDirectory(s3Url, result);
     }
 
     @Override
-    protected boolean pathExists(String s3Url, Map<String, S3ObjectSummary> context) {
-        val result = context.keySet().stream()
-            .anyMatch(e -> e.startsWith(s3Url));
+    protected boolean pathExists(String s3Url, NavigableMap<String, S3ObjectSummary> context) {
+        val result = !withPrefix(context, s3Url).isEmpty();
         return debugPathExists(s3Url, result);
     }
 
     @Override
-    protected Stream<String> listDirectory(String s3Url, Map<String, S3ObjectSummary> context) {
+    protected Stream<String> listDirectory(String s3Url, NavigableMap<String, S3ObjectSummary> context) {
         val prefix = s3Url + "/";
-        return context.keySet().stream()
-            .filter(e -> e.startsWith(prefix))
+        return withPrefix(context, prefix).keySet().stream()
             .map(e -> e.replace(s3Url, "").substring(1))
             .filter(e -> !e.isEmpty());
     }
 
+    /**
+     * Returns view of fetch context entries whose keys start with given prefix.
+     *
+     * @param context fetch context
+     * @param prefix  key prefix
+     * @return sorted map view
+     */
+    private static NavigableMap<String, S3ObjectSummary> withPrefix(NavigableMap<String, S3ObjectSummary> context,
+                                                                    String prefix) {
+        return context.subMap(prefix, true, prefix + Character.MAX_VALUE, true);
+    }
+
     private Matcher s3UrlMatcher(@NonNull String s3Url) {
         val matcher = S3_URL_PATTERN.matcher(s3Url);
         if (!matcher.find()) {
@@ -290,6 +390,48 @@ public final class S3ConfigSource
         return path + "|" + etag;
     }
 
+    /**
+     * Input stream that fails if more than specified number of bytes is read from s3 object; guards against objects
+     * that were replaced by larger ones after their size has been checked.
+     */
+    private static final class SizeLimitedInputStream extends FilterInputStream {
+        private final long maxSize;
+        private final String s3Url;
+        private long numRead = 0;
+
+        SizeLimitedInputStream(S3ObjectInputStream in, long maxSize, String s3Url) {
+            super(in);
+            this.maxSize = maxSize;
+            this.s3Url = s3Url;
+        }
+
+        @Override
+        public int read() throws IOException {
+            val b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            val n = super.read(b, off, len);
+            if (n > 0) {
+                count(n);
+            }
+            return n;
+        }
+
+        private void count(int n) throws IOException {
+            numRead += n;
+            if (numRead > maxSize) {
+                ((S3ObjectInputStream) in).abort();
+                throw new IOException("S3 object " + s3Url + " exceeds max object size of " + maxSize + " bytes");
+            }
+        }
+    }
+
     /**
      * Builder for {@link S3ConfigSource}.
      */
@@ -297,6 +439,24 @@ public final class S3ConfigSource
         @Getter
         private final AwsConfig awsConfig = new AwsConfig();
 
+        /**
+         * Max size of a single config object in bytes; larger objects are refused. Size is unlimited if set to
+         * non-positive value. (default: 16 MiB)
+         */
+        @Getter
+        private long maxObjectSize = DEFAULT_MAX_OBJECT_SIZE;
+
+        /**
+         * Sets max size of a single config object in bytes.
+         *
+         * @param maxObjectSize max object size in bytes, size is unlimited if set to non-positive value
+         * @return reference to itself
+         */
+        public Builder setMaxObjectSize(long maxObjectSize) {
+            this.maxObjectSize = maxObjectSize;
+            return getThis();
+        }
+
         @Override
         protected Duration defaultCacheTtl() {
             return Duration.ofDays(7);
@@ -307,6 +467,7 @@ public final class S3ConfigSource
             super.withConfig(cfg);
 
             getAwsConfig().withConfig(cfg);
+            cfgExtract(cfg, "max-object-size", Config::getBytes, this::setMaxObjectSize);
         }
 
         @Override
@@ -0,0 +1,183 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.aws.sdk1;
+
+import com.amazonaws.services.simplesystemsmanagement.model.Parameter;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigUtil;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+import lombok.NonNull;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds {@link Config} from AWS SSM parameters in a single pass.
+ * <p>
+ * Folding parameters into config using {@link Config#withValue(String, ConfigValue)} copies the whole path from the
+ * root to the new value for every parameter, which gets expensive for large parameter hierarchies. This builder
+ * assembles a mutable tree first and converts it to config objects once, while producing exactly the same config as
+ * the fold: parameters are applied in iteration order, later parameters replace values at the same path and a value
+ * at a path replaces any object at it (and vice versa), intermediate objects have the same origins as the ones created
+ * by {@code withValue()}.
+ * <p>
+ * This class is not thread-safe.
+ */
+final class SsmConfigTreeBuilder {
+    private static final String ROOT_ORIGIN = "empty config";
+
+    private final Function<Parameter, ConfigValue> valueConverter;
+    private final Node root = new Node(ROOT_ORIGIN);
+
+    /**
+     * Creates new instance.
+     *
+     * @param valueConverter function that converts parameter to config value
+     */
+    SsmConfigTreeBuilder(@NonNull Function<Parameter, ConfigValue> valueConverter) {
+        this.valueConverter = valueConverter;
+    }
+
+    /**
+     * Converts collection of parameters to config.
+     *
+     * @param params parameters
+     * @return config
+     * @throws com.typesafe.config.ConfigException.BadPath if parameter name can't be converted to config path
+     */
+    static Config toConfig(@NonNull Collection<Parameter> params) {
+        if (params.isEmpty()) {
+            return ConfigFactory.empty();
+        }
+        val builder = new SsmConfigTreeBuilder(SsmFacade::toConfigValue);
+        params.forEach(builder::add);
+        return builder.build();
+    }
+
+    /**
+     * Adds parameter to the tree.
+     *
+     * @param parameter parameter
+     * @return reference to itself
+     * @throws com.typesafe.config.ConfigException.BadPath if parameter name can't be converted to config path
+     */
+    SsmConfigTreeBuilder add(@NonNull Parameter parameter) {
+        val path = toPath(parameter.getName());
+        val value = valueConverter.apply(parameter);
+
+        Node node = root;
+        String origin = null;
+        val last = path.size() - 1;
+        for (int i = 0; i < last; i++) {
+            val key = path.get(i);
+            val child = (origin == null) ? node.children.get(key) : null;
+            if (child instanceof Node) {
+                node = (Node) child;
+            } else {
+                // Config.withValue() names all objects it creates after the path remainder below first missing object
+                if (origin == null) {
+                    origin = "withValue(" + ConfigUtil.joinPath(path.subList(i + 1, path.size())) + ")";
+                }
+                val created = new Node(origin);
+                node.children.put(key, created);
+                node = created;
+            }
+        }
+        node.children.put(path.get(last), value);
+        return this;
+    }
+
+    /**
+     * Builds config from added parameters.
+     *
+     * @return config
+     */
+    Config build() {
+        return root.toConfigObject().toConfig();
+    }
+
+    /**
+     * Converts parameter name to config path elements, equivalent to parsing parameter name with slashes replaced by
+     * dots and leading dots removed as a config path expression.
+     *
+     * @param name parameter name
+     * @return list of path elements
+     * @throws com.typesafe.config.ConfigException.BadPath if parameter name can't be converted to config path
+     */
+    static List<String> toPath(@NonNull String name) {
+        val len = name.length();
+        int start = 0;
+        while (start < len && isSeparator(name.charAt(start))) {
+            start++;
+        }
+
+        // parameter names consisting only of [a-zA-Z0-9_-] elements are split without invoking config path parser
+        val result = new ArrayList<String>();
+        int elementStart = start;
+        for (int i = start; i <= len; i++) {
+            if (i == len || isSeparator(name.charAt(i))) {
+                if (i == elementStart) {
+                    return parsePath(name, start);
+                }
+                result.add(name.substring(elementStart, i));
+                elementStart = i + 1;
+            } else if (!isSimpleChar(name.charAt(i))) {
+                return parsePath(name, start);
+            }
+        }
+        return result;
+    }
+
+    private static List<String> parsePath(String name, int start) {
+        return ConfigUtil.splitPath(name.substring(start).replace('/', '.'));
+    }
+
+    private static boolean isSeparator(char c) {
+        return c == '/' || c == '.';
+    }
+
+    private static boolean isSimpleChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_' || c == '-';
+    }
+
+    /**
+     * Mutable config object tree node; children are either nodes or config values.
+     */
+    private static final class Node {
+        private final String origin;
+        private final Map<String, Object> children = new HashMap<>();
+
+        Node(String origin) {
+            this.origin = origin;
+        }
+
+        ConfigObject toConfigObject() {
+            val values = new HashMap<String, ConfigValue>(children.size() * 2);
+            children.forEach((key, child) ->
+                values.put(key, (child instanceof Node) ? ((Node) child).toConfigObject() : (ConfigValue) child));
+            return ConfigValueFactory.fromMap(values, origin);
+        }
+    }
+}
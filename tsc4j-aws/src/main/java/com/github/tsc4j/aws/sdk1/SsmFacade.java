@@ -26,13 +26,14 @@ import com.amazonaws.services.simplesystemsmanagement.model.GetParametersRequest
 import com.amazonaws.services.simplesystemsmanagement.model.GetParametersResult;
 import com.amazonaws.services.simplesystemsmanagement.model.Parameter;
 import com.amazonaws.services.simplesystemsmanagement.model.ParameterMetadata;
+import com.amazonaws.services.simplesystemsmanagement.model.ParameterStringFilter;
 import com.amazonaws.services.simplesystemsmanagement.model.ParameterType;
 import com.github.tsc4j.aws.common.AwsConfig;
+import com.github.tsc4j.core.ApiCallLimiter;
 import com.github.tsc4j.core.BaseInstance;
 import com.github.tsc4j.core.Tsc4jException;
 import com.github.tsc4j.core.Tsc4jImplUtils;
 import com.typesafe.config.Config;
-import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigValue;
 import com.typesafe.config.ConfigValueFactory;
 import lombok.NonNull;
@@ -48,6 +49,7 @@ import java.util.Comparator;
 import java.util.List;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.function.Supplier;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
@@ -61,12 +63,13 @@ import static com.amazonaws.services.simplesystemsmanagement.model.ParameterType
 @Slf4j
 final class SsmFacade extends BaseInstance implements Closeable {
     /**
-     * Maximum number of parameters in a single ssm request.
+     * Maximum number of parameters in a single ssm request; this is the maximum allowed by both GetParameters and
+     * GetParametersByPath APIs.
      *
      * @see <a href="https://docs.aws.amazon.com/systems-manager/latest/APIReference/API_GetParameters.html">AWS SSM
      *     Get parameters API Reference</a>
      */
-    private static final int MAX_RESULTS = 10;
+    static final int MAX_RESULTS = 10;
 
     /**
      * Max results requested in describe parameters request.
@@ -87,6 +90,7 @@ final class SsmFacade extends BaseInstance implements Closeable {
     private final String id;
     private final boolean decrypt;
     private final boolean parallel;
+    private final ApiCallLimiter limiter;
 
     /**
      * Creates new instance.
@@ -97,11 +101,11 @@ final class SsmFacade extends BaseInstance implements Closeable {
      * @param parallel parallel parameter fetching?
      */
     SsmFacade(@NonNull String id, @NonNull AwsConfig awsInfo, boolean decrypt, boolean parallel) {
-        this(createSsmClient(awsInfo), id, decrypt, parallel);
+        this(createSsmClient(awsInfo), id, decrypt, parallel, AwsSdk1Utils.callLimiter("ssm", awsInfo));
     }
 
     /**
-     * Creates new instance.
+     * Creates new instance with call limiter that is not shared with other instances.
      *
      * @param ssm      ssm client
      * @param id       instance id
@@ -109,11 +113,32 @@ final class SsmFacade extends BaseInstance implements Closeable {
      * @param parallel parallel parameter fetching?
      */
     SsmFacade(@NonNull AWSSimpleSystemsManagement ssm, @NonNull String id, boolean decrypt, boolean parallel) {
+        this(ssm, id, decrypt, parallel, ApiCallLimiter.builder()
+            .name("aws.ssm@" + id)
+            .throttlingClassifier(AwsSdk1Utils::isThrottlingException)
+            .build());
+    }
+
+    /**
+     * Creates new instance.
+     *
+     * @param ssm      ssm client
+     * @param id       instance id
+     * @param decrypt  decrypt secure parameters?
+     * @param parallel parallel parameter fetching?
+     * @param limiter  AWS SSM api call limiter
+     */
+    SsmFacade(@NonNull AWSSimpleSystemsManagement ssm,
+              @NonNull String id,
+              boolean decrypt,
+              boolean parallel,
+              @NonNull ApiCallLimiter limiter) {
         super(id);
         this.ssm = ssm;
         this.id = id;
         this.decrypt = decrypt;
         this.parallel = parallel;
+        this.limiter = limiter;
     }
 
     /**
@@ -135,6 +160,20 @@ final class SsmFacade extends BaseInstance implements Closeable {
         return list(new DescribeParametersRequest());
     }
 
+    /**
+     * Lists all AWS SSM parameters that are (recursively) below given path without retrieving their values.
+     *
+     * @param path parameter path
+     * @return list of found parameters.
+     */
+    List<ParameterMetadata> listByPath(@NonNull String path) {
+        val filter = new ParameterStringFilter()
+            .withKey("Path")
+            .withOption("Recursive")
+            .withValues(path);
+        return list(new DescribeParametersRequest().withParameterFilters(filter));
+    }
+
     /**
      * Lists all AWS SSM parameters that satisfy specified parameters request.
      *
@@ -166,7 +205,7 @@ final class SsmFacade extends BaseInstance implements Closeable {
 
         log.debug("{} describing aws ssm parameter store parameters: {}", this, realReq);
         try {
-            return ssm.describeParameters(realReq);
+            return execute(() -> ssm.describeParameters(realReq));
         } catch (Exception e) {
             throw Tsc4jException.of("Error while describing AWS SSM parameters request %s: %%s",
                 e, request.toString());
@@ -204,20 +243,7 @@ final class SsmFacade extends BaseInstance implements Closeable {
      * @return config.
      */
     Config toConfig(@NonNull Collection<Parameter> params) {
-        return params.stream()
-            .reduce(ConfigFactory.empty(),
-                (cfg, param) -> cfg.withValue(parameterTooConfigPath(param), parameterToConfigValue(param)),
-                (previous, current) -> current);
-    }
-
-    private ConfigValue parameterToConfigValue(@NonNull Parameter parameter) {
-        return toConfigValue(parameter);
-    }
-
-    private String parameterTooConfigPath(@NonNull Parameter parameter) {
-        return parameter.getName()
-            .replace('/', '.')
-            .replaceAll("^\\.*", "");
+        return SsmConfigTreeBuilder.toConfig(params);
     }
 
     /**
@@ -284,7 +310,7 @@ final class SsmFacade extends BaseInstance implements Closeable {
 
     private GetParametersByPathResult getParametersByPath(@NonNull GetParametersByPathRequest req, String nextToken) {
         val realReq = req.clone().withNextToken(nextToken);
-        return ssm.getParametersByPath(realReq);
+        return execute(() -> ssm.getParametersByPath(realReq));
     }
 
     /**
@@ -301,7 +327,7 @@ final class SsmFacade extends BaseInstance implements Closeable {
         val tasks = createFetchParametersTasks(ssm, requests);
 
         log.debug("{} created {} fetching tasks.", this, tasks.size());
-        val results = runTasks(tasks, this.parallel);
+        val results = runTasks(tasks, this.parallel && tasks.size() > 1);
         log.debug("{} retrieved {} get parameters results.", this, results.size());
 
         val invalidParams = results.stream()
@@ -333,7 +359,7 @@ final class SsmFacade extends BaseInstance implements Closeable {
                                                                    @NonNull GetParametersRequest request) {
         return () -> {
             try {
-                return ssm.getParameters(request);
+                return execute(() -> ssm.getParameters(request));
             } catch (Exception e) {
                 throw Tsc4jException.of("Error fetching %d AWS SSM parameters: %%s", e, request.getNames().size());
             }
@@ -353,6 +379,27 @@ final class SsmFacade extends BaseInstance implements Closeable {
             .withWithDecryption(decrypt);
     }
 
+    /**
+     * Executes AWS SSM request using call limiter, which keeps request rate under AWS SSM quotas and retries
+     * throttled requests.
+     *
+     * @param request request
+     * @param <T>     response type
+     * @return response
+     */
+    <T> T execute(@NonNull Supplier<T> request) {
+        return limiter.get(request);
+    }
+
+    /**
+     * Returns AWS SSM api call limiter.
+     *
+     * @return call limiter
+     */
+    ApiCallLimiter getLimiter() {
+        return limiter;
+    }
+
     @Override
     protected void doClose() {
         super.doClose();
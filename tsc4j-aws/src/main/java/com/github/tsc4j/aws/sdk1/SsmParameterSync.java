@@ -0,0 +1,132 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.aws.sdk1;
+
+import com.amazonaws.services.simplesystemsmanagement.model.Parameter;
+import com.amazonaws.services.simplesystemsmanagement.model.ParameterMetadata;
+import com.github.tsc4j.core.Tsc4jImplUtils;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * Incrementally synchronizes AWS SSM parameters below given paths.
+ * <p>
+ * Every sync lists metadata (name, version and last modification date, but not values) of all parameters below
+ * requested paths, which is considerably cheaper than fetching and decrypting them; only parameters that are new or
+ * have changed since previous sync are fetched, unchanged parameters are served from previous sync results.
+ * <p>
+ * This class is thread-safe.
+ */
+@Slf4j
+final class SsmParameterSync {
+    private final SsmFacade ssm;
+
+    /**
+     * Parameters retrieved by last sync, keyed by parameter name.
+     */
+    private Map<String, Parameter> parameters = new HashMap<>();
+
+    /**
+     * Creates new instance.
+     *
+     * @param ssm ssm facade
+     */
+    SsmParameterSync(@NonNull SsmFacade ssm) {
+        this.ssm = ssm;
+    }
+
+    /**
+     * Synchronizes parameters below given paths.
+     *
+     * @param paths parameter paths
+     * @return list of all parameters below given paths, sorted by name for every path
+     * @throws com.github.tsc4j.core.Tsc4jException in case of AWS SSM errors
+     */
+    synchronized List<Parameter> sync(@NonNull Collection<String> paths) {
+        val uniquePaths = Tsc4jImplUtils.toUniqueList(paths);
+
+        // list metadata of all parameters below requested paths
+        val metadataByPath = new LinkedHashMap<String, List<ParameterMetadata>>();
+        uniquePaths.forEach(path -> metadataByPath.put(path, ssm.listByPath(path)));
+
+        // find new and updated parameters
+        val current = new LinkedHashMap<String, ParameterMetadata>();
+        metadataByPath.values().forEach(list -> list.forEach(it -> current.put(it.getName(), it)));
+        val changedNames = current.values().stream()
+            .filter(this::isChanged)
+            .map(ParameterMetadata::getName)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+
+        // carry over unchanged parameters, fetch the rest
+        val synced = new HashMap<String, Parameter>();
+        current.keySet().stream()
+            .filter(name -> !changedNames.contains(name))
+            .forEach(name -> synced.put(name, parameters.get(name)));
+
+        if (!changedNames.isEmpty()) {
+            log.debug("{} fetching {} new or changed of {} parameters.", ssm, changedNames.size(), current.size());
+            ssm.fetch(new ArrayList<>(changedNames)).forEach(it -> synced.put(it.getName(), it));
+        } else {
+            log.debug("{} none of {} parameters changed.", ssm, current.size());
+        }
+
+        this.parameters = synced;
+
+        val result = new ArrayList<Parameter>(synced.size());
+        metadataByPath.values().forEach(list -> list.stream()
+            .map(it -> synced.get(it.getName()))
+            .filter(Objects::nonNull)
+            .sorted(Comparator.comparing(Parameter::getName))
+            .forEach(result::add));
+        return result;
+    }
+
+    /**
+     * Returns number of parameters retrieved by last sync.
+     *
+     * @return number of parameters
+     */
+    synchronized int size() {
+        return parameters.size();
+    }
+
+    private boolean isChanged(ParameterMetadata metadata) {
+        val previous = parameters.get(metadata.getName());
+        return previous == null || isChanged(previous, metadata);
+    }
+
+    private static boolean isChanged(Parameter parameter, ParameterMetadata metadata) {
+        if (!Objects.equals(parameter.getVersion(), metadata.getVersion())) {
+            return true;
+        }
+        val fetchedAt = parameter.getLastModifiedDate();
+        val modifiedAt = metadata.getLastModifiedDate();
+        return fetchedAt != null && modifiedAt != null && !fetchedAt.equals(modifiedAt);
+    }
+}
@@ -17,6 +17,7 @@
 
 package com.github.tsc4j.aws.sdk1
 
+import com.amazonaws.AmazonServiceException
 import com.amazonaws.auth.AWSStaticCredentialsProvider
 import com.amazonaws.auth.BasicAWSCredentials
 import com.amazonaws.auth.DefaultAWSCredentialsProviderChain
@@ -270,4 +271,47 @@ class AwsSdk1UtilsSpec extends Specification {
         where:
         gzip << [true, false]
     }
+
+    def "callLimiter() should return limiter shared per service and region"() {
+        given:
+        def region = "us-west-" + UUID.randomUUID()
+        def awsConfig = new AwsConfig().setRegion(region).setMaxRequestRate(10).setMaxConcurrentRequests(3)
+
+        when:
+        def ssm = AwsSdk1Utils.callLimiter("ssm", awsConfig)
+        def ssmOther = AwsSdk1Utils.callLimiter("ssm", new AwsConfig().setRegion(region))
+        def s3 = AwsSdk1Utils.callLimiter("s3", awsConfig)
+
+        then:
+        ssm.is(ssmOther)
+        !ssm.is(s3)
+        ssm.getName() == "aws.ssm@" + region
+
+        // aws config without limits doesn't remove limits set by another aws config
+        ssm.getMaxRate() == 10
+        ssm.getMaxConcurrency() == 3
+        s3.getMaxRate() == 10
+        s3.getMaxConcurrency() == 3
+    }
+
+    def "isThrottlingException() should return #expected for #errorCode/#statusCode"() {
+        given:
+        def exception = new AmazonServiceException("foo")
+        exception.setErrorCode(errorCode)
+        exception.setStatusCode(statusCode)
+
+        expect:
+        AwsSdk1Utils.isThrottlingException(exception) == expected
+        !AwsSdk1Utils.isThrottlingException(new RuntimeException("ThrottlingException"))
+
+        where:
+        errorCode                                | statusCode | expected
+        "ThrottlingException"                    | 400        | true
+        "Throttling"                             | 400        | true
+        "ProvisionedThroughputExceededException" | 400        | true
+        "SlowDown"                               | 503        | true
+        "TooManyRequests"                        | 429        | true
+        "AccessDeniedException"                  | 400        | false
+        "InternalError"                          | 500        | false
+    }
 }
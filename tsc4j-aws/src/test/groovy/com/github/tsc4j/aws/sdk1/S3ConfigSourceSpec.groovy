@@ -22,6 +22,11 @@ import com.amazonaws.auth.AnonymousAWSCredentials
 import com.amazonaws.client.builder.AwsClientBuilder
 import com.amazonaws.services.s3.AmazonS3
 import com.amazonaws.services.s3.AmazonS3ClientBuilder
+import com.amazonaws.services.s3.model.GetObjectRequest
+import com.amazonaws.services.s3.model.ListObjectsV2Request
+import com.amazonaws.services.s3.model.ListObjectsV2Result
+import com.amazonaws.services.s3.model.S3Object
+import com.amazonaws.services.s3.model.S3ObjectSummary
 import com.github.tsc4j.core.AbstractConfigSource
 import com.github.tsc4j.core.ConfigQuery
 import com.github.tsc4j.core.ConfigSourceBuilder
@@ -150,12 +155,12 @@ class S3ConfigSourceSpec extends FilesystemLikeConfigSourceSpec {
         def bareS3Client = S3ConfigSource.createS3Client(builder)
 
         def s3Client = Spy(bareS3Client)
-        s3Client.getObjectAsString(_, _) >> {
-            def mapKey = it[0] + it[1]
+        s3Client.getObject(_ as GetObjectRequest) >> { GetObjectRequest request ->
+            def mapKey = request.getBucketName() + request.getKey()
             def counter = loadedMap.getOrDefault(mapKey, new AtomicInteger())
             counter.incrementAndGet()
             loadedMap.put(mapKey, counter)
-            bareS3Client.getObjectAsString(it[0], it[1])
+            bareS3Client.getObject(request)
         }
 
         and: "finally, setup the source"
@@ -253,6 +258,118 @@ class S3ConfigSourceSpec extends FilesystemLikeConfigSourceSpec {
         source instanceof S3ConfigSource
     }
 
+    def "should follow truncated listings and re-fetch only objects with changed etag"() {
+        given:
+        def s3Client = Mock(AmazonS3)
+        def source = new S3ConfigSource(builder().withPath("s3://bucket/app").setConfdEnabled(false), s3Client)
+        def query = ConfigQuery.builder().appName("app").envs(["default"]).build()
+        def etag = "etag-1"
+        def requests = []
+
+        and: "listing is split into two pages, application.conf is on the second one"
+        s3Client.listObjectsV2(_ as ListObjectsV2Request) >> { ListObjectsV2Request request ->
+            requests << [request.getBucketName(), request.getPrefix(), request.getContinuationToken()]
+            def result = new ListObjectsV2Result()
+            if (request.getContinuationToken() == null) {
+                result.getObjectSummaries().add(summary("bucket", "app/application.conf.bak", "x"))
+                result.setTruncated(true)
+                result.setNextContinuationToken("page-2")
+            } else {
+                result.getObjectSummaries().add(summary("bucket", "app/application.conf", etag))
+            }
+            result
+        }
+
+        when:
+        def config = source.get(query)
+
+        then:
+        1 * s3Client.getObject({ it.getKey() == "app/application.conf" }) >> s3Object("foo: 1")
+        config.getInt("foo") == 1
+        requests == [["bucket", "app/application.conf", null], ["bucket", "app/application.conf", "page-2"]]
+
+        when: "object is not modified"
+        config = source.get(query)
+
+        then:
+        0 * s3Client.getObject(_)
+        config.getInt("foo") == 1
+
+        when: "object is modified"
+        etag = "etag-2"
+        config = source.get(query)
+
+        then:
+        1 * s3Client.getObject({ it.getKey() == "app/application.conf" }) >> s3Object("foo: 2")
+        config.getInt("foo") == 2
+        source.getCache().size() == 1
+
+        cleanup:
+        source?.close()
+    }
+
+    def "should refuse objects larger than max object size (listed size: #listedSize, content length: #contentLength)"() {
+        given:
+        def s3Client = Mock(AmazonS3)
+        def sourceBuilder = builder().withPath("s3://bucket/app").setConfdEnabled(false).setMaxObjectSize(10)
+        def source = new S3ConfigSource(sourceBuilder, s3Client)
+        def query = ConfigQuery.builder().appName("app").envs(["default"]).build()
+        def content = "foo: 1234567890"
+
+        and:
+        def listing = new ListObjectsV2Result()
+        listing.getObjectSummaries().add(summary("bucket", "app/application.conf", "etag", listedSize))
+        s3Client.listObjectsV2(_ as ListObjectsV2Request) >> listing
+        s3Client.getObject(_ as GetObjectRequest) >> s3Object(content, contentLength)
+
+        when:
+        source.get(query)
+
+        then:
+        def exception = thrown(RuntimeException)
+        exception.getMessage().contains("s3://bucket/app/application.conf")
+
+        cleanup:
+        source?.close()
+
+        where:
+        listedSize | contentLength
+        100        | 100
+        1          | 100
+        1          | 1
+    }
+
+    def "builder should read max object size from config"() {
+        given:
+        def builder = S3ConfigSource.builder()
+
+        expect:
+        builder.getMaxObjectSize() == S3ConfigSource.DEFAULT_MAX_OBJECT_SIZE
+
+        when:
+        builder.withConfig(ConfigFactory.parseMap(["max-object-size": "2M"]))
+
+        then:
+        builder.getMaxObjectSize() == 2 * 1024 * 1024
+    }
+
+    def summary(String bucket, String key, String etag, long size = 0) {
+        def summary = new S3ObjectSummary()
+        summary.setBucketName(bucket)
+        summary.setKey(key)
+        summary.setETag(etag)
+        summary.setSize(size)
+        summary
+    }
+
+    def s3Object(String content, long contentLength = -1) {
+        def bytes = content.getBytes("UTF-8")
+        def object = new S3Object()
+        object.getObjectMetadata().setContentLength(contentLength < 0 ? bytes.length : contentLength)
+        object.setObjectContent(new ByteArrayInputStream(bytes))
+        object
+    }
+
     def "close() should really close supplier"() {
         given:
         def s3Client = Mock(AmazonS3)
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.aws.sdk1
+
+import com.amazonaws.services.simplesystemsmanagement.model.Parameter
+import com.amazonaws.services.simplesystemsmanagement.model.ParameterType
+import com.typesafe.config.Config
+import com.typesafe.config.ConfigException
+import com.typesafe.config.ConfigFactory
+import com.typesafe.config.ConfigObject
+import com.typesafe.config.ConfigUtil
+import com.typesafe.config.ConfigValue
+import groovy.util.logging.Slf4j
+import spock.lang.Requires
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Slf4j
+@Unroll
+class SsmConfigTreeBuilderSpec extends Specification {
+    def "toPath('#name') should return #expected"() {
+        when:
+        def path = SsmConfigTreeBuilder.toPath(name)
+
+        then:
+        path == expected
+        path == ConfigUtil.splitPath(name.replace('/', '.').replaceAll('^\\.*', ''))
+
+        where:
+        name               | expected
+        "a"                | ["a"]
+        "/a/b/c"           | ["a", "b", "c"]
+        "//a/b"            | ["a", "b"]
+        "/a.b/c"           | ["a", "b", "c"]
+        "/a/b-c/d_e"       | ["a", "b-c", "d_e"]
+        "/a/1.5/01"        | ["a", "1", "5", "01"]
+        "/a/-1/1e5"        | ["a", "-1", "1e5"]
+        "/app/db/password" | ["app", "db", "password"]
+    }
+
+    def "toPath('#name') should throw bad path exception"() {
+        when:
+        SsmConfigTreeBuilder.toPath(name)
+
+        then:
+        thrown(ConfigException.BadPath)
+
+        where:
+        name << ["", "/", "/a//b", "/a/b/", "/a..b"]
+    }
+
+    def "should produce the same config as withValue() fold"() {
+        given:
+        def params = [
+            param("/app/db/url", "jdbc:foo"),
+            param("/app/db/password", "secret", ParameterType.SecureString),
+            param("/app/hosts", "a,b,c", ParameterType.StringList),
+            param("/app/a.b/c", "dotted"),
+            param("/app/db/url", "jdbc:bar"),              // later parameter replaces value
+            param("/app/leaf", "leaf"),
+            param("/app/leaf/child", "child"),             // object replaces value
+            param("/app/obj/x", "x"),
+            param("/app/obj", "obj"),                      // value replaces object
+            param("/app/obj/y/z", "z"),                    // and object replaces value again
+            param("/other/1.5", "number-like"),
+        ]
+
+        when:
+        def config = SsmConfigTreeBuilder.toConfig(params)
+        def expected = foldConfig(params)
+
+        then:
+        config == expected
+        config.getString("app.db.url") == "jdbc:bar"
+        config.getStringList("app.hosts") == ["a", "b", "c"]
+        config.getString("app.leaf.child") == "child"
+        config.getString("app.obj.y.z") == "z"
+        !config.hasPath("app.obj.x")
+        origins(config.root()) == origins(expected.root())
+    }
+
+    def "should return empty config for empty collection"() {
+        expect:
+        SsmConfigTreeBuilder.toConfig([]) == ConfigFactory.empty()
+    }
+
+    // benchmark is run only if jvm is invoked with -Dbenchmark
+    @Requires({ sys.benchmark })
+    def "benchmark: tree builder vs withValue() fold"() {
+        expect:
+        [1_000, 5_000, 20_000].each { numParams ->
+            def params = createParams(numParams)
+            benchmark("tree builder, ${numParams} params") { SsmConfigTreeBuilder.toConfig(params) }
+            benchmark("withValue() fold, ${numParams} params") { foldConfig(params) }
+        }
+    }
+
+    boolean benchmark(String name, Closure closure) {
+        def warmup = 5
+        def iterations = 10
+        warmup.times { closure.call() }
+
+        def start = System.nanoTime()
+        iterations.times { closure.call() }
+        def avgMillis = (System.nanoTime() - start) / iterations / 1_000_000D
+        log.info("{}: {} msec/op", name, String.format("%.3f", avgMillis))
+        true
+    }
+
+    /**
+     * Reference implementation: folds parameters into config one {@code withValue()} call at a time.
+     */
+    static Config foldConfig(Collection<Parameter> params) {
+        params.inject(ConfigFactory.empty()) { Config cfg, Parameter p ->
+            cfg.withValue(p.getName().replace('/', '.').replaceAll('^\\.*', ''), SsmFacade.toConfigValue(p))
+        }
+    }
+
+    static Map<String, String> origins(ConfigValue value, String path = "") {
+        def result = [(path): value.origin().description()]
+        if (value instanceof ConfigObject) {
+            value.each { k, v -> result.putAll(origins(v, path + "/" + k)) }
+        }
+        result
+    }
+
+    static List<Parameter> createParams(int numParams) {
+        (0..<numParams).collect {
+            param("/app/section${it % 100}/group${it % 7}/key${it}", "value-${it}".toString())
+        }
+    }
+
+    static Parameter param(String name, String value, ParameterType type = ParameterType.String) {
+        new Parameter().withName(name)
+                       .withValue(value)
+                       .withType(type)
+                       .withVersion(1)
+                       .withLastModifiedDate(new Date(1000))
+                       .withARN("arn:aws:ssm:us-east-1:123456789012:parameter" + name)
+    }
+}
@@ -17,7 +17,12 @@
 
 package com.github.tsc4j.aws.sdk1
 
+import com.amazonaws.AmazonServiceException
 import com.amazonaws.services.simplesystemsmanagement.AWSSimpleSystemsManagement
+import com.amazonaws.services.simplesystemsmanagement.model.GetParametersRequest
+import com.amazonaws.services.simplesystemsmanagement.model.GetParametersResult
+import com.amazonaws.services.simplesystemsmanagement.model.Parameter
+import com.github.tsc4j.core.ApiCallLimiter
 import com.github.tsc4j.core.Tsc4jException
 import spock.lang.AutoCleanup
 import spock.lang.IgnoreIf
@@ -80,4 +85,61 @@ class SsmFacadeSpec extends Specification {
             { SsmFacade it -> it.list() }
         ]
     }
+
+    def "should retry throttled requests and adapt request concurrency"() {
+        given:
+        def ssm = Mock(AWSSimpleSystemsManagement)
+        def facade = new SsmFacade(ssm, "foo.bar", true, false)
+
+        when:
+        def result = facade.fetch(["/a"])
+
+        then:
+        2 * ssm.getParameters(_) >> { throw throttlingException() }
+        1 * ssm.getParameters(_) >> new GetParametersResult().withParameters(new Parameter().withName("/a"))
+
+        result*.getName() == ["/a"]
+        facade.getLimiter().getThrottledCalls() == 2
+        facade.getLimiter().getInFlight() == 0
+    }
+
+    def "should give up after max throttled attempts"() {
+        given:
+        def ssm = Mock(AWSSimpleSystemsManagement)
+        def facade = new SsmFacade(ssm, "foo.bar", true, false)
+
+        when:
+        facade.execute({ ssm.getParameters(new GetParametersRequest()) })
+
+        then:
+        ApiCallLimiter.DEFAULT_MAX_THROTTLED_ATTEMPTS * ssm.getParameters(_) >> { throw throttlingException() }
+
+        def thrown = thrown(AmazonServiceException)
+        thrown.getErrorCode() == "ThrottlingException"
+    }
+
+    def "should not retry non-throttling errors"() {
+        given:
+        def ssm = Mock(AWSSimpleSystemsManagement)
+        def facade = new SsmFacade(ssm, "foo.bar", true, false)
+        def exception = new AmazonServiceException("denied")
+        exception.setErrorCode("AccessDeniedException")
+
+        when:
+        facade.execute({ ssm.getParameters(new GetParametersRequest()) })
+
+        then:
+        1 * ssm.getParameters(_) >> { throw exception }
+
+        def thrown = thrown(AmazonServiceException)
+        thrown.is(exception)
+        facade.getLimiter().getThrottledCalls() == 0
+    }
+
+    static AmazonServiceException throttlingException() {
+        def e = new AmazonServiceException("Rate exceeded")
+        e.setErrorCode("ThrottlingException")
+        e.setStatusCode(400)
+        e
+    }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.aws.sdk1
+
+import com.amazonaws.services.simplesystemsmanagement.AWSSimpleSystemsManagement
+import com.amazonaws.services.simplesystemsmanagement.model.DescribeParametersRequest
+import com.amazonaws.services.simplesystemsmanagement.model.DescribeParametersResult
+import com.amazonaws.services.simplesystemsmanagement.model.GetParametersRequest
+import com.amazonaws.services.simplesystemsmanagement.model.GetParametersResult
+import com.amazonaws.services.simplesystemsmanagement.model.Parameter
+import com.amazonaws.services.simplesystemsmanagement.model.ParameterMetadata
+import spock.lang.Specification
+
+class SsmParameterSyncSpec extends Specification {
+    def ssm = Mock(AWSSimpleSystemsManagement)
+    def facade = new SsmFacade(ssm, "test", true, false)
+    def sync = new SsmParameterSync(facade)
+
+    def "should fetch only new and changed parameters"() {
+        given:
+        def store = [
+            "/a/x": param("/a/x", "x1", 1),
+            "/a/y": param("/a/y", "y1", 1),
+            "/b/z": param("/b/z", "z1", 1),
+        ]
+        def fetchedNames = []
+        ssm.describeParameters(_) >> { DescribeParametersRequest req -> describe(store, req) }
+        ssm.getParameters(_) >> { GetParametersRequest req ->
+            fetchedNames.addAll(req.getNames())
+            new GetParametersResult().withParameters(req.getNames().collect { store[it] }.findAll { it })
+        }
+
+        when: "parameters are synced for the first time"
+        def result = sync.sync(["/a", "/b"])
+
+        then:
+        result*.getValue() == ["x1", "y1", "z1"]
+        fetchedNames.sort() == ["/a/x", "/a/y", "/b/z"]
+
+        when: "nothing changes"
+        fetchedNames.clear()
+        result = sync.sync(["/a", "/b"])
+
+        then:
+        result*.getValue() == ["x1", "y1", "z1"]
+        fetchedNames.isEmpty()
+
+        when: "one parameter is updated, one is added and one removed"
+        fetchedNames.clear()
+        store["/a/y"] = param("/a/y", "y2", 2)
+        store["/a/w"] = param("/a/w", "w1", 1)
+        store.remove("/b/z")
+        result = sync.sync(["/a", "/b"])
+
+        then:
+        result*.getValue() == ["w1", "x1", "y2"]
+        fetchedNames.sort() == ["/a/w", "/a/y"]
+        sync.size() == 3
+    }
+
+    def "should list parameters using recursive path filter"() {
+        given:
+        def requests = []
+
+        when:
+        def result = sync.sync(["/a", "/a"])
+
+        then:
+        1 * ssm.describeParameters(_) >> { DescribeParametersRequest req ->
+            requests << req
+            new DescribeParametersResult().withParameters([])
+        }
+        0 * ssm.getParameters(_)
+
+        result.isEmpty()
+        requests.size() == 1
+        with(requests[0].getParameterFilters()[0]) {
+            getKey() == "Path"
+            getOption() == "Recursive"
+            getValues() == ["/a"]
+        }
+    }
+
+    def "should follow describe parameters pagination"() {
+        given:
+        def page1 = new DescribeParametersResult().withParameters(meta(param("/a/1", "1", 1))).withNextToken("next")
+        def page2 = new DescribeParametersResult().withParameters(meta(param("/a/2", "2", 1)))
+
+        when:
+        def result = sync.sync(["/a"])
+
+        then:
+        1 * ssm.describeParameters({ it.getNextToken() == null }) >> page1
+        1 * ssm.describeParameters({ it.getNextToken() == "next" }) >> page2
+        1 * ssm.getParameters(_) >> new GetParametersResult().withParameters(param("/a/1", "1", 1), param("/a/2", "2", 1))
+
+        result*.getName() == ["/a/1", "/a/2"]
+    }
+
+    static Parameter param(String name, String value, long version) {
+        new Parameter().withName(name)
+                       .withValue(value)
+                       .withType("String")
+                       .withVersion(version)
+                       .withLastModifiedDate(new Date(version * 1000))
+    }
+
+    static ParameterMetadata meta(Parameter p) {
+        new ParameterMetadata().withName(p.getName())
+                               .withVersion(p.getVersion())
+                               .withLastModifiedDate(p.getLastModifiedDate())
+    }
+
+    static DescribeParametersResult describe(Map<String, Parameter> store, DescribeParametersRequest req) {
+        def path = req.getParameterFilters()[0].getValues()[0]
+        def params = store.values().findAll { it.getName().startsWith(path + "/") }
+        new DescribeParametersResult().withParameters(params.collect { meta(it) })
+    }
+}
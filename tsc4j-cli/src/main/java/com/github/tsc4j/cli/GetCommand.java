@@ -16,11 +16,20 @@
 
 package com.github.tsc4j.cli;
 
+import com.github.tsc4j.core.Tsc4j;
+import com.github.tsc4j.core.Tsc4jImplUtils;
+import com.github.tsc4j.core.impl.ConfigCodec;
+import com.typesafe.config.Config;
+import lombok.NonNull;
+import lombok.SneakyThrows;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Option;
 
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
 /**
  * CLI command that allows retrieval of config values.
  */
@@ -35,6 +44,10 @@ public final class GetCommand extends ConfigQueryCommand {
     @Option(names = {"-a", "--app"}, description = "application name", required = true)
     private String appName = null;
 
+    @Option(names = {"-b", "--binary-output"},
+        description = "write resolved configuration in tsc4j binary format to specified file instead of rendering it")
+    private String binaryOutput = null;
+
     @Override
     protected boolean isQuiet() {
         return super.isQuiet();
@@ -45,10 +58,21 @@ public final class GetCommand extends ConfigQueryCommand {
         val configSource = configSource();
         val query = configQuery(appName);
         val config = configSource.get(query);
-        getStdout().println(renderConfig(config));
+        if (Tsc4jImplUtils.optString(binaryOutput).isPresent()) {
+            writeBinary(config, binaryOutput);
+        } else {
+            getStdout().println(renderConfig(config));
+        }
         return 0;
     }
 
+    @SneakyThrows
+    private void writeBinary(@NonNull Config config, @NonNull String file) {
+        val data = ConfigCodec.encode(Tsc4j.resolveConfig(config));
+        Files.write(Paths.get(file), data);
+        log.debug("wrote {} bytes of binary encoded configuration to: {}", data.length, file);
+    }
+
     @Override
     protected int verbosityLevel() {
         return super.verbosityLevel() + 1;
@@ -50,6 +50,10 @@ public final class WatchCommand extends ConfigQueryCommand {
     @Option(names = {"-r", "--refresh-interval"}, description = "configuration refresh interval (default: \"${DEFAULT-VALUE}\")")
     private String refreshDuration = "10s";
 
+    @Option(names = {"-s", "--shared-config-file"},
+        description = "publish fetched configuration to host-local shared config file for other JVMs")
+    private String sharedConfigFile = null;
+
     @CommandLine.Parameters(description = "config paths to watch")
     List<String> watchPaths = new ArrayList<>();
 
@@ -93,11 +97,14 @@ public final class WatchCommand extends ConfigQueryCommand {
         val cfg = ConfigFactory.parseMap(Collections.singletonMap(name, refreshDuration));
         val duration = cfg.getDuration(name);
 
-        return super.getConfig()
+        val builder = super.getConfig()
             .toBuilder()
             .refreshInterval(duration)
-            .refreshIntervalJitterPct(0)
-            .build();
+            .refreshIntervalJitterPct(0);
+        if (sharedConfigFile != null) {
+            builder.sharedConfigFile(sharedConfigFile).sharedConfigWriter(true);
+        }
+        return builder.build();
     }
 
     private Reloadable<ConfigValue> watchPath(@NonNull ReloadableConfig rc, @NonNull String path) {
@@ -16,9 +16,9 @@
 
 package com.github.tsc4j.core;
 
+import com.github.tsc4j.core.impl.ConfigMerger;
 import com.github.tsc4j.core.impl.Stopwatch;
 import com.typesafe.config.Config;
-import com.typesafe.config.ConfigFactory;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NonNull;
@@ -115,7 +115,7 @@ public abstract class AbstractConfigSource extends BaseInstance implements Confi
         val config = fetchConfigs(query).stream()
             .filter(Objects::nonNull)
             .filter(e -> !e.isEmpty())
-            .reduce(ConfigFactory.empty(), (previous, current) -> current.withFallback(previous));
+            .collect(ConfigMerger.toMergedConfig());
         log.debug("{} loaded configuration in {}", this, sw);
 
         return debugLoadedConfig("", config);
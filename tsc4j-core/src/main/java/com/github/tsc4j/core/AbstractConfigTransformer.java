@@ -17,10 +17,8 @@
 package com.github.tsc4j.core;
 
 import com.typesafe.config.Config;
-import com.typesafe.config.ConfigFactory;
 import com.typesafe.config.ConfigList;
 import com.typesafe.config.ConfigObject;
-import com.typesafe.config.ConfigUtil;
 import com.typesafe.config.ConfigValue;
 import com.typesafe.config.ConfigValueFactory;
 import lombok.AccessLevel;
@@ -28,12 +26,10 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.val;
 
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.Map;
-import java.util.Objects;
-import java.util.Optional;
 import java.util.function.BiConsumer;
-import java.util.stream.Collectors;
 
 import static com.typesafe.config.ConfigValueType.*;
 
@@ -87,23 +83,25 @@ public abstract class AbstractConfigTransformer<T> extends BaseInstance implemen
      */
     protected abstract T createTransformationContext(Config config);
 
+    /**
+     * Transforms given config in a single pass: config tree is walked once and only branches that contain transformed
+     * values are rebuilt, unchanged config values are retained by reference.
+     *
+     * @param config config to transform
+     * @return transformed config, {@code config} itself if transformation didn't change any value
+     */
     @Override
     public Config transform(@NonNull Config config) {
         val ctx = createTransformationContext(config);
         log.debug("{} created transformation context: {}", this, ctx);
-        return config.entrySet().stream()
-            .sorted(Comparator.comparing(Map.Entry::getKey))
-            .map(e -> toTransformedConfig(e, ctx))
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .reduce(ConfigFactory.empty(), (acc, current) -> current.withFallback(acc));
-    }
 
-    private Optional<Config> toTransformedConfig(@NonNull Map.Entry<String, ConfigValue> e, T ctx) {
-        val path = fixConfigPath(e.getKey());
-
-        return Optional.ofNullable(transformConfigValue(path, e.getValue(), ctx))
-            .map(x -> x.atPath(e.getKey()));
+        val root = config.root();
+        val result = transformObject("", root, ctx);
+        if (result == root) {
+            log.debug("{} transformation didn't change any config value.", this);
+            return config;
+        }
+        return ((ConfigObject) result).toConfig();
     }
 
     /**
@@ -112,7 +110,10 @@ public abstract class AbstractConfigTransformer<T> extends BaseInstance implemen
      *
      * @param path config path
      * @return fixed config path.
+     * @deprecated config paths passed to transformation methods are already unquoted, will be removed in future
+     *     release.
      */
+    @Deprecated
     protected String fixConfigPath(@NonNull String path) {
         val result = path.replace("\\\"", "").replace("\"", "");
         if (log.isDebugEnabled() && !result.equals(path)) {
@@ -141,10 +142,12 @@ public abstract class AbstractConfigTransformer<T> extends BaseInstance implemen
             result = transformNull(path, value, ctx);
         }
 
-        if (!value.equals(result)) {
-            log.trace("{} transformed config path {} from {} to {}", this, path, value, result);
-        } else {
-            log.trace("{} config path unchanged after transformation: {}", this, path);
+        if (log.isTraceEnabled()) {
+            if (result != value) {
+                log.trace("{} transformed config path {} from {} to {}", this, path, value, result);
+            } else {
+                log.trace("{} config path unchanged after transformation: {}", this, path);
+            }
         }
 
         return result;
@@ -160,13 +163,28 @@ public abstract class AbstractConfigTransformer<T> extends BaseInstance implemen
      * @see #createTransformationContext(Config)
      */
     protected ConfigValue transformObject(@NonNull String path, @NonNull ConfigObject object, T ctx) {
-        val empty = ConfigFactory.empty();
-        val result = object.entrySet().stream()
-            .sorted(Comparator.comparing(Map.Entry::getKey))
-            .map(e -> empty.withValue(e.getKey(), transformConfigValue(ConfigUtil.joinPath(path, e.getKey()), e.getValue(), ctx)))
-            .reduce(empty, (acc, current) -> current.withFallback(acc))
-            .root();
+        // entries are copied only after first changed value, so that unchanged objects are returned as-is
+        Map<String, ConfigValue> entries = null;
+        for (val e : object.entrySet()) {
+            val key = e.getKey();
+            val value = e.getValue();
+            val childPath = path.isEmpty() ? key : path + "." + key;
+            val transformed = transformConfigValue(childPath, value, ctx);
+            if (transformed != value && entries == null) {
+                entries = new LinkedHashMap<>(object);
+            }
+            if (transformed == null) {
+                entries.remove(key);
+            } else if (transformed != value) {
+                entries.put(key, transformed);
+            }
+        }
 
+        if (entries == null) {
+            return object;
+        }
+
+        val result = ConfigValueFactory.fromMap(entries, object.origin().description());
         log.trace("{} transformed config object path {} from {} to {}", this, path, object, result);
         return result;
     }
@@ -181,10 +199,20 @@ public abstract class AbstractConfigTransformer<T> extends BaseInstance implemen
      * @see #createTransformationContext(Config)
      */
     protected ConfigValue transformList(@NonNull String path, @NonNull ConfigList list, T ctx) {
-        val result = list.stream()
-            .map(e -> transformConfigValue(path, e, ctx))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
+        val result = new ArrayList<ConfigValue>(list.size());
+        boolean changed = false;
+        for (val element : list) {
+            val transformed = transformConfigValue(path, element, ctx);
+            changed |= (transformed != element);
+            if (transformed != null) {
+                result.add(transformed);
+            }
+        }
+
+        if (!changed) {
+            return list;
+        }
+
         log.trace("{} transformed config list at {} from {} to {}", this, path, list, result);
         return ConfigValueFactory.fromIterable(result);
     }
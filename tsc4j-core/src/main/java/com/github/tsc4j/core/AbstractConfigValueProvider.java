@@ -22,15 +22,33 @@ import lombok.Getter;
 import lombok.NonNull;
 import lombok.val;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Base class for writing {@link ConfigValueProvider} implementations.
+ * <p>
+ * Value names requested via {@link #get(Collection)} are de-duplicated, split into batches of at most
+ * {@link #maxBatchSize()} names and fetched by at most {@link #maxConcurrency()} concurrent {@link #doGet(List)}
+ * invocations. Concurrent lookups of the same name are coalesced: only one of the callers fetches the value while
+ * others wait for the result.
  */
 public abstract class AbstractConfigValueProvider extends BaseInstance implements ConfigValueProvider {
+    /**
+     * Default max number of concurrent {@link #doGet(List)} invocations for parallel providers.
+     */
+    protected static final int DEFAULT_MAX_CONCURRENCY = 4;
+
     /**
      * Tells whether this provider may execute parallel operations.
      */
@@ -38,6 +56,12 @@ public abstract class AbstractConfigValueProvider extends BaseInstance implement
     private final boolean parallel;
 
     private final boolean allowMissing;
+    private final int maxConcurrency;
+
+    /**
+     * Lookups that are currently in progress.
+     */
+    private final Map<String, CompletableFuture<ConfigValue>> inFlight = new ConcurrentHashMap<>();
 
     /**
      * Creates instance.
@@ -49,9 +73,29 @@ public abstract class AbstractConfigValueProvider extends BaseInstance implement
      * @see #allowMissing()
      */
     protected AbstractConfigValueProvider(String name, boolean allowMissing, boolean parallel) {
+        this(name, allowMissing, parallel, DEFAULT_MAX_CONCURRENCY);
+    }
+
+    /**
+     * Creates instance.
+     *
+     * @param name           instance name
+     * @param allowMissing   whether missing names should be tolerated
+     * @param parallel       execute operations in parallel?
+     * @param maxConcurrency max number of concurrent batch fetches if {@code parallel} is enabled
+     * @throws IllegalArgumentException if {@code maxConcurrency} is less than 1
+     * @see #isParallel()
+     * @see #allowMissing()
+     * @see #maxConcurrency()
+     */
+    protected AbstractConfigValueProvider(String name, boolean allowMissing, boolean parallel, int maxConcurrency) {
         super(name);
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("Max concurrency must be >= 1: " + maxConcurrency);
+        }
         this.allowMissing = allowMissing;
         this.parallel = parallel;
+        this.maxConcurrency = maxConcurrency;
     }
 
     @Override
@@ -67,13 +111,128 @@ public abstract class AbstractConfigValueProvider extends BaseInstance implement
             return Collections.emptyMap();
         }
 
-        return doGet(uniqNames);
+        // register lookups; names already being fetched by other callers are just awaited
+        val futures = new LinkedHashMap<String, CompletableFuture<ConfigValue>>();
+        val owned = new ArrayList<String>();
+        for (val name : uniqNames) {
+            val future = new CompletableFuture<ConfigValue>();
+            val existing = inFlight.putIfAbsent(name, future);
+            if (existing == null) {
+                owned.add(name);
+                futures.put(name, future);
+            } else {
+                futures.put(name, existing);
+            }
+        }
+
+        if (owned.size() < uniqNames.size()) {
+            log.debug("{} coalesced {} of {} value lookup(s) with in-flight lookups.",
+                this, uniqNames.size() - owned.size(), uniqNames.size());
+        }
+        if (!owned.isEmpty()) {
+            fetchBatches(owned, futures);
+        }
+
+        val result = new LinkedHashMap<String, ConfigValue>();
+        futures.forEach((name, future) -> {
+            val value = awaitValue(future);
+            if (value != null) {
+                result.put(name, value);
+            }
+        });
+        return result;
+    }
+
+    private ConfigValue awaitValue(CompletableFuture<ConfigValue> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw Tsc4jImplUtils.toRuntimeException(e.getCause() == null ? e : e.getCause());
+        }
+    }
+
+    /**
+     * Fetches given names in batches and completes their futures.
+     *
+     * @param names   names owned by the current caller
+     * @param futures name futures
+     */
+    private void fetchBatches(List<String> names, Map<String, CompletableFuture<ConfigValue>> futures) {
+        val batches = Tsc4jImplUtils.partitionList(names, Math.max(1, maxBatchSize()));
+        val queue = new ConcurrentLinkedQueue<List<String>>(batches);
+        val numWorkers = Math.min(batches.size(), isParallel() ? maxConcurrency() : 1);
+        log.debug("{} fetching {} value(s) in {} batch(es) using {} worker(s).",
+            this, names.size(), batches.size(), numWorkers);
+
+        val workers = new ArrayList<Callable<Boolean>>(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            workers.add(() -> drainBatches(queue, futures));
+        }
+
+        try {
+            runTasks(workers, numWorkers > 1);
+        } finally {
+            // never leave futures of owned names incomplete, otherwise concurrent callers would wait forever
+            names.stream()
+                .filter(name -> !futures.get(name).isDone())
+                .forEach(name -> complete(name, futures.get(name), null,
+                    new IllegalStateException("Value lookup was not completed: " + name)));
+        }
+    }
+
+    private boolean drainBatches(Queue<List<String>> queue, Map<String, CompletableFuture<ConfigValue>> futures) {
+        List<String> batch;
+        while ((batch = queue.poll()) != null) {
+            fetchBatch(batch, futures);
+        }
+        return true;
+    }
+
+    private void fetchBatch(List<String> batch, Map<String, CompletableFuture<ConfigValue>> futures) {
+        try {
+            val values = doGet(batch);
+            batch.forEach(name -> complete(name, futures.get(name), values.get(name), null));
+        } catch (Throwable t) {
+            batch.forEach(name -> complete(name, futures.get(name), null, t));
+        }
+    }
+
+    private void complete(String name, CompletableFuture<ConfigValue> future, ConfigValue value, Throwable error) {
+        if (error == null) {
+            future.complete(value);
+        } else {
+            future.completeExceptionally(error);
+        }
+        inFlight.remove(name, future);
+    }
+
+    /**
+     * Returns max number of value names passed to a single {@link #doGet(List)} invocation.
+     *
+     * @return max batch size, by default unlimited.
+     */
+    protected int maxBatchSize() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Returns max number of concurrent {@link #doGet(List)} invocations of a single {@link #get(Collection)} call,
+     * used only if this provider is parallel.
+     *
+     * @return max concurrency
+     * @see #isParallel()
+     */
+    protected int maxConcurrency() {
+        return maxConcurrency;
     }
 
     /**
      * Implementation-specific method for obtaining values.
+     * <p>
+     * <b>NOTE:</b> this method may be invoked concurrently if this provider is parallel.
      *
-     * @param names non-empty list of value names to fetch data from
+     * @param names non-empty list of value names to fetch data from, containing at most {@link #maxBatchSize()}
+     *              elements
      * @return map of {@code name -> value} pairs
      */
     protected abstract Map<String, ConfigValue> doGet(@NonNull List<String> names);
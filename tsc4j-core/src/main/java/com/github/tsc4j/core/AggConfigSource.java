@@ -16,6 +16,7 @@
 
 package com.github.tsc4j.core;
 
+import com.github.tsc4j.core.impl.ConfigMerger;
 import com.github.tsc4j.core.impl.Stopwatch;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
@@ -30,8 +31,15 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
 import java.io.Closeable;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RunnableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
@@ -48,6 +56,9 @@ import java.util.stream.Collectors;
  * <p>
  * Configurations are resolved in the same order, where each following {@link Config} instance overrides/adds values
  * of previous one.
+ * <p>
+ * If {@link #isParallel()} is enabled, configurations from {@link #getSources()} are fetched concurrently, each one
+ * bound by {@link #getSourceTimeout()}, but they're still merged in declared order.
  */
 @Slf4j
 @Value
@@ -83,6 +94,36 @@ public final class AggConfigSource extends CloseableInstance implements ConfigSo
     @Singular("source")
     List<ConfigSource> sources;
 
+    /**
+     * Resolve fetched configuration? (default: true) Unresolved configuration is returned as-is, so that it can be
+     * resolved later against another fallback configuration.
+     *
+     * @see Config#resolve()
+     */
+    @Builder.Default
+    boolean resolve = true;
+
+    /**
+     * Fetch configurations from {@link #getSources()} concurrently? (default: false)
+     */
+    @Builder.Default
+    boolean parallel = false;
+
+    /**
+     * Maximum duration of a single config source fetch when {@link #isParallel()} is enabled (default: 60 seconds).
+     */
+    @NonNull
+    @Builder.Default
+    Duration sourceTimeout = Duration.ofSeconds(Tsc4jImplUtils.DEFAULT_TIMEOUT);
+
+    /**
+     * Executor service used for parallel fetches, default tsc4j executor is used if null.
+     *
+     * @see Tsc4jImplUtils#defaultExecutor()
+     */
+    @Getter(AccessLevel.PROTECTED)
+    ExecutorService executor;
+
     @Override
     public boolean allowErrors() {
         return false;
@@ -90,7 +131,7 @@ public final class AggConfigSource extends CloseableInstance implements ConfigSo
 
     /**
      * Fetches and merges configurations from all encapsulated configuration suppliers and returns merged and resolved
-     * configuration.
+     * configuration; configuration is not resolved if {@link #isResolve()} is disabled.
      *
      * @param query config query
      * @return configuration
@@ -116,13 +157,33 @@ public final class AggConfigSource extends CloseableInstance implements ConfigSo
         }
     }
 
+    /**
+     * Registers change listener to all encapsulated config sources.
+     *
+     * @param query    configuration query
+     * @param listener change listener
+     * @return true if at least one of encapsulated config sources is able to deliver change notifications
+     */
+    @Override
+    public boolean watch(@NonNull ConfigQuery query, @NonNull Runnable listener) {
+        checkClosed();
+
+        boolean result = false;
+        for (val source : sources) {
+            if (source.watch(query, listener)) {
+                log.debug("{} watching config source for changes: {}", this, source);
+                result = true;
+            }
+        }
+        return result;
+    }
+
     private Config doGet(@NonNull ConfigQuery query) {
         // fetch override config
         val overrideConfig = fetchConfig(overrideSupplier).orElse(ConfigFactory.empty());
 
         // fetch configs from all normal config sources and merge them in one
-        val mergedConfig = fetchConfigs(query).stream()
-            .reduce(ConfigFactory.empty(), (previous, current) -> current.withFallback(previous));
+        val mergedConfig = ConfigMerger.merge(fetchConfigs(query));
 
         // fetch fallback config and merge it with current config
         val configWithFallback = fetchConfig(fallbackSupplier)
@@ -135,6 +196,9 @@ public final class AggConfigSource extends CloseableInstance implements ConfigSo
         // apply override config
         val finalConfig = overrideConfig.withFallback(configWithFallback);
         log.trace("config before resolving (resolved: {}): {}", finalConfig.isResolved(), finalConfig);
+        if (!resolve) {
+            return finalConfig;
+        }
 
         // moment of truth, resolve configuration
         val resolvedConfig = finalConfig.resolve();
@@ -156,11 +220,13 @@ public final class AggConfigSource extends CloseableInstance implements ConfigSo
      * @see ConfigSource#allowErrors()
      */
     protected List<Config> fetchConfigs(@NonNull ConfigQuery query) {
-        val list = sources.stream()
-            .map(source -> fetchConfig(source, query))
+        val sw = new Stopwatch();
+        val results = (parallel && sources.size() > 1) ? fetchConfigsParallel(query) : fetchConfigsSequential(query);
+        val list = results.stream()
             .filter(Optional::isPresent)
             .map(Optional::get)
             .collect(Collectors.toList());
+        log.debug("{} fetched configs from {} source(s) in {} (parallel: {})", this, sources.size(), sw, parallel);
 
         if (log.isDebugEnabled()) {
             log.debug("fetched {} config(s).", list.size());
@@ -174,6 +240,67 @@ public final class AggConfigSource extends CloseableInstance implements ConfigSo
         return list;
     }
 
+    private List<Optional<Config>> fetchConfigsSequential(ConfigQuery query) {
+        return sources.stream()
+            .map(source -> timedFetchConfig(source, query))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Fetches configs from all config sources concurrently; each fetch is bound by {@link #getSourceTimeout()}.
+     *
+     * @param query config query
+     * @return list of fetch results in the same order as {@link #getSources()}
+     * @throws RuntimeException when any config source that doesn't allow fetching errors throws or times out.
+     */
+    private List<Optional<Config>> fetchConfigsParallel(ConfigQuery query) {
+        val executorService = Optional.ofNullable(executor).orElseGet(Tsc4jImplUtils::defaultExecutor);
+        val futures = new ArrayList<RunnableFuture<Optional<Config>>>(sources.size());
+        try {
+            sources.forEach(source ->
+                futures.add(Tsc4jImplUtils.submitTask(executorService, () -> timedFetchConfig(source, query))));
+
+            // deadline is computed per source from the moment all fetches were submitted
+            val submitted = System.nanoTime();
+            val result = new ArrayList<Optional<Config>>(sources.size());
+            for (int i = 0; i < sources.size(); i++) {
+                val remaining = sourceTimeout.toNanos() - (System.nanoTime() - submitted);
+                result.add(awaitFetch(sources.get(i), futures.get(i), remaining));
+            }
+            return result;
+        } finally {
+            futures.forEach(f -> f.cancel(true));
+        }
+    }
+
+    private Optional<Config> awaitFetch(ConfigSource source,
+                                        RunnableFuture<Optional<Config>> future,
+                                        long timeoutNanos) {
+        try {
+            return Tsc4jImplUtils.awaitTask(future, Math.max(0, timeoutNanos), TimeUnit.NANOSECONDS);
+        } catch (ExecutionException e) {
+            throw Tsc4jImplUtils.toRuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw Tsc4jException.of("Interrupted while fetching config from %s", e, source);
+        } catch (TimeoutException e) {
+            if (source.allowErrors()) {
+                log.warn("{} config source {} didn't return config in {}, ignoring.", this, source, sourceTimeout);
+                return Optional.empty();
+            }
+            throw Tsc4jException.of("Config source %s didn't return config in %s.", e, source, sourceTimeout);
+        }
+    }
+
+    private Optional<Config> timedFetchConfig(ConfigSource source, ConfigQuery query) {
+        val sw = new Stopwatch();
+        try {
+            return fetchConfig(source, query);
+        } finally {
+            log.debug("{} config fetch from {} took {}", this, source, sw);
+        }
+    }
+
     /**
      * Fetches configuration from single config supplier.
      *
@@ -0,0 +1,405 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Clock;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Client-side limiter of remote API calls that keeps call rate below service quota regardless of number of threads
+ * issuing calls.
+ * <p>
+ * Limiter combines:
+ * <ul>
+ * <li>token bucket that limits call rate to {@code maxRate} calls per second with bursts of up to one second worth
+ * of calls,</li>
+ * <li>AIMD concurrency limit: number of concurrent calls is halved when call is throttled by the service and
+ * increased by one after every limit's worth of successful calls, up to {@code maxConcurrency},</li>
+ * <li>throttling backoff: all calls are paused for exponentially increasing time when the service starts throttling;
+ * throttled calls are retried up to {@code maxThrottledAttempts} times.</li>
+ * </ul>
+ * Limiters for the same service should be shared by all config sources and value providers in the JVM, see
+ * {@link #shared(String, double, int, Predicate)}.
+ * <p>
+ * This class is thread-safe.
+ */
+@Slf4j
+public final class ApiCallLimiter {
+    /**
+     * Default maximum number of attempts of a throttled call.
+     */
+    static final int DEFAULT_MAX_THROTTLED_ATTEMPTS = 5;
+
+    /**
+     * Call pause after first throttled call; pause is doubled on every subsequent throttling.
+     */
+    private static final long MIN_BACKOFF_MILLIS = 50;
+
+    /**
+     * Maximum call pause after throttled call.
+     */
+    private static final long MAX_BACKOFF_MILLIS = 5_000;
+    private static final int MAX_BACKOFF_SHIFT = 7;
+
+    /**
+     * Maximum depth of exception cause chain inspected by throttling classifier.
+     */
+    private static final int MAX_CAUSE_DEPTH = 5;
+
+    private static final Map<String, ApiCallLimiter> SHARED = new ConcurrentHashMap<>();
+
+    private final String name;
+    private final Predicate<Throwable> throttlingClassifier;
+    private final int maxThrottledAttempts;
+    private final Clock clock;
+    private final AtomicLong throttledCalls = new AtomicLong();
+
+    // fields below are guarded by lock
+    private final Object lock = new Object();
+    private double maxRate;
+    private int maxConcurrency;
+    private double tokens;
+    private long lastRefillAt = 0;
+    private double concurrencyLimit;
+    private int inFlight = 0;
+    private int consecutiveThrottles = 0;
+    private long pausedUntil = 0;
+
+    /**
+     * Creates new instance.
+     *
+     * @param name                 limiter name
+     * @param maxRate              maximum number of calls per second, unlimited if null or {@code <= 0}
+     * @param maxConcurrency       maximum number of concurrent calls, unlimited if null or {@code <= 0}
+     * @param maxThrottledAttempts maximum number of attempts of a throttled call, 5 if null
+     * @param throttlingClassifier predicate that tells whether exception means that call was throttled by the
+     *                             service; no call is considered throttled if null
+     * @param clock                clock, system UTC clock if null
+     * @throws IllegalArgumentException in case of invalid arguments
+     */
+    @Builder
+    private ApiCallLimiter(@NonNull String name,
+                           Double maxRate,
+                           Integer maxConcurrency,
+                           Integer maxThrottledAttempts,
+                           Predicate<Throwable> throttlingClassifier,
+                           Clock clock) {
+        this.name = name;
+        this.throttlingClassifier = Optional.ofNullable(throttlingClassifier).orElse(e -> false);
+        this.maxThrottledAttempts = Optional.ofNullable(maxThrottledAttempts).orElse(DEFAULT_MAX_THROTTLED_ATTEMPTS);
+        this.clock = Optional.ofNullable(clock).orElseGet(Clock::systemUTC);
+        if (this.maxThrottledAttempts < 1) {
+            throw new IllegalArgumentException("Max throttled attempts must be positive: " + maxThrottledAttempts);
+        }
+
+        this.concurrencyLimit = Double.POSITIVE_INFINITY;
+        reconfigure(Optional.ofNullable(maxRate).orElse(0D), Optional.ofNullable(maxConcurrency).orElse(0));
+    }
+
+    /**
+     * Returns limiter shared by all callers in the JVM that use the same name, creating it if necessary.
+     * If limiter already exists, limits are merged so that the strictest limit set by any caller applies; callers
+     * that don't set a limit never remove limit set by another caller.
+     *
+     * @param name                 limiter name, usually name of the service with region
+     * @param maxRate              maximum number of calls per second, unlimited if {@code <= 0}
+     * @param maxConcurrency       maximum number of concurrent calls, unlimited if {@code <= 0}
+     * @param throttlingClassifier predicate that tells whether exception means that call was throttled by the
+     *                             service; used only when limiter is created
+     * @return shared limiter
+     */
+    public static ApiCallLimiter shared(@NonNull String name,
+                                        double maxRate,
+                                        int maxConcurrency,
+                                        @NonNull Predicate<Throwable> throttlingClassifier) {
+        val limiter = SHARED.computeIfAbsent(name, it -> builder()
+            .name(it)
+            .maxRate(maxRate)
+            .maxConcurrency(maxConcurrency)
+            .throttlingClassifier(throttlingClassifier)
+            .build());
+        synchronized (limiter.lock) {
+            limiter.reconfigure(strictest(limiter.maxRate, maxRate),
+                (int) strictest(limiter.maxConcurrency, maxConcurrency));
+        }
+        return limiter;
+    }
+
+    /**
+     * Returns stricter of given limits, where limits {@code <= 0} mean unlimited.
+     *
+     * @param a limit
+     * @param b limit
+     * @return stricter limit, 0 if both limits are unlimited
+     */
+    private static double strictest(double a, double b) {
+        if (a <= 0) {
+            return Math.max(0, b);
+        } else if (b <= 0) {
+            return a;
+        }
+        return Math.min(a, b);
+    }
+
+    /**
+     * Changes limits of this limiter; current concurrency limit is lowered if it exceeds new maximum, otherwise it
+     * grows towards it as calls succeed.
+     *
+     * @param maxRate        maximum number of calls per second, unlimited if {@code <= 0}
+     * @param maxConcurrency maximum number of concurrent calls, unlimited if {@code <= 0}
+     * @return reference to itself
+     */
+    public ApiCallLimiter reconfigure(double maxRate, int maxConcurrency) {
+        synchronized (lock) {
+            if (this.maxRate == Math.max(0, maxRate) && this.maxConcurrency == Math.max(0, maxConcurrency)) {
+                return this;
+            }
+
+            this.maxRate = Math.max(0, maxRate);
+            this.maxConcurrency = Math.max(0, maxConcurrency);
+            this.tokens = Math.min(tokens, burst());
+            this.concurrencyLimit = Math.min(concurrencyLimit, concurrencyCeiling());
+            lock.notifyAll();
+        }
+        log.debug("{} configured limits: max rate: {}/sec, max concurrency: {}", this, maxRate, maxConcurrency);
+        return this;
+    }
+
+    /**
+     * Returns limiter name.
+     *
+     * @return name
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns maximum number of calls per second.
+     *
+     * @return max call rate, 0 if unlimited
+     */
+    public double getMaxRate() {
+        synchronized (lock) {
+            return maxRate;
+        }
+    }
+
+    /**
+     * Returns maximum number of concurrent calls.
+     *
+     * @return max concurrency, 0 if unlimited
+     */
+    public int getMaxConcurrency() {
+        synchronized (lock) {
+            return maxConcurrency;
+        }
+    }
+
+    /**
+     * Returns current, throttling-adapted concurrency limit.
+     *
+     * @return concurrency limit, {@link Integer#MAX_VALUE} if unlimited
+     */
+    public int getConcurrencyLimit() {
+        synchronized (lock) {
+            return (int) Math.min(Integer.MAX_VALUE, concurrencyLimit);
+        }
+    }
+
+    /**
+     * Returns number of calls that are currently in flight.
+     *
+     * @return number of calls
+     */
+    public int getInFlight() {
+        synchronized (lock) {
+            return inFlight;
+        }
+    }
+
+    /**
+     * Returns total number of calls that were throttled by the service.
+     *
+     * @return number of throttled calls
+     */
+    public long getThrottledCalls() {
+        return throttledCalls.get();
+    }
+
+    /**
+     * Invokes given callable when limits allow it; callable is retried if it is throttled by the service.
+     *
+     * @param callable api call
+     * @param <T>      result type
+     * @return callable result
+     * @throws Exception exception thrown by the callable
+     */
+    public <T> T call(@NonNull Callable<T> callable) throws Exception {
+        for (int attempt = 1; ; attempt++) {
+            acquire();
+            boolean success = false;
+            boolean throttled = false;
+            try {
+                val result = callable.call();
+                success = true;
+                return result;
+            } catch (Exception e) {
+                throttled = isThrottled(e);
+                if (!throttled || attempt >= maxThrottledAttempts) {
+                    throw e;
+                }
+                log.debug("{} call throttled (attempt {}/{}): {}", this, attempt, maxThrottledAttempts, e.toString());
+            } finally {
+                release(success, throttled);
+            }
+        }
+    }
+
+    /**
+     * Invokes given supplier when limits allow it; supplier is retried if it is throttled by the service.
+     *
+     * @param supplier api call
+     * @param <T>      result type
+     * @return supplier result
+     * @throws RuntimeException exception thrown by the supplier
+     * @see #call(Callable)
+     */
+    public <T> T get(@NonNull Supplier<T> supplier) {
+        try {
+            return call(supplier::get);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            // supplier can't throw checked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private boolean isThrottled(Throwable e) {
+        Throwable cur = e;
+        for (int depth = 0; cur != null && depth < MAX_CAUSE_DEPTH; depth++) {
+            if (throttlingClassifier.test(cur)) {
+                return true;
+            }
+            cur = cur.getCause();
+        }
+        return false;
+    }
+
+    private void acquire() {
+        long waitMillis;
+        synchronized (lock) {
+            while (inFlight >= Math.max(1, (long) concurrencyLimit)) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException(this + " interrupted while waiting for call slot.", e);
+                }
+            }
+            inFlight++;
+
+            val now = clock.millis();
+            waitMillis = Math.max(0, pausedUntil - now);
+            if (maxRate > 0) {
+                refill(now);
+                tokens -= 1;
+                if (tokens < 0) {
+                    waitMillis = Math.max(waitMillis, (long) Math.ceil(-tokens * 1000 / maxRate));
+                }
+            }
+        }
+
+        if (waitMillis > 0) {
+            try {
+                Thread.sleep(waitMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                release(false, false);
+                throw new IllegalStateException(this + " interrupted while waiting for call slot.", e);
+            }
+        }
+    }
+
+    private void refill(long now) {
+        if (lastRefillAt == 0) {
+            tokens = burst();
+        } else if (now > lastRefillAt) {
+            tokens = Math.min(burst(), tokens + (now - lastRefillAt) * maxRate / 1000);
+        }
+        lastRefillAt = Math.max(lastRefillAt, now);
+    }
+
+    private void release(boolean success, boolean throttled) {
+        synchronized (lock) {
+            val callsInFlight = inFlight;
+            inFlight--;
+            if (success) {
+                consecutiveThrottles = 0;
+                if (concurrencyLimit < concurrencyCeiling()) {
+                    concurrencyLimit = Math.min(concurrencyCeiling(), concurrencyLimit + 1 / concurrencyLimit);
+                }
+            } else if (throttled) {
+                throttledCalls.incrementAndGet();
+                onThrottled(callsInFlight);
+            }
+            lock.notifyAll();
+        }
+    }
+
+    private void onThrottled(int callsInFlight) {
+        val now = clock.millis();
+        if (now < pausedUntil) {
+            // calls issued before the pause started; limits have already been lowered
+            return;
+        }
+
+        consecutiveThrottles++;
+        val backoff = Math.min(MAX_BACKOFF_MILLIS,
+            MIN_BACKOFF_MILLIS << Math.min(consecutiveThrottles - 1, MAX_BACKOFF_SHIFT));
+        pausedUntil = now + backoff;
+        tokens = Math.min(tokens, 0);
+        concurrencyLimit = Math.max(1, Math.min(concurrencyLimit, callsInFlight) / 2);
+        log.debug("{} service is throttling calls, pausing calls for {} msec, concurrency limit is now {}.",
+            this, backoff, (int) concurrencyLimit);
+    }
+
+    private double burst() {
+        return Math.max(1, maxRate);
+    }
+
+    private double concurrencyCeiling() {
+        return (maxConcurrency > 0) ? maxConcurrency : Double.POSITIVE_INFINITY;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + name + ")";
+    }
+}
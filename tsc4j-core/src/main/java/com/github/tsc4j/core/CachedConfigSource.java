@@ -63,6 +63,15 @@ public final class CachedConfigSource implements ConfigSource, WithCache<ConfigQ
             .orElseGet(() -> putToCache(query, delegate.get(query)));
     }
 
+    @Override
+    public boolean watch(@NonNull ConfigQuery query, @NonNull Runnable listener) {
+        // cached config is stale after change notification
+        return delegate.watch(query, () -> {
+            clear();
+            listener.run();
+        });
+    }
+
     /**
      * Clears the cache.
      *
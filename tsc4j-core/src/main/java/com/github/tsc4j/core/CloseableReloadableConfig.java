@@ -16,10 +16,15 @@
 
 package com.github.tsc4j.core;
 
+import com.github.tsc4j.api.ConfigSnapshot;
+import com.github.tsc4j.api.Reloadable;
 import com.github.tsc4j.api.ReloadableConfig;
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import lombok.NonNull;
 
 import java.io.Closeable;
+import java.util.Optional;
 import java.util.concurrent.CompletionStage;
 
 /**
@@ -33,6 +38,44 @@ public interface CloseableReloadableConfig extends ReloadableConfig, Closeable {
      */
     CompletionStage<Config> refresh();
 
+    /**
+     * Returns snapshot of most recent assigned configuration and values of all registered reloadables; the snapshot
+     * is replaced only after all reloadables have been updated with new configuration, so that all values read from
+     * it belong to the same configuration generation.
+     *
+     * <p>
+     * Default implementation returns snapshot of configuration returned by {@link #getSync()} that doesn't contain
+     * any reloadable values.
+     *
+     * @return current snapshot, empty snapshot if configuration hasn't been assigned yet.
+     * @see ConfigSnapshot#isPresent()
+     */
+    default ConfigSnapshot snapshot() {
+        final long generation = isPresent() ? 1 : 0;
+        final Config config = (generation > 0) ? getSync() : ConfigFactory.empty();
+        return new ConfigSnapshot() {
+            @Override
+            public long getGeneration() {
+                return generation;
+            }
+
+            @Override
+            public Config getConfig() {
+                return config;
+            }
+
+            @Override
+            public int size() {
+                return 0;
+            }
+
+            @Override
+            public <T> Optional<T> get(@NonNull Reloadable<T> reloadable) {
+                return Optional.empty();
+            }
+        };
+    }
+
     /**
      * Closes the instance, stops polling for configuration updates and releases any created resources.
      */
@@ -46,6 +46,23 @@ public interface ConfigSource extends Closeable {
      */
     Config get(@NonNull ConfigQuery query) throws RuntimeException;
 
+    /**
+     * Registers listener that gets invoked when this source detects that configuration for given query might have
+     * changed, allowing caller to refresh configuration immediately instead of waiting for the next periodic
+     * refresh. Listener may be invoked from any thread and should return quickly; it is registered for the lifetime
+     * of this source.
+     * <p>
+     * Default implementation doesn't support change notifications.
+     *
+     * @param query    configuration query
+     * @param listener change listener
+     * @return true if source is able to deliver change notifications, otherwise false.
+     * @throws NullPointerException in case of null arguments
+     */
+    default boolean watch(@NonNull ConfigQuery query, @NonNull Runnable listener) {
+        return false;
+    }
+
     /**
      * Closes instance and releases any held resources. All methods
      */
@@ -57,6 +57,11 @@ public final class ConfigSourceWithTransformer implements ConfigSource {
         return transformer.transform(config);
     }
 
+    @Override
+    public boolean watch(@NonNull ConfigQuery query, @NonNull Runnable listener) {
+        return source.watch(query, listener);
+    }
+
     @Override
     public void close() {
         Tsc4jImplUtils.close(source, log);
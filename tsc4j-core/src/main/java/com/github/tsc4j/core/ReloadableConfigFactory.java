@@ -16,8 +16,11 @@
 
 package com.github.tsc4j.core;
 
+import com.github.tsc4j.core.impl.ConfigSnapshotStore;
 import com.github.tsc4j.core.impl.ConfigSupplier;
 import com.github.tsc4j.core.impl.DefaultReloadableConfig;
+import com.github.tsc4j.core.impl.ParallelReloadableUpdateDispatcher;
+import com.github.tsc4j.core.impl.ReloadableUpdateDispatcher;
 import com.github.tsc4j.core.impl.Stopwatch;
 import com.typesafe.config.ConfigFactory;
 import lombok.Data;
@@ -26,6 +29,7 @@ import lombok.experimental.Accessors;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
+import java.nio.file.Paths;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
@@ -176,7 +180,7 @@ public class ReloadableConfigFactory {
 
         // init config source
         val srcTimer = new Stopwatch();
-        val source = Tsc4j.configSource(config, envs, ConfigFactory::empty, ConfigFactory::load);
+        val source = createConfigSource(config, envs);
         log.debug("created config source in {}", srcTimer);
 
         // create reloadable config
@@ -185,11 +189,74 @@ public class ReloadableConfigFactory {
             .configSupplier(configSupplier)
             .refreshInterval(config.getRefreshInterval())
             .refreshJitterPct(config.getRefreshIntervalJitterPct())
+            .refreshDebounce(config.getRefreshDebounce())
             .reverseUpdateOrder(config.isReverseUpdateOrder())
             .logFirstFetch(isVerboseInit())
+            .updateDispatcher(createUpdateDispatcher(config))
+            .snapshotStore(createSnapshotStore(config))
             .build();
 
         log.debug("created reloadable config in {}: {}", sw, rc);
         return rc;
     }
+
+    private ConfigSource createConfigSource(@NonNull Tsc4jConfig config, @NonNull List<String> envs) {
+        return optString(config.getSharedConfigFile())
+            .map(file -> createSharedSource(config, envs, file))
+            .orElseGet(() -> Tsc4j.configSource(config, envs, ConfigFactory::empty, ConfigFactory::load));
+    }
+
+    /**
+     * Creates config source that shares configuration fetched from configured config sources with other JVMs.
+     * <p>
+     * Only raw configuration fetched from config sources is shared: fallback configuration (application.conf,
+     * reference.conf and system properties) and config transformers (ie. secret decryption) are applied by every JVM
+     * on its own, so that shared file never contains transformed values or defaults of the writer's classpath. Shared
+     * configuration is published unresolved and resolved by every JVM together with its fallback configuration, so
+     * that substitutions behave the same as without shared file.
+     */
+    private ConfigSource createSharedSource(@NonNull Tsc4jConfig config,
+                                            @NonNull List<String> envs,
+                                            @NonNull String file) {
+        Tsc4jImplUtils.configureDefaultExecutor(config);
+        val rawSource = Tsc4jImplUtils.aggConfigSourceBuilder(config, envs)
+            .resolve(false)
+            .build();
+        val sharedSource = SharedConfigSource.builder()
+            .delegate(rawSource)
+            .path(Paths.get(file))
+            .writerEnabled(config.isSharedConfigWriter())
+            .maxAge(config.getSharedConfigMaxAge())
+            .pollInterval(config.getSharedConfigPollInterval())
+            .build();
+
+        val source = AggConfigSource.builder()
+            .fallbackSupplier(ConfigFactory::load)
+            .source(sharedSource)
+            .build();
+        return new ConfigSourceWithTransformer(source, Tsc4jImplUtils.aggConfigTransformer(config, envs));
+    }
+
+    private ConfigSnapshotStore createSnapshotStore(@NonNull Tsc4jConfig config) {
+        return optString(config.getSnapshotFile())
+            .map(file -> ConfigSnapshotStore.builder()
+                .path(Paths.get(file))
+                .maxAge(config.getSnapshotMaxAge())
+                .encryptionKey(config.getSnapshotEncryptionKey())
+                .build())
+            .orElse(null);
+    }
+
+    private ReloadableUpdateDispatcher createUpdateDispatcher(@NonNull Tsc4jConfig config) {
+        if (config.getUpdateParallelism() <= 1) {
+            return ReloadableUpdateDispatcher.SERIAL;
+        }
+
+        return ParallelReloadableUpdateDispatcher.builder()
+            .parallelism(config.getUpdateParallelism())
+            .updateTimeout(config.getUpdateTimeout())
+            .reloadableUpdateTimeout(config.getReloadableUpdateTimeout())
+            .slowUpdateThreshold(config.getSlowUpdateThreshold())
+            .build();
+    }
 }
@@ -0,0 +1,214 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core;
+
+import com.github.tsc4j.core.impl.SharedConfigFile;
+import com.typesafe.config.Config;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Config source that wraps delegate and shares configuration fetched by delegate with other JVMs running on the same
+ * host using {@link SharedConfigFile}.
+ * <p>
+ * Instance that is elected as a shared file writer fetches configuration from delegate and publishes it, all other
+ * instances serve published configuration without invoking delegate. Non-writer instances fall back to delegate if
+ * published configuration is older than {@code maxAge} (ie. writer is stuck) or if it can't be read. Writer election
+ * is retried on every fetch, so that one of remaining instances takes over when writer process exits.
+ * <p>
+ * Writer can also be a standalone process (ie. {@code tsc4j watch} command) if applications are configured to never
+ * become writers.
+ * <p>
+ * Shared file must not be shared between applications with different app names or environments. Delegate should
+ * provide only configuration fetched from config sources: fallback configuration and config transformers should be
+ * applied to configuration returned by this source, so that they're applied by every JVM on its own and transformed
+ * values (ie. decrypted secrets) never end up in the shared file. Delegate may return unresolved configuration, it's
+ * published as-is and should be resolved by the caller together with the fallback configuration.
+ */
+@Slf4j
+public final class SharedConfigSource implements ConfigSource {
+    /**
+     * Default interval between shared file generation checks.
+     */
+    static final Duration DEFAULT_POLL_INTERVAL = Duration.ofSeconds(1);
+
+    /**
+     * Default maximum age of published configuration that non-writer instances serve.
+     */
+    static final Duration DEFAULT_MAX_AGE = Duration.ofMinutes(10);
+
+    private final ConfigSource delegate;
+    private final SharedConfigFile file;
+    private final boolean writerEnabled;
+    private final Duration maxAge;
+    private final Duration pollInterval;
+    private final ScheduledExecutorService executor;
+    private final Clock clock;
+    private final List<ScheduledFuture<?>> watchers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Creates new instance.
+     *
+     * @param delegate      delegate config source
+     * @param path          shared file path
+     * @param writerEnabled whether this instance may become shared file writer, defaults to true
+     * @param maxAge        maximum age of published configuration served by non-writer instances, 10 minutes if
+     *                      null
+     * @param pollInterval  interval between shared file generation checks when watching, 1 second if null
+     * @param executor      executor used to check shared file generation, default scheduled executor if null
+     * @param clock         clock, system UTC clock if null
+     * @throws IllegalArgumentException in case of invalid arguments
+     * @throws Tsc4jException           if shared file can't be opened
+     */
+    @Builder
+    private SharedConfigSource(@NonNull ConfigSource delegate,
+                               @NonNull Path path,
+                               Boolean writerEnabled,
+                               Duration maxAge,
+                               Duration pollInterval,
+                               ScheduledExecutorService executor,
+                               Clock clock) {
+        this.delegate = delegate;
+        this.writerEnabled = Optional.ofNullable(writerEnabled).orElse(true);
+        this.maxAge = checkPositive("max age", Optional.ofNullable(maxAge).orElse(DEFAULT_MAX_AGE));
+        this.pollInterval = checkPositive("poll interval",
+            Optional.ofNullable(pollInterval).orElse(DEFAULT_POLL_INTERVAL));
+        this.executor = Optional.ofNullable(executor).orElseGet(Tsc4jImplUtils::defaultScheduledExecutor);
+        this.clock = Optional.ofNullable(clock).orElseGet(Clock::systemUTC);
+        try {
+            this.file = new SharedConfigFile(path, this.clock);
+        } catch (Exception e) {
+            throw Tsc4jException.of("Can't open shared config file %s: %%s", e, path);
+        }
+    }
+
+    private static Duration checkPositive(String name, Duration duration) {
+        if (duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("Shared config " + name + " must be positive: " + duration);
+        }
+        return duration;
+    }
+
+    /**
+     * Tells whether this instance is currently the shared file writer.
+     *
+     * @return true/false
+     */
+    public boolean isWriter() {
+        return file.isWriter();
+    }
+
+    @Override
+    public boolean allowErrors() {
+        return delegate.allowErrors();
+    }
+
+    @Override
+    public Config get(@NonNull ConfigQuery query) {
+        if (writerEnabled && file.tryAcquireWriter()) {
+            return fetchAndPublish(query);
+        }
+
+        return readShared()
+            .orElseGet(() -> {
+                log.debug("{} shared config is not available, fetching config from delegate.", this);
+                return delegate.get(query);
+            });
+    }
+
+    private Config fetchAndPublish(ConfigQuery query) {
+        val config = delegate.get(query);
+        try {
+            file.publish(config);
+        } catch (Exception e) {
+            log.warn("{} error publishing shared config: {}", this, e.toString());
+        }
+        return config;
+    }
+
+    private Optional<Config> readShared() {
+        try {
+            return file.read()
+                .filter(this::isFresh)
+                .map(SharedConfigFile.Entry::getConfig);
+        } catch (Exception e) {
+            log.warn("{} error reading shared config: {}", this, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    private boolean isFresh(SharedConfigFile.Entry entry) {
+        val age = Duration.between(entry.getPublishedAt(), clock.instant());
+        if (age.compareTo(maxAge) > 0) {
+            log.warn("{} shared config generation {} published at {} is older than {}, ignoring it.",
+                this, entry.getGeneration(), entry.getPublishedAt(), maxAge);
+            return false;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean watch(@NonNull ConfigQuery query, @NonNull Runnable listener) {
+        // writer is notified by delegate, everyone else by shared file generation change
+        delegate.watch(query, listener);
+
+        val lastGeneration = new AtomicLong(file.getGeneration());
+        val intervalMillis = pollInterval.toMillis();
+        val future = executor.scheduleWithFixedDelay(
+            () -> checkGeneration(lastGeneration, listener), intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        watchers.add(future);
+        return true;
+    }
+
+    private void checkGeneration(AtomicLong lastGeneration, Runnable listener) {
+        try {
+            val generation = file.getGeneration();
+            if (lastGeneration.getAndSet(generation) != generation && !file.isWriter()) {
+                log.debug("{} shared config generation changed to {}", this, generation);
+                listener.run();
+            }
+        } catch (Exception e) {
+            log.warn("{} error checking shared config generation: {}", this, e.toString(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        watchers.forEach(it -> it.cancel(false));
+        watchers.clear();
+        file.close();
+        delegate.close();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + file.getPath() + ", delegate=" + delegate + ")";
+    }
+}
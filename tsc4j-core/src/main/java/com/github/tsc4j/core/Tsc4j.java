@@ -452,6 +452,7 @@ public class Tsc4j {
                                      @NonNull Collection<String> appEnvs,
                                      @NonNull Supplier<Config> overrideConfigSupplier,
                                      @NonNull Supplier<Config> fallbackConfigSupplier) {
+        Tsc4jImplUtils.configureDefaultExecutor(config);
         val source = Tsc4jImplUtils.aggConfigSource(config, appEnvs, overrideConfigSupplier, fallbackConfigSupplier);
         val transformer = Tsc4jImplUtils.aggConfigTransformer(config, appEnvs);
         val result = new ConfigSourceWithTransformer(source, transformer);
@@ -46,6 +46,17 @@ public interface Tsc4jCache<K, E> {
      */
     Tsc4jCache<K, E> put(@NonNull K key, @NonNull E value);
 
+    /**
+     * Removes entry from the cache; default implementation doesn't remove anything, entry expires on its own.
+     *
+     * @param key key
+     * @return reference to itself
+     * @throws NullPointerException in case of null argument
+     */
+    default Tsc4jCache<K, E> remove(@NonNull K key) {
+        return this;
+    }
+
     /**
      * Removes all entries from the cache.
      *
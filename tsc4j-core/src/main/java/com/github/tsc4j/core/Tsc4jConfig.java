@@ -19,11 +19,15 @@ package com.github.tsc4j.core;
 import com.github.tsc4j.api.ReloadableConfig;
 import com.github.tsc4j.api.Tsc4jBeanBuilder;
 import com.github.tsc4j.api.WithConfig;
+import com.github.tsc4j.core.impl.BoundedThreadPoolExecutor.RejectionPolicy;
+import com.github.tsc4j.core.impl.ConfigSnapshotStore;
+import com.github.tsc4j.core.impl.DefaultReloadableConfig;
 import com.typesafe.config.Config;
 import lombok.Builder;
 import lombok.Builder.Default;
 import lombok.NonNull;
 import lombok.Singular;
+import lombok.ToString;
 import lombok.Value;
 
 import java.time.Duration;
@@ -55,6 +59,16 @@ public class Tsc4jConfig {
     @Default
     int refreshIntervalJitterPct = 25;
 
+    /**
+     * Delay between config source change notification and configuration refresh; only applies to config sources that
+     * are able to detect changes on their own (ie. {@code files} source with {@code watch} enabled), periodic refresh
+     * is still performed every {@link #getRefreshInterval()}. (default: 500 msec)
+     *
+     * @see ConfigSource#watch(ConfigQuery, Runnable)
+     */
+    @Default
+    Duration refreshDebounce = DefaultReloadableConfig.DEFAULT_REFRESH_DEBOUNCE;
+
     /**
      * whether reloadables are notified in reverse order (value: "reverseUpdateOrder")
      */
@@ -74,6 +88,144 @@ public class Tsc4jConfig {
     @Default
     boolean cliEnabled = true;
 
+    /**
+     * Cache TTL for values fetched from value providers that don't implement their own cache; caching is disabled if
+     * set to zero. (default: zero)
+     *
+     * @see ConfigValueProvider
+     */
+    @Default
+    Duration valueProviderCacheTtl = Duration.ZERO;
+
+    /**
+     * Fetch configurations from all configured sources concurrently? (default: false)
+     *
+     * @see AggConfigSource#isParallel()
+     */
+    @Default
+    boolean parallelFetch = false;
+
+    /**
+     * Maximum duration of a single config source fetch when {@link #isParallelFetch()} is enabled.
+     *
+     * @see AggConfigSource#getSourceTimeout()
+     */
+    @Default
+    Duration sourceFetchTimeout = Duration.ofSeconds(Tsc4jImplUtils.DEFAULT_TIMEOUT);
+
+    /**
+     * Maximum number of independent reloadable groups updated concurrently on configuration change; reloadables are
+     * updated serially by the refresh thread if set to 1. (default: 1)
+     *
+     * @see com.github.tsc4j.core.impl.ParallelReloadableUpdateDispatcher
+     */
+    @Default
+    int updateParallelism = 1;
+
+    /**
+     * Maximum time to wait for reloadable updates to complete when {@link #getUpdateParallelism()} is greater than 1.
+     */
+    @Default
+    Duration updateTimeout = Duration.ofSeconds(30);
+
+    /**
+     * Maximum duration of a single reloadable update when {@link #getUpdateParallelism()} is greater than 1; update
+     * worker thread running the update is interrupted after it elapses, config refresh thread never is. (default: 10
+     * sec)
+     */
+    @Default
+    Duration reloadableUpdateTimeout = Duration.ofSeconds(10);
+
+    /**
+     * Reloadable update duration after which warning is logged when {@link #getUpdateParallelism()} is greater
+     * than 1.
+     */
+    @Default
+    Duration slowUpdateThreshold = Duration.ofSeconds(1);
+
+    /**
+     * Maximum number of threads of the shared tsc4j executor used for parallel operations. (default: 64)
+     *
+     * @see Tsc4jImplUtils#defaultExecutor()
+     */
+    @Default
+    int executorMaxThreads = 64;
+
+    /**
+     * Task queue size of the shared tsc4j executor; tasks are handed off directly to executor threads if set to 0.
+     * (default: 0)
+     */
+    @Default
+    int executorQueueSize = 0;
+
+    /**
+     * Policy applied to tasks submitted to saturated shared tsc4j executor. (default: caller runs)
+     */
+    @Default
+    @NonNull
+    RejectionPolicy executorRejectionPolicy = RejectionPolicy.CALLER_RUNS;
+
+    /**
+     * Use virtual threads instead of bounded thread pool for the shared tsc4j executor when running on JVM that
+     * supports them (java 21+). (default: false)
+     */
+    @Default
+    boolean executorVirtualThreads = false;
+
+    /**
+     * Path of the file to store last successfully fetched configuration to; stored configuration is served on startup
+     * while the first configuration fetch runs in background. Configuration is not stored if not set. (default: null)
+     *
+     * @see com.github.tsc4j.core.impl.ConfigSnapshotStore
+     */
+    String snapshotFile;
+
+    /**
+     * Maximum age of stored configuration that can be served on startup. (default: 7 days)
+     *
+     * @see #getSnapshotFile()
+     */
+    @Default
+    Duration snapshotMaxAge = ConfigSnapshotStore.DEFAULT_MAX_AGE;
+
+    /**
+     * Base64 encoded 128, 192 or 256 bit AES key used to encrypt stored configuration; configuration is stored
+     * unencrypted if not set. (default: null)
+     *
+     * @see #getSnapshotFile()
+     */
+    @ToString.Exclude
+    String snapshotEncryptionKey;
+
+    /**
+     * Path of the host-local, memory-mapped file used to share fetched configuration between JVMs running on the same
+     * host; only one JVM fetches configuration from config sources if set. Only configuration fetched from config
+     * sources is shared, fallback configuration and config transformers are applied by every JVM. (default: null)
+     *
+     * @see SharedConfigSource
+     */
+    String sharedConfigFile;
+
+    /**
+     * Whether this JVM may be elected to fetch configuration and publish it to {@link #getSharedConfigFile()}; set to
+     * false if shared file is written by a standalone process. (default: true)
+     */
+    @Default
+    boolean sharedConfigWriter = true;
+
+    /**
+     * Maximum age of configuration published to {@link #getSharedConfigFile()} that is served without fetching it
+     * from config sources. (default: 10 minutes)
+     */
+    @Default
+    Duration sharedConfigMaxAge = Duration.ofMinutes(10);
+
+    /**
+     * Interval between {@link #getSharedConfigFile()} change checks. (default: 1 second)
+     */
+    @Default
+    Duration sharedConfigPollInterval = Duration.ofSeconds(1);
+
     /**
      * List of configuration source configurations.
      *
@@ -106,8 +258,27 @@ public class Tsc4jConfig {
         public void withConfig(@NonNull Config config) {
             cfgDuration(config, "refresh-interval", this::refreshInterval);
             cfgInt(config, "refresh-interval-jitter-pct", this::refreshIntervalJitterPct);
+            cfgDuration(config, "refresh-debounce", this::refreshDebounce);
             cfgBoolean(config, "reverse-update-order", this::reverseUpdateOrder);
             cfgBoolean(config, "cli-enabled", this::cliEnabled);
+            cfgDuration(config, "value-provider-cache-ttl", this::valueProviderCacheTtl);
+            cfgBoolean(config, "parallel-fetch", this::parallelFetch);
+            cfgDuration(config, "source-fetch-timeout", this::sourceFetchTimeout);
+            cfgInt(config, "update-parallelism", this::updateParallelism);
+            cfgDuration(config, "update-timeout", this::updateTimeout);
+            cfgDuration(config, "reloadable-update-timeout", this::reloadableUpdateTimeout);
+            cfgDuration(config, "slow-update-threshold", this::slowUpdateThreshold);
+            cfgInt(config, "executor-max-threads", this::executorMaxThreads);
+            cfgInt(config, "executor-queue-size", this::executorQueueSize);
+            cfgString(config, "executor-rejection-policy", it -> executorRejectionPolicy(RejectionPolicy.of(it)));
+            cfgBoolean(config, "executor-virtual-threads", this::executorVirtualThreads);
+            cfgString(config, "snapshot-file", this::snapshotFile);
+            cfgDuration(config, "snapshot-max-age", this::snapshotMaxAge);
+            cfgString(config, "snapshot-encryption-key", this::snapshotEncryptionKey);
+            cfgString(config, "shared-config-file", this::sharedConfigFile);
+            cfgBoolean(config, "shared-config-writer", this::sharedConfigWriter);
+            cfgDuration(config, "shared-config-max-age", this::sharedConfigMaxAge);
+            cfgDuration(config, "shared-config-poll-interval", this::sharedConfigPollInterval);
             cfgExtract(config, "sources", Config::getConfigList, this::sources);
             cfgExtract(config, "transformers", Config::getConfigList, this::transformers);
             cfgExtract(config, "value-providers", Config::getConfigList, this::valueProviders);
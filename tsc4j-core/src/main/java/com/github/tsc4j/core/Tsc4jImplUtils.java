@@ -18,8 +18,11 @@ package com.github.tsc4j.core;
 
 
 import com.github.tsc4j.api.WithConfig;
+import com.github.tsc4j.core.impl.BoundedThreadPoolExecutor;
+import com.github.tsc4j.core.impl.BoundedThreadPoolExecutor.RejectionPolicy;
 import com.github.tsc4j.core.impl.ClasspathConfigSource;
 import com.github.tsc4j.core.impl.CliConfigSource;
+import com.github.tsc4j.core.impl.ConfigFingerprint;
 import com.github.tsc4j.core.impl.ConfigValueProviderConfigTransformer;
 import com.github.tsc4j.core.impl.NoopConfigTransformer;
 import com.github.tsc4j.core.impl.SimpleTsc4jCache;
@@ -33,6 +36,7 @@ import com.typesafe.config.ConfigValue;
 import com.typesafe.config.ConfigValueType;
 import lombok.NonNull;
 import lombok.SneakyThrows;
+import lombok.Value;
 import lombok.experimental.UtilityClass;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
@@ -56,13 +60,15 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Future;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RunnableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledThreadPoolExecutor;
-import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadFactory;
-import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.BiConsumer;
 import java.util.function.BiFunction;
@@ -133,6 +139,7 @@ public class Tsc4jImplUtils {
     private static Pattern STRING_TO_LIST_SPLIT_PATTERN = Pattern.compile("\\s*[;,]+\\s*");
     private static ThreadLocal<MessageDigest> DIGEST_TL =
         ThreadLocal.withInitial(Tsc4jImplUtils::createMessageDigest);
+    private static final ThreadLocal<Boolean> DEFAULT_EXECUTOR_THREAD = ThreadLocal.withInitial(() -> false);
     private final Map<String, AtomicInteger> threadPoolCounters = new ConcurrentHashMap<>();
 
     /**
@@ -184,6 +191,17 @@ public class Tsc4jImplUtils {
      */
     private volatile ExecutorService defaultExecutor;
 
+    /**
+     * Settings of the default shared executor service.
+     */
+    private volatile ExecutorSettings executorSettings = ExecutorSettings.of(Tsc4jConfig.builder().build());
+
+    /**
+     * Tells whether default shared executor service has already been configured by {@link
+     * #configureDefaultExecutor(Tsc4jConfig)}.
+     */
+    private volatile boolean executorConfigured = false;
+
     /**
      * Default shared scheduled executor service
      */
@@ -204,10 +222,13 @@ public class Tsc4jImplUtils {
     }
 
     /**
-     * Computes checksum of specified object.
+     * Computes checksum of specified object.<p/>
+     * <b>NOTE:</b> checksum is computed from object's string representation; use {@link ConfigFingerprint} to
+     * compute digests of {@link Config} instances.
      *
      * @param object object to checksum
      * @return object checksum
+     * @see ConfigFingerprint
      */
     public String objectChecksum(Object object) {
         if (object == null) {
@@ -705,8 +726,8 @@ public class Tsc4jImplUtils {
         if (defaultExecutor == null) {
             synchronized (executorLock) {
                 if (defaultExecutor == null) {
-                    defaultExecutor = createExecutorService("default");
-                    registerShutdownHook(() -> shutdownExecutor(defaultExecutor()));
+                    defaultExecutor = createExecutorService("default", executorSettings);
+                    registerShutdownHook(() -> shutdownExecutor(defaultExecutor));
                 }
             }
         }
@@ -714,6 +735,63 @@ public class Tsc4jImplUtils {
         return defaultExecutor;
     }
 
+    /**
+     * Applies executor settings from given tsc4j config to default shared executor service. Default executor can be
+     * configured only once: the first invocation applies settings, subsequent invocations with different settings are
+     * ignored, because components might already hold a reference to the configured executor. If default executor has
+     * been created with default settings before it was configured, it's replaced, but not shut down: it completes
+     * already submitted tasks and keeps accepting new ones from components that already hold a reference to it, its
+     * threads terminate after being idle.
+     *
+     * @param config tsc4j config
+     * @return true if executor settings have changed, otherwise false
+     * @see #defaultExecutor()
+     * @see Tsc4jConfig#getExecutorMaxThreads()
+     */
+    public boolean configureDefaultExecutor(@NonNull Tsc4jConfig config) {
+        val settings = ExecutorSettings.of(config);
+        synchronized (executorLock) {
+            if (settings.equals(executorSettings)) {
+                executorConfigured = true;
+                return false;
+            }
+            if (executorConfigured) {
+                log.warn("default executor has already been configured with {}, ignoring settings: {}",
+                    executorSettings, settings);
+                return false;
+            }
+
+            log.debug("configuring default executor: {}", settings);
+            executorConfigured = true;
+            executorSettings = settings;
+            if (defaultExecutor != null) {
+                defaultExecutor = createExecutorService("default", settings);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Resets default executor configuration state so that next {@link #configureDefaultExecutor(Tsc4jConfig)}
+     * invocation applies its settings; meant to be used by tests only.
+     */
+    void resetDefaultExecutorConfiguration() {
+        executorConfigured = false;
+    }
+
+    /**
+     * Returns statistics of the default shared executor service.
+     *
+     * @return optional of executor statistics, empty if default executor doesn't use bounded thread pool (ie. uses
+     *     virtual threads)
+     * @see #defaultExecutor()
+     */
+    public Optional<BoundedThreadPoolExecutor.Stats> defaultExecutorStats() {
+        val executor = defaultExecutor();
+        return (executor instanceof BoundedThreadPoolExecutor) ?
+            Optional.of(((BoundedThreadPoolExecutor) executor).getStats()) : Optional.empty();
+    }
+
     public ScheduledExecutorService defaultScheduledExecutor() {
         if (scheduledExecutor == null) {
             synchronized (executorLock) {
@@ -792,29 +870,104 @@ public class Tsc4jImplUtils {
         }
 
         val futures = callables.stream()
-            .map(executor::submit)
+            .map(callable -> submitTask(executor, callable))
             .collect(Collectors.toList());
         return futures.stream()
             .map(f -> collectFutureResult(f, timeout, unit))
             .collect(Collectors.toList());
     }
 
+    /**
+     * Submits task to executor service; task is run in the calling thread if executor rejects it.
+     *
+     * @param executor executor service
+     * @param callable task to submit
+     * @param <T>      task result type
+     * @return task future
+     * @see #awaitTask(RunnableFuture, long, TimeUnit)
+     */
+    <T> RunnableFuture<T> submitTask(@NonNull ExecutorService executor, @NonNull Callable<T> callable) {
+        val task = new FutureTask<T>(callable);
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("executor rejected task, running it in calling thread: {}", executor);
+            task.run();
+        }
+        return task;
+    }
+
+    /**
+     * Waits for task submitted via {@link #submitTask(ExecutorService, Callable)} to complete. If calling thread is
+     * default executor thread and task is still waiting in executor queue, task is run in the calling thread, because
+     * executor could be saturated with tasks that wait for their nested tasks.
+     *
+     * @param task    task to wait for
+     * @param timeout wait timeout
+     * @param unit    wait timeout unit
+     * @param <T>     task result type
+     * @return task result
+     * @throws ExecutionException   if task throws
+     * @throws InterruptedException if calling thread gets interrupted
+     * @throws TimeoutException     if task doesn't complete in given time
+     */
+    <T> T awaitTask(@NonNull RunnableFuture<T> task, long timeout, @NonNull TimeUnit unit)
+        throws ExecutionException, InterruptedException, TimeoutException {
+        // running already started or completed future task is a no-op
+        if (!task.isDone() && DEFAULT_EXECUTOR_THREAD.get()) {
+            task.run();
+        }
+        return task.get(timeout, unit);
+    }
+
     /**
      * Creates executor service used for quick async tasks.
      *
-     * @param name executor service name
+     * @param name     executor service name
+     * @param settings executor settings
      * @return executor service
      */
-    private ExecutorService createExecutorService(@NonNull String name) {
+    private ExecutorService createExecutorService(@NonNull String name, @NonNull ExecutorSettings settings) {
+        if (settings.isVirtualThreads() && !isSubstrateVm()) {
+            val virtualExecutor = createVirtualThreadExecutor();
+            if (virtualExecutor.isPresent()) {
+                return virtualExecutor.get();
+            }
+            log.warn("virtual threads are not supported by this JVM, using bounded thread pool executor.");
+        }
+
+        // mark executor threads, so that tasks running in them run their queued nested tasks themselves instead of
+        // just waiting for them, which could deadlock if executor queue is full of such tasks
         val threadFactory = createThreadFactory(name);
-        return new ThreadPoolExecutor(0, 500, 5, TimeUnit.SECONDS,
-            new SynchronousQueue<>(), threadFactory);
+        return new BoundedThreadPoolExecutor(settings.getMaxThreads(), settings.getQueueSize(),
+            settings.getRejectionPolicy(), runnable -> threadFactory.newThread(() -> {
+            DEFAULT_EXECUTOR_THREAD.set(true);
+            runnable.run();
+        }));
+    }
+
+    /**
+     * Creates virtual thread per task executor service if running on JVM that supports virtual threads.
+     *
+     * @return optional of executor service
+     */
+    private Optional<ExecutorService> createVirtualThreadExecutor() {
+        // target bytecode doesn't allow direct invocation
+        try {
+            val method = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return Optional.of((ExecutorService) method.invoke(null));
+        } catch (NoSuchMethodException e) {
+            return Optional.empty();
+        } catch (Exception e) {
+            log.debug("error creating virtual thread executor", e);
+            return Optional.empty();
+        }
     }
 
     @SneakyThrows
-    private <T> T collectFutureResult(@NonNull Future<T> f, long timeout, @NonNull TimeUnit unit) {
+    private <T> T collectFutureResult(@NonNull RunnableFuture<T> f, long timeout, @NonNull TimeUnit unit) {
         try {
-            return f.get(timeout, unit);
+            return awaitTask(f, timeout, unit);
         } catch (ExecutionException e) {
             throw e.getCause();
         }
@@ -990,6 +1143,23 @@ public class Tsc4jImplUtils {
                                         @NonNull Collection<String> appEnvs,
                                         @NonNull Supplier<Config> overrideConfigSupplier,
                                         @NonNull Supplier<Config> fallbackConfigSupplier) {
+        return aggConfigSourceBuilder(config, appEnvs)
+            .overrideSupplier(overrideConfigSupplier)
+            .fallbackSupplier(fallbackConfigSupplier)
+            .build();
+    }
+
+    /**
+     * Creates aggregated config source builder with sources defined in tsc4j config.
+     *
+     * @param config  tsc4j bootstrap config
+     * @param appEnvs application's enabled environments
+     * @return config source builder
+     * @throws RuntimeException if any of defined config sources cannot be initialized
+     * @see #aggConfigSource(Tsc4jConfig, Collection, Supplier, Supplier)
+     */
+    AggConfigSource.AggConfigSourceBuilder aggConfigSourceBuilder(@NonNull Tsc4jConfig config,
+                                                                  @NonNull Collection<String> appEnvs) {
         val sources = createInstances(config.getSources(), appEnvs, Tsc4jImplUtils::createConfigSource);
 
         if (sources.isEmpty()) {
@@ -1000,14 +1170,11 @@ public class Tsc4jImplUtils {
             sources.add(CliConfigSource.instance());
         }
 
-        val result = AggConfigSource.builder()
-            .overrideSupplier(overrideConfigSupplier)
-            .fallbackSupplier(fallbackConfigSupplier)
+        log.info("creating aggregated config source using {} source(s): {}", sources.size(), sources);
+        return AggConfigSource.builder()
             .sources(sources)
-            .build();
-
-        log.info("created aggregated config source using {} source(s): {}", sources.size(), sources);
-        return result;
+            .parallel(config.isParallelFetch() && !isSubstrateVm())
+            .sourceTimeout(config.getSourceFetchTimeout());
     }
 
     /**
@@ -1699,7 +1866,7 @@ public class Tsc4jImplUtils {
         return Optional.ofNullable(config.getValueProviders())
             .map(list -> createValueProviders(list, enabledEnvs))
             .filter(list -> !list.isEmpty())
-            .map(Tsc4jImplUtils::createConfigValueTransformer);
+            .map(list -> createConfigValueTransformer(list, config.getValueProviderCacheTtl()));
     }
 
     /**
@@ -1715,9 +1882,11 @@ public class Tsc4jImplUtils {
         return createInstances(configs, appEnvs, Tsc4jImplUtils::createValueProvider);
     }
 
-    private static ConfigTransformer createConfigValueTransformer(@NonNull Collection<ConfigValueProvider> configValueProviders) {
+    private static ConfigTransformer createConfigValueTransformer(@NonNull Collection<ConfigValueProvider> configValueProviders,
+                                                                  @NonNull Duration cacheTtl) {
         val transformer = ConfigValueProviderConfigTransformer.builder()
             .withProviders(configValueProviders)
+            .setCacheTtl(cacheTtl)
             .setAllowErrors(false)
             .build();
         log.info("created config transformer from {} value provider(s): {}", configValueProviders.size(), configValueProviders);
@@ -1818,4 +1987,26 @@ public class Tsc4jImplUtils {
                                                    @NonNull Clock clock) {
         return new SimpleTsc4jCache<>(name, cacheTtl, clock);
     }
+
+    /**
+     * Default executor service settings.
+     */
+    @Value
+    private static class ExecutorSettings {
+        int maxThreads;
+        int queueSize;
+        RejectionPolicy rejectionPolicy;
+        boolean virtualThreads;
+
+        static ExecutorSettings of(@NonNull Tsc4jConfig config) {
+            if (config.getExecutorMaxThreads() < 1) {
+                throw new IllegalArgumentException("Executor max threads must be greater than 0.");
+            }
+            if (config.getExecutorQueueSize() < 0) {
+                throw new IllegalArgumentException("Executor queue size cannot be negative.");
+            }
+            return new ExecutorSettings(config.getExecutorMaxThreads(), config.getExecutorQueueSize(),
+                config.getExecutorRejectionPolicy(), config.isExecutorVirtualThreads());
+        }
+    }
 }
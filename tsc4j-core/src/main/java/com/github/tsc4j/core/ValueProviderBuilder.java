@@ -31,6 +31,13 @@ public abstract class ValueProviderBuilder<T extends ValueProviderBuilder<T>> ex
     @Getter
     private boolean allowMissing = false;
 
+    /**
+     * Max number of concurrent value fetches if provider is parallel (default: {@value
+     * AbstractConfigValueProvider#DEFAULT_MAX_CONCURRENCY})
+     */
+    @Getter
+    private int maxConcurrency = AbstractConfigValueProvider.DEFAULT_MAX_CONCURRENCY;
+
     /**
      * Sets whether missing values should be tolerated.
      *
@@ -42,11 +49,32 @@ public abstract class ValueProviderBuilder<T extends ValueProviderBuilder<T>> ex
         return getThis();
     }
 
+    /**
+     * Sets max number of concurrent value fetches if provider is parallel.
+     *
+     * @param maxConcurrency max concurrency, must be greater than 0
+     * @return reference to itself
+     * @see #setParallel(boolean)
+     */
+    public T setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+        return getThis();
+    }
+
     @Override
     public void withConfig(@NonNull Config config) {
         super.withConfig(config);
 
         cfgBoolean(config, "allow-missing", this::setAllowMissing);
+        cfgInt(config, "max-concurrency", this::setMaxConcurrency);
+    }
+
+    @Override
+    protected T checkState() {
+        if (getMaxConcurrency() < 1) {
+            throw new IllegalStateException("Max concurrency must be greater than 0.");
+        }
+        return super.checkState();
     }
 
     /**
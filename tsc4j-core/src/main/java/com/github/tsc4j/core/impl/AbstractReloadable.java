@@ -60,6 +60,16 @@ public abstract class AbstractReloadable<T> extends CloseableInstance implements
      */
     protected volatile Runnable onClear;
 
+    /**
+     * Reloadables derived from this one using {@link #map(Function)} or {@link #filter(Predicate)}.
+     */
+    private final CopyOnWriteArrayList<AbstractReloadable<?>> derived = new CopyOnWriteArrayList<>();
+
+    /**
+     * Action to be invoked when new reloadable gets derived from this one or from any of its derived reloadables.
+     */
+    private volatile Runnable onDerive;
+
     /**
      * Fetches current stored value.
      *
@@ -229,12 +239,42 @@ public abstract class AbstractReloadable<T> extends CloseableInstance implements
 
     @Override
     public final <R> Reloadable<R> map(@NonNull Function<T, R> mapper) {
-        return new MappingReloadable<>(this, mapper);
+        return derive(new MappingReloadable<>(this, mapper));
     }
 
     @Override
     public final Reloadable<T> filter(@NonNull Predicate<T> predicate) {
-        return new FilterReloadable<>(this, predicate);
+        return derive(new FilterReloadable<>(this, predicate));
+    }
+
+    private <R> AbstractReloadable<R> derive(AbstractReloadable<R> reloadable) {
+        reloadable.onDerive = this::runOnDerive;
+        derived.add(reloadable);
+        runOnDerive();
+        return reloadable;
+    }
+
+    private void runOnDerive() {
+        Runnables.safeRun(onDerive);
+    }
+
+    /**
+     * Sets action to be invoked when new reloadable gets derived from this one or from any of its derived
+     * reloadables.
+     *
+     * @param action action
+     */
+    final void onDerive(Runnable action) {
+        this.onDerive = action;
+    }
+
+    /**
+     * Returns reloadables directly derived from this one.
+     *
+     * @return list of derived reloadables
+     */
+    final List<AbstractReloadable<?>> derived() {
+        return derived;
     }
 
     @Override
@@ -256,6 +296,9 @@ public abstract class AbstractReloadable<T> extends CloseableInstance implements
         // remove onClear
         this.onClear = null;
 
+        this.onDerive = null;
+        derived.clear();
+
         onUpdate.clear();
     }
 }
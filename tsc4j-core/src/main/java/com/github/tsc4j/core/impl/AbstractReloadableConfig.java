@@ -16,6 +16,7 @@
 
 package com.github.tsc4j.core.impl;
 
+import com.github.tsc4j.api.ConfigSnapshot;
 import com.github.tsc4j.api.Reloadable;
 import com.github.tsc4j.api.ReloadableConfig;
 import com.github.tsc4j.api.Tsc4jConfigPath;
@@ -36,9 +37,11 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.CompletionStage;
@@ -111,6 +114,17 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
      */
     private final Map<Long, DefaultReloadable<?>> reloadableMap = new ConcurrentHashMap<>();
 
+    /**
+     * Registered reloadables indexed by their config paths.
+     */
+    private final PathTrie<DefaultReloadable<?>> reloadableIndex = new PathTrie<>();
+
+    /**
+     * Registered reloadables whose last update failed, keyed by reloadable id; they're retried on next config change
+     * regardless of changed config paths.
+     */
+    private final Map<Long, DefaultReloadable<?>> failedReloadables = new ConcurrentHashMap<>();
+
     /**
      * {@link Config} supplier used to fetch configuration.
      */
@@ -126,6 +140,11 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
      */
     private final boolean logFirstFetch;
 
+    /**
+     * Dispatcher used to deliver config updates to reloadables.
+     */
+    private final ReloadableUpdateDispatcher updateDispatcher;
+
     /**
      * Completable future containing last fetched {@link Config} instance.
      *
@@ -134,6 +153,31 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
      */
     private volatile CompletableFuture<Config> configFuture = new CompletableFuture<>();
 
+    /**
+     * Fingerprint of last assigned {@link Config} instance, null if config was not assigned yet.
+     *
+     * @see #assignConfig(Config)
+     */
+    private volatile ConfigFingerprint fingerprint;
+
+    /**
+     * Snapshot of last assigned {@link Config} and values of registered reloadables.
+     *
+     * @see #snapshot()
+     */
+    private volatile DefaultConfigSnapshot snapshot = DefaultConfigSnapshot.empty();
+
+    /**
+     * Reloadables that have been registered, unregistered or got new derived reloadables since the last snapshot
+     * replacement.
+     */
+    private final Set<DefaultReloadable<?>> snapshotPending = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Lock guarding snapshot replacement.
+     */
+    private final Object snapshotLock = new Object();
+
     /**
      * Creates new instance.
      *
@@ -154,9 +198,25 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
     protected AbstractReloadableConfig(@NonNull Supplier<Config> configSupplier,
                                        boolean reverseUpdateOrder,
                                        boolean logFirstFetch) {
+        this(configSupplier, reverseUpdateOrder, logFirstFetch, null);
+    }
+
+    /**
+     * Creates new instance.
+     *
+     * @param configSupplier     configuration supplier
+     * @param reverseUpdateOrder update reloadables in reverse update order?
+     * @param logFirstFetch      log first fetch?
+     * @param updateDispatcher   reloadable update dispatcher, reloadables are updated serially if null
+     */
+    protected AbstractReloadableConfig(@NonNull Supplier<Config> configSupplier,
+                                       boolean reverseUpdateOrder,
+                                       boolean logFirstFetch,
+                                       ReloadableUpdateDispatcher updateDispatcher) {
         this.configSupplier = configSupplier;
         this.reverseUpdateOrder = reverseUpdateOrder;
         this.logFirstFetch = logFirstFetch;
+        this.updateDispatcher = Optional.ofNullable(updateDispatcher).orElse(ReloadableUpdateDispatcher.SERIAL);
     }
 
     /**
@@ -187,7 +247,8 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
     public final CompletionStage<Config> get() {
         val future = getConfigFuture();
 
-        if (numFetches.get() < 1) {
+        // config might have been assigned before the first fetch (ie. from config snapshot)
+        if (numFetches.get() < 1 && !isPresent()) {
             return refresh();
         }
 
@@ -209,6 +270,14 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
         }
     }
 
+    @Override
+    public final ConfigSnapshot snapshot() {
+        if (!snapshotPending.isEmpty()) {
+            applyPendingSnapshotChanges();
+        }
+        return snapshot;
+    }
+
     @Override
     public final <T> Reloadable<T> register(@NonNull Function<Config, T> converter) {
         return register(ROOT_PATH, converter);
@@ -273,7 +342,9 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
                 if (config == null) {
                     throw new IllegalStateException("Can't complete without error and with null config.");
                 } else {
+                    val previousFingerprint = this.fingerprint;
                     assignConfig(config);
+                    onConfigFetched(config, this.fingerprint != previousFingerprint);
                 }
             } else {
                 onRefreshError(exception);
@@ -288,6 +359,15 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
         }
     }
 
+    /**
+     * Invoked after every successful configuration fetch, after fetched configuration has been assigned.
+     *
+     * @param config  fetched resolved configuration
+     * @param changed true if fetched configuration differs from previously assigned one
+     */
+    protected void onConfigFetched(@NonNull Config config, boolean changed) {
+    }
+
     private Config onRefreshError(@NonNull Throwable exception) {
         val actualException = (exception instanceof ExecutionException || exception instanceof CompletionException) ?
             exception.getCause() : exception;
@@ -398,20 +478,23 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
             throw new IllegalArgumentException("Configuration is not resolved.");
         }
 
-        val oldConfig = isPresent() ? getSync() : null;
-        if (!Tsc4jImplUtils.objectChecksumDiffers(oldConfig, newConfig)) {
-            log.debug("{} config checksum doesn't differ to existing one, completing fetch future.", this);
+        val sw = new Stopwatch();
+        val oldFingerprint = isPresent() ? this.fingerprint : null;
+        val newFingerprint = ConfigFingerprint.of(newConfig);
+        if (!newFingerprint.differs(oldFingerprint)) {
+            log.debug("{} config digest doesn't differ to existing one, completing fetch future.", this);
             return newConfig;
         }
 
-        val sw = new Stopwatch();
-        val checkSum = Tsc4jImplUtils.objectChecksum(newConfig);
+        val digest = newFingerprint.digest();
 
         val oldConfigFuture = getConfigFuture();
         val newConfigFuture = CompletableFuture.completedFuture(newConfig);
 
-        // update reloadables with new config value
-        updateReloadables(newConfig);
+        // update reloadables with new config value and publish them as a new snapshot
+        this.fingerprint = newFingerprint;
+        val updated = updateReloadables(newConfig, newFingerprint, oldFingerprint);
+        publishSnapshot(newConfig, updated);
 
         // replace config futures with new one
         assignConfigFuture(newConfigFuture);
@@ -420,7 +503,7 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
 
         // also complete old config future if it's not completed already
         if (!oldConfigFuture.isDone()) {
-            log.debug("{} completing old config future: {} with new config: {}", this, oldConfigFuture, checkSum);
+            log.debug("{} completing old config future: {} with new config: {}", this, oldConfigFuture, digest);
             oldConfigFuture.complete(newConfig);
         }
 
@@ -450,7 +533,8 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
         // that consistently throw on every refresh.
         if (isPresent()) {
             log.debug("{} configuration value is present, feeding it to newly created reloadable.", this);
-            reloadable.accept(getSync());
+            val config = getSync();
+            reloadable.accept(config, currentFingerprint(config));
         }
 
         log.debug("{} created new reloadable id {}: {}", this, id, reloadable);
@@ -459,7 +543,11 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
         val oldReloadable = reloadableMap.put(id, reloadable);
         if (oldReloadable != null) {
             log.warn("{} overridden previous reloadable id {}: {} => {}", this, id, oldReloadable, reloadable);
+            reloadableIndex.remove(oldReloadable.getPath(), oldReloadable);
         }
+        reloadableIndex.add(reloadable.getPath(), reloadable);
+        reloadable.onDerive(() -> snapshotPending.add(reloadable));
+        snapshotPending.add(reloadable);
 
         return reloadable;
     }
@@ -474,9 +562,65 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
         val removed = this.reloadableMap.remove(id);
         if (removed == null) {
             log.debug("{} reloadable reloadable was not registered: {}", this, reloadable);
+        } else {
+            reloadableIndex.remove(removed.getPath(), removed);
+            failedReloadables.remove(id, removed);
+            snapshotPending.add(removed);
+        }
+    }
+
+    /**
+     * Replaces current snapshot with next generation snapshot containing new config; only values of updated
+     * reloadables and reloadables with pending snapshot changes are re-captured.
+     *
+     * @param newConfig new config
+     * @param updated   reloadables updated with new config
+     */
+    @Synchronized("snapshotLock")
+    private void publishSnapshot(@NonNull Config newConfig, @NonNull Collection<DefaultReloadable<?>> updated) {
+        val changed = drainPendingSnapshotChanges();
+        changed.addAll(updated);
+        this.snapshot = snapshot.nextGeneration(newConfig, changed, this::isRegistered);
+    }
+
+    /**
+     * Replaces current snapshot with the one of the same generation containing re-captured values of reloadables with
+     * pending snapshot changes.
+     */
+    @Synchronized("snapshotLock")
+    private void applyPendingSnapshotChanges() {
+        val changed = drainPendingSnapshotChanges();
+        val current = this.snapshot;
+        if (current.isPresent()) {
+            this.snapshot = current.withChanged(changed, this::isRegistered);
         }
     }
 
+    private Set<DefaultReloadable<?>> drainPendingSnapshotChanges() {
+        val result = Collections.<DefaultReloadable<?>>newSetFromMap(new IdentityHashMap<>());
+        val it = snapshotPending.iterator();
+        while (it.hasNext()) {
+            result.add(it.next());
+            it.remove();
+        }
+        return result;
+    }
+
+    private boolean isRegistered(@NonNull AbstractReloadable<?> reloadable) {
+        return (reloadable instanceof DefaultReloadable)
+            && reloadableMap.get(((DefaultReloadable<?>) reloadable).getId()) == reloadable
+            && !reloadable.isClosed();
+    }
+
+    /**
+     * Replaces current snapshot with the one of the same generation without any reloadable values.
+     */
+    @Synchronized("snapshotLock")
+    private void clearSnapshot() {
+        snapshotPending.clear();
+        this.snapshot = snapshot.withoutReloadables();
+    }
+
     @Override
     protected void doClose() {
         clear();
@@ -493,14 +637,60 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
     }
 
     /**
-     * Updates all reloadables with new config.
+     * Returns fingerprint of given config, reusing fingerprint of last assigned config if possible.
      *
-     * @param newConfig new config
-     * @see #updateReloadable(DefaultReloadable, Config)
+     * @param config config
+     * @return config fingerprint
+     */
+    private ConfigFingerprint currentFingerprint(@NonNull Config config) {
+        val current = this.fingerprint;
+        return (current != null && current.getConfig() == config) ? current : ConfigFingerprint.of(config);
+    }
+
+    /**
+     * Updates reloadables affected by config change with new config.
+     *
+     * @param newConfig      new config
+     * @param newFingerprint fingerprint of new config
+     * @param oldFingerprint fingerprint of previously assigned config, may be null
+     * @return reloadables that have been updated
+     * @see #affectedReloadables(ConfigFingerprint, ConfigFingerprint)
+     * @see #updateReloadable(DefaultReloadable, Config, ConfigFingerprint)
+     * @see ReloadableUpdateDispatcher
      */
-    private void updateReloadables(@NonNull Config newConfig) {
-        sortReloadables(getReloadables())
-            .forEach(reloadable -> updateReloadable(reloadable, newConfig));
+    private List<DefaultReloadable<?>> updateReloadables(@NonNull Config newConfig,
+                                                        @NonNull ConfigFingerprint newFingerprint,
+                                                        ConfigFingerprint oldFingerprint) {
+        val reloadables = sortReloadables(affectedReloadables(newFingerprint, oldFingerprint));
+        updateDispatcher.dispatch(reloadables, reloadable -> updateReloadable(reloadable, newConfig, newFingerprint));
+        return reloadables;
+    }
+
+    /**
+     * Returns reloadables whose config paths are affected by config change: reloadables registered at any prefix or
+     * descendant of a changed config path and reloadables whose previous update failed.
+     *
+     * @param newFingerprint fingerprint of new config
+     * @param oldFingerprint fingerprint of previously assigned config, may be null
+     * @return collection of affected reloadables, all reloadables if {@code oldFingerprint} is null.
+     */
+    private Collection<DefaultReloadable<?>> affectedReloadables(@NonNull ConfigFingerprint newFingerprint,
+                                                                 ConfigFingerprint oldFingerprint) {
+        if (oldFingerprint == null) {
+            return getReloadables();
+        }
+
+        val changedPaths = newFingerprint.changedPaths(oldFingerprint);
+        val result = reloadableIndex.find(changedPaths);
+        val numAffected = result.size();
+        failedReloadables.forEach((id, reloadable) -> {
+            if (reloadableMap.get(id) == reloadable) {
+                result.add(reloadable);
+            }
+        });
+        log.debug("{} config change at {} path(s) affects {}/{} reloadable(s), retrying {} failed reloadable(s)",
+            this, changedPaths.size(), numAffected, size(), result.size() - numAffected);
+        return result;
     }
 
     /**
@@ -527,11 +717,13 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
     /**
      * Updates single reloadable with new config.
      *
-     * @param reloadable reloadable to update
-     * @param newConfig  new config to assign to it.
+     * @param reloadable     reloadable to update
+     * @param newConfig      new config to assign to it.
+     * @param newFingerprint fingerprint of new config
      */
     private void updateReloadable(@NonNull DefaultReloadable<?> reloadable,
-                                  @NonNull Config newConfig) {
+                                  @NonNull Config newConfig,
+                                  @NonNull ConfigFingerprint newFingerprint) {
         if (reloadable.isClosed()) {
             log.debug("{} refusing to update already closed reloadable: {}", this, reloadable);
             return;
@@ -539,9 +731,11 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
 
         val sw = new Stopwatch();
         try {
-            reloadable.accept(newConfig);
+            reloadable.accept(newConfig, newFingerprint);
+            failedReloadables.remove(reloadable.getId(), reloadable);
             log.trace("{} updated reloadable in {}: {}", this, sw, reloadable);
         } catch (Throwable t) {
+            failedReloadables.put(reloadable.getId(), reloadable);
             log.error("{} error updating reloadable (duration: {}) {}: {}", this, sw, reloadable, t.getMessage(), t);
         }
     }
@@ -553,6 +747,9 @@ public abstract class AbstractReloadableConfig extends CloseableInstance impleme
         log.debug("{} unregistering all reloadables.", this);
         getReloadables().forEach(Reloadable::close);
         reloadableMap.clear();
+        reloadableIndex.clear();
+        failedReloadables.clear();
+        clearSnapshot();
     }
 
     /**
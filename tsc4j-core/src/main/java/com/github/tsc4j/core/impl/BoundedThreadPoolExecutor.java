@@ -0,0 +1,203 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core.impl;
+
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link ThreadPoolExecutor} with bounded number of threads, bounded task queue, configurable rejection policy and
+ * pool saturation statistics.
+ * <p>
+ * Threads are created on demand and are terminated after being idle for {@value #KEEP_ALIVE_SECONDS} seconds.
+ *
+ * @see #getStats()
+ */
+@Slf4j
+public final class BoundedThreadPoolExecutor extends ThreadPoolExecutor {
+    private static final long KEEP_ALIVE_SECONDS = 5;
+
+    private final int queueCapacity;
+    private final AtomicLong rejectedTasks;
+
+    /**
+     * Creates new instance.
+     *
+     * @param maxThreads      max number of threads, must be greater than 0
+     * @param queueSize       task queue size; tasks are handed off directly to threads if set to 0
+     * @param rejectionPolicy policy applied to tasks that can't be accepted because both threads and queue are
+     *                        exhausted
+     * @param threadFactory   thread factory
+     * @throws IllegalArgumentException in case of invalid arguments
+     */
+    public BoundedThreadPoolExecutor(int maxThreads,
+                                     int queueSize,
+                                     @NonNull RejectionPolicy rejectionPolicy,
+                                     @NonNull ThreadFactory threadFactory) {
+        this(maxThreads, queueSize, rejectionPolicy, threadFactory, new AtomicLong());
+    }
+
+    private BoundedThreadPoolExecutor(int maxThreads,
+                                      int queueSize,
+                                      RejectionPolicy rejectionPolicy,
+                                      ThreadFactory threadFactory,
+                                      AtomicLong rejectedTasks) {
+        // with bounded queue, threads are only added after queue becomes full if number of core threads is reached,
+        // therefore all threads are core threads that are allowed to time out.
+        super(queueSize > 0 ? maxThreads : 0, maxThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+            createQueue(queueSize), threadFactory, countingHandler(rejectionPolicy, rejectedTasks));
+        if (queueSize > 0) {
+            allowCoreThreadTimeOut(true);
+        }
+        this.queueCapacity = queueSize;
+        this.rejectedTasks = rejectedTasks;
+    }
+
+    private static BlockingQueue<Runnable> createQueue(int queueSize) {
+        if (queueSize < 0) {
+            throw new IllegalArgumentException("Queue size cannot be negative: " + queueSize);
+        }
+        return (queueSize == 0) ? new SynchronousQueue<>() : new ArrayBlockingQueue<>(queueSize);
+    }
+
+    private static RejectedExecutionHandler countingHandler(RejectionPolicy policy, AtomicLong counter) {
+        val delegate = policy.createHandler();
+        return (runnable, executor) -> {
+            counter.incrementAndGet();
+            log.debug("executor is saturated, applying rejection policy {}: {}", policy, executor);
+            delegate.rejectedExecution(runnable, executor);
+        };
+    }
+
+    /**
+     * Returns current pool statistics.
+     *
+     * @return pool statistics
+     */
+    public Stats getStats() {
+        return Stats.builder()
+            .poolSize(getPoolSize())
+            .activeThreads(getActiveCount())
+            .largestPoolSize(getLargestPoolSize())
+            .maxPoolSize(getMaximumPoolSize())
+            .queuedTasks(getQueue().size())
+            .queueCapacity(queueCapacity)
+            .completedTasks(getCompletedTaskCount())
+            .rejectedTasks(rejectedTasks.get())
+            .build();
+    }
+
+    /**
+     * Policy applied to tasks that can't be accepted by the executor.
+     */
+    public enum RejectionPolicy {
+        /**
+         * Rejected tasks are run by the submitting thread, slowing down the submitter.
+         */
+        CALLER_RUNS,
+
+        /**
+         * Submission of rejected tasks fails with {@link java.util.concurrent.RejectedExecutionException}.
+         */
+        ABORT;
+
+        /**
+         * Parses rejection policy name in case-insensitive way, allowing dashes instead of underscores (ie.
+         * {@code caller-runs}).
+         *
+         * @param name policy name
+         * @return rejection policy
+         * @throws IllegalArgumentException if name doesn't denote valid rejection policy
+         */
+        public static RejectionPolicy of(@NonNull String name) {
+            return valueOf(name.trim().toUpperCase(Locale.ENGLISH).replace('-', '_'));
+        }
+
+        private RejectedExecutionHandler createHandler() {
+            return (this == CALLER_RUNS) ? new CallerRunsPolicy() : new AbortPolicy();
+        }
+    }
+
+    /**
+     * Executor pool statistics.
+     */
+    @Value
+    @Builder
+    public static class Stats {
+        /**
+         * Current number of threads in the pool.
+         */
+        int poolSize;
+
+        /**
+         * Approximate number of threads that are actively executing tasks.
+         */
+        int activeThreads;
+
+        /**
+         * Largest number of threads that have ever simultaneously been in the pool.
+         */
+        int largestPoolSize;
+
+        /**
+         * Maximum allowed number of threads.
+         */
+        int maxPoolSize;
+
+        /**
+         * Number of tasks waiting in the queue.
+         */
+        int queuedTasks;
+
+        /**
+         * Task queue capacity, 0 if tasks are handed off directly to threads.
+         */
+        int queueCapacity;
+
+        /**
+         * Approximate number of completed tasks.
+         */
+        long completedTasks;
+
+        /**
+         * Number of tasks that were rejected because pool was saturated.
+         */
+        long rejectedTasks;
+
+        /**
+         * Returns pool saturation ratio: number of active threads divided by max number of threads.
+         *
+         * @return saturation ratio in range of {@code [0, 1]}
+         */
+        public double getSaturation() {
+            return (maxPoolSize < 1) ? 0 : Math.min(1.0, (double) activeThreads / maxPoolSize);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core.impl;
+
+import com.github.tsc4j.core.ConfigValueProvider;
+import com.github.tsc4j.core.Tsc4jImplUtils;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueType;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * {@link ConfigValueProvider} decorator that caches values returned by delegated provider.
+ * <p>
+ * Cached values are returned until they expire; values that are older than refresh-ahead threshold but not yet
+ * expired are still returned from the cache while they're re-fetched in the background, so that callers don't need
+ * to wait for delegated provider on the next lookup after cache entry expiration. Expired entries are purged from
+ * the cache at most once per cache TTL, so that values that are no longer requested don't stay cached forever.
+ */
+@Slf4j
+final class CachingConfigValueProvider implements ConfigValueProvider {
+    private final ConfigValueProvider delegate;
+    private final long ttlMillis;
+    private final long refreshAheadMillis;
+    private final Clock clock;
+    private final ExecutorService executor;
+
+    private final Map<String, CacheEntry> cache = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    private volatile long nextPurgeAt;
+
+    /**
+     * Creates new instance.
+     *
+     * @param delegate        delegated value provider
+     * @param cacheTtl        cache entry TTL, must be positive
+     * @param refreshAheadPct percentage of {@code cacheTtl} after which cache entry is refreshed in background
+     *                        (0 - 100); refresh-ahead is disabled if set to 100
+     * @param clock           clock
+     * @param executor        executor service used for background refreshes, default tsc4j executor if null
+     */
+    CachingConfigValueProvider(@NonNull ConfigValueProvider delegate,
+                               @NonNull Duration cacheTtl,
+                               int refreshAheadPct,
+                               @NonNull Clock clock,
+                               ExecutorService executor) {
+        if (cacheTtl.isNegative() || cacheTtl.isZero()) {
+            throw new IllegalArgumentException("Cache TTL must be positive: " + cacheTtl);
+        }
+        if (refreshAheadPct < 0 || refreshAheadPct > 100) {
+            throw new IllegalArgumentException("Invalid refresh-ahead percentage: " + refreshAheadPct);
+        }
+
+        this.delegate = delegate;
+        this.ttlMillis = cacheTtl.toMillis();
+        this.refreshAheadMillis = ttlMillis * refreshAheadPct / 100;
+        this.clock = clock;
+        this.executor = executor;
+        this.nextPurgeAt = clock.millis() + ttlMillis;
+    }
+
+    /**
+     * Returns delegated value provider.
+     *
+     * @return value provider
+     */
+    ConfigValueProvider getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public String getType() {
+        return delegate.getType();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public boolean allowMissing() {
+        return delegate.allowMissing();
+    }
+
+    @Override
+    public Map<String, ConfigValue> get(@NonNull Collection<String> names) {
+        val now = clock.millis();
+        purgeExpired(now);
+
+        val result = new LinkedHashMap<String, ConfigValue>();
+        val missing = new ArrayList<String>();
+        val stale = new ArrayList<String>();
+
+        for (val name : names) {
+            val entry = cache.get(name);
+            if (entry == null || now >= entry.expiresAt) {
+                missing.add(name);
+            } else {
+                result.put(name, entry.value);
+                if (now >= entry.refreshAt) {
+                    stale.add(name);
+                }
+            }
+        }
+
+        if (!missing.isEmpty()) {
+            log.debug("{} cache miss for {} value(s), fetching from delegate.", this, missing.size());
+            result.putAll(fetch(missing));
+        }
+
+        // stale values are marked as being refreshed only after synchronous fetch succeeded, otherwise they would
+        // never be refreshed again if it throws.
+        stale.removeIf(name -> !refreshing.add(name));
+        if (!stale.isEmpty()) {
+            refreshInBackground(stale);
+        }
+
+        return result;
+    }
+
+    /**
+     * Removes expired entries from the cache if cache TTL elapsed since the last purge.
+     *
+     * @param now current time in milliseconds
+     */
+    private void purgeExpired(long now) {
+        if (now < nextPurgeAt) {
+            return;
+        }
+        nextPurgeAt = now + ttlMillis;
+
+        val sizeBefore = cache.size();
+        cache.values().removeIf(entry -> now >= entry.expiresAt);
+        log.debug("{} purged {} expired value(s) from cache.", this, sizeBefore - cache.size());
+    }
+
+    private Map<String, ConfigValue> fetch(List<String> names) {
+        val fetched = delegate.get(names);
+        if (fetched == null) {
+            return new LinkedHashMap<>();
+        }
+
+        val now = clock.millis();
+        fetched.forEach((name, value) -> {
+            if (value != null && value.valueType() != ConfigValueType.NULL) {
+                cache.put(name, new CacheEntry(value, now + refreshAheadMillis, now + ttlMillis));
+            }
+        });
+        return fetched;
+    }
+
+    private void refreshInBackground(List<String> names) {
+        log.debug("{} refreshing {} value(s) ahead of expiration.", this, names.size());
+        Runnable task = () -> {
+            try {
+                fetch(names);
+            } catch (Throwable t) {
+                log.warn("{} error refreshing values ahead of expiration: {}", this, t.getMessage(), t);
+            } finally {
+                refreshing.removeAll(names);
+            }
+        };
+
+        try {
+            val executorService = (executor == null) ? Tsc4jImplUtils.defaultExecutor() : executor;
+            executorService.submit(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("{} background refresh rejected, values will be fetched after they expire.", this);
+            refreshing.removeAll(names);
+        }
+    }
+
+    /**
+     * Returns number of cached values.
+     *
+     * @return number of cached values
+     */
+    int size() {
+        return cache.size();
+    }
+
+    @Override
+    public void close() {
+        cache.clear();
+        Tsc4jImplUtils.close(delegate);
+    }
+
+    @Override
+    public String toString() {
+        return "cached:" + delegate;
+    }
+
+    @RequiredArgsConstructor
+    private static final class CacheEntry {
+        final ConfigValue value;
+        final long refreshAt;
+        final long expiresAt;
+    }
+}
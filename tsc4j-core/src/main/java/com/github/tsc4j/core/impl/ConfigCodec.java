@@ -0,0 +1,591 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core.impl;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigOrigin;
+import com.typesafe.config.ConfigOriginFactory;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueFactory;
+import lombok.NonNull;
+import lombok.val;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary codec for resolved {@link Config} and {@link ConfigValue} trees.
+ * <p>
+ * Encoded data starts with a magic number and format version followed by a single value tree. Values are prefixed by
+ * one byte type tag; integers and lengths are encoded as (zig-zag) varints, lists and objects are prefixed by number
+ * of their elements and every distinct string (object keys, string values and origin descriptions) is written only
+ * once and referenced by its index afterwards; origin shared with previously written value is written as a single
+ * byte. Value types (including {@code int}/{@code long}/{@code double}
+ * distinction) and value origins (description, file name or url, line number and comments) are preserved, so that
+ * decoded config is equal to the encoded one according to {@link Config#equals(Object)}.
+ * <p>
+ * Encoding and decoding don't require rendering or parsing HOCON, which makes them considerably faster than
+ * {@link ConfigValue#render()} and {@link com.typesafe.config.ConfigFactory#parseString(String)}, especially for large
+ * configurations.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class ConfigCodec {
+    /**
+     * Encoded data magic number ({@code TSCB}).
+     */
+    private static final int MAGIC = 0x54534342;
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int TAG_NULL = 0;
+    private static final int TAG_FALSE = 1;
+    private static final int TAG_TRUE = 2;
+    private static final int TAG_INT = 3;
+    private static final int TAG_LONG = 4;
+    private static final int TAG_DOUBLE = 5;
+    private static final int TAG_STRING = 6;
+    private static final int TAG_LIST = 7;
+    private static final int TAG_OBJECT = 8;
+
+    private static final int ORIGIN_GENERIC = 0;
+    private static final int ORIGIN_FILE = 1;
+    private static final int ORIGIN_URL = 2;
+    private static final int ORIGIN_PREVIOUS = 3;
+
+    private ConfigCodec() {
+    }
+
+    /**
+     * Encodes given resolved config.
+     *
+     * @param config resolved config
+     * @return encoded config
+     * @throws NullPointerException     in case of null arguments
+     * @throws IllegalArgumentException if config is not resolved
+     */
+    public static byte[] encode(@NonNull Config config) {
+        if (!config.isResolved()) {
+            throw new IllegalArgumentException("Can't encode unresolved config.");
+        }
+        return encode(config.root());
+    }
+
+    /**
+     * Encodes given resolved config value.
+     *
+     * @param value resolved config value
+     * @return encoded config value
+     * @throws NullPointerException     in case of null arguments
+     * @throws IllegalArgumentException if value is not resolved
+     */
+    public static byte[] encode(@NonNull ConfigValue value) {
+        val out = new Encoder();
+        out.writeHeader();
+        out.writeValue(value);
+        return out.toByteArray();
+    }
+
+    /**
+     * Encodes given resolved config value and writes it to output stream.
+     *
+     * @param value resolved config value
+     * @param os    output stream
+     * @throws NullPointerException     in case of null arguments
+     * @throws IllegalArgumentException if value is not resolved
+     * @throws IOException              in case of I/O errors
+     */
+    public static void write(@NonNull ConfigValue value, @NonNull OutputStream os) throws IOException {
+        val out = new Encoder();
+        out.writeHeader();
+        out.writeValue(value);
+        out.writeTo(os);
+    }
+
+    /**
+     * Decodes config encoded by {@link #encode(Config)}.
+     *
+     * @param data encoded config
+     * @return decoded config
+     * @throws NullPointerException     in case of null arguments
+     * @throws IllegalArgumentException if data can't be decoded or doesn't contain config object
+     */
+    public static Config decode(@NonNull byte[] data) {
+        return toConfig(decodeValue(data));
+    }
+
+    /**
+     * Decodes config value encoded by {@link #encode(ConfigValue)}.
+     *
+     * @param data encoded config value
+     * @return decoded config value
+     * @throws NullPointerException     in case of null arguments
+     * @throws IllegalArgumentException if data can't be decoded
+     */
+    public static ConfigValue decodeValue(@NonNull byte[] data) {
+        return decodeValue(data, 0, data.length);
+    }
+
+    /**
+     * Decodes config value encoded by {@link #encode(ConfigValue)}.
+     *
+     * @param data   buffer containing encoded config value
+     * @param offset offset of encoded value in the buffer
+     * @param length length of encoded value
+     * @return decoded config value
+     * @throws NullPointerException     in case of null arguments
+     * @throws IllegalArgumentException if data can't be decoded
+     */
+    public static ConfigValue decodeValue(@NonNull byte[] data, int offset, int length) {
+        if (offset < 0 || length < 0 || offset + length > data.length) {
+            throw new IllegalArgumentException("Invalid buffer offset/length: " + offset + "/" + length);
+        }
+
+        val in = new Decoder(data, offset, offset + length);
+        in.readHeader();
+        val value = in.readValue();
+        if (in.pos != in.end) {
+            throw new IllegalArgumentException("Trailing data after encoded config value.");
+        }
+        return value;
+    }
+
+    /**
+     * Reads and decodes config value from input stream until the end of the stream.
+     *
+     * @param is input stream
+     * @return decoded config value
+     * @throws NullPointerException     in case of null arguments
+     * @throws IllegalArgumentException if data can't be decoded
+     * @throws IOException              in case of I/O errors
+     */
+    public static ConfigValue read(@NonNull InputStream is) throws IOException {
+        val bos = new ByteArrayOutputStream(8192);
+        val buf = new byte[8192];
+        int n;
+        while ((n = is.read(buf)) != -1) {
+            bos.write(buf, 0, n);
+        }
+        return decodeValue(bos.toByteArray());
+    }
+
+    /**
+     * Converts decoded config value to config.
+     *
+     * @param value config value
+     * @return config
+     * @throws IllegalArgumentException if value is not a config object
+     */
+    public static Config toConfig(@NonNull ConfigValue value) {
+        if (!(value instanceof ConfigObject)) {
+            throw new IllegalArgumentException("Encoded config value is not a config object: " + value.valueType());
+        }
+        return ((ConfigObject) value).toConfig();
+    }
+
+    /**
+     * Binary encoder.
+     */
+    private static final class Encoder {
+        private final Map<String, Integer> strings = new HashMap<>();
+        private ConfigOrigin previousOrigin;
+        private byte[] buf = new byte[4096];
+        private int pos = 0;
+
+        void writeHeader() {
+            writeFixedInt(MAGIC);
+            writeVarint(FORMAT_VERSION);
+        }
+
+        void writeValue(ConfigValue value) {
+            writeOrigin(value.origin());
+            switch (value.valueType()) {
+                case NULL:
+                    writeByte(TAG_NULL);
+                    break;
+                case BOOLEAN:
+                    writeByte(((Boolean) value.unwrapped()) ? TAG_TRUE : TAG_FALSE);
+                    break;
+                case NUMBER:
+                    writeNumber((Number) value.unwrapped());
+                    break;
+                case STRING:
+                    writeByte(TAG_STRING);
+                    writeString((String) value.unwrapped());
+                    break;
+                case LIST:
+                    val list = (ConfigList) value;
+                    writeByte(TAG_LIST);
+                    writeVarint(list.size());
+                    for (val e : list) {
+                        writeValue(e);
+                    }
+                    break;
+                case OBJECT:
+                    val obj = (ConfigObject) value;
+                    writeByte(TAG_OBJECT);
+                    writeVarint(obj.size());
+                    // entrySet() creates new set on every invocation
+                    for (val key : obj.keySet()) {
+                        writeString(key);
+                        writeValue(obj.get(key));
+                    }
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unsupported config value type: " + value.valueType());
+            }
+        }
+
+        private void writeNumber(Number number) {
+            if (number instanceof Integer) {
+                writeByte(TAG_INT);
+                writeVarLong(zigZag(number.longValue()));
+            } else if (number instanceof Long) {
+                writeByte(TAG_LONG);
+                writeVarLong(zigZag(number.longValue()));
+            } else {
+                writeByte(TAG_DOUBLE);
+                writeFixedLong(Double.doubleToRawLongBits(number.doubleValue()));
+            }
+        }
+
+        private void writeOrigin(ConfigOrigin origin) {
+            if (origin == previousOrigin) {
+                writeByte(ORIGIN_PREVIOUS);
+                return;
+            }
+            previousOrigin = origin;
+
+            val line = origin.lineNumber();
+            if (origin.filename() != null) {
+                writeByte(ORIGIN_FILE);
+                writeString(origin.filename());
+            } else if (origin.url() != null && origin.resource() == null) {
+                writeByte(ORIGIN_URL);
+                writeString(origin.url().toExternalForm());
+            } else {
+                writeByte(ORIGIN_GENERIC);
+                writeString(stripLineNumber(origin.description(), line));
+            }
+
+            // line number is -1 if unknown
+            writeVarint(line + 1);
+
+            val comments = origin.comments();
+            writeVarint(comments.size());
+            for (val comment : comments) {
+                writeString(comment);
+            }
+        }
+
+        private void writeString(String s) {
+            val idx = strings.get(s);
+            if (idx != null) {
+                writeVarint((idx << 1) | 1);
+                return;
+            }
+
+            strings.put(s, strings.size());
+            val bytes = s.getBytes(StandardCharsets.UTF_8);
+            writeVarint(bytes.length << 1);
+            writeBytes(bytes);
+        }
+
+        private void writeVarint(int value) {
+            writeVarLong(value & 0xFFFFFFFFL);
+        }
+
+        private void writeVarLong(long value) {
+            ensureCapacity(10);
+            while ((value & ~0x7FL) != 0) {
+                buf[pos++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buf[pos++] = (byte) value;
+        }
+
+        private void writeFixedInt(int value) {
+            ensureCapacity(4);
+            for (int shift = 24; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeFixedLong(long value) {
+            ensureCapacity(8);
+            for (int shift = 56; shift >= 0; shift -= 8) {
+                buf[pos++] = (byte) (value >>> shift);
+            }
+        }
+
+        private void writeByte(int value) {
+            ensureCapacity(1);
+            buf[pos++] = (byte) value;
+        }
+
+        private void writeBytes(byte[] bytes) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buf, pos, bytes.length);
+            pos += bytes.length;
+        }
+
+        private void ensureCapacity(int n) {
+            if (pos + n > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, pos + n));
+            }
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buf, pos);
+        }
+
+        void writeTo(OutputStream os) throws IOException {
+            os.write(buf, 0, pos);
+        }
+    }
+
+    /**
+     * Binary decoder.
+     */
+    private static final class Decoder {
+        private final List<String> strings = new ArrayList<>();
+        private ConfigOrigin previousOrigin;
+        private final byte[] buf;
+        private final int end;
+        private int pos;
+
+        Decoder(byte[] buf, int offset, int end) {
+            this.buf = buf;
+            this.pos = offset;
+            this.end = end;
+        }
+
+        void readHeader() {
+            if (readFixedInt() != MAGIC) {
+                throw new IllegalArgumentException("Data doesn't contain encoded config value.");
+            }
+            val version = readVarint();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unsupported encoded config format version: " + version);
+            }
+        }
+
+        ConfigValue readValue() {
+            val origin = readOrigin();
+            val tag = readByte();
+            switch (tag) {
+                case TAG_NULL:
+                    return ConfigValueFactory.fromAnyRef(null).withOrigin(origin);
+                case TAG_FALSE:
+                    return ConfigValueFactory.fromAnyRef(false).withOrigin(origin);
+                case TAG_TRUE:
+                    return ConfigValueFactory.fromAnyRef(true).withOrigin(origin);
+                case TAG_INT:
+                    return ConfigValueFactory.fromAnyRef((int) unZigZag(readVarLong())).withOrigin(origin);
+                case TAG_LONG:
+                    return ConfigValueFactory.fromAnyRef(unZigZag(readVarLong())).withOrigin(origin);
+                case TAG_DOUBLE:
+                    return ConfigValueFactory.fromAnyRef(Double.longBitsToDouble(readFixedLong())).withOrigin(origin);
+                case TAG_STRING:
+                    return ConfigValueFactory.fromAnyRef(readString()).withOrigin(origin);
+                case TAG_LIST:
+                    return readList().withOrigin(origin);
+                case TAG_OBJECT:
+                    return readObject().withOrigin(origin);
+                default:
+                    throw new IllegalArgumentException("Invalid encoded config value type tag: " + tag);
+            }
+        }
+
+        private ConfigValue readList() {
+            val size = readLength();
+            val list = new ArrayList<ConfigValue>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(readValue());
+            }
+            return ConfigValueFactory.fromIterable(list);
+        }
+
+        private ConfigValue readObject() {
+            val size = readLength();
+            val map = new LinkedHashMap<String, ConfigValue>(size * 2);
+            for (int i = 0; i < size; i++) {
+                val key = readString();
+                map.put(key, readValue());
+            }
+            return ConfigValueFactory.fromMap(map);
+        }
+
+        private ConfigOrigin readOrigin() {
+            val type = readByte();
+            if (type == ORIGIN_PREVIOUS) {
+                if (previousOrigin == null) {
+                    throw new IllegalArgumentException("Invalid encoded config origin reference.");
+                }
+                return previousOrigin;
+            }
+
+            val str = readString();
+            val line = readVarint() - 1;
+
+            final ConfigOrigin origin;
+            if (type == ORIGIN_FILE) {
+                origin = ConfigOriginFactory.newFile(str);
+            } else if (type == ORIGIN_URL) {
+                origin = ConfigOriginFactory.newURL(toUrl(str));
+            } else if (type == ORIGIN_GENERIC) {
+                origin = ConfigOriginFactory.newSimple(str);
+            } else {
+                throw new IllegalArgumentException("Invalid encoded config origin type: " + type);
+            }
+
+            val numComments = readLength();
+            val comments = new ArrayList<String>(numComments);
+            for (int i = 0; i < numComments; i++) {
+                comments.add(readString());
+            }
+
+            val withLine = (line >= 0) ? origin.withLineNumber(line) : origin;
+            previousOrigin = comments.isEmpty() ? withLine : withLine.withComments(comments);
+            return previousOrigin;
+        }
+
+        private String readString() {
+            val header = readVarint();
+            if ((header & 1) == 1) {
+                val idx = header >>> 1;
+                if (idx >= strings.size()) {
+                    throw new IllegalArgumentException("Invalid encoded string reference: " + idx);
+                }
+                return strings.get(idx);
+            }
+
+            val len = header >>> 1;
+            checkAvailable(len);
+            val s = new String(buf, pos, len, StandardCharsets.UTF_8);
+            pos += len;
+            strings.add(s);
+            return s;
+        }
+
+        private int readLength() {
+            val len = readVarint();
+            // every element takes at least one byte
+            checkAvailable(len);
+            return len;
+        }
+
+        private int readVarint() {
+            val value = readVarLong();
+            if (value < 0 || value > Integer.MAX_VALUE) {
+                throw new IllegalArgumentException("Invalid encoded varint: " + value);
+            }
+            return (int) value;
+        }
+
+        private long readVarLong() {
+            long result = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                val b = readByte();
+                result |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return result;
+                }
+            }
+            throw new IllegalArgumentException("Malformed encoded varint.");
+        }
+
+        private int readFixedInt() {
+            int result = 0;
+            for (int i = 0; i < 4; i++) {
+                result = (result << 8) | readByte();
+            }
+            return result;
+        }
+
+        private long readFixedLong() {
+            long result = 0;
+            for (int i = 0; i < 8; i++) {
+                result = (result << 8) | readByte();
+            }
+            return result;
+        }
+
+        private int readByte() {
+            if (pos >= end) {
+                throw new IllegalArgumentException("Truncated encoded config value.");
+            }
+            return buf[pos++] & 0xFF;
+        }
+
+        private void checkAvailable(int len) {
+            if (len > end - pos) {
+                throw new IllegalArgumentException("Truncated encoded config value.");
+            }
+        }
+    }
+
+    /**
+     * Removes line number suffix appended to origin description by {@link ConfigOrigin#description()}.
+     *
+     * @param description origin description
+     * @param line        origin line number
+     * @return description without line number suffix
+     */
+    private static String stripLineNumber(String description, int line) {
+        if (line < 0) {
+            return description;
+        }
+
+        // suffix is either ': line' or ': line-endLine'
+        val suffix = ": " + line;
+        val idx = description.lastIndexOf(suffix);
+        if (idx < 0) {
+            return description;
+        }
+        val end = idx + suffix.length();
+        val isSuffix = (end == description.length() || description.charAt(end) == '-');
+        return isSuffix ? description.substring(0, idx) : description;
+    }
+
+    private static URL toUrl(String url) {
+        try {
+            return new URL(url);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Invalid encoded config origin url: " + url, e);
+        }
+    }
+
+    private static long zigZag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unZigZag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,377 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core.impl;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigList;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigValue;
+import com.typesafe.config.ConfigValueType;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Structural {@link Config} fingerprint.
+ * <p>
+ * Computes 128-bit digests of {@link ConfigValue} trees by walking the tree once and feeding values to the hash
+ * function incrementally, without rendering config values to strings. Digests of config objects and lists are
+ * memoized per instance, so that looking up digests of config sub-trees (see {@link #digest(String)}) after the root
+ * digest has been computed doesn't require any additional hashing.
+ * <p>
+ * Object digests don't depend on key iteration order; two configs that are equal according to
+ * {@link Config#equals(Object)} always have equal digests.
+ * <p>
+ * This class is thread-safe.
+ */
+public final class ConfigFingerprint {
+    private static final long C1 = 0x87c37b91114253d5L;
+    private static final long C2 = 0x4cf5ad432745937fL;
+
+    private static final int TAG_NULL = 1;
+    private static final int TAG_BOOLEAN = 2;
+    private static final int TAG_LONG = 3;
+    private static final int TAG_DOUBLE = 4;
+    private static final int TAG_STRING = 5;
+    private static final int TAG_LIST = 6;
+    private static final int TAG_OBJECT = 7;
+    private static final int TAG_OBJECT_ENTRY = 8;
+
+    private final Config config;
+
+    /**
+     * Memoized digests of config objects and lists, keyed by identity.
+     */
+    private final Map<ConfigValue, Digest> memo = new IdentityHashMap<>();
+
+    private ConfigFingerprint(@NonNull Config config) {
+        this.config = config;
+    }
+
+    /**
+     * Creates new fingerprint for given config; digests are computed lazily.
+     *
+     * @param config config
+     * @return config fingerprint
+     * @throws NullPointerException in case of null arguments
+     */
+    public static ConfigFingerprint of(@NonNull Config config) {
+        return new ConfigFingerprint(config);
+    }
+
+    /**
+     * Returns config this fingerprint was created for.
+     *
+     * @return config
+     */
+    public Config getConfig() {
+        return config;
+    }
+
+    /**
+     * Returns digest of the entire config.
+     *
+     * @return config digest
+     */
+    public Digest digest() {
+        return digest(config.root());
+    }
+
+    /**
+     * Returns digest of config sub-tree at given path.
+     *
+     * @param path config path; empty string denotes entire config
+     * @return optional of digest, empty if config doesn't contain specified path.
+     * @throws NullPointerException in case of null arguments
+     */
+    public Optional<Digest> digest(@NonNull String path) {
+        if (path.isEmpty()) {
+            return Optional.of(digest());
+        } else if (!config.hasPath(path)) {
+            return Optional.empty();
+        }
+        return Optional.of(digest(config.getValue(path)));
+    }
+
+    /**
+     * Tells whether this fingerprint differs from given one.
+     *
+     * @param other other fingerprint, may be null
+     * @return true if fingerprints differ, otherwise false
+     */
+    public boolean differs(ConfigFingerprint other) {
+        return other == null || !digest().equals(other.digest());
+    }
+
+    /**
+     * Computes paths that differ between given previous config fingerprint and this one.
+     * <p>
+     * Config trees are compared top-down using memoized sub-tree digests, so only branches that actually changed
+     * are visited. Returned paths are minimal: if a config object is present in both configs, only its changed
+     * descendants are reported; values that were added, removed or changed type are reported at their own path.
+     *
+     * @param previous fingerprint of previous config, may be null
+     * @return list of changed paths, each path represented as a list of config keys; list containing only empty path
+     *     (denoting entire config) is returned if {@code previous} is null; empty list is returned if configs are equal.
+     */
+    public List<List<String>> changedPaths(ConfigFingerprint previous) {
+        val result = new ArrayList<List<String>>();
+        if (previous == null) {
+            result.add(Collections.emptyList());
+        } else {
+            diffObjects(previous, previous.config.root(), config.root(), new ArrayList<>(), result);
+        }
+        return result;
+    }
+
+    private void diffObjects(ConfigFingerprint previous,
+                             ConfigObject oldObject,
+                             ConfigObject newObject,
+                             List<String> path,
+                             List<List<String>> result) {
+        if (previous.digest(oldObject).equals(digest(newObject))) {
+            return;
+        }
+
+        for (val e : newObject.entrySet()) {
+            val key = e.getKey();
+            val oldValue = oldObject.get(key);
+            val newValue = e.getValue();
+            path.add(key);
+            if (oldValue == null) {
+                result.add(new ArrayList<>(path));
+            } else if (oldValue.valueType() == ConfigValueType.OBJECT && newValue.valueType() == ConfigValueType.OBJECT) {
+                diffObjects(previous, (ConfigObject) oldValue, (ConfigObject) newValue, path, result);
+            } else if (!previous.digest(oldValue).equals(digest(newValue))) {
+                result.add(new ArrayList<>(path));
+            }
+            path.remove(path.size() - 1);
+        }
+
+        // removed keys
+        for (val key : oldObject.keySet()) {
+            if (!newObject.containsKey(key)) {
+                path.add(key);
+                result.add(new ArrayList<>(path));
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    /**
+     * Computes digest of a single config value.
+     *
+     * @param value config value
+     * @return digest
+     */
+    private synchronized Digest digest(@NonNull ConfigValue value) {
+        return computeDigest(value, new Hasher());
+    }
+
+    private Digest computeDigest(ConfigValue value, Hasher hasher) {
+        val type = value.valueType();
+        if (type == ConfigValueType.OBJECT || type == ConfigValueType.LIST) {
+            val existing = memo.get(value);
+            if (existing != null) {
+                return existing;
+            }
+
+            val digest = (type == ConfigValueType.OBJECT) ?
+                computeObjectDigest((ConfigObject) value) : computeListDigest((ConfigList) value);
+            memo.put(value, digest);
+            return digest;
+        }
+
+        hasher.reset();
+        hashScalar(value, hasher);
+        return hasher.finish();
+    }
+
+    private Digest computeObjectDigest(ConfigObject object) {
+        // entry digests are combined by addition, so that result doesn't depend on map iteration order
+        long sumHigh = 0;
+        long sumLow = 0;
+        val hasher = new Hasher();
+        for (val e : object.entrySet()) {
+            val child = computeDigest(e.getValue(), hasher);
+            hasher.reset();
+            hasher.putInt(TAG_OBJECT_ENTRY);
+            hasher.putString(e.getKey());
+            hasher.putDigest(child);
+            val entryDigest = hasher.finish();
+            sumHigh += entryDigest.high;
+            sumLow += entryDigest.low;
+        }
+
+        hasher.reset();
+        hasher.putInt(TAG_OBJECT);
+        hasher.putInt(object.size());
+        hasher.putLong(sumHigh);
+        hasher.putLong(sumLow);
+        return hasher.finish();
+    }
+
+    private Digest computeListDigest(ConfigList list) {
+        val hasher = new Hasher();
+        val elementHasher = new Hasher();
+        hasher.putInt(TAG_LIST);
+        hasher.putInt(list.size());
+        for (val e : list) {
+            hasher.putDigest(computeDigest(e, elementHasher));
+        }
+        return hasher.finish();
+    }
+
+    private static void hashScalar(ConfigValue value, Hasher hasher) {
+        val unwrapped = value.unwrapped();
+        if (unwrapped == null) {
+            hasher.putInt(TAG_NULL);
+        } else if (unwrapped instanceof Boolean) {
+            hasher.putInt(TAG_BOOLEAN);
+            hasher.putInt(((Boolean) unwrapped) ? 1 : 0);
+        } else if (unwrapped instanceof Number) {
+            hashNumber((Number) unwrapped, hasher);
+        } else {
+            hasher.putInt(TAG_STRING);
+            hasher.putString(unwrapped.toString());
+        }
+    }
+
+    private static void hashNumber(Number number, Hasher hasher) {
+        // config numbers are equal if they represent the same value, regardless of actual type (int, long, double)
+        val longValue = number.longValue();
+        val doubleValue = number.doubleValue();
+        if (doubleValue == (double) longValue) {
+            hasher.putInt(TAG_LONG);
+            hasher.putLong(longValue);
+        } else {
+            hasher.putInt(TAG_DOUBLE);
+            hasher.putLong(Double.doubleToLongBits(doubleValue));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + digest() + ")";
+    }
+
+    /**
+     * 128-bit config value digest.
+     */
+    @Value
+    public static class Digest {
+        long high;
+        long low;
+
+        @Override
+        public String toString() {
+            return String.format("%016x%016x", high, low);
+        }
+    }
+
+    /**
+     * Incremental 128-bit hash function based on murmur3 block mixing.
+     */
+    private static final class Hasher {
+        private long h1;
+        private long h2;
+        private long length;
+
+        void reset() {
+            h1 = 0;
+            h2 = 0;
+            length = 0;
+        }
+
+        void putInt(int value) {
+            putLong(value);
+        }
+
+        void putLong(long k) {
+            long k1 = k * C1;
+            k1 = Long.rotateLeft(k1, 31);
+            k1 *= C2;
+            h1 ^= k1;
+            h1 = Long.rotateLeft(h1, 27);
+            h1 += h2;
+            h1 = h1 * 5 + 0x52dce729;
+
+            long k2 = k * C2;
+            k2 = Long.rotateLeft(k2, 33);
+            k2 *= C1;
+            h2 ^= k2;
+            h2 = Long.rotateLeft(h2, 31);
+            h2 += h1;
+            h2 = h2 * 5 + 0x38495ab5;
+
+            length++;
+        }
+
+        void putDigest(Digest digest) {
+            putLong(digest.high);
+            putLong(digest.low);
+        }
+
+        void putString(String s) {
+            val len = s.length();
+            putInt(len);
+
+            // pack 4 chars into single long
+            long block = 0;
+            int packed = 0;
+            for (int i = 0; i < len; i++) {
+                block = (block << 16) | s.charAt(i);
+                if (++packed == 4) {
+                    putLong(block);
+                    block = 0;
+                    packed = 0;
+                }
+            }
+            if (packed > 0) {
+                putLong(block);
+            }
+        }
+
+        Digest finish() {
+            long a = h1 ^ length;
+            long b = h2 ^ length;
+            a += b;
+            b += a;
+            a = fmix(a);
+            b = fmix(b);
+            a += b;
+            b += a;
+            return new Digest(a, b);
+        }
+
+        private static long fmix(long k) {
+            k ^= k >>> 33;
+            k *= 0xff51afd7ed558ccdL;
+            k ^= k >>> 33;
+            k *= 0xc4ceb9fe1a85ec53L;
+            k ^= k >>> 33;
+            return k;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core.impl;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import lombok.NonNull;
+import lombok.experimental.UtilityClass;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+/**
+ * {@link Config} merging utilities.
+ * <p>
+ * Merging list of configs with {@code reduce(empty, (prev, cur) -> cur.withFallback(prev))} copies accumulated config
+ * tree on every step, which results in {@code O(n * size)} merge cost. Because {@link Config#withFallback} is
+ * associative, configs can be merged pairwise instead (divide and conquer), which produces equal result in
+ * {@code O(size * log(n))}.
+ */
+@UtilityClass
+public class ConfigMerger {
+    private static final Config EMPTY = ConfigFactory.empty();
+
+    /**
+     * Merges given configs, where each config overrides values of configs that precede it; result is equal to
+     * {@code configs.stream().reduce(ConfigFactory.empty(), (prev, cur) -> cur.withFallback(prev))}.
+     *
+     * @param configs list of configs in ascending priority order, may contain null or empty configs which are skipped
+     * @return merged config
+     * @throws NullPointerException in case of null arguments
+     */
+    public Config merge(@NonNull List<Config> configs) {
+        List<Config> current = new ArrayList<>(configs.size());
+        for (val config : configs) {
+            if (config != null && !config.isEmpty()) {
+                current.add(config);
+            }
+        }
+
+        if (current.isEmpty()) {
+            return EMPTY;
+        }
+
+        // merge adjacent pairs until there's only one config left
+        while (current.size() > 1) {
+            val size = current.size();
+            val next = new ArrayList<Config>((size + 1) / 2);
+            for (int i = 0; i + 1 < size; i += 2) {
+                next.add(current.get(i + 1).withFallback(current.get(i)));
+            }
+            if (size % 2 == 1) {
+                next.add(current.get(size - 1));
+            }
+            current = next;
+        }
+
+        return current.get(0);
+    }
+
+    /**
+     * Returns stream collector that merges configs in encounter order.
+     *
+     * @return collector
+     * @see #merge(List)
+     */
+    public Collector<Config, ?, Config> toMergedConfig() {
+        return Collectors.collectingAndThen(Collectors.toList(), ConfigMerger::merge);
+    }
+}
@@ -0,0 +1,281 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core.impl;
+
+import com.github.tsc4j.core.Tsc4jImplUtils;
+import com.typesafe.config.Config;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+
+/**
+ * Stores last successfully fetched, resolved configuration to a local file so that it can be served on application
+ * startup before (or instead of, if config sources are unavailable) the first live configuration fetch.
+ * <p>
+ * Stored configuration contains values fetched from all config sources and value providers, which may include
+ * secrets; snapshot file can be encrypted using AES-GCM by specifying encryption key. Snapshot file should not be
+ * shared between applications with different app names or environments.
+ * <p>
+ * Configuration is stored using {@link ConfigCodec}, which is considerably faster to decode than HOCON or JSON.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @see DefaultReloadableConfig
+ */
+@Slf4j
+public final class ConfigSnapshotStore {
+    /**
+     * Default maximum snapshot age.
+     */
+    public static final Duration DEFAULT_MAX_AGE = Duration.ofDays(7);
+
+    /**
+     * Snapshot file magic number ({@code TSC4}).
+     */
+    private static final int MAGIC = 0x54534334;
+    private static final byte FORMAT_VERSION = 2;
+    private static final byte FLAG_ENCRYPTED = 0x01;
+
+    private static final String CIPHER = "AES/GCM/NoPadding";
+    private static final int GCM_IV_LEN = 12;
+    private static final int GCM_TAG_BITS = 128;
+
+    private final SecureRandom random = new SecureRandom();
+
+    private final Path path;
+    private final Duration maxAge;
+    private final SecretKeySpec encryptionKey;
+    private final Clock clock;
+
+    /**
+     * Creates new instance.
+     *
+     * @param path          snapshot file path
+     * @param maxAge        maximum age of snapshot that can be loaded, 7 days if null
+     * @param encryptionKey base64 encoded 128, 192 or 256 bit AES key; snapshot is not encrypted if null or empty.
+     * @param clock         clock, system UTC clock if null
+     * @throws IllegalArgumentException in case of invalid arguments
+     */
+    @Builder
+    private ConfigSnapshotStore(@NonNull Path path, Duration maxAge, String encryptionKey, Clock clock) {
+        this.path = path.toAbsolutePath().normalize();
+        this.maxAge = checkMaxAge(Optional.ofNullable(maxAge).orElse(DEFAULT_MAX_AGE));
+        this.encryptionKey = Tsc4jImplUtils.optString(encryptionKey)
+            .map(ConfigSnapshotStore::createKey)
+            .orElse(null);
+        this.clock = Optional.ofNullable(clock).orElseGet(Clock::systemUTC);
+    }
+
+    private static Duration checkMaxAge(Duration maxAge) {
+        if (maxAge.isZero() || maxAge.isNegative()) {
+            throw new IllegalArgumentException("Snapshot max age must be positive: " + maxAge);
+        }
+        return maxAge;
+    }
+
+    private static SecretKeySpec createKey(String encodedKey) {
+        final byte[] key;
+        try {
+            key = Base64.getDecoder().decode(encodedKey.trim());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Snapshot encryption key is not a valid base64 string.", e);
+        }
+        if (key.length != 16 && key.length != 24 && key.length != 32) {
+            throw new IllegalArgumentException(
+                "Snapshot encryption key must be 128, 192 or 256 bits long, got: " + (key.length * 8));
+        }
+        return new SecretKeySpec(key, "AES");
+    }
+
+    /**
+     * Returns snapshot file path.
+     *
+     * @return path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Returns maximum age of snapshot that can be loaded.
+     *
+     * @return max age
+     */
+    public Duration getMaxAge() {
+        return maxAge;
+    }
+
+    /**
+     * Tells whether snapshot file is encrypted.
+     *
+     * @return true/false
+     */
+    public boolean isEncrypted() {
+        return encryptionKey != null;
+    }
+
+    /**
+     * Loads stored configuration.
+     *
+     * @return optional of stored resolved configuration, empty if snapshot file doesn't exist, is older than {@link
+     *     #getMaxAge()} or can't be read.
+     */
+    public Optional<Config> load() {
+        try {
+            return decode(Files.readAllBytes(path));
+        } catch (NoSuchFileException e) {
+            log.debug("{} config snapshot file doesn't exist.", this);
+        } catch (Exception e) {
+            log.warn("{} error loading config snapshot: {}", this, e.toString());
+        }
+        return Optional.empty();
+    }
+
+    private Optional<Config> decode(byte[] data) throws IOException, GeneralSecurityException {
+        val in = new DataInputStream(new ByteArrayInputStream(data));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a tsc4j config snapshot file.");
+        }
+        val version = in.readByte();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported config snapshot format version: " + version);
+        }
+
+        val flags = in.readByte();
+        val createdAt = Instant.ofEpochMilli(in.readLong());
+        val age = Duration.between(createdAt, clock.instant());
+        if (age.compareTo(maxAge) > 0) {
+            log.info("{} config snapshot created at {} is older than {}, ignoring it.", this, createdAt, maxAge);
+            return Optional.empty();
+        }
+
+        val payload = new byte[in.readInt()];
+        in.readFully(payload);
+
+        val encrypted = (flags & FLAG_ENCRYPTED) != 0;
+        if (encrypted && !isEncrypted()) {
+            throw new IOException("Config snapshot is encrypted, but encryption key is not set.");
+        } else if (!encrypted && isEncrypted()) {
+            throw new IOException("Config snapshot is not encrypted, but encryption key is set.");
+        }
+
+        val config = ConfigCodec.decode(encrypted ? decrypt(payload) : payload);
+        log.debug("{} loaded config snapshot created at {}", this, createdAt);
+        return Optional.of(config);
+    }
+
+    /**
+     * Stores given configuration to snapshot file, replacing previously stored snapshot atomically if supported by
+     * the filesystem.
+     *
+     * @param config resolved configuration
+     * @return true if configuration has been stored, otherwise false.
+     * @throws NullPointerException in case of null arguments
+     */
+    public boolean save(@NonNull Config config) {
+        try {
+            val data = encode(config);
+            val dir = path.getParent();
+            Files.createDirectories(dir);
+
+            // temp file is readable only by the owner on posix filesystems
+            val tmpFile = Files.createTempFile(dir, path.getFileName().toString(), ".tmp");
+            try {
+                Files.write(tmpFile, data);
+                moveFile(tmpFile, path);
+            } finally {
+                Files.deleteIfExists(tmpFile);
+            }
+            log.debug("{} stored config snapshot ({} bytes).", this, data.length);
+            return true;
+        } catch (Exception e) {
+            log.warn("{} error storing config snapshot: {}", this, e.toString());
+            return false;
+        }
+    }
+
+    private static void moveFile(Path src, Path dst) throws IOException {
+        try {
+            Files.move(src, dst, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(src, dst, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private byte[] encode(Config config) throws IOException, GeneralSecurityException {
+        val encoded = ConfigCodec.encode(config);
+        val payload = isEncrypted() ? encrypt(encoded) : encoded;
+
+        val bos = new ByteArrayOutputStream(payload.length + 32);
+        val out = new DataOutputStream(bos);
+        out.writeInt(MAGIC);
+        out.writeByte(FORMAT_VERSION);
+        out.writeByte(isEncrypted() ? FLAG_ENCRYPTED : 0);
+        out.writeLong(clock.millis());
+        out.writeInt(payload.length);
+        out.write(payload);
+        out.flush();
+        return bos.toByteArray();
+    }
+
+    private byte[] encrypt(byte[] data) throws GeneralSecurityException {
+        val iv = new byte[GCM_IV_LEN];
+        random.nextBytes(iv);
+
+        val cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.ENCRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+        val encrypted = cipher.doFinal(data);
+
+        val result = new byte[iv.length + encrypted.length];
+        System.arraycopy(iv, 0, result, 0, iv.length);
+        System.arraycopy(encrypted, 0, result, iv.length, encrypted.length);
+        return result;
+    }
+
+    private byte[] decrypt(byte[] data) throws GeneralSecurityException {
+        val cipher = Cipher.getInstance(CIPHER);
+        cipher.init(Cipher.DECRYPT_MODE, encryptionKey, new GCMParameterSpec(GCM_TAG_BITS, data, 0, GCM_IV_LEN));
+        return cipher.doFinal(data, GCM_IV_LEN, data.length - GCM_IV_LEN);
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + path + ")";
+    }
+}
@@ -51,6 +51,17 @@ public final class ConfigSupplier implements Supplier<Config>, Closeable {
         return source.get(query);
     }
 
+    /**
+     * Registers config source change listener.
+     *
+     * @param listener change listener
+     * @return true if config source is able to deliver change notifications, otherwise false.
+     * @see ConfigSource#watch(ConfigQuery, Runnable)
+     */
+    public boolean watch(@NonNull Runnable listener) {
+        return source.watch(query, listener);
+    }
+
     @Override
     public void close() {
         source.close();
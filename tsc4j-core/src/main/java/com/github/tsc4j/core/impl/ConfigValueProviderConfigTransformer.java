@@ -22,6 +22,7 @@ import com.github.tsc4j.core.ConfigTransformerBuilder;
 import com.github.tsc4j.core.ConfigValueProvider;
 import com.github.tsc4j.core.Tsc4j;
 import com.github.tsc4j.core.Tsc4jImplUtils;
+import com.github.tsc4j.core.WithCache;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigValue;
 import com.typesafe.config.ConfigValueFactory;
@@ -69,6 +70,13 @@ public final class ConfigValueProviderConfigTransformer
 
     private final List<ConfigValueProvider> providers;
 
+    /**
+     * Index of variables found in last transformed config, keyed by config digest.
+     *
+     * @see #createTransformationContext(Config)
+     */
+    private volatile VariableIndex variableIndex;
+
     private final OnlyOnce<String> onlyOnce = new OnlyOnce<>(
         it -> log.warn("{} can't find registered config value provider: {}", this, it), 1000);
 
@@ -79,13 +87,30 @@ public final class ConfigValueProviderConfigTransformer
      */
     protected ConfigValueProviderConfigTransformer(@NonNull Builder builder) {
         super(builder);
-        this.providers = createProviderList(builder.getConfigValueProviders());
+        this.providers = createProviderList(builder.getConfigValueProviders(), builder);
     }
 
-    private <T> List<T> createProviderList(List<T> c) {
+    /**
+     * Wraps value provider with {@link CachingConfigValueProvider} if builder defines cache TTL and value provider
+     * doesn't implement it's own cache.
+     *
+     * @param provider value provider
+     * @param builder  transformer builder
+     * @return value provider
+     */
+    private static ConfigValueProvider maybeCached(@NonNull ConfigValueProvider provider, @NonNull Builder builder) {
+        val cacheTtl = builder.getCacheTtl();
+        if (cacheTtl.isZero() || cacheTtl.isNegative() || provider instanceof WithCache) {
+            return provider;
+        }
+        return new CachingConfigValueProvider(provider, cacheTtl, builder.getRefreshAheadPct(), builder.getClock(), null);
+    }
+
+    private List<ConfigValueProvider> createProviderList(List<ConfigValueProvider> c, Builder builder) {
         val list = c.stream()
             .filter(Objects::nonNull)
             .distinct()
+            .map(it -> maybeCached(it, builder))
             .collect(Collectors.toList());
         return Collections.unmodifiableList(list);
     }
@@ -101,14 +126,43 @@ public final class ConfigValueProviderConfigTransformer
 
     @Override
     protected Context createTransformationContext(@NonNull Config config) {
-        // scan config for variables
+        // register variables from variable index
         val ctx = new Context();
-        Tsc4jImplUtils.scanConfigObject(config.root(), (path, value) -> visitConfigEntry(path, value, ctx));
+        getVariableIndex(config).values.forEach(uv -> ctx.registerUpdatableValue(uv.copy()));
 
         // fetch updated values from value providers
         return updateTransformationContext(ctx);
     }
 
+    /**
+     * Returns variable index for given config; config is scanned for variables only if it differs from previously
+     * scanned one.
+     *
+     * @param config config
+     * @return variable index
+     */
+    private VariableIndex getVariableIndex(@NonNull Config config) {
+        val digest = ConfigFingerprint.of(config).digest();
+        val current = this.variableIndex;
+        if (current != null && current.digest.equals(digest)) {
+            log.debug("{} config didn't change since last scan, reusing {} variable(s).", this, current.values.size());
+            return current;
+        }
+
+        // scan config for variables
+        val sw = new Stopwatch();
+        val ctx = new Context();
+        Tsc4jImplUtils.scanConfigObject(config.root(), (path, value) -> visitConfigEntry(path, value, ctx));
+        val values = ctx.map.values().stream()
+            .flatMap(Collection::stream)
+            .collect(Collectors.toList());
+
+        val index = new VariableIndex(digest, Collections.unmodifiableList(values));
+        log.debug("{} scanned config for variables in {}, found {} variable(s).", this, sw, values.size());
+        this.variableIndex = index;
+        return index;
+    }
+
     /**
      * Visits config entry and registers updatable value to transformation context.
      *
@@ -247,6 +301,11 @@ public final class ConfigValueProviderConfigTransformer
 
     @Override
     protected ConfigValue transformString(@NonNull String path, @NonNull ConfigValue value, @NonNull Context ctx) {
+        // no variables were found at given path
+        if (!ctx.map.containsKey(path)) {
+            return value;
+        }
+
         return Optional.of(new VarStr(value.unwrapped().toString()))
             .flatMap(varStr -> findUpdatedConfigValue(varStr, path, ctx))
             .orElse(value);
@@ -358,6 +417,15 @@ public final class ConfigValueProviderConfigTransformer
         @EqualsAndHashCode.Exclude
         volatile ConfigValue updatedConfigValue;
 
+        /**
+         * Creates copy of this updatable value without updated config value.
+         *
+         * @return new updatable value
+         */
+        UpdatableConfigValue copy() {
+            return new UpdatableConfigValue(configPath, variable, origConfigValue);
+        }
+
         /**
          * Tells whether config value was updated.
          *
@@ -380,6 +448,24 @@ public final class ConfigValueProviderConfigTransformer
         }
     }
 
+    /**
+     * Variables found in config with given digest.
+     */
+    @RequiredArgsConstructor
+    private static final class VariableIndex {
+        /**
+         * Digest of scanned config.
+         */
+        @NonNull
+        final ConfigFingerprint.Digest digest;
+
+        /**
+         * Updatable value templates, one per variable occurrence.
+         */
+        @NonNull
+        final List<UpdatableConfigValue> values;
+    }
+
     /**
      * {@link ConfigValueProviderConfigTransformer} context.
      */
@@ -498,6 +584,30 @@ public final class ConfigValueProviderConfigTransformer
         @Setter
         private List<ConfigValueProvider> configValueProviders = new ArrayList<>();
 
+        /**
+         * Percentage of {@link #getCacheTtl()} after which cached value is refreshed in background (default: 75).
+         * Applies only to value providers without their own cache when cache TTL is set.
+         */
+        @Getter
+        private int refreshAheadPct = 75;
+
+        /**
+         * Sets percentage of {@link #getCacheTtl()} after which cached value is refreshed in background.
+         *
+         * @param refreshAheadPct percentage, 0 - 100; 100 disables refresh-ahead
+         * @return reference to itself
+         */
+        public Builder setRefreshAheadPct(int refreshAheadPct) {
+            this.refreshAheadPct = refreshAheadPct;
+            return getThis();
+        }
+
+        @Override
+        public void withConfig(@NonNull Config config) {
+            super.withConfig(config);
+            cfgInt(config, "refresh-ahead-pct", this::setRefreshAheadPct);
+        }
+
         /**
          * Adds value providers.
          *
@@ -524,6 +634,9 @@ public final class ConfigValueProviderConfigTransformer
             if (configValueProviders.isEmpty()) {
                 throw new IllegalStateException("No value providers were assigned.");
             }
+            if (refreshAheadPct < 0 || refreshAheadPct > 100) {
+                throw new IllegalStateException("Invalid refresh-ahead percentage: " + refreshAheadPct);
+            }
             return super.checkState();
         }
 
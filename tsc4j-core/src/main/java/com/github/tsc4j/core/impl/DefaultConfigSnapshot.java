@@ -0,0 +1,182 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core.impl;
+
+import com.github.tsc4j.api.ConfigSnapshot;
+import com.github.tsc4j.api.Reloadable;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import lombok.NonNull;
+import lombok.val;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Predicate;
+
+/**
+ * Default {@link ConfigSnapshot} implementation.
+ * <p>
+ * Values are captured per registered reloadable: value of a registered reloadable is captured together with values of
+ * all reloadables derived from it. New snapshots are created from previous ones by re-capturing only reloadables that
+ * changed, values of all other reloadables are carried over.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @see AbstractReloadableConfig#snapshot()
+ */
+final class DefaultConfigSnapshot implements ConfigSnapshot {
+    private static final DefaultConfigSnapshot EMPTY =
+        new DefaultConfigSnapshot(0, ConfigFactory.empty(), new IdentityHashMap<>(), new IdentityHashMap<>());
+
+    private final long generation;
+    private final Config config;
+
+    /**
+     * Captured values of registered and derived reloadables; never modified after construction.
+     */
+    private final IdentityHashMap<Reloadable<?>, Object> values;
+
+    /**
+     * Registered reloadable => reloadables (itself and derived ones) whose values were captured with it; never modified
+     * after construction.
+     */
+    private final IdentityHashMap<Reloadable<?>, List<Reloadable<?>>> captured;
+
+    private DefaultConfigSnapshot(long generation,
+                                  Config config,
+                                  IdentityHashMap<Reloadable<?>, Object> values,
+                                  IdentityHashMap<Reloadable<?>, List<Reloadable<?>>> captured) {
+        this.generation = generation;
+        this.config = config;
+        this.values = values;
+        this.captured = captured;
+    }
+
+    /**
+     * Returns empty snapshot, representing state before the first configuration has been assigned.
+     *
+     * @return empty snapshot
+     */
+    static DefaultConfigSnapshot empty() {
+        return EMPTY;
+    }
+
+    @Override
+    public long getGeneration() {
+        return generation;
+    }
+
+    @Override
+    public Config getConfig() {
+        return config;
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> Optional<T> get(@NonNull Reloadable<T> reloadable) {
+        return Optional.ofNullable((T) values.get(reloadable));
+    }
+
+    /**
+     * Creates next configuration generation snapshot.
+     *
+     * @param newConfig    new configuration
+     * @param changed      reloadables that have been updated, registered or unregistered since this snapshot was
+     *                     created
+     * @param isRegistered predicate that tells whether reloadable is still registered
+     * @return new snapshot
+     */
+    DefaultConfigSnapshot nextGeneration(@NonNull Config newConfig,
+                                         @NonNull Collection<? extends AbstractReloadable<?>> changed,
+                                         @NonNull Predicate<AbstractReloadable<?>> isRegistered) {
+        return update(generation + 1, newConfig, changed, isRegistered);
+    }
+
+    /**
+     * Creates snapshot of the same configuration generation with re-captured values of given reloadables, used when
+     * reloadables get registered, unregistered or when new reloadables are derived from them.
+     *
+     * @param changed      reloadables that have been registered or unregistered since this snapshot was created
+     * @param isRegistered predicate that tells whether reloadable is still registered
+     * @return new snapshot
+     */
+    DefaultConfigSnapshot withChanged(@NonNull Collection<? extends AbstractReloadable<?>> changed,
+                                      @NonNull Predicate<AbstractReloadable<?>> isRegistered) {
+        return update(generation, config, changed, isRegistered);
+    }
+
+    /**
+     * Creates snapshot of the same configuration generation without any reloadable values.
+     *
+     * @return new snapshot
+     */
+    DefaultConfigSnapshot withoutReloadables() {
+        return new DefaultConfigSnapshot(generation, config, new IdentityHashMap<>(), new IdentityHashMap<>());
+    }
+
+    @SuppressWarnings("unchecked")
+    private DefaultConfigSnapshot update(long newGeneration,
+                                         Config newConfig,
+                                         Collection<? extends AbstractReloadable<?>> changed,
+                                         Predicate<AbstractReloadable<?>> isRegistered) {
+        if (changed.isEmpty()) {
+            return new DefaultConfigSnapshot(newGeneration, newConfig, values, captured);
+        }
+
+        // cloning identity hash map is a plain array copy, values of unchanged reloadables are not re-read
+        val newValues = (IdentityHashMap<Reloadable<?>, Object>) values.clone();
+        val newCaptured = (IdentityHashMap<Reloadable<?>, List<Reloadable<?>>>) captured.clone();
+        for (val reloadable : changed) {
+            val previous = newCaptured.remove(reloadable);
+            if (previous != null) {
+                previous.forEach(newValues::remove);
+            }
+            if (isRegistered.test(reloadable)) {
+                val keys = new ArrayList<Reloadable<?>>();
+                capture(reloadable, newValues, keys);
+                newCaptured.put(reloadable, keys);
+            }
+        }
+
+        return new DefaultConfigSnapshot(newGeneration, newConfig, newValues, newCaptured);
+    }
+
+    private static void capture(AbstractReloadable<?> reloadable,
+                                Map<Reloadable<?>, Object> values,
+                                List<Reloadable<?>> keys) {
+        val value = reloadable.orElse(null);
+        if (value != null) {
+            values.put(reloadable, value);
+            keys.add(reloadable);
+        }
+        reloadable.derived().forEach(it -> capture(it, values, keys));
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(generation=" + generation + ", values=" + values.size() + ")";
+    }
+}
@@ -28,7 +28,6 @@ import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 
-import java.util.Optional;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -41,6 +40,11 @@ import java.util.function.Function;
 @Slf4j
 @EqualsAndHashCode(of = {"id", "path", "converter"}, callSuper = false)
 public final class DefaultReloadable<T> extends AbstractReloadable<T> implements Comparable<DefaultReloadable<?>> {
+    /**
+     * Digest used for configs that don't contain reloadable's path.
+     */
+    private static final ConfigFingerprint.Digest MISSING_DIGEST = new ConfigFingerprint.Digest(0, 0);
+
     /**
      * Reloadable id.
      */
@@ -65,7 +69,10 @@ public final class DefaultReloadable<T> extends AbstractReloadable<T> implements
      */
     private volatile Consumer<DefaultReloadable> closeConsumer;
 
-    private final AtomicReference<String> checksumRef = new AtomicReference<>();
+    /**
+     * Digest of config sub-tree at {@link #getPath()} that was applied last.
+     */
+    private final AtomicReference<ConfigFingerprint.Digest> digestRef = new AtomicReference<>();
 
     /**
      * Creates new instance.
@@ -86,11 +93,22 @@ public final class DefaultReloadable<T> extends AbstractReloadable<T> implements
     }
 
     void accept(@NonNull Config config) {
-        val newConfigChecksum = configChecksum(config);
-        val checksumDiffers = !newConfigChecksum.equals(checksumRef.get());
-        log.debug("config checksum differs: {}, new '{}', old '{}'", checksumDiffers, newConfigChecksum, checksumRef.get());
-        if (checksumDiffers) {
-            applyNewConfig(config, newConfigChecksum);
+        accept(config, ConfigFingerprint.of(config));
+    }
+
+    /**
+     * Applies new config if digest of config sub-tree at {@link #getPath()} differs from previously applied one.
+     *
+     * @param config      entire loaded config instance
+     * @param fingerprint fingerprint of {@code config}
+     */
+    void accept(@NonNull Config config, @NonNull ConfigFingerprint fingerprint) {
+        val newDigest = configDigest(fingerprint);
+        val oldDigest = digestRef.get();
+        val digestDiffers = !newDigest.equals(oldDigest);
+        log.debug("config digest differs: {}, new '{}', old '{}'", digestDiffers, newDigest, oldDigest);
+        if (digestDiffers) {
+            applyNewConfig(config, newDigest);
         }
     }
 
@@ -118,14 +136,14 @@ public final class DefaultReloadable<T> extends AbstractReloadable<T> implements
     /**
      * Applies updated config and extracts the value.
      *
-     * @param config         newly fetched configuration
-     * @param configChecksum checksum
+     * @param config       newly fetched configuration
+     * @param configDigest digest of config sub-tree at {@link #getPath()}
      */
-    private void applyNewConfig(@NonNull Config config, @NonNull String configChecksum) {
+    private void applyNewConfig(@NonNull Config config, @NonNull ConfigFingerprint.Digest configDigest) {
         if (!hasConfigPath(config)) {
             log.debug("configuration doesn't have value at path {}", getPath());
             removeValue();
-            checksumRef.set(configChecksum);
+            digestRef.set(configDigest);
             return;
         }
 
@@ -136,7 +154,7 @@ public final class DefaultReloadable<T> extends AbstractReloadable<T> implements
         }
 
         setValue(value);
-        checksumRef.set(configChecksum);
+        digestRef.set(configDigest);
     }
 
     private T extractValue(Config config) {
@@ -144,13 +162,14 @@ public final class DefaultReloadable<T> extends AbstractReloadable<T> implements
     }
 
     /**
-     * Computes config checksum according to value of {@link #getPath()}.
+     * Looks up config digest according to value of {@link #getPath()}.
      *
-     * @param config entire loaded config instance
-     * @return configuration checksum as string at path {@link #getPath()}.
+     * @param fingerprint fingerprint of entire loaded config instance
+     * @return digest of config sub-tree at path {@link #getPath()}, {@link #MISSING_DIGEST} if config doesn't
+     *     contain path.
      */
-    private String configChecksum(@NonNull Config config) {
-        return getConfigValue(config).map(Tsc4jImplUtils::objectChecksum).orElse("");
+    private ConfigFingerprint.Digest configDigest(@NonNull ConfigFingerprint fingerprint) {
+        return fingerprint.digest(path).orElse(MISSING_DIGEST);
     }
 
     /**
@@ -169,19 +188,6 @@ public final class DefaultReloadable<T> extends AbstractReloadable<T> implements
         return true;
     }
 
-    private Optional<ConfigMergeable> getConfigValue(@NonNull Config config) {
-        if (path.isEmpty()) {
-            log.debug("getConfigValue(): path is empty, returning entire config.");
-            return Optional.of(config);
-        } else if (!hasConfigPath(config)) {
-            log.debug("getConfigValue() config doesn't contain path: {}", path);
-            return Optional.empty();
-        }
-
-        // fetch value
-        return Optional.ofNullable(config.getValue(path));
-    }
-
     @Override
     protected void doClose() {
         super.doClose();
@@ -24,9 +24,11 @@ import lombok.val;
 
 import java.time.Duration;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 /**
@@ -38,10 +40,52 @@ public final class DefaultReloadableConfig extends AbstractReloadableConfig {
      */
     private static final long SMALLEST_REFRESH_INTERVAL_MILLIS = 100;
 
+    /**
+     * Default delay between config source change notification and configuration refresh.
+     */
+    public static final Duration DEFAULT_REFRESH_DEBOUNCE = Duration.ofMillis(500);
+
     private final ScheduledFuture<?> refreshTicker;
     private final boolean shutdownScheduledExecutor;
     private final ScheduledExecutorService scheduledExecutor;
 
+    /**
+     * Delay in milliseconds between config source change notification and configuration refresh; all notifications
+     * received during this delay result in a single refresh.
+     */
+    private final long refreshDebounceMillis;
+
+    /**
+     * Flag indicating whether refresh triggered by config source change notification is scheduled.
+     */
+    private final AtomicBoolean changeRefreshPending = new AtomicBoolean();
+
+    /**
+     * Refresh scheduled by config source change notification.
+     */
+    private volatile ScheduledFuture<?> changeRefreshFuture;
+
+    /**
+     * Tells whether config source delivers change notifications.
+     */
+    private final boolean watchingConfigSource;
+
+    /**
+     * Store of last successfully fetched configuration, may be null.
+     */
+    private final ConfigSnapshotStore snapshotStore;
+
+    /**
+     * Tells whether configuration loaded from {@link #snapshotStore} was served before the first configuration fetch.
+     */
+    private final boolean servedStoredSnapshot;
+
+    /**
+     * Timestamp of last successful save to {@link #snapshotStore} in epoch millis, 0 if configuration was not saved
+     * yet.
+     */
+    private volatile long snapshotSavedAt = 0;
+
     /**
      * Creates new instance.
      *
@@ -51,6 +95,14 @@ public final class DefaultReloadableConfig extends AbstractReloadableConfig {
      * @param scheduledExecutorService scheduled executor service for running scheduled tasks, may be null
      * @param reverseUpdateOrder       update reloadables in reverse order
      * @param logFirstFetch            log first configuration fetch?
+     * @param updateDispatcher         reloadable update dispatcher, reloadables are updated serially if null
+     * @param refreshDebounce          delay between config source change notification and configuration refresh, may
+     *                                 be null; change notifications are only used if {@code configSupplier} is {@link
+     *                                 ConfigSupplier} and automatic refresh is enabled.
+     * @param snapshotStore            store of last successfully fetched configuration, may be null; if stored
+     *                                 configuration is available it's served immediately while the first configuration
+     *                                 fetch runs in background.
+     * @see com.github.tsc4j.core.ConfigSource#watch(com.github.tsc4j.core.ConfigQuery, Runnable)
      */
     @Builder
     protected DefaultReloadableConfig(
@@ -59,14 +111,30 @@ public final class DefaultReloadableConfig extends AbstractReloadableConfig {
         int refreshJitterPct,
         ScheduledExecutorService scheduledExecutorService,
         boolean reverseUpdateOrder,
-        boolean logFirstFetch) {
-        super(configSupplier, reverseUpdateOrder, logFirstFetch);
+        boolean logFirstFetch,
+        ReloadableUpdateDispatcher updateDispatcher,
+        Duration refreshDebounce,
+        ConfigSnapshotStore snapshotStore) {
+        super(configSupplier, reverseUpdateOrder, logFirstFetch, updateDispatcher);
 
         this.shutdownScheduledExecutor = (scheduledExecutorService != null);
 
         val refreshMillis = computeRefreshInterval(refreshInterval, refreshJitterPct);
         this.scheduledExecutor = getOrCreateScheduledExecutor(scheduledExecutorService, refreshMillis);
+        this.refreshDebounceMillis = Math.max(0, Optional.ofNullable(refreshDebounce)
+            .orElse(DEFAULT_REFRESH_DEBOUNCE)
+            .toMillis());
+
+        // start watching before the first refresh so that no change goes unnoticed
+        this.watchingConfigSource = watchConfigSource(configSupplier, refreshMillis);
+        this.snapshotStore = snapshotStore;
+        this.servedStoredSnapshot = serveStoredSnapshot();
         this.refreshTicker = init(refreshMillis, this.scheduledExecutor);
+
+        // refresh ticker runs the first fetch immediately, otherwise it needs to be started explicitly
+        if (servedStoredSnapshot && refreshTicker == null) {
+            fetchInBackground();
+        }
     }
 
     /**
@@ -129,6 +197,63 @@ public final class DefaultReloadableConfig extends AbstractReloadableConfig {
         return (millis < SMALLEST_REFRESH_INTERVAL_MILLIS);
     }
 
+    /**
+     * Assigns configuration loaded from snapshot store if it's available.
+     *
+     * @return true if stored configuration has been assigned, otherwise false.
+     */
+    private boolean serveStoredSnapshot() {
+        if (snapshotStore == null) {
+            return false;
+        }
+
+        val sw = new Stopwatch();
+        return snapshotStore.load()
+            .map(config -> {
+                assignConfig(config);
+                log.info("{} serving configuration from {} (loaded in {}) until first config fetch completes.",
+                    this, snapshotStore, sw);
+                return true;
+            })
+            .orElse(false);
+    }
+
+    private void fetchInBackground() {
+        try {
+            Tsc4jImplUtils.defaultExecutor().submit(this::refresh);
+        } catch (RejectedExecutionException e) {
+            log.warn("{} can't schedule first config fetch: {}", this, e.toString());
+        }
+    }
+
+    /**
+     * Tells whether configuration loaded from snapshot store was served before the first configuration fetch.
+     *
+     * @return true/false
+     */
+    public boolean isServedStoredSnapshot() {
+        return servedStoredSnapshot;
+    }
+
+    @Override
+    protected void onConfigFetched(@NonNull Config config, boolean changed) {
+        if (snapshotStore == null) {
+            return;
+        }
+
+        // unchanged config is re-saved only after half of snapshot max age so that stored snapshot doesn't expire
+        val now = System.currentTimeMillis();
+        val maxUnchangedAge = snapshotStore.getMaxAge().toMillis() / 2;
+        if (!changed && snapshotSavedAt > 0 && now - snapshotSavedAt < maxUnchangedAge) {
+            log.trace("{} fetched config didn't change, not saving it to {}", this, snapshotStore);
+            return;
+        }
+
+        if (snapshotStore.save(config)) {
+            snapshotSavedAt = now;
+        }
+    }
+
     @Override
     protected boolean runRefreshInExecutor() {
         return this.refreshTicker != null;
@@ -146,6 +271,71 @@ public final class DefaultReloadableConfig extends AbstractReloadableConfig {
         return executor.scheduleAtFixedRate(this::refresh, 0, refreshMillis, TimeUnit.MILLISECONDS);
     }
 
+    /**
+     * Tells whether configuration is refreshed as soon as config source reports a change in addition to periodic
+     * refresh.
+     *
+     * @return true/false
+     */
+    public boolean isWatchingConfigSource() {
+        return watchingConfigSource;
+    }
+
+    private boolean watchConfigSource(Supplier<Config> configSupplier, long refreshMillis) {
+        // periodic refresh remains a safety net for missed notifications, don't watch if it is disabled
+        if (scheduledExecutor == null || isTooSmallRefreshInterval(refreshMillis) ||
+            !(configSupplier instanceof ConfigSupplier)) {
+            return false;
+        }
+
+        val watching = ((ConfigSupplier) configSupplier).watch(this::onConfigSourceChange);
+        if (watching) {
+            log.info("{} refreshing configuration {} msec after config source change notification.",
+                this, refreshDebounceMillis);
+        }
+        return watching;
+    }
+
+    /**
+     * Config source change listener: schedules configuration refresh after debounce delay unless it's already
+     * scheduled.
+     */
+    private void onConfigSourceChange() {
+        if (isClosed() || !changeRefreshPending.compareAndSet(false, true)) {
+            return;
+        }
+
+        log.debug("{} config source reported change, scheduling refresh in {} msec.", this, refreshDebounceMillis);
+        scheduleChangeRefresh();
+    }
+
+    private void scheduleChangeRefresh() {
+        try {
+            changeRefreshFuture = scheduledExecutor
+                .schedule(this::runChangeRefresh, refreshDebounceMillis, TimeUnit.MILLISECONDS);
+        } catch (RejectedExecutionException e) {
+            log.debug("{} can't schedule config refresh: {}", this, e.toString());
+            changeRefreshPending.set(false);
+        }
+    }
+
+    private void runChangeRefresh() {
+        if (isClosed()) {
+            return;
+        }
+
+        // refresh that is already running might have read configuration before the change, try again later
+        if (isRefreshRunning()) {
+            log.debug("{} refresh is already running, postponing refresh triggered by config source change.", this);
+            scheduleChangeRefresh();
+            return;
+        }
+
+        // notifications received from now on need to trigger another refresh
+        changeRefreshPending.set(false);
+        refresh();
+    }
+
     @Override
     protected void doClose() {
         // cancel refresh ticker
@@ -155,6 +345,12 @@ public final class DefaultReloadableConfig extends AbstractReloadableConfig {
             }
         }
 
+        // cancel pending refresh triggered by config source change
+        val changeRefresh = changeRefreshFuture;
+        if (changeRefresh != null) {
+            changeRefresh.cancel(false);
+        }
+
         super.doClose();
 
         // close scheduled executor if we created it
@@ -0,0 +1,178 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core.impl;
+
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+/**
+ * Watches directories using {@link WatchService} and reports changed paths from a daemon thread.
+ * <p>
+ * This class is thread-safe.
+ */
+@Slf4j
+final class FileWatcher implements Closeable {
+    private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+    private final String name;
+    private final WatchService watchService;
+    private final Consumer<Path> onChange;
+    private final Runnable onOverflow;
+    private final Map<Path, WatchKey> watchedDirs = new ConcurrentHashMap<>();
+    private final Thread thread;
+
+    private FileWatcher(@NonNull String name,
+                        @NonNull WatchService watchService,
+                        @NonNull Consumer<Path> onChange,
+                        @NonNull Runnable onOverflow) {
+        this.name = name;
+        this.watchService = watchService;
+        this.onChange = onChange;
+        this.onOverflow = onOverflow;
+        this.thread = new Thread(this::run, "tsc4j-file-watcher-" + THREAD_COUNTER.incrementAndGet());
+        this.thread.setDaemon(true);
+    }
+
+    /**
+     * Creates and starts new file watcher.
+     *
+     * @param name       watcher name, used for logging
+     * @param onChange   consumer invoked with absolute path of every created, modified or deleted directory entry
+     * @param onOverflow action invoked when events may have been lost and every path should be considered changed
+     * @return optional of started file watcher, empty if default filesystem doesn't support watch service.
+     */
+    static Optional<FileWatcher> create(@NonNull String name,
+                                        @NonNull Consumer<Path> onChange,
+                                        @NonNull Runnable onOverflow) {
+        try {
+            val watchService = FileSystems.getDefault().newWatchService();
+            val watcher = new FileWatcher(name, watchService, onChange, onOverflow);
+            watcher.thread.start();
+            return Optional.of(watcher);
+        } catch (IOException | UnsupportedOperationException e) {
+            log.warn("{} filesystem watch service is not available, falling back to polling: {}",
+                name, e.toString());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Starts watching given directory for changes if it's not being watched already.
+     *
+     * @param dir directory path
+     * @return true if directory is being watched, false if it cannot be watched (ie. it doesn't exist)
+     */
+    boolean watch(@NonNull Path dir) {
+        val absDir = dir.toAbsolutePath().normalize();
+        if (watchedDirs.containsKey(absDir)) {
+            return true;
+        }
+
+        try {
+            val key = absDir.register(watchService, ENTRY_CREATE, ENTRY_MODIFY, ENTRY_DELETE);
+            watchedDirs.put(absDir, key);
+            log.debug("{} watching directory: {}", name, absDir);
+            return true;
+        } catch (ClosedWatchServiceException e) {
+            return false;
+        } catch (IOException e) {
+            log.debug("{} can't watch directory {}: {}", name, absDir, e.toString());
+            return false;
+        }
+    }
+
+    /**
+     * Tells whether given directory is being watched.
+     *
+     * @param dir directory path
+     * @return true/false
+     */
+    boolean isWatched(@NonNull Path dir) {
+        return watchedDirs.containsKey(dir.toAbsolutePath().normalize());
+    }
+
+    private void run() {
+        log.debug("{} file watcher started.", name);
+        try {
+            while (true) {
+                val key = watchService.take();
+                processEvents(key);
+            }
+        } catch (ClosedWatchServiceException | InterruptedException e) {
+            log.debug("{} file watcher stopped.", name);
+        } catch (Throwable t) {
+            log.error("{} file watcher died unexpectedly.", name, t);
+        }
+    }
+
+    private void processEvents(WatchKey key) {
+        val dir = (Path) key.watchable();
+        for (val event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW) {
+                log.debug("{} watch event overflow for directory: {}", name, dir);
+                onOverflow.run();
+                continue;
+            }
+
+            val path = dir.resolve((Path) ((WatchEvent<?>) event).context());
+            log.debug("{} detected change [{}]: {}", name, event.kind(), path);
+            onChange.accept(path);
+        }
+
+        if (!key.reset()) {
+            // directory is not accessible anymore
+            log.debug("{} directory is no longer watched: {}", name, dir);
+            watchedDirs.remove(dir, key);
+            onChange.accept(dir);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            log.debug("{} error closing watch service: {}", name, e.toString());
+        }
+        watchedDirs.clear();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + name + ", dirs=" + watchedDirs.size() + ")";
+    }
+}
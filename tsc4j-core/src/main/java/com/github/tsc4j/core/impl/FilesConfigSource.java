@@ -22,19 +22,73 @@ import com.github.tsc4j.core.ConfigSource;
 import com.github.tsc4j.core.FilesystemLikeConfigSource;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigIncludeContext;
+import com.typesafe.config.ConfigIncluder;
+import com.typesafe.config.ConfigIncluderFile;
+import com.typesafe.config.ConfigObject;
+import com.typesafe.config.ConfigParseOptions;
+import lombok.Getter;
 import lombok.NonNull;
+import lombok.Value;
 import lombok.val;
 
 import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Stream;
 
 /**
  * {@link ConfigSource} implementation that is able to load configurations from filesystem.
+ * <p>
+ * Parsed configuration files are cached by their path along with modification time, size and file key of the file
+ * itself and of all files it includes, so only files that changed (or whose included files changed) since last fetch
+ * are parsed again. If watching is enabled (see {@link Builder#setWatch(boolean)}), directories containing
+ * configuration files and their included files are watched using {@link java.nio.file.WatchService}: cached
+ * configurations and directory listings are trusted until watch service reports a change in one of those directories
+ * (which also covers symlink swaps, ie. kubernetes config map updates), and registered change listeners are notified
+ * about changes as they happen. Source falls back to checking file attributes on every fetch if watch service is not
+ * available.
  */
 public final class FilesConfigSource extends FilesystemLikeConfigSource<String> {
     static final String TYPE = "files";
 
+    /**
+     * Parsed configurations, keyed by absolute file path.
+     */
+    private final Map<Path, CachedConfig> parseCache = new ConcurrentHashMap<>();
+
+    /**
+     * Directory listings, keyed by absolute directory path; used only if directories are watched.
+     */
+    private final Map<Path, List<String>> listingCache = new ConcurrentHashMap<>();
+
+    /**
+     * Change counter, incremented on every detected change.
+     */
+    private final AtomicLong changeCounter = new AtomicLong();
+
+    private final List<Runnable> changeListeners = new CopyOnWriteArrayList<>();
+
+    /**
+     * File watcher, null if watching is disabled or not supported.
+     */
+    private final FileWatcher watcher;
+
     /**
      * Creates new instance.
      *
@@ -44,6 +98,8 @@ public final class FilesConfigSource extends FilesystemLikeConfigSource<String>
      */
     protected FilesConfigSource(Builder builder) {
         super(builder);
+        this.watcher = builder.isWatch() ?
+            FileWatcher.create(toString(), this::onPathChange, this::onOverflow).orElse(null) : null;
     }
 
     /**
@@ -70,13 +126,97 @@ public final class FilesConfigSource extends FilesystemLikeConfigSource<String>
         return "";
     }
 
+    /**
+     * Tells whether directories containing configuration files are being watched for changes.
+     *
+     * @return true/false
+     */
+    public boolean isWatching() {
+        return watcher != null;
+    }
+
+    /**
+     * Registers listener that gets invoked from watcher thread whenever change in one of watched directories is
+     * detected; listeners are never invoked if source is not watching.
+     *
+     * @param listener change listener
+     * @return reference to itself
+     * @see #isWatching()
+     */
+    public FilesConfigSource addChangeListener(@NonNull Runnable listener) {
+        changeListeners.add(listener);
+        return this;
+    }
+
+    /**
+     * Removes previously registered change listener.
+     *
+     * @param listener change listener
+     * @return true if listener was removed, otherwise false
+     */
+    public boolean removeChangeListener(@NonNull Runnable listener) {
+        return changeListeners.remove(listener);
+    }
+
+    @Override
+    public boolean watch(@NonNull ConfigQuery query, @NonNull Runnable listener) {
+        if (!isWatching()) {
+            return false;
+        }
+        addChangeListener(listener);
+        return true;
+    }
+
     @Override
     protected Config loadConfig(String path, String context) {
+        val file = toAbsolutePath(path);
+        if (watcher != null) {
+            watcher.watch(file.getParent());
+        }
+
+        val cached = parseCache.get(file);
+        if (cached != null && watcher != null && cached.getDirectories().stream().allMatch(watcher::isWatched)) {
+            log.trace("{} using cached config: {}", this, path);
+            return cached.getConfig();
+        }
+        if (cached != null && cached.isUpToDate()) {
+            log.trace("{} file didn't change, using cached config: {}", this, path);
+            return cached.getConfig();
+        }
+
         log.debug("{} loading: {}", this, path);
-        val config = ConfigFactory.parseFile(new File(path));
+        val changes = changeCounter.get();
+        val attrs = readAttributes(file);
+        val includer = new RecordingIncluder(null, new LinkedHashSet<>());
+        val config = ConfigFactory.parseFile(file.toFile(), ConfigParseOptions.defaults().setIncluder(includer));
+        val includes = new LinkedHashMap<Path, FileStamp>();
+        includer.files.stream()
+            .filter(it -> !it.equals(file))
+            .forEach(it -> includes.put(it, FileStamp.of(readAttributes(it))));
+
+        if (watcher != null) {
+            includes.keySet().forEach(it -> Optional.ofNullable(it.getParent()).ifPresent(watcher::watch));
+        }
+
+        // don't cache configs of files that might have changed while they were being parsed
+        if (attrs != null && changes == changeCounter.get()) {
+            val entry = new CachedConfig(file, FileStamp.of(attrs), includes, config);
+            parseCache.put(file, entry);
+            if (changes != changeCounter.get()) {
+                parseCache.remove(file, entry);
+            }
+        }
         return debugLoadedConfig(path, config);
     }
 
+    private static BasicFileAttributes readAttributes(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
     @Override
     protected boolean isDirectory(@NonNull String path, String context) {
         val file = new File(path);
@@ -88,20 +228,208 @@ public final class FilesConfigSource extends FilesystemLikeConfigSource<String>
     protected boolean pathExists(@NonNull String path, String context) {
         val file = new File(path);
         val result = file.exists() && file.canRead();
+        if (watcher != null) {
+            // watch parent directory so that creation or removal of config location is detected as well
+            Optional.ofNullable(toAbsolutePath(path).getParent()).ifPresent(watcher::watch);
+        }
         return debugPathExists(path, result);
     }
 
     @Override
     protected Stream<String> listDirectory(@NonNull String path, String context) {
+        if (watcher == null) {
+            return doListDirectory(path).stream();
+        }
+
+        val dir = toAbsolutePath(path);
+        if (!watcher.watch(dir)) {
+            return doListDirectory(path).stream();
+        }
+        return listingCache.computeIfAbsent(dir, it -> doListDirectory(path)).stream();
+    }
+
+    private List<String> doListDirectory(String path) {
         return Optional.ofNullable(new File(path).list())
-            .map(Stream::of)
-            .orElse(Stream.empty());
+            .map(Arrays::asList)
+            .orElse(Collections.emptyList());
+    }
+
+    private static Path toAbsolutePath(File file) {
+        return file.toPath().toAbsolutePath().normalize();
+    }
+
+    private static Path toAbsolutePath(String path) {
+        return Paths.get(path).toAbsolutePath().normalize();
+    }
+
+    private void onPathChange(@NonNull Path path) {
+        changeCounter.incrementAndGet();
+
+        // evict all configs depending on files in the directory where the change occurred: changed path might be
+        // a symlink (ie. kubernetes config map ..data) that other (cached) paths resolve through
+        val dir = path.getParent();
+        parseCache.values().removeIf(it -> it.getDirectories().contains(dir) || it.getFiles().contains(path));
+        listingCache.remove(path);
+        Optional.ofNullable(path.getParent()).ifPresent(listingCache::remove);
+        notifyChangeListeners();
+    }
+
+    private void onOverflow() {
+        changeCounter.incrementAndGet();
+        parseCache.clear();
+        listingCache.clear();
+        notifyChangeListeners();
+    }
+
+    private void notifyChangeListeners() {
+        for (val listener : changeListeners) {
+            try {
+                listener.run();
+            } catch (Throwable t) {
+                log.error("{} error running change listener {}: {}", this, listener, t.getMessage(), t);
+            }
+        }
+    }
+
+    @Override
+    protected void doClose() {
+        if (watcher != null) {
+            watcher.close();
+        }
+        parseCache.clear();
+        listingCache.clear();
+        super.doClose();
+    }
+
+    /**
+     * File modification time, size and file key at the time of parsing.
+     */
+    @Value
+    private static class FileStamp {
+        private static final FileStamp MISSING = new FileStamp(-1, -1, null);
+
+        long lastModified;
+        long size;
+        Object fileKey;
+
+        static FileStamp of(BasicFileAttributes attrs) {
+            return (attrs == null) ? MISSING :
+                new FileStamp(attrs.lastModifiedTime().toMillis(), attrs.size(), attrs.fileKey());
+        }
+    }
+
+    /**
+     * Parsed config file along with attributes of the file and of all files it included at the time of parsing.
+     */
+    @Value
+    private static class CachedConfig {
+        Path file;
+        FileStamp stamp;
+        Map<Path, FileStamp> includes;
+        Config config;
+
+        /**
+         * Returns all files that parsed config depends on.
+         *
+         * @return set of files
+         */
+        Set<Path> getFiles() {
+            val result = new LinkedHashSet<Path>(includes.keySet());
+            result.add(file);
+            return result;
+        }
+
+        /**
+         * Returns directories of all files that parsed config depends on.
+         *
+         * @return set of directories
+         */
+        Set<Path> getDirectories() {
+            val result = new LinkedHashSet<Path>();
+            getFiles().forEach(it -> Optional.ofNullable(it.getParent()).ifPresent(result::add));
+            return result;
+        }
+
+        /**
+         * Tells whether attributes of config file and all of its included files still match.
+         *
+         * @return true/false
+         */
+        boolean isUpToDate() {
+            return stamp.equals(FileStamp.of(readAttributes(file))) &&
+                includes.entrySet().stream()
+                    .allMatch(e -> e.getValue().equals(FileStamp.of(readAttributes(e.getKey()))));
+        }
+    }
+
+    /**
+     * {@link ConfigIncluder} that records files included by parsed config file and delegates actual inclusion to
+     * the fallback includer.
+     */
+    private static final class RecordingIncluder implements ConfigIncluder, ConfigIncluderFile {
+        private static final List<String> EXTENSIONS = Arrays.asList(".conf", ".json", ".properties");
+
+        private final ConfigIncluder fallback;
+        private final Set<Path> files;
+
+        RecordingIncluder(ConfigIncluder fallback, @NonNull Set<Path> files) {
+            this.fallback = fallback;
+            this.files = files;
+        }
+
+        @Override
+        public ConfigIncluder withFallback(ConfigIncluder fallback) {
+            return Objects.equals(this.fallback, fallback) ? this : new RecordingIncluder(fallback, files);
+        }
+
+        @Override
+        public ConfigObject include(ConfigIncludeContext context, String what) {
+            record(context, what);
+            EXTENSIONS.forEach(ext -> record(context, what + ext));
+            return fallback.include(context, what);
+        }
+
+        @Override
+        public ConfigObject includeFile(ConfigIncludeContext context, File what) {
+            files.add(toAbsolutePath(what));
+            return ((ConfigIncluderFile) fallback).includeFile(context, what);
+        }
+
+        private void record(ConfigIncludeContext context, String what) {
+            Optional.ofNullable(context.relativeTo(what))
+                .map(it -> it.origin().filename())
+                .ifPresent(it -> files.add(toAbsolutePath(it)));
+        }
     }
 
     /**
      * Builder for {@link FilesConfigSource}.
      */
     public static class Builder extends FilesystemLikeConfigSource.Builder<Builder> {
+        /**
+         * Watch configuration directories for changes (default: false)
+         */
+        @Getter
+        private boolean watch = false;
+
+        /**
+         * Sets whether configuration directories should be watched for changes.
+         *
+         * @param watch true/false
+         * @return reference to itself
+         */
+        public Builder setWatch(boolean watch) {
+            this.watch = watch;
+            return getThis();
+        }
+
+        @Override
+        public void withConfig(Config config) {
+            super.withConfig(config);
+
+            cfgBoolean(config, "watch", this::setWatch);
+        }
+
         @Override
         public ConfigSource build() {
             return new FilesConfigSource(this);
@@ -0,0 +1,377 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core.impl;
+
+import com.github.tsc4j.core.Tsc4jImplUtils;
+import lombok.Builder;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * {@link ReloadableUpdateDispatcher} that updates independent groups of reloadables in parallel.
+ * <p>
+ * Reloadables are grouped by their shallowest registered ancestor path: reloadables whose paths nest (for example
+ * {@code foo} and {@code foo.bar}) always end up in the same group and are updated serially in the order given by
+ * the caller, while reloadables in different groups (for example {@code foo.bar} and {@code baz}) are updated
+ * concurrently by at most {@link #getParallelism()} workers.
+ * <p>
+ * Every dispatch is assigned a generation number and every reloadable is fenced: updates of a single reloadable never
+ * run concurrently and an update from an older dispatch (for example one still running in background after
+ * {@link #getUpdateTimeout()} has elapsed) is skipped if reloadable has already been updated by a newer dispatch.
+ */
+@Slf4j
+public final class ParallelReloadableUpdateDispatcher implements ReloadableUpdateDispatcher {
+    /**
+     * Default number of update workers (value: <b>{@value}</b>)
+     */
+    static final int DEFAULT_PARALLELISM = 4;
+
+    /**
+     * Default update timeout.
+     */
+    static final Duration DEFAULT_UPDATE_TIMEOUT = Duration.ofSeconds(30);
+
+    /**
+     * Default slow update threshold.
+     */
+    static final Duration DEFAULT_SLOW_UPDATE_THRESHOLD = Duration.ofSeconds(1);
+
+    /**
+     * Default single reloadable update timeout.
+     */
+    static final Duration DEFAULT_RELOADABLE_UPDATE_TIMEOUT = Duration.ofSeconds(10);
+
+    private final ExecutorService executor;
+    private final int parallelism;
+    private final Duration updateTimeout;
+    private final Duration reloadableUpdateTimeout;
+    private final Duration slowUpdateThreshold;
+
+    private final AtomicLong generations = new AtomicLong();
+    private final Map<DefaultReloadable<?>, Fence> fences = Collections.synchronizedMap(new WeakHashMap<>());
+
+    /**
+     * Creates new instance.
+     *
+     * @param executor                executor service used to run update workers, default tsc4j executor (resolved
+     *                                on every dispatch) if null
+     * @param parallelism             maximum number of concurrently running update workers, must be at least 1
+     * @param updateTimeout           maximum time to wait for all reloadable updates to complete; updates that
+     *                                don't complete in time continue to run in background
+     * @param reloadableUpdateTimeout maximum duration of a single reloadable update; update worker thread is
+     *                                interrupted after it elapses, updates running in the dispatching thread are not
+     * @param slowUpdateThreshold     single reloadable update duration after which warning is logged
+     */
+    @Builder
+    private ParallelReloadableUpdateDispatcher(ExecutorService executor,
+                                               int parallelism,
+                                               Duration updateTimeout,
+                                               Duration reloadableUpdateTimeout,
+                                               Duration slowUpdateThreshold) {
+        this.executor = Optional.ofNullable(executor).map(Tsc4jImplUtils::checkExecutor).orElse(null);
+        this.parallelism = (parallelism == 0) ? DEFAULT_PARALLELISM : checkParallelism(parallelism);
+        this.updateTimeout = Optional.ofNullable(updateTimeout).orElse(DEFAULT_UPDATE_TIMEOUT);
+        this.reloadableUpdateTimeout = Optional.ofNullable(reloadableUpdateTimeout)
+            .orElse(DEFAULT_RELOADABLE_UPDATE_TIMEOUT);
+        this.slowUpdateThreshold = Optional.ofNullable(slowUpdateThreshold).orElse(DEFAULT_SLOW_UPDATE_THRESHOLD);
+    }
+
+    private static int checkParallelism(int parallelism) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Invalid update parallelism: " + parallelism);
+        }
+        return parallelism;
+    }
+
+    /**
+     * Returns maximum number of concurrently running update workers.
+     *
+     * @return parallelism
+     */
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Returns maximum time to wait for all reloadable updates to complete.
+     *
+     * @return update timeout
+     */
+    public Duration getUpdateTimeout() {
+        return updateTimeout;
+    }
+
+    /**
+     * Returns maximum duration of a single reloadable update.
+     *
+     * @return reloadable update timeout
+     */
+    public Duration getReloadableUpdateTimeout() {
+        return reloadableUpdateTimeout;
+    }
+
+    /**
+     * Returns single reloadable update duration after which warning is logged.
+     *
+     * @return slow update threshold
+     */
+    public Duration getSlowUpdateThreshold() {
+        return slowUpdateThreshold;
+    }
+
+    @Override
+    public void dispatch(@NonNull List<DefaultReloadable<?>> reloadables,
+                         @NonNull Consumer<DefaultReloadable<?>> updater) {
+        val generation = generations.incrementAndGet();
+        val caller = Thread.currentThread();
+        val groups = independentGroups(reloadables);
+        if (groups.size() < 2 || parallelism < 2) {
+            groups.forEach(group -> updateGroup(group, updater, generation, caller));
+            return;
+        }
+
+        val sw = new Stopwatch();
+        val queue = new ConcurrentLinkedQueue<List<DefaultReloadable<?>>>(groups);
+        val numWorkers = Math.min(parallelism, groups.size());
+        val futures = new ArrayList<Future<?>>(numWorkers);
+        for (int i = 0; i < numWorkers; i++) {
+            submitWorker(queue, updater, generation, caller).ifPresent(futures::add);
+        }
+
+        awaitWorkers(futures);
+        log.debug("{} updated {} reloadable(s) in {} group(s) using {} worker(s) in {}",
+            this, reloadables.size(), groups.size(), numWorkers, sw);
+    }
+
+    private Optional<Future<?>> submitWorker(Queue<List<DefaultReloadable<?>>> queue,
+                                             Consumer<DefaultReloadable<?>> updater,
+                                             long generation,
+                                             Thread caller) {
+        Runnable worker = () -> {
+            List<DefaultReloadable<?>> group;
+            while ((group = queue.poll()) != null) {
+                updateGroup(group, updater, generation, caller);
+            }
+        };
+
+        try {
+            return Optional.of(executor().submit(worker));
+        } catch (RejectedExecutionException e) {
+            log.warn("{} executor rejected update worker, running updates in calling thread: {}", this, e.getMessage());
+            worker.run();
+            return Optional.empty();
+        }
+    }
+
+    private void awaitWorkers(Collection<Future<?>> futures) {
+        val deadline = System.nanoTime() + updateTimeout.toNanos();
+        for (val future : futures) {
+            try {
+                future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                log.error("{} reloadable updates didn't complete in {}, they will continue in background.",
+                    this, updateTimeout);
+                return;
+            } catch (InterruptedException e) {
+                log.warn("{} interrupted while waiting for reloadable updates to complete.", this);
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                log.error("{} reloadable update worker failed: {}", this, e.getCause().getMessage(), e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Returns executor service used to run update workers; default executor is resolved on every invocation because
+     * it might have been replaced since this dispatcher was created.
+     *
+     * @return executor service
+     */
+    private ExecutorService executor() {
+        return (executor == null) ? Tsc4jImplUtils.defaultExecutor() : executor;
+    }
+
+    private void updateGroup(List<DefaultReloadable<?>> group,
+                             Consumer<DefaultReloadable<?>> updater,
+                             long generation,
+                             Thread caller) {
+        group.forEach(reloadable -> updateReloadable(reloadable, updater, generation, caller));
+    }
+
+    private void updateReloadable(DefaultReloadable<?> reloadable,
+                                  Consumer<DefaultReloadable<?>> updater,
+                                  long generation,
+                                  Thread caller) {
+        val fence = fences.computeIfAbsent(reloadable, it -> new Fence());
+        try {
+            if (!fence.lock.tryLock(reloadableUpdateTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                log.error("{} previous update of reloadable didn't complete in {}, skipping update: {}",
+                    this, reloadableUpdateTimeout, reloadable);
+                return;
+            }
+        } catch (InterruptedException e) {
+            log.warn("{} interrupted while waiting for previous update of reloadable: {}", this, reloadable);
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        try {
+            if (fence.generation > generation) {
+                log.debug("{} reloadable has already been updated by newer dispatch, skipping stale update: {}",
+                    this, reloadable);
+                return;
+            }
+            fence.generation = generation;
+            runUpdate(reloadable, updater, caller);
+        } finally {
+            fence.lock.unlock();
+        }
+    }
+
+    /**
+     * Runs reloadable update; update is interrupted after {@link #getReloadableUpdateTimeout()} elapses, unless it runs
+     * in the dispatching thread (for example config refresh thread), which is never interrupted.
+     *
+     * @param reloadable reloadable to update
+     * @param updater    reloadable updater
+     * @param caller     thread that invoked {@link #dispatch(List, Consumer)}
+     */
+    private void runUpdate(DefaultReloadable<?> reloadable, Consumer<DefaultReloadable<?>> updater, Thread caller) {
+        val sw = new Stopwatch();
+        val thread = Thread.currentThread();
+        val interruptible = thread != caller;
+        // guards both interrupting the update thread and clearing its interrupt flag, so that watchdog can't interrupt
+        // the thread after the update has already completed
+        val watchdogState = new UpdateState();
+        val watchdog = Tsc4jImplUtils.defaultScheduledExecutor().schedule(() -> {
+            synchronized (watchdogState) {
+                if (watchdogState.running) {
+                    log.error("{} reloadable update didn't complete in {}{}: {}", this, reloadableUpdateTimeout,
+                        interruptible ? ", interrupting it" : "", reloadable);
+                    if (interruptible) {
+                        watchdogState.interrupted = true;
+                        thread.interrupt();
+                    }
+                }
+            }
+        }, reloadableUpdateTimeout.toNanos(), TimeUnit.NANOSECONDS);
+
+        try {
+            updater.accept(reloadable);
+        } catch (Throwable t) {
+            log.error("{} error updating reloadable {}: {}", this, reloadable, t.getMessage(), t);
+        } finally {
+            watchdog.cancel(false);
+            synchronized (watchdogState) {
+                watchdogState.running = false;
+                if (watchdogState.interrupted) {
+                    // clear interrupt flag set by the watchdog so that it doesn't leak into the next update
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        if (sw.durationNanos() > slowUpdateThreshold.toNanos()) {
+            log.warn("{} slow reloadable update ({}): {}", this, sw, reloadable);
+        }
+    }
+
+    /**
+     * Splits reloadables into groups that can be updated independently of each other.
+     *
+     * @param reloadables reloadables sorted in desired update order
+     * @return list of reloadable groups; order of reloadables in each group is preserved
+     */
+    static List<List<DefaultReloadable<?>>> independentGroups(@NonNull List<DefaultReloadable<?>> reloadables) {
+        val paths = new HashSet<String>();
+        reloadables.forEach(it -> paths.add(it.getPath()));
+
+        val groups = new LinkedHashMap<String, List<DefaultReloadable<?>>>();
+        reloadables.forEach(it -> groups.computeIfAbsent(groupKey(it.getPath(), paths), k -> new ArrayList<>()).add(it));
+        return new ArrayList<>(groups.values());
+    }
+
+    /**
+     * Returns shallowest registered ancestor path (including path itself) of given path.
+     *
+     * @param path  reloadable path
+     * @param paths all reloadable paths
+     * @return group key
+     */
+    private static String groupKey(String path, Set<String> paths) {
+        if (paths.contains("")) {
+            return "";
+        }
+
+        int idx = path.indexOf('.');
+        while (idx > 0) {
+            val prefix = path.substring(0, idx);
+            if (paths.contains(prefix)) {
+                return prefix;
+            }
+            idx = path.indexOf('.', idx + 1);
+        }
+        return path;
+    }
+
+    /**
+     * Per-reloadable update fence.
+     */
+    private static final class UpdateState {
+        private boolean running = true;
+        private boolean interrupted;
+    }
+
+    private static final class Fence {
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /**
+         * Generation of the last dispatch that updated reloadable, guarded by {@link #lock}.
+         */
+        private long generation;
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(parallelism=" + parallelism + ")";
+    }
+}
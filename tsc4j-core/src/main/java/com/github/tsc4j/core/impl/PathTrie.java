@@ -0,0 +1,176 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core.impl;
+
+import lombok.NonNull;
+import lombok.val;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prefix trie of elements registered at config paths.
+ * <p>
+ * Used to find elements interested in a changed config path: elements registered at any prefix of the changed path
+ * (their config sub-tree contains the change) and elements registered at any descendant path (their config sub-tree
+ * is contained in the change).
+ * <p>
+ * This class is thread-safe.
+ *
+ * @param <T> element type
+ */
+final class PathTrie<T> {
+    private final Node<T> root = new Node<>();
+    private int size = 0;
+
+    /**
+     * Splits config path to path elements.
+     *
+     * @param path config path, see {@link com.github.tsc4j.core.Tsc4j#configPath(String)}
+     * @return list of path elements, empty list for empty path
+     */
+    static List<String> splitPath(@NonNull String path) {
+        return path.isEmpty() ? Collections.emptyList() : Arrays.asList(path.split("\\."));
+    }
+
+    /**
+     * Registers element at given path.
+     *
+     * @param path    config path
+     * @param element element
+     * @return true if element was added, false if it's already registered at given path
+     */
+    synchronized boolean add(@NonNull String path, @NonNull T element) {
+        Node<T> node = root;
+        for (val key : splitPath(path)) {
+            node = node.children.computeIfAbsent(key, k -> new Node<>());
+        }
+
+        val added = node.elements.add(element);
+        if (added) {
+            size++;
+        }
+        return added;
+    }
+
+    /**
+     * Removes element registered at given path.
+     *
+     * @param path    config path
+     * @param element element
+     * @return true if element was removed, otherwise false
+     */
+    synchronized boolean remove(@NonNull String path, @NonNull T element) {
+        val removed = remove(root, splitPath(path), 0, element);
+        if (removed) {
+            size--;
+        }
+        return removed;
+    }
+
+    private boolean remove(Node<T> node, List<String> path, int idx, T element) {
+        if (idx == path.size()) {
+            return node.elements.remove(element);
+        }
+
+        val key = path.get(idx);
+        val child = node.children.get(key);
+        if (child == null) {
+            return false;
+        }
+
+        val removed = remove(child, path, idx + 1, element);
+
+        // prune empty branches
+        if (child.isEmpty()) {
+            node.children.remove(key);
+        }
+        return removed;
+    }
+
+    /**
+     * Removes all registered elements.
+     */
+    synchronized void clear() {
+        root.children.clear();
+        root.elements.clear();
+        size = 0;
+    }
+
+    /**
+     * Returns number of registered elements.
+     *
+     * @return number of registered elements
+     */
+    synchronized int size() {
+        return size;
+    }
+
+    /**
+     * Finds all elements affected by changes at given paths.
+     *
+     * @param changedPaths collection of changed paths, each path represented as list of path elements
+     * @return set of elements registered at any prefix or descendant of any changed path
+     */
+    synchronized Set<T> find(@NonNull Collection<List<String>> changedPaths) {
+        val result = new LinkedHashSet<T>();
+        changedPaths.forEach(path -> find(path, result));
+        return result;
+    }
+
+    private void find(List<String> path, Set<T> result) {
+        Node<T> node = root;
+        result.addAll(node.elements);
+        for (val key : path) {
+            node = node.children.get(key);
+            if (node == null) {
+                return;
+            }
+            result.addAll(node.elements);
+        }
+
+        // node at changed path exists, collect all descendants
+        collectDescendants(node, result);
+    }
+
+    private void collectDescendants(Node<T> node, Set<T> result) {
+        for (val child : node.children.values()) {
+            result.addAll(child.elements);
+            collectDescendants(child, result);
+        }
+    }
+
+    @Override
+    public synchronized String toString() {
+        return getClass().getSimpleName() + "(size=" + size + ")";
+    }
+
+    private static final class Node<T> {
+        final Map<String, Node<T>> children = new HashMap<>();
+        final Set<T> elements = new LinkedHashSet<>();
+
+        boolean isEmpty() {
+            return children.isEmpty() && elements.isEmpty();
+        }
+    }
+}
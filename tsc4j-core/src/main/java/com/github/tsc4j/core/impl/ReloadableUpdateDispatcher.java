@@ -0,0 +1,44 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core.impl;
+
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Strategy that dispatches new configuration to reloadables on configuration refresh.
+ *
+ * @see AbstractReloadableConfig
+ * @see ParallelReloadableUpdateDispatcher
+ */
+public interface ReloadableUpdateDispatcher {
+    /**
+     * Dispatcher that updates reloadables one by one in the calling thread.
+     */
+    ReloadableUpdateDispatcher SERIAL = (reloadables, updater) -> reloadables.forEach(updater);
+
+    /**
+     * Dispatches update to given reloadables. Implementations must update reloadables whose paths nest in order in
+     * which they appear in {@code reloadables} list and must not throw.
+     *
+     * @param reloadables list of reloadables to update, sorted in desired update order
+     * @param updater     reloadable updater, never throws
+     */
+    void dispatch(@NonNull List<DefaultReloadable<?>> reloadables, @NonNull Consumer<DefaultReloadable<?>> updater);
+}
@@ -0,0 +1,401 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.core.impl;
+
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import com.typesafe.config.ConfigParseOptions;
+import com.typesafe.config.ConfigRenderOptions;
+import lombok.NonNull;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.OpenOption;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.CRC32;
+
+/**
+ * Host-local, memory-mapped configuration file shared between multiple JVMs running on the same host.
+ * <p>
+ * Exactly one process (the <i>writer</i>) publishes configuration to the file, all other processes read it from their
+ * own memory mapping of the same file. Resolved configuration is encoded by {@link ConfigCodec}, unresolved
+ * configuration is stored as HOCON text, so that readers can resolve it later. Writer is elected by acquiring
+ * exclusive lock on a {@code <file>.lock} companion file; lock is released by the operating system when the writer
+ * process exits, so that any other process can take over. Both files are created readable and writable only by the
+ * owner on posix filesystems.
+ * <p>
+ * File layout:
+ * <pre>
+ *  0: int  magic ({@code TSCS})
+ *  4: int  layout version
+ *  8: long generation; odd while writer is updating the file
+ * 16: long publish timestamp (epoch millis)
+ * 24: int  payload length
+ * 28: int  payload CRC32
+ * 32: int  payload encoding; 0: {@link ConfigCodec}, 1: HOCON text
+ * 64: payload
+ * </pre>
+ * Generation counter works as a sequence lock: readers retry if it's odd or if it changed while they were copying
+ * the payload; payload checksum additionally guards against torn reads. Readers copy and decode the payload only
+ * when generation changes, otherwise they return previously decoded configuration.
+ * <p>
+ * This class is thread-safe.
+ */
+@Slf4j
+public final class SharedConfigFile implements Closeable {
+    /**
+     * Shared file magic number ({@code TSCS}).
+     */
+    private static final int MAGIC = 0x54534353;
+    private static final int LAYOUT_VERSION = 1;
+
+    private static final int OFFSET_MAGIC = 0;
+    private static final int OFFSET_VERSION = 4;
+    private static final int OFFSET_GENERATION = 8;
+    private static final int OFFSET_TIMESTAMP = 16;
+    private static final int OFFSET_LENGTH = 24;
+    private static final int OFFSET_CRC = 28;
+    private static final int OFFSET_ENCODING = 32;
+    static final int HEADER_SIZE = 64;
+
+    private static final int ENCODING_CODEC = 0;
+    private static final int ENCODING_HOCON = 1;
+
+    private static final int MIN_FILE_SIZE = 64 * 1024;
+    private static final int MAX_READ_ATTEMPTS = 100;
+
+    private static final Set<PosixFilePermission> OWNER_ONLY = PosixFilePermissions.fromString("rw-------");
+
+    private final Path path;
+    private final Path lockPath;
+    private final Clock clock;
+    private final FileChannel channel;
+
+    private FileChannel lockChannel;
+    private FileLock writerLock;
+    private MappedByteBuffer buffer;
+    private Entry lastEntry;
+    private boolean closed = false;
+
+    /**
+     * Creates new instance, creates the file if it doesn't exist.
+     *
+     * @param path  shared file path
+     * @param clock clock used to timestamp published configurations
+     * @throws IOException in case of I/O errors
+     */
+    public SharedConfigFile(@NonNull Path path, @NonNull Clock clock) throws IOException {
+        this.path = path.toAbsolutePath().normalize();
+        this.lockPath = Paths.get(this.path.toString() + ".lock");
+        this.clock = clock;
+
+        Optional.ofNullable(this.path.getParent()).ifPresent(SharedConfigFile::createDirectories);
+        this.channel = openChannel(this.path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    /**
+     * Opens file channel, creating the file readable and writable only by the owner on posix filesystems if it doesn't
+     * exist.
+     */
+    private static FileChannel openChannel(Path path, OpenOption... options) throws IOException {
+        val opts = new HashSet<OpenOption>(Arrays.asList(options));
+        opts.add(StandardOpenOption.CREATE);
+        if (path.getFileSystem().supportedFileAttributeViews().contains("posix")) {
+            return FileChannel.open(path, opts, PosixFilePermissions.asFileAttribute(OWNER_ONLY));
+        }
+        return FileChannel.open(path, opts);
+    }
+
+    private static void createDirectories(Path dir) {
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new IllegalStateException("Can't create directory: " + dir, e);
+        }
+    }
+
+    /**
+     * Returns shared file path.
+     *
+     * @return path
+     */
+    public Path getPath() {
+        return path;
+    }
+
+    /**
+     * Tries to become the writer of this shared file.
+     *
+     * @return true if this instance is the writer (either just elected or elected previously), otherwise false.
+     */
+    public synchronized boolean tryAcquireWriter() {
+        if (writerLock != null && writerLock.isValid()) {
+            return true;
+        }
+        if (closed) {
+            return false;
+        }
+
+        try {
+            if (lockChannel == null) {
+                lockChannel = openChannel(lockPath, StandardOpenOption.WRITE);
+            }
+            writerLock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            // lock is held by another instance in this jvm
+            writerLock = null;
+        } catch (IOException e) {
+            log.warn("{} can't acquire writer lock {}: {}", this, lockPath, e.toString());
+            writerLock = null;
+        }
+
+        if (writerLock != null) {
+            log.info("{} elected as shared config writer.", this);
+        }
+        return writerLock != null;
+    }
+
+    /**
+     * Tells whether this instance is the writer of this shared file.
+     *
+     * @return true/false
+     * @see #tryAcquireWriter()
+     */
+    public synchronized boolean isWriter() {
+        return writerLock != null && writerLock.isValid();
+    }
+
+    /**
+     * Publishes given configuration to shared file.
+     *
+     * @param config configuration, might be unresolved
+     * @return generation of published configuration
+     * @throws IllegalStateException if this instance is not the writer
+     * @throws IOException           in case of I/O errors
+     */
+    public synchronized long publish(@NonNull Config config) throws IOException {
+        if (!isWriter()) {
+            throw new IllegalStateException(this + " is not the shared config writer.");
+        }
+
+        val encoding = config.isResolved() ? ENCODING_CODEC : ENCODING_HOCON;
+        val payload = (encoding == ENCODING_CODEC)
+            ? ConfigCodec.encode(config)
+            : config.root().render(ConfigRenderOptions.concise()).getBytes(StandardCharsets.UTF_8);
+        val buf = ensureMapped(HEADER_SIZE + payload.length);
+
+        val crc = new CRC32();
+        crc.update(payload);
+
+        // continue generation sequence of previous writer; make it even if previous writer died mid-update
+        val prevGeneration = (buf.getInt(OFFSET_MAGIC) == MAGIC) ? buf.getLong(OFFSET_GENERATION) : 0L;
+        val generation = (prevGeneration | 1L) + 1;
+
+        buf.putLong(OFFSET_GENERATION, generation - 1);
+        buf.putInt(OFFSET_MAGIC, MAGIC);
+        buf.putInt(OFFSET_VERSION, LAYOUT_VERSION);
+        buf.putLong(OFFSET_TIMESTAMP, clock.millis());
+        buf.putInt(OFFSET_LENGTH, payload.length);
+        buf.putInt(OFFSET_CRC, (int) crc.getValue());
+        buf.putInt(OFFSET_ENCODING, encoding);
+        val dup = buf.duplicate();
+        dup.position(HEADER_SIZE);
+        dup.put(payload);
+        buf.putLong(OFFSET_GENERATION, generation);
+
+        log.debug("{} published config generation {} ({} bytes).", this, generation, payload.length);
+        return generation;
+    }
+
+    /**
+     * Returns generation of currently published configuration without decoding it.
+     *
+     * @return generation, 0 if nothing has been published yet.
+     */
+    public synchronized long getGeneration() {
+        try {
+            val buf = ensureMapped(0);
+            if (buf.capacity() < HEADER_SIZE || buf.getInt(OFFSET_MAGIC) != MAGIC) {
+                return 0L;
+            }
+            return buf.getLong(OFFSET_GENERATION);
+        } catch (IOException e) {
+            log.debug("{} error reading generation: {}", this, e.toString());
+            return 0L;
+        }
+    }
+
+    /**
+     * Reads currently published configuration; payload is decoded only if generation changed since last read.
+     *
+     * @return optional of published configuration, empty if nothing has been published yet.
+     * @throws IOException in case of I/O errors or if shared file contains invalid data
+     */
+    public synchronized Optional<Entry> read() throws IOException {
+        for (int attempt = 0; attempt < MAX_READ_ATTEMPTS; attempt++) {
+            val buf = ensureMapped(0);
+            if (buf.capacity() < HEADER_SIZE || buf.getInt(OFFSET_MAGIC) != MAGIC) {
+                return Optional.empty();
+            }
+            if (buf.getInt(OFFSET_VERSION) != LAYOUT_VERSION) {
+                throw new IOException("Unsupported shared config file layout version: " + buf.getInt(OFFSET_VERSION));
+            }
+
+            val generation = buf.getLong(OFFSET_GENERATION);
+            if ((generation & 1L) == 1L) {
+                // writer is updating the file
+                Thread.yield();
+                continue;
+            }
+            if (lastEntry != null && lastEntry.getGeneration() == generation) {
+                return Optional.of(lastEntry);
+            }
+
+            val publishedAt = buf.getLong(OFFSET_TIMESTAMP);
+            val length = buf.getInt(OFFSET_LENGTH);
+            val crc = buf.getInt(OFFSET_CRC);
+            val encoding = buf.getInt(OFFSET_ENCODING);
+            if (length < 0 || HEADER_SIZE + (long) length > buf.capacity()) {
+                // file might have been grown by the writer after it was mapped
+                buffer = null;
+                continue;
+            }
+
+            val payload = new byte[length];
+            val dup = buf.duplicate();
+            dup.position(HEADER_SIZE);
+            dup.get(payload);
+
+            if (buf.getLong(OFFSET_GENERATION) != generation || !checksumMatches(payload, crc)) {
+                continue;
+            }
+
+            lastEntry = new Entry(generation, Instant.ofEpochMilli(publishedAt), decode(payload, encoding));
+            return Optional.of(lastEntry);
+        }
+        throw new IOException("Can't obtain consistent view of shared config file after "
+            + MAX_READ_ATTEMPTS + " attempts: " + path);
+    }
+
+    private Config decode(byte[] payload, int encoding) throws IOException {
+        if (encoding == ENCODING_CODEC) {
+            return ConfigCodec.decode(payload);
+        }
+        if (encoding == ENCODING_HOCON) {
+            val options = ConfigParseOptions.defaults().setOriginDescription("shared config file " + path);
+            return ConfigFactory.parseString(new String(payload, StandardCharsets.UTF_8), options);
+        }
+        throw new IOException("Unsupported shared config payload encoding: " + encoding);
+    }
+
+    private static boolean checksumMatches(byte[] payload, int expected) {
+        val crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == expected;
+    }
+
+    /**
+     * Returns file mapping that is at least {@code minSize} bytes large; file is grown if necessary.
+     */
+    private MappedByteBuffer ensureMapped(int minSize) throws IOException {
+        if (closed) {
+            throw new IOException(this + " is closed.");
+        }
+
+        long fileSize = channel.size();
+        if (minSize > fileSize) {
+            fileSize = Math.max(Math.max(MIN_FILE_SIZE, fileSize * 2), minSize);
+            // grow the file by writing its last byte; mapping beyond the end of file is not portable
+            channel.write(ByteBuffer.wrap(new byte[1]), fileSize - 1);
+        }
+        if (buffer == null || buffer.capacity() != fileSize) {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, fileSize);
+        }
+        return buffer;
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        buffer = null;
+        lastEntry = null;
+        closeQuietly(writerLock);
+        closeQuietly(lockChannel);
+        closeQuietly(channel);
+        writerLock = null;
+    }
+
+    private void closeQuietly(AutoCloseable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            log.debug("{} error closing {}: {}", this, closeable, e.toString());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + path + ")";
+    }
+
+    /**
+     * Configuration read from shared file.
+     */
+    @Value
+    public static class Entry {
+        /**
+         * Configuration generation.
+         */
+        long generation;
+
+        /**
+         * Time when configuration has been published.
+         */
+        Instant publishedAt;
+
+        /**
+         * Configuration, unresolved if it has been published unresolved.
+         */
+        Config config;
+    }
+}
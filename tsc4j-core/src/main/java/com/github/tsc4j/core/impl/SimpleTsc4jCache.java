@@ -107,6 +107,13 @@ public final class SimpleTsc4jCache<K, E> implements Tsc4jCache<K, E> {
         return maybeRunMaintenance();
     }
 
+    @Override
+    public Tsc4jCache<K, E> remove(@NonNull K key) {
+        log.trace("{} removing element from cache: {}", this, key);
+        cache.remove(key);
+        return this;
+    }
+
     @Override
     public Tsc4jCache<K, E> clear() {
         log.debug("{} clearing cache.", this);
@@ -28,16 +28,21 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.NonNull;
 import lombok.SneakyThrows;
+import lombok.Value;
 import lombok.experimental.Accessors;
 import lombok.val;
 
 import javax.net.ssl.HostnameVerifier;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLSocketFactory;
 import javax.net.ssl.TrustManager;
 import javax.net.ssl.X509TrustManager;
 import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
 import java.net.HttpURLConnection;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
@@ -50,14 +55,19 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 /**
  * {@link ConfigSource} that fetches configurations using HTTP protocol.
  */
 public final class URLConfigSource extends AbstractConfigSource {
     static final String TYPE = "url";
+    private static final String HEADER_ACCEPT_ENCODING = "accept-encoding";
+    private static final int HTTP_TOO_MANY_REQUESTS = 429;
 
     /**
      * HTTP request method
@@ -76,10 +86,30 @@ public final class URLConfigSource extends AbstractConfigSource {
 
     private final boolean verifyTls;
     private final int timeoutMillis;
+    private final int connectTimeoutMillis;
+    private final int maxRetries;
+    private final long retryBackoffMillis;
+    private final boolean conditionalFetch;
+
+    /**
+     * Validators and parsed configs of previous responses, keyed by url; used to issue conditional requests.
+     */
+    private final Map<String, CachedResponse> responseCache = new ConcurrentHashMap<>();
 
     private static final HostnameVerifier insecureHostnameVerifier = (hostname, session) -> true;
     private static final SSLContext insecureTlsCtx = createInsecureTlsContext();
 
+    /**
+     * Shared insecure socket factory; JDK keeps connections alive per socket factory, therefore the same instance
+     * needs to be used for all connections in order to reuse them.
+     */
+    private static final SSLSocketFactory insecureSocketFactory = insecureTlsCtx.getSocketFactory();
+
+    /**
+     * Upper bound of exponential retry backoff exponent.
+     */
+    private static final int MAX_BACKOFF_SHIFT = 10;
+
     /**
      * Creates new instance.
      *
@@ -92,7 +122,12 @@ public final class URLConfigSource extends AbstractConfigSource {
         this.headers = createHeaders(builder);
         this.verifyTls = builder.isVerifyTLS();
         this.timeoutMillis = (int) builder.getTimeout().toMillis();
-        //this.httpClient = HttpClientUtils.createHttpClient(builder.isVerifyTLS());
+        this.connectTimeoutMillis = (int) Optional.ofNullable(builder.getConnectTimeout())
+            .orElse(builder.getTimeout())
+            .toMillis();
+        this.maxRetries = builder.getMaxRetries();
+        this.retryBackoffMillis = builder.getRetryBackoff().toMillis();
+        this.conditionalFetch = builder.isConditionalFetch() && "GET".equalsIgnoreCase(method);
     }
 
     private Map<String, String> createHeaders(@NonNull Builder builder) {
@@ -143,32 +178,159 @@ public final class URLConfigSource extends AbstractConfigSource {
         return () -> fetchConfig(url);
     }
 
+    /**
+     * Fetches configuration from given url, retrying fetch with exponential backoff on I/O errors and on HTTP
+     * responses that indicate a transient server error; malformed urls are not retried.
+     *
+     * @param url url
+     * @return fetched config
+     */
     private Config fetchConfig(@NonNull String url) {
-        try {
-            val conn = openConnection(new URL(url));
-            return readConfig(conn.getInputStream(), url);
-        } catch (FileNotFoundException e) {
-            warnOrThrowOnMissingConfigLocation(url);
-            return ConfigFactory.empty();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return fetchConfigOnce(url);
+            } catch (FileNotFoundException e) {
+                responseCache.remove(url);
+                warnOrThrowOnMissingConfigLocation(url);
+                return ConfigFactory.empty();
+            } catch (MalformedURLException e) {
+                // malformed url is not going to get any better by retrying
+                throw Tsc4jException.of("Invalid config url %s: %%s", e, url);
+            } catch (IOException e) {
+                if (attempt > maxRetries) {
+                    throw Tsc4jException.of("Error fetching config from url %s after %d attempt(s): %%s",
+                        e, url, attempt);
+                }
+                val delayMillis = retryBackoffMillis << Math.min(attempt - 1, MAX_BACKOFF_SHIFT);
+                log.debug("{} attempt #{} to fetch {} failed, retrying in {} msec: {}",
+                    this, attempt, url, delayMillis, e.toString());
+                sleep(delayMillis);
+            } catch (Exception e) {
+                throw Tsc4jException.of("Error fetching config from url %s: %%s", e, url);
+            }
+        }
+    }
+
+    /**
+     * Performs single configuration fetch attempt.
+     *
+     * @param url url
+     * @return fetched config
+     * @throws FileNotFoundException if configuration doesn't exist on the server
+     * @throws IOException           on I/O errors and retryable HTTP responses
+     */
+    private Config fetchConfigOnce(@NonNull String url) throws IOException {
+        val cached = conditionalFetch ? responseCache.get(url) : null;
+        val conn = openConnection(new URL(url), cached);
+        val status = conn.getResponseCode();
+        if (cached != null && status == HttpURLConnection.HTTP_NOT_MODIFIED) {
+            log.debug("{} configuration not modified, using cached config: {}", this, url);
+            discardResponse(conn);
+            return cached.getConfig();
+        }
+        checkResponseStatus(conn, status);
+
+        val config = readConfig(getResponseStream(conn), url);
+        rememberResponse(url, conn, config);
+        return config;
+    }
+
+    private void checkResponseStatus(@NonNull HttpURLConnection conn, int status) throws IOException {
+        if (status < HttpURLConnection.HTTP_BAD_REQUEST) {
+            return;
+        }
+
+        // error body needs to be consumed in order to return connection to keep-alive cache
+        discardResponse(conn);
+        val message = "HTTP " + status + " " + conn.getResponseMessage();
+        if (status == HttpURLConnection.HTTP_NOT_FOUND || status == HttpURLConnection.HTTP_GONE) {
+            throw new FileNotFoundException(message);
+        } else if (status >= HttpURLConnection.HTTP_INTERNAL_ERROR || status == HTTP_TOO_MANY_REQUESTS) {
+            throw new IOException(message);
+        }
+        throw new IllegalStateException(message);
+    }
+
+    /**
+     * Reads and discards response body, so that underlying connection can be reused.
+     *
+     * @param conn connection
+     */
+    private void discardResponse(@NonNull HttpURLConnection conn) {
+        val buf = new byte[4096];
+        val errorStream = conn.getErrorStream();
+        try (InputStream in = (errorStream == null) ? conn.getInputStream() : errorStream) {
+            while (in.read(buf) != -1) {
+                // discard
+            }
         } catch (Exception e) {
-            throw Tsc4jException.of("Error fetching config from url %s: %%s", e, url);
+            log.trace("{} error discarding response body: {}", this, e.toString());
+        }
+    }
+
+    private void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry config fetch.", e);
         }
     }
 
     @SneakyThrows
-    private HttpURLConnection openConnection(@NonNull URL url) {
+    private HttpURLConnection openConnection(@NonNull URL url, CachedResponse cached) {
         log.debug("{} fetching configuration from: {} ", this, url);
         val conn = maybeDisableTLSVerification((HttpURLConnection) url.openConnection());
 
         conn.setRequestMethod(method);
-        conn.setConnectTimeout(timeoutMillis);
+        conn.setConnectTimeout(connectTimeoutMillis);
         conn.setReadTimeout(timeoutMillis);
+        conn.setRequestProperty(HEADER_ACCEPT_ENCODING, "gzip");
 
         headers.forEach(conn::setRequestProperty);
 
+        if (cached != null) {
+            if (cached.getEtag() != null) {
+                conn.setRequestProperty("If-None-Match", cached.getEtag());
+            }
+            if (cached.getLastModified() != null) {
+                conn.setRequestProperty("If-Modified-Since", cached.getLastModified());
+            }
+        }
+
         return conn;
     }
 
+    /**
+     * Returns response body stream, transparently decompressing gzip content encoding.
+     *
+     * @param conn connection
+     * @return response body input stream
+     * @throws IOException if response can't be read
+     */
+    private InputStream getResponseStream(@NonNull HttpURLConnection conn) throws IOException {
+        val inputStream = conn.getInputStream();
+        val encoding = conn.getContentEncoding();
+        if (encoding != null && encoding.trim().equalsIgnoreCase("gzip")) {
+            return new GZIPInputStream(inputStream);
+        }
+        return inputStream;
+    }
+
+    private void rememberResponse(@NonNull String url, @NonNull HttpURLConnection conn, @NonNull Config config) {
+        if (!conditionalFetch) {
+            return;
+        }
+
+        val etag = conn.getHeaderField("ETag");
+        val lastModified = conn.getHeaderField("Last-Modified");
+        if (etag == null && lastModified == null) {
+            responseCache.remove(url);
+        } else {
+            responseCache.put(url, new CachedResponse(etag, lastModified, config));
+        }
+    }
+
     /**
      * Disables TLS validation on a specified connection if {@link #verifyTls} is false.
      *
@@ -178,7 +340,7 @@ public final class URLConfigSource extends AbstractConfigSource {
     private HttpURLConnection maybeDisableTLSVerification(@NonNull HttpURLConnection conn) {
         if (!verifyTls && conn instanceof HttpsURLConnection) {
             val httpsConn = (HttpsURLConnection) conn;
-            httpsConn.setSSLSocketFactory(insecureTlsCtx.getSocketFactory());
+            httpsConn.setSSLSocketFactory(insecureSocketFactory);
             httpsConn.setHostnameVerifier(insecureHostnameVerifier);
             log.debug("{} disabled TLS verification on: {}", this, httpsConn);
         }
@@ -214,6 +376,22 @@ public final class URLConfigSource extends AbstractConfigSource {
         };
     }
 
+    @Override
+    protected void doClose() {
+        super.doClose();
+        responseCache.clear();
+    }
+
+    /**
+     * Response validators and parsed config of previous successful fetch.
+     */
+    @Value
+    private static class CachedResponse {
+        String etag;
+        String lastModified;
+        Config config;
+    }
+
     /**
      * Builder for {@link URLConfigSource}
      */
@@ -256,6 +434,27 @@ public final class URLConfigSource extends AbstractConfigSource {
          */
         private Duration timeout = Duration.ofSeconds(10);
 
+        /**
+         * HTTP connect timeout, {@link #getTimeout()} is used if not set.
+         */
+        private Duration connectTimeout;
+
+        /**
+         * Maximum number of fetch retries on I/O errors and HTTP {@code 429} and {@code 5xx} responses.
+         */
+        private int maxRetries = 2;
+
+        /**
+         * Delay before the first retry; delay is doubled on every subsequent retry.
+         */
+        private Duration retryBackoff = Duration.ofMillis(200);
+
+        /**
+         * Remember {@code ETag} and {@code Last-Modified} response headers and issue conditional {@code GET} requests,
+         * reusing previously fetched configuration if server responds with {@code 304 Not Modified}?
+         */
+        private boolean conditionalFetch = true;
+
         /**
          * Sets single HTTP header.
          *
@@ -304,6 +503,11 @@ public final class URLConfigSource extends AbstractConfigSource {
             cfgConfigObject(config, "headers")
                 .ifPresent(e -> e.unwrapped().forEach((key, val) -> header(key, val.toString())));
             cfgBoolean(config, "verify-tls", this::setVerifyTLS);
+            cfgDuration(config, "timeout", this::setTimeout);
+            cfgDuration(config, "connect-timeout", this::setConnectTimeout);
+            cfgInt(config, "max-retries", this::setMaxRetries);
+            cfgDuration(config, "retry-backoff", this::setRetryBackoff);
+            cfgBoolean(config, "conditional-fetch", this::setConditionalFetch);
         }
 
         @Override
@@ -324,6 +528,19 @@ public final class URLConfigSource extends AbstractConfigSource {
 
             Tsc4jImplUtils.optString(getMethod()).orElseThrow(() -> new IllegalArgumentException("HTTP request method must be set."));
 
+            if (timeout == null || timeout.isNegative() || timeout.isZero()) {
+                throw new IllegalArgumentException("HTTP request timeout must be positive: " + timeout);
+            }
+            if (connectTimeout != null && (connectTimeout.isNegative() || connectTimeout.isZero())) {
+                throw new IllegalArgumentException("HTTP connect timeout must be positive: " + connectTimeout);
+            }
+            if (maxRetries < 0) {
+                throw new IllegalArgumentException("Max retries cannot be negative: " + maxRetries);
+            }
+            if (retryBackoff == null || retryBackoff.isNegative()) {
+                throw new IllegalArgumentException("Retry backoff cannot be negative: " + retryBackoff);
+            }
+
             return super.checkState();
         }
 
@@ -20,6 +20,7 @@ package com.github.tsc4j.core
 import com.github.tsc4j.core.AbstractConfigTransformer
 import com.typesafe.config.Config
 import com.typesafe.config.ConfigFactory
+import com.typesafe.config.ConfigValue
 import com.typesafe.config.ConfigValueFactory
 import org.slf4j.Logger
 import org.slf4j.LoggerFactory
@@ -60,7 +61,7 @@ abstract class AbstractConfigTransformerSpec extends Specification {
         def res = getTransformer().transform(config)
 
         then:
-        !res.is(config)
+        res.is(config)
         res == config
     }
 
@@ -75,10 +76,8 @@ abstract class AbstractConfigTransformerSpec extends Specification {
         def transformedList = transformer.transformList("foo", configList, null)
 
         then:
-        !transformedList.is(configList)
+        transformedList.is(configList)
         transformedList == configList
-
-        !transformedList.unwrapped().is(configList.unwrapped())
         transformedList.unwrapped() == configList.unwrapped()
     }
 
@@ -93,10 +92,110 @@ abstract class AbstractConfigTransformerSpec extends Specification {
         def transformedObject = transformer.transformObject("foo", configObject, null)
 
         then:
-        !transformedObject.is(configObject)
+        transformedObject.is(configObject)
         transformedObject == configObject
-
-        !transformedObject.unwrapped().is(configObject.unwrapped())
         transformedObject.unwrapped() == configObject.unwrapped()
     }
+
+    def "transform() should rebuild only changed branches and retain unchanged values by reference"() {
+        given:
+        def config = ConfigFactory.parseString('''
+            a { b { secret: "x", plain: "y" }, c { d: 1, e: [1, 2] } }
+            f { g: "z" }
+            h: [ { secret: "w" }, { plain: "v" } ]
+            i: null
+            "j.k": { secret: "u" }
+        ''').resolve()
+        def transformer = new UpperCaseSecretTransformer()
+
+        when:
+        def res = transformer.transform(config)
+
+        then: "transformed values"
+        res.getString("a.b.secret") == "X"
+        res.getString("a.b.plain") == "y"
+        res.getConfigList("h")[0].getString("secret") == "W"
+        res.getString('"j.k".secret') == "U"
+
+        and: "unchanged branches are retained by reference"
+        res.getValue("a.c").is(config.getValue("a.c"))
+        res.getValue("f").is(config.getValue("f"))
+        res.getValue("a.b.plain").is(config.getValue("a.b.plain"))
+        res.getList("h")[1].is(config.getList("h")[1])
+        res.hasPathOrNull("i")
+
+        and: "transformer was invoked with unquoted paths"
+        transformer.paths.containsAll(["a.b.secret", "h.secret", "j.k.secret"])
+
+        and: "everything else is equal"
+        res.withoutPath("a.b.secret").withoutPath("h").withoutPath('"j.k"') ==
+            config.withoutPath("a.b.secret").withoutPath("h").withoutPath('"j.k"')
+    }
+
+    def "transform() should remove values transformed to null"() {
+        given:
+        def config = ConfigFactory.parseString('a { secret: "x", plain: "y" }, b: [ "secret", "foo" ]')
+        def transformer = new UpperCaseSecretTransformer(removeSecrets: true)
+
+        when:
+        def res = transformer.transform(config)
+
+        then:
+        !res.hasPath("a.secret")
+        res.getString("a.plain") == "y"
+        res.getStringList("b") == ["foo"]
+    }
+
+    def "transform() should transform every value of a large object"() {
+        given:
+        def keys = (1..2000).collect { "key$it".toString() }
+        def config = ConfigFactory.parseMap(keys.collectEntries { [(it): [secret: it]] })
+        def transformer = new UpperCaseSecretTransformer()
+
+        when:
+        def res = transformer.transform(config)
+
+        then:
+        res.root().keySet() == config.root().keySet()
+        keys.every { res.getString("${it}.secret") == it.toUpperCase() }
+    }
+
+    def "fixConfigPath() should remove quotes from config path"() {
+        expect:
+        new UpperCaseSecretTransformer().fixConfigPath('a."b.c".\\"d\\"') == "a.b.c.d"
+    }
+
+    static class UpperCaseSecretTransformer extends AbstractConfigTransformer<Void> {
+        boolean removeSecrets = false
+        List<String> paths = []
+
+        UpperCaseSecretTransformer() {
+            super(new ConfigTransformerBuilder() {
+                @Override
+                ConfigTransformer build() {
+                    return null
+                }
+            })
+        }
+
+        @Override
+        protected Void createTransformationContext(Config config) {
+            null
+        }
+
+        @Override
+        protected ConfigValue transformString(String path, ConfigValue value, Void ctx) {
+            paths.add(path)
+            def isSecret = path.endsWith("secret") || value.unwrapped() == "secret"
+            if (!isSecret) {
+                return value
+            }
+            removeSecrets ? null : ConfigValueFactory.fromAnyRef(value.unwrapped().toString().toUpperCase())
+        }
+
+        @Override
+        String getType() {
+            "uppercase"
+        }
+    }
 }
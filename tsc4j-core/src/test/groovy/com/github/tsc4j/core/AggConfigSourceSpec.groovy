@@ -26,6 +26,7 @@ import groovy.util.logging.Slf4j
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.time.Duration
 import java.util.function.Supplier
 
 import static com.typesafe.config.ConfigFactory.empty
@@ -518,6 +519,81 @@ class AggConfigSourceSpec extends Specification {
         config.getString('my.user.name') == "obviously_fake"
     }
 
+    def "parallel get() should fetch configs concurrently and merge them in declared order"() {
+        given:
+        def delay = 300
+        def sources = (1..4).collect { num ->
+            ["get": { Thread.sleep(delay); ConfigFactory.parseMap([a: num, ("s" + num): true]) }] as ConfigSource
+        }
+        def source = builder().sources(sources)
+                              .parallel(true)
+                              .build()
+
+        when:
+        def startedAt = System.currentTimeMillis()
+        def config = source.get(defaultQuery)
+        def duration = System.currentTimeMillis() - startedAt
+
+        then:
+        config.getInt("a") == 4
+        (1..4).every { config.getBoolean("s" + it) }
+        duration < delay * sources.size()
+    }
+
+    def "parallel get() should ignore timed out source that allows errors"() {
+        given:
+        def slow = ["get": { Thread.sleep(5_000); ConfigFactory.parseMap([a: 2]) }, "allowErrors": { true }] as ConfigSource
+        def fast = ["get": { ConfigFactory.parseMap([a: 1, b: 1]) }] as ConfigSource
+        def source = builder().source(fast)
+                              .source(slow)
+                              .parallel(true)
+                              .sourceTimeout(Duration.ofMillis(200))
+                              .build()
+
+        when:
+        def config = source.get(defaultQuery)
+
+        then:
+        config.getInt("a") == 1
+        config.getInt("b") == 1
+    }
+
+    def "parallel get() should throw if source that doesn't allow errors times out"() {
+        given:
+        def slow = ["get": { Thread.sleep(5_000); empty() }, "allowErrors": { false }] as ConfigSource
+        def fast = ["get": { empty() }] as ConfigSource
+        def source = builder().source(fast)
+                              .source(slow)
+                              .parallel(true)
+                              .sourceTimeout(Duration.ofMillis(200))
+                              .build()
+
+        when:
+        source.get(defaultQuery)
+
+        then:
+        def exception = thrown(Tsc4jException)
+        exception.getMessage().contains("didn't return config in")
+    }
+
+    def "parallel get() should throw if source that doesn't allow errors throws"() {
+        given:
+        def exception = new RuntimeException("haha")
+        def failing = ["get": { throw exception }, "allowErrors": { false }] as ConfigSource
+        def fast = ["get": { empty() }] as ConfigSource
+        def source = builder().source(fast)
+                              .source(failing)
+                              .parallel(true)
+                              .build()
+
+        when:
+        source.get(defaultQuery)
+
+        then:
+        def thrown = thrown(RuntimeException)
+        thrown.getCause().is(exception)
+    }
+
     AggConfigSource.AggConfigSourceBuilder builder() {
         AggConfigSource.builder()
     }
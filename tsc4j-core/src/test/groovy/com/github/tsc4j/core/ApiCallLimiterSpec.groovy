@@ -0,0 +1,227 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.core
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.util.concurrent.Callable
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+@Unroll
+class ApiCallLimiterSpec extends Specification {
+    def classifier = { it instanceof ThrottledException }
+
+    def "should limit call rate"() {
+        given:
+        def limiter = ApiCallLimiter.builder()
+                                    .name("test")
+                                    .maxRate(20)
+                                    .build()
+
+        when: "burst and another half a second worth of calls are issued"
+        def start = System.currentTimeMillis()
+        30.times { limiter.get({ it }) }
+        def elapsed = System.currentTimeMillis() - start
+
+        then:
+        elapsed >= 450
+        elapsed < 2000
+    }
+
+    def "should limit number of concurrent calls"() {
+        given:
+        def limiter = ApiCallLimiter.builder()
+                                    .name("test")
+                                    .maxConcurrency(2)
+                                    .build()
+        def current = new AtomicInteger()
+        def max = new AtomicInteger()
+        def executor = Executors.newFixedThreadPool(8)
+
+        when:
+        def futures = (1..16).collect {
+            executor.submit({
+                limiter.call({
+                    max.accumulateAndGet(current.incrementAndGet(), { a, b -> Math.max(a, b) })
+                    Thread.sleep(20)
+                    current.decrementAndGet()
+                } as Callable)
+            } as Callable)
+        }
+        futures.each { it.get(10, TimeUnit.SECONDS) }
+
+        then:
+        max.get() == 2
+        limiter.getInFlight() == 0
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    def "should retry throttled calls and lower concurrency limit"() {
+        given:
+        def limiter = ApiCallLimiter.builder()
+                                    .name("test")
+                                    .maxConcurrency(8)
+                                    .throttlingClassifier(classifier)
+                                    .build()
+        def invocations = 0
+
+        when:
+        def start = System.currentTimeMillis()
+        def result = limiter.call({
+            if (++invocations < 3) {
+                throw new ThrottledException()
+            }
+            "foo"
+        })
+        def elapsed = System.currentTimeMillis() - start
+
+        then:
+        result == "foo"
+        invocations == 3
+        limiter.getThrottledCalls() == 2
+        limiter.getConcurrencyLimit() == 2 // halved to 1, then increased by the successful attempt
+        elapsed >= 150 // 50 + 100 msec backoff
+
+        when: "calls succeed"
+        20.times { limiter.get({ it }) }
+
+        then: "concurrency limit grows additively up to maximum"
+        limiter.getConcurrencyLimit() > 1
+        limiter.getConcurrencyLimit() < 8
+
+        when:
+        100.times { limiter.get({ it }) }
+
+        then:
+        limiter.getConcurrencyLimit() == 8
+    }
+
+    def "should give up after max throttled attempts"() {
+        given:
+        def limiter = ApiCallLimiter.builder()
+                                    .name("test")
+                                    .maxThrottledAttempts(3)
+                                    .throttlingClassifier(classifier)
+                                    .build()
+        def invocations = 0
+
+        when:
+        limiter.get({
+            invocations++
+            throw new RuntimeException("wrapped", new ThrottledException())
+        })
+
+        then:
+        def thrown = thrown(RuntimeException)
+        thrown.getMessage() == "wrapped"
+        invocations == 3
+        limiter.getThrottledCalls() == 3
+        limiter.getInFlight() == 0
+    }
+
+    def "should not retry calls that are not throttled"() {
+        given:
+        def limiter = ApiCallLimiter.builder()
+                                    .name("test")
+                                    .maxConcurrency(4)
+                                    .throttlingClassifier(classifier)
+                                    .build()
+        def exception = new IOException("bang")
+        def invocations = 0
+
+        when:
+        limiter.call({
+            invocations++
+            throw exception
+        })
+
+        then:
+        def thrown = thrown(IOException)
+        thrown.is(exception)
+        invocations == 1
+        limiter.getThrottledCalls() == 0
+        limiter.getConcurrencyLimit() == 4
+        limiter.getInFlight() == 0
+    }
+
+    def "shared() should return the same instance for the same name and apply strictest limits"() {
+        given:
+        def name = "test-" + UUID.randomUUID()
+
+        when:
+        def a = ApiCallLimiter.shared(name, 10, 5, classifier)
+        def b = ApiCallLimiter.shared(name, 20, 2, classifier)
+        def c = ApiCallLimiter.shared(name + "-other", 10, 5, classifier)
+
+        then:
+        a.is(b)
+        !a.is(c)
+        a.getMaxRate() == 10
+        a.getMaxConcurrency() == 2
+        a.getConcurrencyLimit() == 2
+    }
+
+    def "shared() should not remove limits when called without limits: rate: #maxRate, concurrency: #maxConcurrency"() {
+        given:
+        def name = "test-" + UUID.randomUUID()
+        def unlimited = ApiCallLimiter.shared(name, 0, 0, classifier)
+
+        when:
+        def limiter = ApiCallLimiter.shared(name, 10, 5, classifier)
+
+        then:
+        limiter.is(unlimited)
+        limiter.getMaxRate() == 10
+        limiter.getMaxConcurrency() == 5
+
+        when:
+        ApiCallLimiter.shared(name, maxRate, maxConcurrency, classifier)
+
+        then:
+        limiter.getMaxRate() == 10
+        limiter.getMaxConcurrency() == 5
+        limiter.getConcurrencyLimit() == 5
+
+        where:
+        maxRate | maxConcurrency
+        0       | 0
+        -1      | -1
+    }
+
+    def "should throw on invalid max throttled attempts"() {
+        when:
+        ApiCallLimiter.builder()
+                      .name("test")
+                      .maxThrottledAttempts(0)
+                      .build()
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    static class ThrottledException extends RuntimeException {
+        ThrottledException() {
+            super("Rate exceeded")
+        }
+    }
+}
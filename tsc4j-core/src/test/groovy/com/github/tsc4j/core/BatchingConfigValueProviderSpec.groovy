@@ -0,0 +1,234 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.core
+
+import com.typesafe.config.ConfigFactory
+import com.typesafe.config.ConfigValue
+import com.typesafe.config.ConfigValueFactory
+import groovy.util.logging.Slf4j
+import spock.lang.Specification
+import spock.lang.Timeout
+import spock.lang.Unroll
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+@Slf4j
+@Unroll
+class BatchingConfigValueProviderSpec extends Specification {
+    def "get() should de-duplicate names and split them into batches of size #batchSize"() {
+        given:
+        def names = (1..25).collect { "name-$it".toString() }
+        def provider = new TestProvider(false, 1, batchSize)
+
+        when:
+        def result = provider.get(names + names.reverse())
+
+        then:
+        result.keySet().toList() == names
+        result.every { it.value.unwrapped() == it.key.toUpperCase() }
+
+        provider.batches.size() == expectedBatches
+        provider.batches.every { it.size() <= batchSize }
+        provider.batches.flatten().sort() == names.sort()
+        provider.maxActive.get() == 1
+
+        where:
+        batchSize | expectedBatches
+        1         | 25
+        10        | 3
+        25        | 1
+        100       | 1
+    }
+
+    def "get() should omit values not returned by provider"() {
+        given:
+        def provider = new TestProvider(false, 1, 2)
+
+        when:
+        def result = provider.get(["a", "missing-b", "c", "missing-d"])
+
+        then:
+        result.keySet() == ["a", "c"].toSet()
+    }
+
+    @Timeout(10)
+    def "parallel provider should fetch batches with at most #maxConcurrency concurrent fetches"() {
+        given:
+        def names = (1..40).collect { "name-$it".toString() }
+        def provider = new TestProvider(true, maxConcurrency, 2)
+        provider.fetchDelayMillis = 20
+
+        when:
+        def result = provider.get(names)
+
+        then:
+        result.size() == names.size()
+        provider.batches.size() == 20
+        provider.maxActive.get() <= maxConcurrency
+        provider.maxActive.get() > 1
+
+        where:
+        maxConcurrency << [2, 4]
+    }
+
+    @Timeout(10)
+    def "concurrent lookups of the same names should be coalesced"() {
+        given:
+        def provider = new TestProvider(false, 1, 10)
+        provider.blocker = new CountDownLatch(1)
+
+        when: "first lookup blocks in doGet()"
+        def first = CompletableFuture.supplyAsync({ provider.get(["a", "b"]) })
+        provider.fetchStarted.await(5, TimeUnit.SECONDS)
+
+        and: "second lookup requests one in-flight and one new name"
+        def second = CompletableFuture.supplyAsync({ provider.get(["b", "c"]) })
+        waitFor { provider.batches.size() == 2 }
+
+        and:
+        provider.blocker.countDown()
+        def firstResult = first.get(5, TimeUnit.SECONDS)
+        def secondResult = second.get(5, TimeUnit.SECONDS)
+
+        then:
+        firstResult.keySet() == ["a", "b"].toSet()
+        secondResult.keySet() == ["b", "c"].toSet()
+        firstResult.b.is(secondResult.b)
+
+        provider.batches.collect { it.toSet() }.toSet() == [["a", "b"].toSet(), ["c"].toSet()].toSet()
+    }
+
+    def "fetch errors should be propagated and should not be remembered"() {
+        given:
+        def provider = new TestProvider(false, 1, 10)
+        provider.failure = new IllegalStateException("boom")
+
+        when:
+        provider.get(["a", "b"])
+
+        then:
+        def exception = thrown(IllegalStateException)
+        exception.is(provider.failure)
+
+        when:
+        provider.failure = null
+        def result = provider.get(["a", "b"])
+
+        then:
+        result.size() == 2
+        provider.batches.size() == 2
+    }
+
+    def "constructor should reject invalid max concurrency"() {
+        when:
+        new TestProvider(true, concurrency, 1)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        concurrency << [0, -1]
+    }
+
+    def "builder should read max concurrency from config"() {
+        given:
+        def builder = new TestProvider.Builder()
+
+        expect:
+        builder.getMaxConcurrency() == AbstractConfigValueProvider.DEFAULT_MAX_CONCURRENCY
+
+        when:
+        builder.withConfig(ConfigFactory.parseMap(["max-concurrency": 7]))
+
+        then:
+        builder.getMaxConcurrency() == 7
+
+        when:
+        builder.setMaxConcurrency(0).build()
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def waitFor(Closure<Boolean> condition) {
+        def deadline = System.currentTimeMillis() + 5000
+        while (!condition() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10)
+        }
+    }
+
+    static class TestProvider extends AbstractConfigValueProvider {
+        final int batchSize
+        final List<List<String>> batches = new CopyOnWriteArrayList<>()
+        final AtomicInteger active = new AtomicInteger()
+        final AtomicInteger maxActive = new AtomicInteger()
+        final CountDownLatch fetchStarted = new CountDownLatch(1)
+        volatile CountDownLatch blocker
+        volatile RuntimeException failure
+        volatile long fetchDelayMillis = 0
+
+        TestProvider(boolean parallel, int maxConcurrency, int batchSize) {
+            super("test", true, parallel, maxConcurrency)
+            this.batchSize = batchSize
+        }
+
+        @Override
+        protected int maxBatchSize() {
+            batchSize
+        }
+
+        @Override
+        protected Map<String, ConfigValue> doGet(List<String> names) {
+            batches.add(new ArrayList<>(names))
+            def current = active.incrementAndGet()
+            maxActive.accumulateAndGet(current, { a, b -> Math.max(a, b) })
+            try {
+                fetchStarted.countDown()
+                blocker?.await(5, TimeUnit.SECONDS)
+                if (fetchDelayMillis > 0) {
+                    Thread.sleep(fetchDelayMillis)
+                }
+                if (failure != null) {
+                    throw failure
+                }
+
+                names.findAll { !it.startsWith("missing") }
+                     .collectEntries { [(it): ConfigValueFactory.fromAnyRef(it.toUpperCase())] }
+            } finally {
+                active.decrementAndGet()
+            }
+        }
+
+        @Override
+        String getType() {
+            "test"
+        }
+
+        static class Builder extends ValueProviderBuilder<Builder> {
+            @Override
+            ConfigValueProvider build() {
+                checkState()
+                new TestProvider(isParallel(), getMaxConcurrency(), 1)
+            }
+        }
+    }
+}
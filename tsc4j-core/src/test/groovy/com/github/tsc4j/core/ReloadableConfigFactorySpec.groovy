@@ -17,6 +17,7 @@
 
 package com.github.tsc4j.core
 
+import com.github.tsc4j.core.impl.SharedConfigFile
 import com.github.tsc4j.testsupport.TestUtils
 import com.typesafe.config.ConfigFactory
 import groovy.util.logging.Slf4j
@@ -24,6 +25,10 @@ import spock.lang.Specification
 import spock.lang.Unroll
 import spock.util.environment.RestoreSystemProperties
 
+import java.nio.file.Files
+import java.time.Clock
+import java.time.Duration
+
 @Slf4j
 @Unroll
 @RestoreSystemProperties
@@ -99,4 +104,84 @@ class ReloadableConfigFactorySpec extends Specification {
         where:
         i << (1..3)
     }
+
+    def "shared config file should contain only configuration fetched from config sources"() {
+        given:
+        def dir = Files.createTempDirectory("tsc4j-shared-")
+        dir.resolve("application.conf").toFile().text = 'app.value: 42'
+        def sharedFile = dir.resolve("shared.bin")
+        def config = Tsc4jConfig.builder()
+                                .source(ConfigFactory.parseMap([impl: "files", paths: [dir.toString()]]))
+                                .sharedConfigFile(sharedFile.toString())
+                                .refreshInterval(Duration.ZERO)
+                                .build()
+
+        when:
+        def rc = ReloadableConfigFactory.defaults()
+                                        .setBootstrapConfig(config)
+                                        .setAppName(appName)
+                                        .create()
+        def appConfig = rc.getSync()
+
+        then: "reloadable config contains fetched and fallback configuration"
+        appConfig.getInt("app.value") == 42
+        appConfig.getString("myapp.internal.a") == "foo"
+
+        when:
+        def file = new SharedConfigFile(sharedFile, Clock.systemUTC())
+        def shared = file.read().get().getConfig()
+
+        then: "shared config file contains only fetched configuration"
+        shared.getInt("app.value") == 42
+        !shared.hasPath("myapp")
+
+        cleanup:
+        file?.close()
+        rc?.close()
+        dir.toFile().deleteDir()
+    }
+
+    def "shared config should be resolved together with fallback configuration"() {
+        given:
+        def dir = Files.createTempDirectory("tsc4j-shared-")
+        dir.resolve("application.conf").toFile().text = '''
+            app.ref: ${myapp.internal.a}
+            app.opt: ${?myapp.internal.b}
+            app.missing: ${?no.such.path}
+            myapp.internal.list: ${myapp.internal.list} ["d"]
+        '''
+        def sharedFile = dir.resolve("shared.bin")
+        def config = Tsc4jConfig.builder()
+                                .source(ConfigFactory.parseMap([impl: "files", paths: [dir.toString()]]))
+                                .sharedConfigFile(sharedFile.toString())
+                                .refreshInterval(Duration.ZERO)
+                                .build()
+
+        when:
+        def rc = ReloadableConfigFactory.defaults()
+                                        .setBootstrapConfig(config)
+                                        .setAppName(appName)
+                                        .create()
+        def appConfig = rc.getSync()
+
+        then: "substitutions refer to fallback configuration"
+        appConfig.getString("app.ref") == "foo"
+        appConfig.getString("app.opt") == "bar"
+        !appConfig.hasPath("app.missing")
+        appConfig.getStringList("myapp.internal.list") == ["a", "b", "c", "c", "b", "a", "d"]
+
+        when: "another instance reads published configuration"
+        def reader = ReloadableConfigFactory.defaults()
+                                            .setBootstrapConfig(config.toBuilder().sharedConfigWriter(false).build())
+                                            .setAppName(appName)
+                                            .create()
+
+        then:
+        reader.getSync() == appConfig
+
+        cleanup:
+        reader?.close()
+        rc?.close()
+        dir.toFile().deleteDir()
+    }
 }
@@ -0,0 +1,213 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.core
+
+import com.github.tsc4j.testsupport.TestClock
+import com.typesafe.config.ConfigFactory
+import spock.lang.Specification
+import spock.lang.Unroll
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Files
+import java.time.Duration
+
+@Unroll
+class SharedConfigSourceSpec extends Specification {
+    def dir = Files.createTempDirectory("tsc4j-shared-")
+    def path = dir.resolve("shared.bin")
+    def clock = new TestClock()
+    def sources = []
+
+    def query = ConfigQuery.builder()
+                           .appName("myApp")
+                           .envs(["a", "b"])
+                           .build()
+
+    def config = ConfigFactory.parseMap(a: UUID.randomUUID().toString())
+
+    def cleanup() {
+        sources*.close()
+        dir.toFile().deleteDir()
+    }
+
+    def "source should inherit allowErrors() from delegate"() {
+        given:
+        def delegate = Mock(ConfigSource)
+        delegate.allowErrors() >> flag
+
+        expect:
+        createSource(delegate).allowErrors() == flag
+
+        where:
+        flag << [true, false]
+    }
+
+    def "writer should publish config fetched from delegate, others should read it"() {
+        given:
+        def writerDelegate = Mock(ConfigSource)
+        def readerDelegate = Mock(ConfigSource)
+        def writer = createSource(writerDelegate)
+        def reader = createSource(readerDelegate)
+
+        when:
+        def writerConfig = writer.get(query)
+        def readerConfig = reader.get(query)
+
+        then:
+        1 * writerDelegate.get(query) >> config
+        0 * readerDelegate.get(_)
+
+        writer.isWriter()
+        !reader.isWriter()
+        writerConfig == config
+        readerConfig == config
+    }
+
+    def "non-writer should fall back to delegate if shared config is #reason"() {
+        given:
+        def writer = createSource(Mock(ConfigSource) { get(query) >> config })
+        def delegate = Mock(ConfigSource)
+        def reader = createSource(delegate)
+        def delegateConfig = ConfigFactory.parseMap(b: "c")
+
+        if (publish) {
+            writer.get(query)
+        }
+        clock.plus(age)
+
+        when:
+        def result = reader.get(query)
+
+        then:
+        1 * delegate.get(query) >> delegateConfig
+        result == delegateConfig
+
+        where:
+        reason        | publish | age
+        "missing"     | false   | Duration.ZERO
+        "too old"     | true    | Duration.ofMinutes(1).plusMillis(1)
+    }
+
+    def "source with disabled writer should never fetch from delegate if shared config is fresh"() {
+        given:
+        def writer = createSource(Mock(ConfigSource) { get(query) >> config })
+        def delegate = Mock(ConfigSource)
+        def source = createSource(delegate, false)
+        writer.get(query)
+        writer.close()
+
+        when:
+        def result = source.get(query)
+
+        then:
+        0 * delegate.get(_)
+        result == config
+        !source.isWriter()
+    }
+
+    def "non-writer should take over when writer is closed"() {
+        given:
+        def writer = createSource(Mock(ConfigSource) { get(query) >> config })
+        def delegate = Mock(ConfigSource)
+        def reader = createSource(delegate)
+        writer.get(query)
+
+        when:
+        writer.close()
+        def result = reader.get(query)
+
+        then:
+        1 * delegate.get(query) >> config
+        result == config
+        reader.isWriter()
+    }
+
+    def "watch() should notify non-writer listener when shared config generation changes"() {
+        given:
+        def writer = createSource(Mock(ConfigSource) { get(query) >> config })
+        def delegate = Mock(ConfigSource)
+        def reader = createSource(delegate)
+        writer.get(query)
+
+        def notifications = 0
+        def conditions = new PollingConditions(timeout: 3)
+
+        when:
+        def result = reader.watch(query, { notifications++ })
+
+        then:
+        result
+        1 * delegate.watch(query, _)
+
+        when:
+        Thread.sleep(100)
+
+        then:
+        notifications == 0
+
+        when:
+        writer.get(query)
+
+        then:
+        conditions.eventually {
+            assert notifications == 1
+        }
+    }
+
+    def "close() should close the delegate"() {
+        given:
+        def delegate = Mock(ConfigSource)
+
+        when:
+        createSource(delegate).close()
+
+        then:
+        1 * delegate.close()
+    }
+
+    def "should throw on invalid settings"() {
+        when:
+        SharedConfigSource.builder()
+                          .delegate(Mock(ConfigSource))
+                          .path(path)
+                          .maxAge(maxAge)
+                          .pollInterval(pollInterval)
+                          .build()
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        maxAge              | pollInterval
+        Duration.ZERO       | null
+        null                | Duration.ofSeconds(-1)
+    }
+
+    SharedConfigSource createSource(ConfigSource delegate, boolean writerEnabled = true) {
+        def source = SharedConfigSource.builder()
+                                       .delegate(delegate)
+                                       .path(path)
+                                       .writerEnabled(writerEnabled)
+                                       .maxAge(Duration.ofMinutes(1))
+                                       .pollInterval(Duration.ofMillis(20))
+                                       .clock(clock)
+                                       .build()
+        sources << source
+        source
+    }
+}
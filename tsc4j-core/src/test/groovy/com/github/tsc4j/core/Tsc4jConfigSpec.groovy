@@ -19,6 +19,7 @@ package com.github.tsc4j.core
 
 import com.github.tsc4j.core.Tsc4j
 import com.github.tsc4j.core.Tsc4jConfig
+import com.github.tsc4j.core.impl.BoundedThreadPoolExecutor.RejectionPolicy
 import com.typesafe.config.ConfigFactory
 import groovy.util.logging.Slf4j
 import spock.lang.Specification
@@ -36,8 +37,26 @@ class Tsc4jConfigSpec extends Specification {
         then:
         cfg.getRefreshInterval().toMinutes() == 2
         cfg.getRefreshIntervalJitterPct() == 25
+        cfg.getRefreshDebounce() == Duration.ofMillis(500)
         cfg.isReverseUpdateOrder() == false
         cfg.isCliEnabled() == true
+        cfg.getValueProviderCacheTtl() == Duration.ZERO
+        !cfg.isParallelFetch()
+        cfg.getSourceFetchTimeout() == Duration.ofSeconds(60)
+        cfg.getUpdateParallelism() == 1
+        cfg.getUpdateTimeout() == Duration.ofSeconds(30)
+        cfg.getSlowUpdateThreshold() == Duration.ofSeconds(1)
+        cfg.getExecutorMaxThreads() == 64
+        cfg.getExecutorQueueSize() == 0
+        cfg.getExecutorRejectionPolicy() == RejectionPolicy.CALLER_RUNS
+        !cfg.isExecutorVirtualThreads()
+        cfg.getSnapshotFile() == null
+        cfg.getSnapshotMaxAge() == Duration.ofDays(7)
+        cfg.getSnapshotEncryptionKey() == null
+        cfg.getSharedConfigFile() == null
+        cfg.isSharedConfigWriter()
+        cfg.getSharedConfigMaxAge() == Duration.ofMinutes(10)
+        cfg.getSharedConfigPollInterval() == Duration.ofSeconds(1)
 
         cfg.getSources().isEmpty()
         cfg.getTransformers().isEmpty()
@@ -57,6 +76,68 @@ class Tsc4jConfigSpec extends Specification {
         assertInstance(cfg)
     }
 
+    def "withConfig() on builder should configure executor settings"() {
+        given:
+        def config = ConfigFactory.parseMap([
+            "executor-max-threads"     : 8,
+            "executor-queue-size"      : 100,
+            "executor-rejection-policy": "abort",
+            "executor-virtual-threads" : true,
+        ])
+        def builder = Tsc4jConfig.builder()
+
+        when:
+        builder.withConfig(config)
+        def cfg = builder.build()
+
+        then:
+        cfg.getExecutorMaxThreads() == 8
+        cfg.getExecutorQueueSize() == 100
+        cfg.getExecutorRejectionPolicy() == RejectionPolicy.ABORT
+        cfg.isExecutorVirtualThreads()
+    }
+
+    def "withConfig() on builder should configure snapshot settings"() {
+        given:
+        def config = ConfigFactory.parseMap([
+            "snapshot-file"          : "/tmp/snapshot.bin",
+            "snapshot-max-age"       : "12h",
+            "snapshot-encryption-key": "secret",
+        ])
+        def builder = Tsc4jConfig.builder()
+
+        when:
+        builder.withConfig(config)
+        def cfg = builder.build()
+
+        then:
+        cfg.getSnapshotFile() == "/tmp/snapshot.bin"
+        cfg.getSnapshotMaxAge() == Duration.ofHours(12)
+        cfg.getSnapshotEncryptionKey() == "secret"
+        !cfg.toString().contains("secret")
+    }
+
+    def "withConfig() on builder should configure shared config settings"() {
+        given:
+        def config = ConfigFactory.parseMap([
+            "shared-config-file"         : "/dev/shm/app.bin",
+            "shared-config-writer"       : false,
+            "shared-config-max-age"      : "5m",
+            "shared-config-poll-interval": "250ms",
+        ])
+        def builder = Tsc4jConfig.builder()
+
+        when:
+        builder.withConfig(config)
+        def cfg = builder.build()
+
+        then:
+        cfg.getSharedConfigFile() == "/dev/shm/app.bin"
+        !cfg.isSharedConfigWriter()
+        cfg.getSharedConfigMaxAge() == Duration.ofMinutes(5)
+        cfg.getSharedConfigPollInterval() == Duration.ofMillis(250)
+    }
+
     def "should properly deserialize config object"() {
         when:
         def cfg = Tsc4j.toBean(config, Tsc4jConfig)
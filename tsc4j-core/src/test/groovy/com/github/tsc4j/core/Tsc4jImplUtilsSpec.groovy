@@ -38,8 +38,10 @@ import java.nio.charset.StandardCharsets
 import java.nio.file.Files
 import java.time.Duration
 import java.util.concurrent.Callable
+import java.util.concurrent.CountDownLatch
 import java.util.concurrent.ExecutorService
 import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicInteger
 
 import static com.github.tsc4j.testsupport.TestConstants.TEST_CFG_INVALID_STR
@@ -430,6 +432,101 @@ class Tsc4jImplUtilsSpec extends Specification {
         executors.every { it.is(first) }
     }
 
+    def "configureDefaultExecutor() should replace default executor only once"() {
+        given:
+        def defaults = Tsc4jConfig.builder().build()
+        def custom = defaults.toBuilder().executorMaxThreads(3).build()
+        Tsc4jImplUtils.resetDefaultExecutorConfiguration()
+        def first = Tsc4jImplUtils.defaultExecutor()
+
+        when:
+        def changed = Tsc4jImplUtils.configureDefaultExecutor(custom)
+        def second = Tsc4jImplUtils.defaultExecutor()
+
+        then:
+        changed
+        !second.is(first)
+        !first.isShutdown() // components that already hold a reference to it can still use it
+        !second.isShutdown()
+        Tsc4jImplUtils.defaultExecutorStats().get().getMaxPoolSize() == 3
+
+        expect: "subsequent configuration with the same or different settings should be ignored"
+        !Tsc4jImplUtils.configureDefaultExecutor(custom)
+        !Tsc4jImplUtils.configureDefaultExecutor(defaults)
+        Tsc4jImplUtils.defaultExecutor().is(second)
+        Tsc4jImplUtils.defaultExecutorStats().get().getMaxPoolSize() == 3
+
+        cleanup:
+        Tsc4jImplUtils.resetDefaultExecutorConfiguration()
+        Tsc4jImplUtils.configureDefaultExecutor(defaults)
+        Tsc4jImplUtils.resetDefaultExecutorConfiguration()
+    }
+
+    def "runTasks() should complete nested tasks of default executor tasks when executor is saturated"() {
+        given:
+        def defaults = Tsc4jConfig.builder().build()
+        Tsc4jImplUtils.resetDefaultExecutorConfiguration()
+        Tsc4jImplUtils.configureDefaultExecutor(defaults.toBuilder().executorMaxThreads(2).executorQueueSize(10).build())
+
+        and: "more outer tasks than executor threads, each of them fanning out"
+        def outer = (1..4).collect {
+            def task = {
+                def inner = (1..4).collect { { -> Thread.sleep(10); true } as Callable }
+                Tsc4jImplUtils.runTasks(inner, true).every()
+            }
+            task as Callable
+        }
+
+        when:
+        def results = Tsc4jImplUtils.runTasks(outer, true)
+
+        then:
+        results == [true, true, true, true]
+
+        cleanup:
+        Tsc4jImplUtils.resetDefaultExecutorConfiguration()
+        Tsc4jImplUtils.configureDefaultExecutor(defaults)
+        Tsc4jImplUtils.resetDefaultExecutorConfiguration()
+    }
+
+    def "runTasks() should run nested tasks of default executor task concurrently if executor has free threads"() {
+        given:
+        def defaults = Tsc4jConfig.builder().build()
+        Tsc4jImplUtils.resetDefaultExecutorConfiguration()
+        Tsc4jImplUtils.configureDefaultExecutor(defaults.toBuilder().executorMaxThreads(8).executorQueueSize(0).build())
+
+        and: "outer task whose nested tasks wait for each other"
+        def latch = new CountDownLatch(4)
+        def outer = {
+            def inner = (1..4).collect {
+                { ->
+                    latch.countDown()
+                    latch.await(5, TimeUnit.SECONDS)
+                } as Callable
+            }
+            Tsc4jImplUtils.runTasks(inner, true).every()
+        } as Callable
+
+        when:
+        def results = Tsc4jImplUtils.runTasks([outer], true)
+
+        then:
+        results == [true]
+
+        cleanup:
+        Tsc4jImplUtils.resetDefaultExecutorConfiguration()
+        Tsc4jImplUtils.configureDefaultExecutor(defaults)
+        Tsc4jImplUtils.resetDefaultExecutorConfiguration()
+    }
+
+    def "configureDefaultExecutor() should throw on invalid settings"() {
+        when:
+        Tsc4jImplUtils.configureDefaultExecutor(Tsc4jConfig.builder().executorMaxThreads(0).build())
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
     def "threadFactory() should create a thread with correct name"() {
         given:
         def poolName = "somePoolName"
@@ -30,6 +30,7 @@ import java.util.concurrent.CopyOnWriteArrayList
 import java.util.concurrent.ExecutionException
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicInteger
+import java.util.function.Function
 import java.util.function.Supplier
 
 @Unroll
@@ -431,6 +432,209 @@ abstract class AbstractReloadableConfigSpec<T extends AbstractReloadableConfig>
         reverse << [false, true]
     }
 
+    def "snapshot should contain config and reloadable values of a single generation"() {
+        given:
+        def maps = [
+            [:],
+            [persons: [a: [name: 'Barry', surname: 'Lyndon'], b: [name: 'Joe', surname: 'Average']]],
+            [persons: [b: [name: 'Johnny', surname: 'Bravo']]],
+        ]
+        def count = 0
+        def supplier = { ConfigFactory.parseMap(maps[Math.min(count++, maps.size() - 1)]) } as Supplier<Config>
+
+        and:
+        def rc = createReloadableConfig(supplier)
+        def reloadableA = rc.register("persons.a", Person)
+        def reloadableB = rc.register("persons.b", Person)
+
+        when:
+        def first = rc.snapshot()
+
+        then:
+        first.isPresent()
+        first.getGeneration() == 1
+        first.getConfig().isEmpty()
+        first.size() == 0
+        !first.get(reloadableA).isPresent()
+
+        when: "config changes"
+        rc.refresh().toCompletableFuture().get()
+        def second = rc.snapshot()
+
+        then:
+        second.getGeneration() == 2
+        second.getConfig().root().unwrapped() == maps[1]
+        second.size() == 2
+        second.require(reloadableA).is(reloadableA.get())
+        second.require(reloadableB).is(reloadableB.get())
+
+        when: "config changes again"
+        rc.refresh().toCompletableFuture().get()
+        def third = rc.snapshot()
+
+        then:
+        third.getGeneration() == 3
+        third.size() == 1
+        !third.get(reloadableA).isPresent()
+        third.require(reloadableB).getName() == 'Johnny'
+
+        // previous snapshots are immutable
+        second.require(reloadableA).getName() == 'Barry'
+        second.require(reloadableB).getName() == 'Joe'
+
+        when:
+        third.require(reloadableA)
+
+        then:
+        thrown(NoSuchElementException)
+
+        when: "same config is fetched again"
+        rc.refresh().toCompletableFuture().get()
+
+        then:
+        rc.snapshot().is(third)
+    }
+
+    def "reloadable whose update failed should be updated on next config change of unrelated path"() {
+        given:
+        def maps = [[a: 1, b: 1], [a: 2, b: 1], [a: 2, b: 2]]
+        def count = 0
+        def supplier = { ConfigFactory.parseMap(maps[Math.min(count++, maps.size() - 1)]) } as Supplier<Config>
+
+        def failing = true
+        def converter = { Config cfg ->
+            def value = cfg.getInt("a")
+            if (value > 1 && failing) {
+                throw new IllegalStateException("conversion failed")
+            }
+            value
+        } as Function<Config, Integer>
+
+        def rc = createReloadableConfig(supplier)
+        def reloadableA = rc.register("a", converter)
+        def reloadableB = rc.register("b", Integer)
+
+        expect:
+        reloadableA.get() == 1
+        reloadableB.get() == 1
+
+        when: "config at path 'a' changes, update of reloadable fails"
+        rc.refresh().toCompletableFuture().get()
+
+        then:
+        reloadableA.get() == 1
+        reloadableB.get() == 1
+
+        when: "only config at path 'b' changes"
+        failing = false
+        rc.refresh().toCompletableFuture().get()
+
+        then: "failed reloadable should be updated as well"
+        reloadableA.get() == 2
+        reloadableB.get() == 2
+    }
+
+    def "snapshot should not be replaced before all reloadables are updated"() {
+        given:
+        def maps = [[a: 1, b: 1], [a: 2, b: 2]]
+        def count = 0
+        def supplier = { ConfigFactory.parseMap(maps[Math.min(count++, maps.size() - 1)]) } as Supplier<Config>
+
+        def rc = createReloadableConfig(supplier)
+        def reloadableA = rc.register("a", Integer)
+        def reloadableB = rc.register("b", Integer)
+
+        def seenDuringUpdate = new CopyOnWriteArrayList()
+        reloadableA.register({ seenDuringUpdate.add(rc.snapshot()) })
+        reloadableB.register({ seenDuringUpdate.add(rc.snapshot()) })
+
+        expect:
+        rc.snapshot().require(reloadableA) == 1
+        rc.snapshot().require(reloadableB) == 1
+
+        when:
+        rc.refresh().toCompletableFuture().get()
+
+        then:
+        seenDuringUpdate.size() == 2
+        seenDuringUpdate.every { it.getGeneration() == 1 && it.require(reloadableA) == 1 && it.require(reloadableB) == 1 }
+
+        rc.snapshot().getGeneration() == 2
+        rc.snapshot().require(reloadableA) == 2
+        rc.snapshot().require(reloadableB) == 2
+    }
+
+    def "snapshot should follow reloadable registrations"() {
+        given:
+        def rc = createReloadableConfig({ ConfigFactory.parseMap([a: 1]) } as Supplier<Config>)
+        def generation = rc.snapshot().getGeneration()
+
+        when:
+        def reloadable = rc.register("a", Integer)
+
+        then:
+        rc.snapshot().getGeneration() == generation
+        rc.snapshot().require(reloadable) == 1
+
+        when:
+        reloadable.close()
+
+        then:
+        rc.snapshot().getGeneration() == generation
+        !rc.snapshot().get(reloadable).isPresent()
+    }
+
+    def "snapshot should contain values of derived reloadables"() {
+        given:
+        def maps = [[a: 1, b: 1], [a: 2, b: 1], [a: 3, b: 1]]
+        def count = 0
+        def supplier = { ConfigFactory.parseMap(maps[Math.min(count++, maps.size() - 1)]) } as Supplier<Config>
+
+        def rc = createReloadableConfig(supplier)
+        def reloadableA = rc.register("a", Integer)
+        def reloadableB = rc.register("b", Integer)
+        def mapped = reloadableA.map({ it * 10 })
+        def filtered = reloadableA.filter({ it % 2 == 1 })
+
+        expect:
+        rc.snapshot().require(mapped) == 10
+        rc.snapshot().require(filtered) == 1
+
+        when: "config change affects only reloadable 'a'"
+        rc.refresh().toCompletableFuture().get()
+        def snapshot = rc.snapshot()
+
+        then:
+        snapshot.getGeneration() == 2
+        snapshot.require(reloadableA) == 2
+        snapshot.require(reloadableB) == 1
+        snapshot.require(mapped) == 20
+        snapshot.require(filtered) == 1
+
+        when: "reloadable is derived from derived reloadable after the snapshot has been taken"
+        def mappedTwice = mapped.map({ it + 1 })
+
+        then:
+        rc.snapshot().getGeneration() == 2
+        rc.snapshot().require(mappedTwice) == 21
+        !snapshot.get(mappedTwice).isPresent()
+
+        when:
+        rc.refresh().toCompletableFuture().get()
+
+        then:
+        rc.snapshot().require(mappedTwice) == 31
+        rc.snapshot().require(filtered) == 3
+
+        when: "reloadable is closed"
+        reloadableA.close()
+
+        then: "its derived reloadables should be gone from the snapshot as well"
+        rc.snapshot().size() == 1
+        rc.snapshot().require(reloadableB) == 1
+        !rc.snapshot().get(mapped).isPresent()
+    }
+
     def "closing reloadable config should close created reloadables as well"() {
         given:
         def rc = createReloadableConfig()
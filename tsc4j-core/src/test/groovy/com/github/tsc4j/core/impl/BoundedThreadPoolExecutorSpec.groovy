@@ -0,0 +1,144 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.core.impl
+
+import com.github.tsc4j.core.impl.BoundedThreadPoolExecutor.RejectionPolicy
+import groovy.util.logging.Slf4j
+import spock.lang.Specification
+import spock.lang.Timeout
+import spock.lang.Unroll
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+
+@Slf4j
+@Unroll
+@Timeout(10)
+class BoundedThreadPoolExecutorSpec extends Specification {
+    def latch = new CountDownLatch(1)
+    BoundedThreadPoolExecutor executor
+
+    def cleanup() {
+        latch.countDown()
+        executor?.shutdownNow()
+    }
+
+    def "should not create more than max threads (queue size: #queueSize)"() {
+        given:
+        executor = createExecutor(2, queueSize, RejectionPolicy.CALLER_RUNS)
+        def callerRuns = 0
+
+        when:
+        def numTasks = 2 + queueSize
+        numTasks.times { executor.execute({ latch.await() }) }
+        executor.execute({ callerRuns++ })
+
+        def stats = executor.getStats()
+        log.info("stats: {}", stats)
+
+        then:
+        callerRuns == 1
+        stats.getPoolSize() == 2
+        stats.getMaxPoolSize() == 2
+        stats.getQueuedTasks() == queueSize
+        stats.getQueueCapacity() == queueSize
+        stats.getRejectedTasks() == 1
+        stats.getSaturation() == 1.0D
+
+        when:
+        latch.countDown()
+        executor.shutdown()
+        executor.awaitTermination(5, TimeUnit.SECONDS)
+
+        then:
+        executor.getStats().getCompletedTasks() == numTasks
+        executor.getStats().getActiveThreads() == 0
+        executor.getStats().getSaturation() == 0D
+
+        where:
+        queueSize << [0, 3]
+    }
+
+    def "bounded queue executor should run tasks on all threads"() {
+        given:
+        executor = createExecutor(3, 10, RejectionPolicy.ABORT)
+        def started = new CountDownLatch(3)
+
+        when:
+        3.times { executor.execute({ started.countDown(); latch.await() }) }
+
+        then:
+        started.await(5, TimeUnit.SECONDS)
+        executor.getStats().getActiveThreads() == 3
+        executor.getStats().getQueuedTasks() == 0
+    }
+
+    def "abort policy should reject tasks when executor is saturated"() {
+        given:
+        executor = createExecutor(1, 0, RejectionPolicy.ABORT)
+        executor.execute({ latch.await() })
+
+        when:
+        executor.execute({})
+
+        then:
+        thrown(RejectedExecutionException)
+        executor.getStats().getRejectedTasks() == 1
+    }
+
+    def "constructor should throw on invalid arguments: #maxThreads, #queueSize"() {
+        when:
+        createExecutor(maxThreads, queueSize, RejectionPolicy.ABORT)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        maxThreads | queueSize
+        0          | 0
+        -1         | 0
+        1          | -1
+    }
+
+    def "rejection policy should be parsed from '#name'"() {
+        expect:
+        RejectionPolicy.of(name) == expected
+
+        where:
+        name          | expected
+        "abort"       | RejectionPolicy.ABORT
+        " ABORT "     | RejectionPolicy.ABORT
+        "caller-runs" | RejectionPolicy.CALLER_RUNS
+        "caller_runs" | RejectionPolicy.CALLER_RUNS
+        "Caller-Runs" | RejectionPolicy.CALLER_RUNS
+    }
+
+    def "parsing invalid rejection policy should throw"() {
+        when:
+        RejectionPolicy.of("discard")
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def createExecutor(int maxThreads, int queueSize, RejectionPolicy policy) {
+        new BoundedThreadPoolExecutor(maxThreads, queueSize, policy, Executors.defaultThreadFactory())
+    }
+}
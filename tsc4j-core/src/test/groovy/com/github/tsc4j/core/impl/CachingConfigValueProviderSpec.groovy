@@ -0,0 +1,193 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.core.impl
+
+import com.github.tsc4j.core.ConfigValueProvider
+import com.github.tsc4j.testsupport.TestClock
+import com.typesafe.config.ConfigValueFactory
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.time.Duration
+import java.util.concurrent.Executors
+
+@Unroll
+class CachingConfigValueProviderSpec extends Specification {
+    def delegate = Mock(ConfigValueProvider)
+    def clock = new TestClock()
+    def executor = Executors.newSingleThreadExecutor()
+
+    def cleanup() {
+        executor.shutdownNow()
+    }
+
+    def "should throw on invalid arguments"() {
+        when:
+        new CachingConfigValueProvider(delegate, Duration.ofMillis(ttl), pct, clock, executor)
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        ttl  | pct
+        0    | 50
+        -1   | 50
+        1000 | -1
+        1000 | 101
+    }
+
+    def "should serve cached values until they expire"() {
+        given:
+        def provider = new CachingConfigValueProvider(delegate, Duration.ofSeconds(10), 100, clock, executor)
+
+        when: "first lookup"
+        def result = provider.get(["a", "b"])
+
+        then:
+        1 * delegate.get(["a", "b"]) >> [a: value("a1"), b: value("b1")]
+        result == [a: value("a1"), b: value("b1")]
+        provider.size() == 2
+
+        when: "lookup before expiration"
+        clock.plus(Duration.ofSeconds(9))
+        result = provider.get(["b", "a", "c"])
+
+        then: "only missing value should be fetched"
+        1 * delegate.get(["c"]) >> [c: value("c1")]
+        result == [a: value("a1"), b: value("b1"), c: value("c1")]
+
+        when: "lookup after expiration"
+        clock.plus(Duration.ofSeconds(1))
+        result = provider.get(["a", "c"])
+
+        then:
+        1 * delegate.get(["a"]) >> [a: value("a2")]
+        result == [a: value("a2"), c: value("c1")]
+    }
+
+    def "should not cache missing or null values"() {
+        given:
+        def provider = new CachingConfigValueProvider(delegate, Duration.ofSeconds(10), 100, clock, executor)
+
+        when:
+        provider.get(["a", "b"])
+        provider.get(["a", "b"])
+
+        then:
+        2 * delegate.get(["a", "b"]) >> [a: ConfigValueFactory.fromAnyRef(null)]
+        provider.size() == 0
+    }
+
+    def "should refresh values ahead of expiration in background"() {
+        given:
+        def provider = new CachingConfigValueProvider(delegate, Duration.ofSeconds(10), 50, clock, executor)
+
+        when:
+        def first = provider.get(["a"])
+        clock.plus(Duration.ofSeconds(6))
+        def second = provider.get(["a"])
+        executor.submit({}).get()
+
+        then:
+        2 * delegate.get(["a"]) >>> [[a: value("a1")], [a: value("a2")]]
+        first == [a: value("a1")]
+        second == [a: value("a1")] // stale value is returned while refresh is running
+
+        when: "lookup after original entry would expire"
+        clock.plus(Duration.ofSeconds(4))
+        def third = provider.get(["a"])
+
+        then: "refreshed value should not be expired yet"
+        0 * delegate.get(_)
+        third == [a: value("a2")]
+    }
+
+    def "should refresh stale values after failed fetch of missing values"() {
+        given:
+        def provider = new CachingConfigValueProvider(delegate, Duration.ofSeconds(10), 50, clock, executor)
+
+        when:
+        provider.get(["a"])
+
+        then:
+        1 * delegate.get(["a"]) >> [a: value("a1")]
+
+        when: "stale value is requested together with missing one and fetch fails"
+        clock.plus(Duration.ofSeconds(6))
+        provider.get(["a", "b"])
+
+        then:
+        1 * delegate.get(["b"]) >> { throw new IllegalStateException("bang") }
+        thrown(IllegalStateException)
+
+        when:
+        def result = provider.get(["a"])
+        executor.submit({}).get()
+
+        then: "stale value should still be refreshed in background"
+        1 * delegate.get(["a"]) >> [a: value("a2")]
+        result == [a: value("a1")]
+        provider.get(["a"]) == [a: value("a2")]
+    }
+
+    def "should purge expired values that are no longer requested"() {
+        given:
+        def provider = new CachingConfigValueProvider(delegate, Duration.ofSeconds(10), 100, clock, executor)
+        delegate.get(_) >> { List<Collection<String>> args -> args[0].collectEntries { [(it): value(it)] } }
+
+        when:
+        provider.get(["a", "b"])
+        clock.plus(Duration.ofSeconds(5))
+        provider.get(["c"])
+
+        then:
+        provider.size() == 3
+
+        when: "cache TTL elapses"
+        clock.plus(Duration.ofSeconds(5))
+        provider.get(["c"])
+
+        then: "only non-expired entries should remain"
+        provider.size() == 1
+    }
+
+    def "should delegate metadata and close()"() {
+        given:
+        def provider = new CachingConfigValueProvider(delegate, Duration.ofSeconds(10), 50, clock, executor)
+
+        when:
+        def type = provider.getType()
+        def name = provider.getName()
+        def allowMissing = provider.allowMissing()
+        provider.close()
+
+        then:
+        delegate.getType() >> "foo"
+        delegate.getName() >> "bar"
+        delegate.allowMissing() >> true
+        1 * delegate.close()
+
+        type == "foo"
+        name == "bar"
+        allowMissing
+    }
+
+    static def value(Object o) {
+        ConfigValueFactory.fromAnyRef(o)
+    }
+}
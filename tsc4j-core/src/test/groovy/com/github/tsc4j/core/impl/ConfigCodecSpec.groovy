@@ -0,0 +1,239 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.core.impl
+
+import com.github.tsc4j.testsupport.TestConfigSource
+import com.typesafe.config.Config
+import com.typesafe.config.ConfigFactory
+import com.typesafe.config.ConfigParseOptions
+import com.typesafe.config.ConfigRenderOptions
+import com.typesafe.config.ConfigSyntax
+import com.typesafe.config.ConfigValueFactory
+import com.typesafe.config.ConfigValueType
+import groovy.util.logging.Slf4j
+import spock.lang.Requires
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Slf4j
+@Unroll
+class ConfigCodecSpec extends Specification {
+    static final def HOCON = '''
+        # comment
+        str: "foo"
+        empty: ""
+        unicode: "čšž €"
+        int: 42
+        negative: -7
+        long: 9999999999
+        minLong: -9223372036854775808
+        double: 42.667
+        bool: true
+        nothing: null
+        list: [1, "two", 3.0, false, null, [4, 5], {a: b}]
+        emptyList: []
+        emptyObj: {}
+        nested.obj { a: 1, b: [{c: "d"}], "key.with.dots": "x" }
+        dup1: "foo"
+        dup2: "foo"
+    '''
+
+    def "should round-trip config"() {
+        given:
+        def config = ConfigFactory.parseString(HOCON).resolve()
+
+        when:
+        def encoded = ConfigCodec.encode(config)
+        def decoded = ConfigCodec.decode(encoded)
+
+        then:
+        decoded == config
+        decoded.isResolved()
+        decoded.root().keySet() == config.root().keySet()
+
+        and: "value types should be preserved"
+        decoded.getValue("int").unwrapped() instanceof Integer
+        decoded.getValue("long").unwrapped() instanceof Long
+        decoded.getValue("double").unwrapped() instanceof Double
+        decoded.getIsNull("nothing")
+        decoded.root().get("nothing").valueType() == ConfigValueType.NULL
+        decoded.getLong("minLong") == Long.MIN_VALUE
+        decoded.getString("unicode") == "čšž €"
+        decoded.getObject("nested.obj").get("key.with.dots").unwrapped() == "x"
+    }
+
+    def "should round-trip config loaded by test config source"() {
+        given:
+        def config = TestConfigSource.createConfig().resolve()
+
+        expect:
+        ConfigCodec.decode(ConfigCodec.encode(config)) == config
+    }
+
+    def "should round-trip single config value: #value"() {
+        given:
+        def configValue = ConfigValueFactory.fromAnyRef(value)
+
+        when:
+        def decoded = ConfigCodec.decodeValue(ConfigCodec.encode(configValue))
+
+        then:
+        decoded == configValue
+        decoded.unwrapped() == value
+
+        where:
+        value << [null, true, 0, Integer.MIN_VALUE, Long.MAX_VALUE, -0.5D, "", "foo", [1, [2]], [a: [b: 1]]]
+    }
+
+    def "should write and read config value using streams"() {
+        given:
+        def config = ConfigFactory.parseString(HOCON).resolve()
+        def bos = new ByteArrayOutputStream()
+
+        when:
+        ConfigCodec.write(config.root(), bos)
+        def decoded = ConfigCodec.read(new ByteArrayInputStream(bos.toByteArray()))
+
+        then:
+        bos.toByteArray() == ConfigCodec.encode(config)
+        ConfigCodec.toConfig(decoded) == config
+    }
+
+    def "should preserve value origins"() {
+        given:
+        def config = ConfigFactory.parseString(HOCON, ConfigParseOptions.defaults().setOriginDescription("my-origin"))
+                                  .resolve()
+        def fileConfig = ConfigFactory.parseString("foo: 1", ConfigParseOptions.defaults())
+                                      .withValue("bar", ConfigValueFactory.fromAnyRef(2, "from code"))
+
+        when:
+        def decoded = ConfigCodec.decode(ConfigCodec.encode(config))
+        def decodedFile = ConfigCodec.decode(ConfigCodec.encode(fileConfig))
+
+        then:
+        def origin = decoded.getValue("str").origin()
+        origin.description() == config.getValue("str").origin().description()
+        origin.lineNumber() == config.getValue("str").origin().lineNumber()
+        origin.comments() == config.getValue("str").origin().comments()
+        !origin.comments().isEmpty()
+        decoded.getValue("nested.obj.a").origin().lineNumber() ==
+            config.getValue("nested.obj.a").origin().lineNumber()
+
+        decodedFile.getValue("bar").origin().description() == "from code"
+        decodedFile.getValue("foo").origin().description() == fileConfig.getValue("foo").origin().description()
+    }
+
+    def "should intern repeated strings"() {
+        given:
+        def value = "x" * 1000
+        def config = ConfigFactory.parseMap([a: value, b: value, c: [value, value]])
+
+        expect:
+        ConfigCodec.encode(config).length < 2 * value.length()
+    }
+
+    def "should refuse to encode unresolved config"() {
+        given:
+        def config = ConfigFactory.parseString('a: 1, b: ${a}')
+
+        when:
+        ConfigCodec.encode(config)
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "should throw on invalid data: #data"() {
+        when:
+        ConfigCodec.decodeValue(data as byte[])
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        data << [
+            [],
+            [1, 2, 3, 4, 5],
+            "not encoded config".getBytes(),
+            truncated(ConfigCodec.encode(ConfigFactory.parseString(HOCON).resolve())),
+            (ConfigCodec.encode(ConfigFactory.parseString(HOCON).resolve()) as List) + [0],
+        ]
+    }
+
+    def "decode() should throw if encoded value is not config object"() {
+        when:
+        ConfigCodec.decode(ConfigCodec.encode(ConfigValueFactory.fromAnyRef("foo")))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    // benchmark is run only if jvm is invoked with -Dbenchmark
+    @Requires({ sys.benchmark })
+    def "benchmark: binary codec vs HOCON and JSON rendering"() {
+        given:
+        def config = createLargeConfig(20_000)
+        def renderHocon = ConfigRenderOptions.defaults().setOriginComments(false)
+        def renderJson = ConfigRenderOptions.concise()
+        def parseJson = ConfigParseOptions.defaults().setSyntax(ConfigSyntax.JSON)
+
+        def hocon = config.root().render(renderHocon)
+        def json = config.root().render(renderJson)
+        def binary = ConfigCodec.encode(config)
+        log.info("encoded sizes: hocon: {} bytes, json: {} bytes, binary: {} bytes",
+            hocon.length(), json.length(), binary.length)
+
+        expect:
+        benchmark("hocon render") { config.root().render(renderHocon) }
+        benchmark("hocon parse") { ConfigFactory.parseString(hocon).resolve() }
+        benchmark("json render") { config.root().render(renderJson) }
+        benchmark("json parse") { ConfigFactory.parseString(json, parseJson).resolve() }
+        benchmark("binary encode") { ConfigCodec.encode(config) }
+        benchmark("binary decode") { ConfigCodec.decode(binary) }
+    }
+
+    boolean benchmark(String name, Closure closure) {
+        def warmup = 10
+        def iterations = 20
+        warmup.times { closure.call() }
+
+        def start = System.nanoTime()
+        iterations.times { closure.call() }
+        def avgMillis = (System.nanoTime() - start) / iterations / 1_000_000D
+        log.info("{}: {} msec/op", name, String.format("%.3f", avgMillis))
+        true
+    }
+
+    static Config createLargeConfig(int numEntries) {
+        def map = [:]
+        numEntries.times {
+            map["section${it % 100}.key${it}"] = [
+                name   : "value-${it % 1000}".toString(),
+                enabled: (it % 2 == 0),
+                count  : it,
+                ratio  : it / 7D,
+                tags   : ["a", "b", "tag-${it % 10}".toString()]
+            ]
+        }
+        ConfigFactory.parseMap(map).resolve()
+    }
+
+    static byte[] truncated(byte[] data) {
+        Arrays.copyOf(data, data.length - 3)
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.core.impl
+
+import com.typesafe.config.ConfigFactory
+import com.typesafe.config.ConfigValueFactory
+import groovy.util.logging.Slf4j
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Slf4j
+@Unroll
+class ConfigFingerprintSpec extends Specification {
+    static def configStr = """
+    a {
+      b: "foo"
+      c: 42
+      d: [1, 2, { x: true, y: null }]
+    }
+    z: 3.14
+    """
+
+    def "equal configs should have equal digests"() {
+        given:
+        def configA = ConfigFactory.parseString(configStr).resolve()
+        def configB = ConfigFactory.parseString(configStr).resolve()
+
+        when:
+        def fpA = ConfigFingerprint.of(configA)
+        def fpB = ConfigFingerprint.of(configB)
+        log.info("fingerprint: {}", fpA)
+
+        then:
+        configA == configB
+        fpA.digest() == fpB.digest()
+        !fpA.differs(fpB)
+        fpA.differs(null)
+    }
+
+    def "digest should not depend on key order"() {
+        given:
+        def configA = ConfigFactory.parseString("a: 1, b: 2, c { x: 1, y: 2 }")
+        def configB = ConfigFactory.parseString("c { y: 2, x: 1 }, b: 2, a: 1")
+
+        expect:
+        ConfigFingerprint.of(configA).digest() == ConfigFingerprint.of(configB).digest()
+    }
+
+    def "numbers with equal values should have equal digests"() {
+        given:
+        def configA = ConfigFactory.empty().withValue("a", ConfigValueFactory.fromAnyRef(a))
+        def configB = ConfigFactory.empty().withValue("a", ConfigValueFactory.fromAnyRef(b))
+
+        expect:
+        configA == configB
+        ConfigFingerprint.of(configA).digest() == ConfigFingerprint.of(configB).digest()
+
+        where:
+        a          | b
+        1          | 1L
+        2          | 2.0D
+        Long.MAX_VALUE | Long.MAX_VALUE
+    }
+
+    def "different configs should have different digests: #strB"() {
+        given:
+        def configA = ConfigFactory.parseString(configStr)
+        def configB = ConfigFactory.parseString(strB)
+
+        expect:
+        configA != configB
+        ConfigFingerprint.of(configA).differs(ConfigFingerprint.of(configB))
+
+        where:
+        strB << [
+            "",
+            configStr + "\nz: 3.15",
+            configStr + "\na.b: \"fop\"",
+            configStr + "\na.c: \"42\"",
+            configStr + "\na.d: [2, 1, { x: true, y: null }]",
+            configStr + "\na.d: [1, 2, { x: false, y: null }]",
+            configStr + "\na.d: [1, 2, { x: true }]",
+            configStr + "\na.e: null",
+            configStr + "\na { b2: \"foo\" }",
+        ]
+    }
+
+    def "strings that differ only in packing should have different digests"() {
+        given:
+        def configA = ConfigFactory.parseMap([a: "abcd", b: ""])
+        def configB = ConfigFactory.parseMap([a: "abc", b: "d"])
+
+        expect:
+        ConfigFingerprint.of(configA).differs(ConfigFingerprint.of(configB))
+    }
+
+    def "path digests should reflect sub-tree changes only"() {
+        given:
+        def configA = ConfigFactory.parseString(configStr)
+        def configB = ConfigFactory.parseString(configStr + "\nz: 2.71")
+
+        def fpA = ConfigFingerprint.of(configA)
+        def fpB = ConfigFingerprint.of(configB)
+
+        expect:
+        fpA.digest("") == Optional.of(fpA.digest())
+        fpA.digest("a") == fpB.digest("a")
+        fpA.digest("a.d") == fpB.digest("a.d")
+        fpA.digest("z") != fpB.digest("z")
+        fpA.digest("z").isPresent()
+
+        !fpA.digest("non.existent").isPresent()
+        !fpA.digest("a.d.x").isPresent()
+        !fpA.digest("a.b.x").isPresent()
+    }
+
+    def "path digest should be equal to digest of the extracted sub-config"() {
+        given:
+        def config = ConfigFactory.parseString(configStr)
+        def fp = ConfigFingerprint.of(config)
+
+        expect:
+        fp.digest("a").get() == ConfigFingerprint.of(config.getConfig("a")).digest()
+    }
+
+    def "digests should be memoized"() {
+        given:
+        def fp = ConfigFingerprint.of(ConfigFactory.parseString(configStr))
+
+        when:
+        def rootDigest = fp.digest()
+        def subtreeDigest = fp.digest("a").get()
+
+        then:
+        fp.digest().is(rootDigest)
+        fp.digest("a").get().is(subtreeDigest)
+        fp.memo.size() == 4
+    }
+
+    def "digest toString() should return hex string"() {
+        when:
+        def digest = new ConfigFingerprint.Digest(1, -1)
+
+        then:
+        digest.toString() == "0000000000000001ffffffffffffffff"
+    }
+
+    def "changedPaths() should return root path if previous fingerprint is null"() {
+        expect:
+        ConfigFingerprint.of(ConfigFactory.parseString(configStr)).changedPaths(null) == [[]]
+    }
+
+    def "changedPaths() should return minimal set of changed paths: #strB"() {
+        given:
+        def fpA = ConfigFingerprint.of(ConfigFactory.parseString(configStr))
+        def fpB = ConfigFingerprint.of(ConfigFactory.parseString(configStr + "\n" + strB))
+
+        when:
+        def changed = fpB.changedPaths(fpA)
+
+        then:
+        changed.toSet() == expected.toSet()
+
+        where:
+        strB                              | expected
+        ""                                | []
+        "z: 3.14"                         | []
+        "z: 2.71"                         | [["z"]]
+        "a.b: bar"                        | [["a", "b"]]
+        "a.b: bar, a.c: 43"               | [["a", "b"], ["a", "c"]]
+        "a.d: [1, 2, { x: false }]"       | [["a", "d"]]
+        "a.e.f: 1"                        | [["a", "e"]]
+        "a: 10"                           | [["a"]]
+        "a: null"                         | [["a"]]
+        "a.b: { x: 1 }"                   | [["a", "b"]]
+        "\"q.r\": 1"                      | [["q.r"]]
+    }
+
+    def "changedPaths() should report removed paths"() {
+        given:
+        def fpA = ConfigFingerprint.of(ConfigFactory.parseString(configStr))
+        def fpB = ConfigFingerprint.of(ConfigFactory.parseString(configStr).withoutPath("a.c").withoutPath("z"))
+
+        expect:
+        fpB.changedPaths(fpA).toSet() == [["a", "c"], ["z"]].toSet()
+    }
+}
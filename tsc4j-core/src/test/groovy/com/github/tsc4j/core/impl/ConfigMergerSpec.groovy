@@ -0,0 +1,153 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.core.impl
+
+import com.typesafe.config.Config
+import com.typesafe.config.ConfigFactory
+import com.typesafe.config.ConfigRenderOptions
+import groovy.util.logging.Slf4j
+import spock.lang.Requires
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Slf4j
+@Unroll
+class ConfigMergerSpec extends Specification {
+    def "merge() should return empty config for empty list or list of empty configs"() {
+        expect:
+        ConfigMerger.merge([]).isEmpty()
+        ConfigMerger.merge([null, ConfigFactory.empty(), null]).isEmpty()
+    }
+
+    def "merge() should return the same config instance if there's only one non-empty config"() {
+        given:
+        def config = ConfigFactory.parseString("a: 1")
+
+        expect:
+        ConfigMerger.merge([ConfigFactory.empty(), config, null]).is(config)
+    }
+
+    def "merge() should produce result equal to linear withFallback() reduction for #num config(s)"() {
+        given:
+        def random = new Random(num)
+        def configs = (1..num).collect { randomConfig(random, it) }
+
+        when:
+        def merged = ConfigMerger.merge(configs)
+        def expected = linearMerge(configs)
+
+        then:
+        merged == expected
+        merged.root().render(ConfigRenderOptions.concise()) == expected.root().render(ConfigRenderOptions.concise())
+
+        where:
+        num << [1, 2, 3, 4, 5, 7, 8, 16, 31, 200]
+    }
+
+    def "merge() should preserve semantics of unresolved configs"() {
+        given:
+        def configs = [
+            'a: 1, b: ${a}, list: [1, 2], obj { x: 1 }',
+            'a: 2, list: ${list} [3], obj { y: ${a} }',
+            'c: ${b}, list: ${list} [4], obj: ${obj} { z: 3 }',
+            'a: 3',
+            'obj.x: 10'
+        ].collect { ConfigFactory.parseString(it) }
+
+        when:
+        def merged = ConfigMerger.merge(configs).resolve()
+        def expected = linearMerge(configs).resolve()
+
+        then:
+        merged == expected
+        merged.getInt("a") == 3
+        merged.getInt("c") == 3
+        merged.getIntList("list") == [1, 2, 3, 4]
+        merged.getConfig("obj") == ConfigFactory.parseMap([x: 10, y: 3, z: 3])
+    }
+
+    def "toMergedConfig() should merge configs in encounter order"() {
+        given:
+        def configs = (1..10).collect { ConfigFactory.parseMap([a: it, ("k" + it): it]) }
+
+        when:
+        def merged = configs.stream().collect(ConfigMerger.toMergedConfig())
+
+        then:
+        merged == linearMerge(configs)
+        merged.getInt("a") == 10
+    }
+
+    // benchmark is run only if jvm is invoked with -Dbenchmark
+    @Requires({ sys.benchmark })
+    def "benchmark: merge() vs linear withFallback() reduction"() {
+        given: "conf.d-like directory with many overlapping fragments"
+        def random = new Random(42)
+        def configs = (1..numConfigs).collect { randomConfig(random, it, 50) }
+
+        and: "warmup"
+        3.times {
+            ConfigMerger.merge(configs)
+            linearMerge(configs)
+        }
+
+        when:
+        def linearSw = new Stopwatch()
+        def expected = null
+        5.times { expected = linearMerge(configs) }
+        def linearMillis = linearSw.durationMillis()
+
+        def mergerSw = new Stopwatch()
+        def merged = null
+        5.times { merged = ConfigMerger.merge(configs) }
+        def mergerMillis = mergerSw.durationMillis()
+
+        log.info("merged {} configs with {} path(s): linear: {}, balanced: {}",
+            numConfigs, merged.entrySet().size(), Stopwatch.toString(linearMillis), Stopwatch.toString(mergerMillis))
+
+        then:
+        merged == expected
+
+        where:
+        numConfigs << [200, 1000]
+    }
+
+    static Config linearMerge(List<Config> configs) {
+        configs.stream()
+               .filter({ it != null && !it.isEmpty() })
+               .reduce(ConfigFactory.empty(), { prev, cur -> cur.withFallback(prev) })
+    }
+
+    static Config randomConfig(Random random, int num, int numKeys = 10) {
+        def map = [:]
+        numKeys.times {
+            def section = "section" + random.nextInt(5)
+            def key = "key" + random.nextInt(numKeys * 2)
+            def value
+            switch (random.nextInt(4)) {
+                case 0: value = num; break
+                case 1: value = "str-" + num; break
+                case 2: value = [num, it]; break
+                default: value = [nested: num, (("n" + random.nextInt(3))): true]
+            }
+            map.computeIfAbsent(section, { [:] }).put(key, value)
+        }
+        map.put("fragment" + num, num)
+        ConfigFactory.parseMap(map, "fragment-" + num)
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.core.impl
+
+import com.github.tsc4j.testsupport.TestClock
+import com.typesafe.config.ConfigFactory
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.nio.file.Files
+import java.time.Duration
+
+@Unroll
+class ConfigSnapshotStoreSpec extends Specification {
+    static final def KEY = Base64.getEncoder().encodeToString((1..32).collect { it as byte } as byte[])
+
+    def dir = Files.createTempDirectory("tsc4j-snapshot-")
+    def file = dir.resolve("sub/snapshot.bin")
+    def clock = new TestClock()
+    def config = ConfigFactory.parseString('''
+        foo: "bar"
+        num: 42
+        list: [1, 2.5, "x", true, null]
+        nested.obj { a: 1, b: [{c: "d"}] }
+    ''').resolve()
+
+    def cleanup() {
+        dir.toFile().deleteDir()
+    }
+
+    def "should store and load config (encrypted: #encrypted)"() {
+        given:
+        def store = createStore(encrypted ? KEY : null)
+
+        expect:
+        !store.load().isPresent()
+        store.isEncrypted() == encrypted
+
+        when:
+        def stored = store.save(config)
+        def loaded = store.load()
+
+        then:
+        stored
+        Files.exists(file)
+        loaded.isPresent()
+        loaded.get() == config
+        loaded.get().isResolved()
+
+        and: "temporary files should be cleaned up"
+        Files.list(file.getParent()).count() == 1
+
+        and:
+        new String(Files.readAllBytes(file), "UTF-8").contains('bar') == !encrypted
+
+        where:
+        encrypted << [false, true]
+    }
+
+    def "should not load snapshot older than max age"() {
+        given:
+        def store = createStore(null)
+        store.save(config)
+
+        when:
+        clock.plus(Duration.ofHours(1))
+
+        then:
+        store.load().isPresent()
+
+        when:
+        clock.plus(Duration.ofMillis(1))
+
+        then:
+        !store.load().isPresent()
+    }
+
+    def "should not load snapshot with mismatching encryption settings"() {
+        when:
+        createStore(storeKey).save(config)
+
+        then:
+        !createStore(loadKey).load().isPresent()
+
+        where:
+        storeKey | loadKey
+        KEY      | null
+        null     | KEY
+        KEY      | Base64.getEncoder().encodeToString(new byte[16])
+    }
+
+    def "should not load corrupted snapshot"() {
+        given:
+        def store = createStore(null)
+        Files.createDirectories(file.getParent())
+        Files.write(file, content as byte[])
+
+        expect:
+        !store.load().isPresent()
+
+        where:
+        content << [[], [1, 2, 3], "not a snapshot at all".getBytes()]
+    }
+
+    def "should throw on invalid settings: maxAge: #maxAge, key: #key"() {
+        when:
+        ConfigSnapshotStore.builder()
+                           .path(file)
+                           .maxAge(maxAge)
+                           .encryptionKey(key)
+                           .build()
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        maxAge              | key
+        Duration.ZERO       | null
+        Duration.ofDays(-1) | null
+        null                | "not%base64"
+        null                | Base64.getEncoder().encodeToString(new byte[10])
+    }
+
+    def createStore(String key) {
+        ConfigSnapshotStore.builder()
+                           .path(file)
+                           .maxAge(Duration.ofHours(1))
+                           .encryptionKey(key)
+                           .clock(clock)
+                           .build()
+    }
+}
@@ -27,6 +27,8 @@ import groovy.util.logging.Slf4j
 import spock.lang.Specification
 import spock.lang.Unroll
 
+import java.time.Duration
+
 @Slf4j
 @Unroll
 class ConfigValueProviderConfigTransformerSpec extends Specification {
@@ -523,4 +525,85 @@ class ConfigValueProviderConfigTransformerSpec extends Specification {
         // some provider returns an object
         'True '   | '我心永恆'    | ['a': 'b']
     }
+
+    def "should reuse variable index if config didn't change"() {
+        given:
+        def config = ConfigFactory.parseString('a: "%{some-type://x}", b: "%{some-type://y}", c: plain')
+        def sameConfig = ConfigFactory.parseString('c: plain, b: "%{some-type://y}", a: "%{some-type://x}"')
+        def otherConfig = ConfigFactory.parseString('a: "%{some-type://z}"')
+
+        when: "transform config"
+        def resultA = transformer.transform(config)
+        def index = transformer.variableIndex
+
+        then:
+        1 * cfgValueProviderD.get(_) >> { args -> args[0].collectEntries { [(it): ConfigValueFactory.fromAnyRef(it + "-value")] } }
+        index.values.size() == 2
+        resultA.getString("a") == "x-value"
+        resultA.getString("b") == "y-value"
+
+        when: "transform equal config"
+        def resultB = transformer.transform(sameConfig)
+
+        then: "index should be reused, values should be fetched again"
+        1 * cfgValueProviderD.get(_) >> { args -> args[0].collectEntries { [(it): ConfigValueFactory.fromAnyRef(it + "-new")] } }
+        transformer.variableIndex.is(index)
+        resultB.getString("a") == "x-new"
+        resultB.getString("b") == "y-new"
+        resultB.getString("c") == "plain"
+
+        when: "transform different config"
+        def resultC = transformer.transform(otherConfig)
+
+        then:
+        1 * cfgValueProviderD.get(_) >> { args -> args[0].collectEntries { [(it): ConfigValueFactory.fromAnyRef(it + "-value")] } }
+        !transformer.variableIndex.is(index)
+        transformer.variableIndex.values.size() == 1
+        resultC.getString("a") == "z-value"
+    }
+
+    def "should wrap value providers without own cache if cache ttl is set"() {
+        given:
+        def provider = Mock(ConfigValueProvider)
+        def config = ConfigFactory.parseString('a: "%{some-type://x}"')
+
+        and:
+        def transformer = ConfigValueProviderConfigTransformer.builder()
+                                                              .withProviders(provider)
+                                                              .setCacheTtl(Duration.ofMinutes(1))
+                                                              .build()
+
+        expect:
+        transformer.providers.size() == 1
+        transformer.providers[0] instanceof CachingConfigValueProvider
+
+        when:
+        def resultA = transformer.transform(config)
+        def resultB = transformer.transform(config)
+
+        then:
+        provider.getType() >> 'some-type'
+        provider.getName() >> ''
+        1 * provider.get(['x']) >> [x: ConfigValueFactory.fromAnyRef("foo")]
+
+        resultA.getString("a") == "foo"
+        resultB.getString("a") == "foo"
+
+        cleanup:
+        transformer?.close()
+    }
+
+    def "builder should throw on invalid refresh-ahead percentage: #pct"() {
+        when:
+        ConfigValueProviderConfigTransformer.builder()
+                                            .withProviders(Mock(ConfigValueProvider))
+                                            .setRefreshAheadPct(pct)
+                                            .build()
+
+        then:
+        thrown(IllegalStateException)
+
+        where:
+        pct << [-1, 101]
+    }
 }
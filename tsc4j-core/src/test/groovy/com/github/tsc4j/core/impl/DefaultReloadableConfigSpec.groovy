@@ -19,6 +19,7 @@ package com.github.tsc4j.core.impl
 
 import beans.java.immutable.ImmutableBean
 import com.github.tsc4j.core.AggConfigSource
+import com.github.tsc4j.core.BatchingConfigValueProviderSpec
 import com.github.tsc4j.core.ConfigSource
 import com.github.tsc4j.core.Tsc4jException
 import com.github.tsc4j.testsupport.TestConfigSource
@@ -28,8 +29,11 @@ import com.typesafe.config.ConfigFactory
 import com.typesafe.config.ConfigValueFactory
 import com.typesafe.config.ConfigValueType
 import spock.lang.Unroll
+import spock.util.concurrent.PollingConditions
 
+import java.nio.file.Files
 import java.time.Duration
+import java.util.concurrent.CountDownLatch
 import java.util.concurrent.TimeUnit
 import java.util.concurrent.atomic.AtomicInteger
 import java.util.function.Function
@@ -290,6 +294,235 @@ class DefaultReloadableConfigSpec extends AbstractReloadableConfigSpec<DefaultRe
         rc?.close()
     }
 
+    def "config source change notifications should trigger single debounced refresh"() {
+        given:
+        def fetches = new AtomicInteger()
+        Runnable listener = null
+        def source = [
+            allowErrors: { false },
+            get        : { query -> ConfigFactory.parseMap([num: fetches.incrementAndGet()]) },
+            watch      : { query, Runnable l -> listener = l; true },
+            close      : {}
+        ] as ConfigSource
+
+        def rc = DefaultReloadableConfig.builder()
+                                        .configSupplier(new ConfigSupplier(source, defaultConfigQuery))
+                                        .refreshInterval(defaultRefreshInterval)
+                                        .refreshDebounce(Duration.ofMillis(100))
+                                        .build()
+        def conditions = new PollingConditions(timeout: 5)
+
+        expect:
+        rc.isWatchingConfigSource()
+        listener != null
+        rc.getSync().getInt("num") == 1
+
+        when: "source reports multiple changes in a short time"
+        5.times { listener.run() }
+
+        then:
+        conditions.eventually {
+            assert rc.getSync().getInt("num") == 2
+        }
+
+        when: "debounce period passes"
+        Thread.sleep(300)
+
+        then: "changes were coalesced into a single refresh"
+        fetches.get() == 2
+
+        when: "source reports another change"
+        listener.run()
+
+        then:
+        conditions.eventually {
+            assert rc.getSync().getInt("num") == 3
+        }
+
+        cleanup:
+        rc?.close()
+    }
+
+    def "config source should not be watched if it doesn't support change notifications or refresh is disabled"() {
+        given:
+        def watchCalls = new AtomicInteger()
+        def source = [
+            allowErrors: { false },
+            get        : { query -> ConfigFactory.empty() },
+            watch      : { query, Runnable l -> watchCalls.incrementAndGet(); supportsWatch },
+            close      : {}
+        ] as ConfigSource
+
+        when:
+        def rc = DefaultReloadableConfig.builder()
+                                        .configSupplier(new ConfigSupplier(source, defaultConfigQuery))
+                                        .refreshInterval(refreshInterval)
+                                        .build()
+
+        then:
+        !rc.isWatchingConfigSource()
+        watchCalls.get() == expectedWatchCalls
+
+        cleanup:
+        rc?.close()
+
+        where:
+        supportsWatch | refreshInterval        | expectedWatchCalls
+        false         | defaultRefreshInterval | 1
+        true          | Duration.ZERO          | 0
+    }
+
+    def "scheduled refresh should fetch value provider batches concurrently"() {
+        given: "value provider that fetches each value in separate batch"
+        def provider = new BatchingConfigValueProviderSpec.TestProvider(true, 4, 1)
+        provider.fetchDelayMillis = 200
+        def names = ["a", "b", "c", "d"]
+
+        and: "config supplier that resolves values only on scheduled refreshes"
+        def fetches = new AtomicInteger()
+        def configSupplier = {
+            if (fetches.incrementAndGet() > 1) {
+                provider.get(names)
+            }
+            ConfigFactory.parseMap([num: fetches.get()])
+        } as Supplier<Config>
+
+        when:
+        def rc = DefaultReloadableConfig.builder()
+                                        .configSupplier(configSupplier)
+                                        .refreshInterval(Duration.ofSeconds(1))
+                                        .build()
+        def conditions = new PollingConditions(timeout: 10)
+
+        then: "refresh runs in executor"
+        rc.runRefreshInExecutor()
+
+        and:
+        conditions.eventually {
+            assert provider.batches.size() >= names.size()
+            assert provider.maxActive.get() > 1
+        }
+
+        cleanup:
+        rc?.close()
+    }
+
+    def "should serve stored config snapshot while first fetch runs in background (refresh interval: #refreshInterval)"() {
+        given:
+        def dir = Files.createTempDirectory("tsc4j-snapshot-")
+        def store = ConfigSnapshotStore.builder().path(dir.resolve("snapshot.bin")).build()
+        store.save(ConfigFactory.parseMap([num: 1]))
+
+        and: "setup slow config supplier"
+        def fetchLatch = new CountDownLatch(1)
+        def configSupplier = {
+            fetchLatch.await()
+            ConfigFactory.parseMap([num: 2])
+        } as Supplier<Config>
+
+        when:
+        def rc = DefaultReloadableConfig.builder()
+                                        .configSupplier(configSupplier)
+                                        .refreshInterval(refreshInterval)
+                                        .snapshotStore(store)
+                                        .build()
+        def conditions = new PollingConditions(timeout: 5)
+
+        then: "stored config is served without waiting for the fetch"
+        rc.isServedStoredSnapshot()
+        rc.isPresent()
+        rc.getSync().getInt("num") == 1
+
+        when: "fetch completes"
+        fetchLatch.countDown()
+
+        then: "fetched config gets assigned and stored"
+        conditions.eventually {
+            assert rc.getSync().getInt("num") == 2
+            assert store.load().get().getInt("num") == 2
+        }
+
+        cleanup:
+        fetchLatch.countDown()
+        rc?.close()
+        dir.toFile().deleteDir()
+
+        where:
+        refreshInterval << [defaultRefreshInterval, Duration.ZERO]
+    }
+
+    def "should serve stored config snapshot if config can't be fetched"() {
+        given:
+        def dir = Files.createTempDirectory("tsc4j-snapshot-")
+        def store = ConfigSnapshotStore.builder().path(dir.resolve("snapshot.bin")).build()
+        store.save(ConfigFactory.parseMap([num: 1]))
+
+        and:
+        def fetches = new AtomicInteger()
+        def configSupplier = {
+            fetches.incrementAndGet()
+            throw new IllegalStateException("config sources are not available")
+        } as Supplier<Config>
+
+        when:
+        def rc = DefaultReloadableConfig.builder()
+                                        .configSupplier(configSupplier)
+                                        .refreshInterval(defaultRefreshInterval)
+                                        .snapshotStore(store)
+                                        .build()
+
+        then:
+        new PollingConditions(timeout: 5).eventually {
+            assert fetches.get() == 1
+        }
+        rc.getSync().getInt("num") == 1
+        store.load().get().getInt("num") == 1
+
+        cleanup:
+        rc?.close()
+        dir.toFile().deleteDir()
+    }
+
+    def "should save fetched config to snapshot store only if it changed"() {
+        given:
+        def dir = Files.createTempDirectory("tsc4j-snapshot-")
+        def file = dir.resolve("snapshot.bin")
+        def store = ConfigSnapshotStore.builder().path(file).build()
+
+        and:
+        def num = 1
+        def configSupplier = { ConfigFactory.parseMap([num: num]) } as Supplier<Config>
+        def rc = DefaultReloadableConfig.builder()
+                                        .configSupplier(configSupplier)
+                                        .refreshInterval(Duration.ZERO)
+                                        .snapshotStore(store)
+                                        .build()
+
+        when:
+        rc.refresh().toCompletableFuture().get()
+
+        then:
+        store.load().get().getInt("num") == 1
+
+        when: "unchanged config is fetched"
+        Files.delete(file)
+        rc.refresh().toCompletableFuture().get()
+
+        then:
+        !Files.exists(file)
+
+        when: "changed config is fetched"
+        num = 2
+        rc.refresh().toCompletableFuture().get()
+
+        then:
+        store.load().get().getInt("num") == 2
+
+        cleanup:
+        rc?.close()
+        dir.toFile().deleteDir()
+    }
+
     def "register(Class) should throw on null arguments"() {
         given:
         def rc = createReloadableConfig()
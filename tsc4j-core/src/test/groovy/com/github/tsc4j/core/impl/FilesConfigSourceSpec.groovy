@@ -20,8 +20,17 @@ package com.github.tsc4j.core.impl
 import com.github.tsc4j.core.AbstractConfigSource
 import com.github.tsc4j.core.ConfigSourceBuilder
 import com.github.tsc4j.core.FilesystemLikeConfigSourceSpec
+import com.typesafe.config.ConfigFactory
 import groovy.util.logging.Slf4j
 import spock.lang.Shared
+import spock.lang.Timeout
+import spock.util.concurrent.PollingConditions
+
+import java.nio.file.Files
+import java.nio.file.Paths
+import java.nio.file.StandardCopyOption
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
 
 @Slf4j
 class FilesConfigSourceSpec extends FilesystemLikeConfigSourceSpec {
@@ -86,6 +95,196 @@ class FilesConfigSourceSpec extends FilesystemLikeConfigSourceSpec {
         config.getString("sect_zz.y") == "bar"
     }
 
+    def "unchanged files should be served from parse cache"() {
+        given:
+        def dir = Files.createTempDirectory("tsc4j-files-")
+        def file = dir.resolve("application.conf").toFile()
+        file.text = "a: 1"
+        FilesConfigSource source = builder().withPath(dir.toString()).build()
+
+        when:
+        def first = source.loadConfig(file.toString(), "")
+        def second = source.loadConfig(file.toString(), "")
+
+        then:
+        !source.isWatching()
+        first.getInt("a") == 1
+        second.is(first)
+
+        when: "file changes"
+        file.text = "a: 42"
+        def third = source.loadConfig(file.toString(), "")
+
+        then:
+        !third.is(first)
+        third.getInt("a") == 42
+
+        cleanup:
+        source?.close()
+        dir.toFile().deleteDir()
+    }
+
+    def "cached files should be re-parsed if their included files change"() {
+        given:
+        def dir = Files.createTempDirectory("tsc4j-files-")
+        def file = dir.resolve("application.conf").toFile()
+        def included = dir.resolve("included.conf").toFile()
+        def nested = Files.createDirectory(dir.resolve("nested")).resolve("nested.conf").toFile()
+        file.text = 'a: 1\ninclude "included.conf"\ninclude file("' + nested + '")'
+        included.text = "b: 1"
+        nested.text = "c: 1"
+        FilesConfigSource source = builder().withPath(dir.toString()).build()
+
+        when:
+        def first = source.loadConfig(file.toString(), "")
+
+        then:
+        first.getInt("b") == 1
+        source.loadConfig(file.toString(), "").is(first)
+
+        when: "included file changes"
+        included.text = "b: 42"
+        def second = source.loadConfig(file.toString(), "")
+
+        then:
+        second.getInt("b") == 42
+
+        when: "file included using file() changes"
+        nested.text = "c: 42"
+        def third = source.loadConfig(file.toString(), "")
+
+        then:
+        third.getInt("c") == 42
+        source.loadConfig(file.toString(), "").is(third)
+
+        cleanup:
+        source?.close()
+        dir.toFile().deleteDir()
+    }
+
+    @Timeout(30)
+    def "watching source should re-parse files after their included files or symlinked directories change"() {
+        given: "kubernetes config map like layout"
+        def dir = Files.createTempDirectory("tsc4j-files-")
+        def v1 = Files.createDirectory(dir.resolve("..v1"))
+        v1.resolve("application.conf").toFile().text = 'a: 1\ninclude file("' + dir.resolve("other/inc.conf") + '")'
+        Files.createSymbolicLink(dir.resolve("..data"), Paths.get("..v1"))
+        Files.createSymbolicLink(dir.resolve("application.conf"), Paths.get("..data/application.conf"))
+        def inc = Files.createDirectory(dir.resolve("other")).resolve("inc.conf").toFile()
+        inc.text = "b: 1"
+
+        FilesConfigSource source = builder().withPath(dir.toString()).setWatch(true).build()
+        def query = defaultConfigQuery
+        def conditions = new PollingConditions(timeout: 10)
+
+        expect:
+        source.isWatching()
+        source.get(query).getInt("a") == 1
+        source.get(query).getInt("b") == 1
+
+        when: "included file in another directory changes"
+        inc.text = "b: 2"
+
+        then:
+        conditions.eventually {
+            assert source.get(query).getInt("b") == 2
+        }
+
+        when: "config map data directory symlink is swapped"
+        def v2 = Files.createDirectory(dir.resolve("..v2"))
+        v2.resolve("application.conf").toFile().text = "a: 2"
+        Files.createSymbolicLink(dir.resolve("..data_tmp"), Paths.get("..v2"))
+        Files.move(dir.resolve("..data_tmp"), dir.resolve("..data"), StandardCopyOption.ATOMIC_MOVE)
+
+        then:
+        conditions.eventually {
+            assert source.get(query).getInt("a") == 2
+        }
+
+        cleanup:
+        source?.close()
+        dir.toFile().deleteDir()
+    }
+
+    @Timeout(30)
+    def "watching source should notify listeners and re-parse only changed files"() {
+        given:
+        def dir = Files.createTempDirectory("tsc4j-files-")
+        def confd = Files.createDirectory(dir.resolve("conf.d"))
+        def fileA = dir.resolve("application.conf").toFile()
+        def fileB = confd.resolve("b.conf").toFile()
+        fileA.text = "a: 1"
+        fileB.text = "b: 1"
+
+        FilesConfigSource source = builder().withPath(dir.toString()).setWatch(true).build()
+        def query = defaultConfigQuery
+        def conditions = new PollingConditions(timeout: 10)
+
+        def latch = new CountDownLatch(1)
+
+        expect:
+        source.isWatching()
+        source.watch(query, { latch.countDown() })
+
+        when:
+        def config = source.get(query)
+        def cachedB = source.loadConfig(fileB.toString(), "")
+
+        then:
+        config.getInt("a") == 1
+        config.getInt("b") == 1
+
+        when: "file gets modified"
+        fileA.text = "a: 2"
+        latch.await(20, TimeUnit.SECONDS)
+
+        then:
+        latch.getCount() == 0
+        conditions.eventually {
+            config = source.get(query)
+            assert config.getInt("a") == 2
+            assert config.getInt("b") == 1
+        }
+        source.loadConfig(fileB.toString(), "").is(cachedB)
+
+        when: "new file is added"
+        def latchNew = new CountDownLatch(1)
+        source.addChangeListener({ latchNew.countDown() })
+        confd.resolve("c.conf").toFile().text = "c: 3"
+        latchNew.await(20, TimeUnit.SECONDS)
+
+        then:
+        latchNew.getCount() == 0
+        conditions.eventually {
+            assert source.get(query).hasPath("c")
+        }
+
+        cleanup:
+        source?.close()
+        dir.toFile().deleteDir()
+    }
+
+    def "watch() should report that change notifications are not supported if source is not watching"() {
+        given:
+        FilesConfigSource source = builder().withPath("/tmp").build()
+
+        expect:
+        !source.watch(defaultConfigQuery, {})
+
+        cleanup:
+        source?.close()
+    }
+
+    def "builder should configure watching from config"() {
+        when:
+        def builder = builder()
+        builder.withConfig(ConfigFactory.parseMap([watch: true, paths: ["/tmp"]]))
+
+        then:
+        builder.isWatch()
+        builder.getPaths() == ["/tmp"]
+    }
+
     FilesConfigSource.Builder builder() {
         FilesConfigSource.builder()
     }
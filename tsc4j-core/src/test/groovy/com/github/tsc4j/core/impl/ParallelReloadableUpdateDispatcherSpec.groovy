@@ -0,0 +1,269 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.core.impl
+
+import com.github.tsc4j.core.Tsc4jConfig
+import com.github.tsc4j.core.Tsc4jImplUtils
+import groovy.util.logging.Slf4j
+import spock.lang.Specification
+import spock.lang.Unroll
+
+import java.time.Duration
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.function.Consumer
+import java.util.function.Function
+
+@Slf4j
+@Unroll
+class ParallelReloadableUpdateDispatcherSpec extends Specification {
+    static def idCounter = new AtomicLong()
+
+    def "builder should apply defaults"() {
+        when:
+        def dispatcher = ParallelReloadableUpdateDispatcher.builder().build()
+
+        then:
+        dispatcher.getParallelism() == ParallelReloadableUpdateDispatcher.DEFAULT_PARALLELISM
+        dispatcher.getUpdateTimeout() == ParallelReloadableUpdateDispatcher.DEFAULT_UPDATE_TIMEOUT
+        dispatcher.getReloadableUpdateTimeout() == ParallelReloadableUpdateDispatcher.DEFAULT_RELOADABLE_UPDATE_TIMEOUT
+        dispatcher.getSlowUpdateThreshold() == ParallelReloadableUpdateDispatcher.DEFAULT_SLOW_UPDATE_THRESHOLD
+    }
+
+    def "builder should throw on invalid parallelism"() {
+        when:
+        ParallelReloadableUpdateDispatcher.builder().parallelism(-1).build()
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+
+    def "independentGroups() should group nested paths: #paths"() {
+        given:
+        def reloadables = paths.collect { reloadable(it) }
+
+        when:
+        def groups = ParallelReloadableUpdateDispatcher.independentGroups(reloadables)
+
+        then:
+        groups.collect { group -> group.collect { it.getPath() } } == expected
+
+        where:
+        paths                                  | expected
+        []                                     | []
+        ["a"]                                  | [["a"]]
+        ["a", "b"]                             | [["a"], ["b"]]
+        ["a", "a.b", "a.b.c", "b"]             | [["a", "a.b", "a.b.c"], ["b"]]
+        ["a.b.c", "a.b", "a", "b"]             | [["a.b.c", "a.b", "a"], ["b"]]
+        ["a.b", "a.c", "b.c"]                  | [["a.b"], ["a.c"], ["b.c"]]
+        ["a.b", "a.b.c", "a.c", "ab"]          | [["a.b", "a.b.c"], ["a.c"], ["ab"]]
+        ["a", "a", "b"]                        | [["a", "a"], ["b"]]
+        ["", "a", "b"]                         | [["", "a", "b"]]
+        ["a", "b", ""]                         | [["a", "b", ""]]
+    }
+
+    def "dispatch() should update all reloadables and preserve order within groups"() {
+        given:
+        def paths = ["a", "a.b", "a.b.c", "b", "b.x", "c", "d.e", "d.f"]
+        def reloadables = paths.collect { reloadable(it) }
+        def updated = new CopyOnWriteArrayList<String>()
+        def threads = ConcurrentHashMap.newKeySet()
+
+        def dispatcher = ParallelReloadableUpdateDispatcher.builder().parallelism(3).build()
+
+        when:
+        dispatcher.dispatch(reloadables, {
+            threads.add(Thread.currentThread().getName())
+            Thread.sleep(20)
+            updated.add(it.getPath())
+        } as Consumer)
+
+        then:
+        updated.size() == paths.size()
+        updated.toSet() == paths.toSet()
+        updated.indexOf("a") < updated.indexOf("a.b")
+        updated.indexOf("a.b") < updated.indexOf("a.b.c")
+        updated.indexOf("b") < updated.indexOf("b.x")
+
+        threads.size() > 1
+        !threads.contains(Thread.currentThread().getName())
+    }
+
+    def "dispatch() should update reloadables in calling thread if there's single group"() {
+        given:
+        def reloadables = ["", "a", "b"].collect { reloadable(it) }
+        def updated = []
+        def threads = new HashSet()
+
+        when:
+        ParallelReloadableUpdateDispatcher.builder().build().dispatch(reloadables, {
+            threads.add(Thread.currentThread())
+            updated.add(it.getPath())
+        } as Consumer)
+
+        then:
+        updated == ["", "a", "b"]
+        threads == [Thread.currentThread()].toSet()
+    }
+
+    def "dispatch() should not propagate updater exceptions"() {
+        given:
+        def reloadables = ["a", "b", "c"].collect { reloadable(it) }
+        def updated = new CopyOnWriteArrayList<String>()
+
+        when:
+        ParallelReloadableUpdateDispatcher.builder().build().dispatch(reloadables, {
+            if (it.getPath() == "b") {
+                throw new IllegalStateException("b")
+            }
+            updated.add(it.getPath())
+        } as Consumer)
+
+        then:
+        noExceptionThrown()
+        updated.toSet() == ["a", "c"].toSet()
+    }
+
+    def "dispatch() should return after update timeout"() {
+        given:
+        def latch = new CountDownLatch(1)
+        def reloadables = ["a", "b"].collect { reloadable(it) }
+        def dispatcher = ParallelReloadableUpdateDispatcher.builder()
+                                                           .updateTimeout(Duration.ofMillis(100))
+                                                           .build()
+
+        when:
+        def sw = new Stopwatch()
+        dispatcher.dispatch(reloadables, { latch.await(5, TimeUnit.SECONDS) } as Consumer)
+        def durationMillis = sw.durationMillis()
+        latch.countDown()
+
+        then:
+        durationMillis >= 100
+        durationMillis < 2000
+    }
+
+    def "dispatch() should interrupt reloadable update after reloadable update timeout"() {
+        given:
+        def reloadables = ["a", "b"].collect { reloadable(it) }
+        def interrupted = new CopyOnWriteArrayList<String>()
+        def dispatcher = ParallelReloadableUpdateDispatcher.builder()
+                                                           .reloadableUpdateTimeout(Duration.ofMillis(100))
+                                                           .build()
+
+        when:
+        def sw = new Stopwatch()
+        dispatcher.dispatch(reloadables, {
+            try {
+                Thread.sleep(5000)
+            } catch (InterruptedException e) {
+                interrupted.add(it.getPath())
+            }
+        } as Consumer)
+        def durationMillis = sw.durationMillis()
+
+        then:
+        durationMillis >= 100
+        durationMillis < 2000
+        interrupted.toSet() == ["a", "b"].toSet()
+    }
+
+    def "dispatch() should not interrupt reloadable update running in calling thread"() {
+        given:
+        def reloadables = ["a", "a.b"].collect { reloadable(it) }
+        def interrupted = new CopyOnWriteArrayList<String>()
+        def dispatcher = ParallelReloadableUpdateDispatcher.builder()
+                                                           .reloadableUpdateTimeout(Duration.ofMillis(50))
+                                                           .build()
+
+        when:
+        dispatcher.dispatch(reloadables, {
+            try {
+                Thread.sleep(200)
+            } catch (InterruptedException e) {
+                interrupted.add(it.getPath())
+            }
+        } as Consumer)
+        Thread.sleep(100)
+
+        then:
+        interrupted.isEmpty()
+        !Thread.currentThread().isInterrupted()
+    }
+
+    def "dispatch() should skip stale updates of reloadables already updated by newer dispatch"() {
+        given:
+        def latch = new CountDownLatch(1)
+        def reloadables = ["a", "b", "c"].collect { reloadable(it) }
+        def updated = new CopyOnWriteArrayList<String>()
+        def dispatcher = ParallelReloadableUpdateDispatcher.builder()
+                                                           .parallelism(2)
+                                                           .updateTimeout(Duration.ofMillis(100))
+                                                           .build()
+
+        when: "first dispatch times out while update of 'c' is still queued"
+        dispatcher.dispatch(reloadables, {
+            if (it.getPath() != "c") {
+                latch.await(5, TimeUnit.SECONDS)
+            }
+            updated.add("old:" + it.getPath())
+        } as Consumer)
+
+        and: "newer dispatch updates 'c' before the first one gets to it"
+        dispatcher.dispatch([reloadables[2]], { updated.add("new:" + it.getPath()) } as Consumer)
+        latch.countDown()
+        Thread.sleep(300)
+
+        then:
+        updated.toSet() == ["old:a", "old:b", "new:c"].toSet()
+    }
+
+    def "dispatch() should use current default executor"() {
+        given:
+        def reloadables = ["a", "b"].collect { reloadable(it) }
+        def threads = ConcurrentHashMap.newKeySet()
+        Tsc4jImplUtils.resetDefaultExecutorConfiguration()
+        def dispatcher = ParallelReloadableUpdateDispatcher.builder().build()
+        def executor = Tsc4jImplUtils.defaultExecutor()
+
+        when: "default executor is replaced after dispatcher has been created"
+        Tsc4jImplUtils.configureDefaultExecutor(Tsc4jConfig.builder().executorMaxThreads(7).build())
+        dispatcher.dispatch(reloadables, {
+            threads.add(Thread.currentThread().getName())
+            Thread.sleep(20)
+        } as Consumer)
+
+        then:
+        !Tsc4jImplUtils.defaultExecutor().is(executor)
+        Tsc4jImplUtils.defaultExecutorStats().get().getLargestPoolSize() >= 2
+        threads.size() == 2
+        !threads.contains(Thread.currentThread().getName())
+
+        cleanup:
+        Tsc4jImplUtils.resetDefaultExecutorConfiguration()
+        Tsc4jImplUtils.configureDefaultExecutor(Tsc4jConfig.builder().build())
+        Tsc4jImplUtils.resetDefaultExecutorConfiguration()
+    }
+
+    def reloadable(String path) {
+        new DefaultReloadable(idCounter.incrementAndGet(), path, Function.identity(), {} as Consumer)
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.core.impl
+
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class PathTrieSpec extends Specification {
+    def trie = new PathTrie<String>()
+
+    def setup() {
+        ["", "a", "a.b", "a.b.c", "a.x", "b", "b.c.d"].each { trie.add(it, "r:" + it) }
+    }
+
+    def "splitPath() should split #path to #expected"() {
+        expect:
+        PathTrie.splitPath(path) == expected
+
+        where:
+        path    | expected
+        ""      | []
+        "a"     | ["a"]
+        "a.b.c" | ["a", "b", "c"]
+    }
+
+    def "find() should return elements registered at prefixes and descendants of #changed"() {
+        expect:
+        trie.find(changed) == expected.collect { "r:" + it }.toSet()
+
+        where:
+        changed              | expected
+        []                   | []
+        [[]]                 | ["", "a", "a.b", "a.b.c", "a.x", "b", "b.c.d"]
+        [["a"]]              | ["", "a", "a.b", "a.b.c", "a.x"]
+        [["a", "b"]]         | ["", "a", "a.b", "a.b.c"]
+        [["a", "b", "c"]]    | ["", "a", "a.b", "a.b.c"]
+        [["a", "x", "y"]]    | ["", "a", "a.x"]
+        [["b", "c"]]         | ["", "b", "b.c.d"]
+        [["c"]]              | [""]
+        [["a", "x"], ["b"]]  | ["", "a", "a.x", "b", "b.c.d"]
+    }
+
+    def "add() and remove() should maintain size"() {
+        expect:
+        trie.size() == 7
+        !trie.add("a.b", "r:a.b")
+        trie.add("a.b", "other")
+        trie.size() == 8
+
+        when:
+        def removed = trie.remove("b.c.d", "r:b.c.d")
+
+        then:
+        removed
+        trie.size() == 7
+        !trie.remove("b.c.d", "r:b.c.d")
+        !trie.remove("non.existent", "r:a")
+        trie.find([["b", "c"]]) == ["r:", "r:b"].toSet()
+
+        when:
+        trie.clear()
+
+        then:
+        trie.size() == 0
+        trie.find([[]]).isEmpty()
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.core.impl
+
+import com.github.tsc4j.testsupport.TestClock
+import com.typesafe.config.ConfigFactory
+import spock.lang.Specification
+
+import java.nio.file.Files
+import java.nio.file.Paths
+import java.nio.file.attribute.PosixFilePermissions
+
+class SharedConfigFileSpec extends Specification {
+    def dir = Files.createTempDirectory("tsc4j-shared-")
+    def path = dir.resolve("sub/shared.bin")
+    def clock = new TestClock()
+    def files = []
+
+    def config = ConfigFactory.parseString('''
+        foo: "bar"
+        list: [1, 2.5, "x", true, null]
+        nested.obj { a: 1, b: [{c: "d"}] }
+    ''').resolve()
+
+    def cleanup() {
+        files*.close()
+        dir.toFile().deleteDir()
+    }
+
+    def "only one instance should be elected as writer"() {
+        given:
+        def first = open()
+        def second = open()
+
+        expect:
+        first.tryAcquireWriter()
+        first.tryAcquireWriter()
+        first.isWriter()
+
+        !second.tryAcquireWriter()
+        !second.isWriter()
+
+        when: "writer closes the file"
+        first.close()
+
+        then:
+        !first.isWriter()
+        second.tryAcquireWriter()
+    }
+
+    def "shared and lock files should be accessible only by the owner"() {
+        given:
+        def file = open()
+
+        when:
+        file.tryAcquireWriter()
+
+        then:
+        PosixFilePermissions.toString(Files.getPosixFilePermissions(path)) == "rw-------"
+        PosixFilePermissions.toString(Files.getPosixFilePermissions(Paths.get(path.toString() + ".lock"))) == "rw-------"
+    }
+
+    def "unresolved config should be published unresolved"() {
+        given:
+        def writer = open()
+        def reader = open()
+        writer.tryAcquireWriter()
+        def unresolved = ConfigFactory.parseString('''
+            a: ${b}
+            c: ${?d}
+            list: ${list} [2]
+        ''').withFallback(ConfigFactory.parseString("list: [1]"))
+
+        when:
+        writer.publish(unresolved)
+        def read = reader.read().get().getConfig()
+
+        then:
+        !read.isResolved()
+        read.withFallback(ConfigFactory.parseMap([b: "x", d: "y"])).resolve() ==
+            unresolved.withFallback(ConfigFactory.parseMap([b: "x", d: "y"])).resolve()
+    }
+
+    def "non-writer should not be able to publish config"() {
+        given:
+        def file = open()
+
+        when:
+        file.publish(config)
+
+        then:
+        thrown(IllegalStateException)
+    }
+
+    def "reader should see configs published by writer"() {
+        given:
+        def writer = open()
+        def reader = open()
+        writer.tryAcquireWriter()
+
+        expect:
+        reader.getGeneration() == 0
+        !reader.read().isPresent()
+
+        when:
+        def generation = writer.publish(config)
+        def entry = reader.read().get()
+
+        then:
+        generation == 2
+        reader.getGeneration() == generation
+        entry.getGeneration() == generation
+        entry.getPublishedAt() == clock.instant()
+        entry.getConfig() == config
+
+        and: "unchanged generation should not be decoded again"
+        reader.read().get().is(entry)
+
+        when: "large config that requires file growth is published"
+        def largeConfig = ConfigFactory.parseMap((1..10_000).collectEntries { ["key$it".toString(), "value-$it".toString()] })
+        def newGeneration = writer.publish(largeConfig)
+        def newEntry = reader.read().get()
+
+        then:
+        newGeneration == 4
+        newEntry.getGeneration() == newGeneration
+        newEntry.getConfig() == largeConfig
+        Files.size(path) > ConfigCodec.encode(largeConfig).length
+    }
+
+    def "new writer should continue generation sequence"() {
+        given:
+        def writer = open()
+        writer.tryAcquireWriter()
+        writer.publish(config)
+        writer.publish(config)
+        writer.close()
+
+        when:
+        def newWriter = open()
+        newWriter.tryAcquireWriter()
+
+        then:
+        newWriter.getGeneration() == 4
+        newWriter.publish(config) == 6
+        newWriter.read().get().getConfig() == config
+    }
+
+    def "reader should throw on corrupted payload"() {
+        given:
+        def writer = open()
+        writer.tryAcquireWriter()
+        writer.publish(config)
+        writer.close()
+
+        and: "corrupt the payload"
+        def bytes = Files.readAllBytes(path)
+        bytes[SharedConfigFile.HEADER_SIZE + 5] ^= 0xff
+        Files.write(path, bytes)
+
+        when:
+        open().read()
+
+        then:
+        thrown(IOException)
+    }
+
+    SharedConfigFile open() {
+        def file = new SharedConfigFile(path, clock)
+        files << file
+        file
+    }
+}
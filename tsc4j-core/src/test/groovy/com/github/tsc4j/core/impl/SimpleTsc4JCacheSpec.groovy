@@ -69,6 +69,20 @@ class SimpleTsc4JCacheSpec extends Specification {
         !cache.get(pathB).isPresent()
     }
 
+    def "remove() should remove only given entry"() {
+        given:
+        def cache = createCache()
+
+        when:
+        def res = cache.remove(pathA).remove("non-existent")
+
+        then:
+        res.is(cache)
+        cache.size() == 1
+        !cache.get(pathA).isPresent()
+        cache.get(pathB).get() == entryB
+    }
+
     def "populated cache should return cached entries"() {
         given:
         def cache = createCache()
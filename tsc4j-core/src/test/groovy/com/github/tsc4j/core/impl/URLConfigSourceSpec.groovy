@@ -19,6 +19,7 @@ package com.github.tsc4j.core.impl
 
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration
 import com.github.tomakehurst.wiremock.junit.WireMockRule
+import com.github.tomakehurst.wiremock.stubbing.Scenario
 import com.github.tsc4j.core.AbstractConfigSource
 import com.github.tsc4j.core.AbstractConfigSourceSpec
 import com.github.tsc4j.core.ConfigQuery
@@ -29,9 +30,16 @@ import groovy.util.logging.Slf4j
 import org.junit.Rule
 import spock.lang.Unroll
 
+import java.nio.charset.StandardCharsets
+import java.time.Duration
+import java.util.zip.GZIPOutputStream
+
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse
+import static com.github.tomakehurst.wiremock.client.WireMock.containing
 import static com.github.tomakehurst.wiremock.client.WireMock.get
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor
 import static com.github.tomakehurst.wiremock.client.WireMock.givenThat
+import static com.github.tomakehurst.wiremock.client.WireMock.matching
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo
 
 @Unroll
@@ -89,7 +97,238 @@ class URLConfigSourceSpec extends AbstractConfigSourceSpec {
         ]
     }
 
-    // TODO: implement some actual tests.
+    def "should issue conditional requests and reuse cached config when not modified (validator: #header)"() {
+        given:
+        def path = '/conditional.conf'
+        def source = urlSource(path, true)
+
+        and: "server responds with not modified when request contains validator"
+        givenThat(get(urlEqualTo(path))
+            .atPriority(2)
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withHeader(header, value)
+                .withBody(Tsc4j.render(cfgB))))
+        givenThat(get(urlEqualTo(path))
+            .atPriority(1)
+            .withHeader(requestHeader, matching(requestValue))
+            .willReturn(aResponse().withStatus(304)))
+
+        when:
+        def first = source.get(ConfigQuery.builder().appName("foo").build())
+        def second = source.get(ConfigQuery.builder().appName("foo").build())
+
+        then:
+        first.getString("x") == "y"
+        second == first
+        wiremockRule.verify(1, getRequestedFor(urlEqualTo(path)).withHeader(requestHeader, matching(requestValue)))
+        wiremockRule.verify(1, getRequestedFor(urlEqualTo(path)).withoutHeader(requestHeader))
+
+        cleanup:
+        source?.close()
+
+        where:
+        header          | requestHeader       | value                           | requestValue
+        // wiremock compresses responses and appends suffix to entity tag
+        "ETag"          | "If-None-Match"     | '"v1"'                          | '"v1.*"'
+        "Last-Modified" | "If-Modified-Since" | "Wed, 21 Oct 2015 07:28:00 GMT" | value
+    }
+
+    def "should not issue conditional requests if conditional fetch is disabled"() {
+        given:
+        def path = '/unconditional.conf'
+        def source = urlSource(path, false)
+
+        and:
+        givenThat(get(urlEqualTo(path))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("ETag", '"v1"')
+                .withBody(Tsc4j.render(cfgA))))
+
+        when:
+        2.times { source.get(ConfigQuery.builder().appName("foo").build()) }
+
+        then:
+        wiremockRule.verify(2, getRequestedFor(urlEqualTo(path)).withoutHeader("If-None-Match"))
+
+        cleanup:
+        source?.close()
+    }
+
+    def "should decode gzip encoded responses"() {
+        given:
+        def path = '/gzipped.conf'
+        def source = urlSource(path, true)
+
+        and:
+        def bytes = new ByteArrayOutputStream()
+        new GZIPOutputStream(bytes).withCloseable { it.write(Tsc4j.render(cfgB).getBytes(StandardCharsets.UTF_8)) }
+
+        givenThat(get(urlEqualTo(path))
+            .withHeader("Accept-Encoding", containing("gzip"))
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withHeader("Content-Encoding", "gzip")
+                .withBody(bytes.toByteArray())))
+
+        when:
+        def config = source.get(ConfigQuery.builder().appName("foo").build())
+
+        then:
+        config.getString("foo") == "baz"
+        config.getString("x") == "y"
+
+        cleanup:
+        source?.close()
+    }
+
+    def "should retry fetch after transient error: #status"() {
+        given:
+        def path = '/flaky.conf'
+        def source = urlSource(path, true)
+
+        and: "first response is an error, second one succeeds"
+        givenThat(get(urlEqualTo(path))
+            .inScenario("flaky")
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willSetStateTo("recovered")
+            .willReturn(aResponse().withStatus(status)))
+        givenThat(get(urlEqualTo(path))
+            .inScenario("flaky")
+            .whenScenarioStateIs("recovered")
+            .willReturn(aResponse()
+                .withStatus(200)
+                .withBody(Tsc4j.render(cfgA))))
+
+        when:
+        def config = source.get(ConfigQuery.builder().appName("foo").build())
+
+        then:
+        config.getString("foo") == "bar"
+        wiremockRule.verify(2, getRequestedFor(urlEqualTo(path)))
+
+        cleanup:
+        source?.close()
+
+        where:
+        status << [500, 503, 429]
+    }
+
+    def "should give up after max retries"() {
+        given:
+        def path = '/broken.conf'
+        def source = URLConfigSource.builder()
+                                    .url("http://localhost:$PORT$path")
+                                    .setMaxRetries(maxRetries)
+                                    .setRetryBackoff(Duration.ofMillis(1))
+                                    .build()
+
+        and:
+        givenThat(get(urlEqualTo(path)).willReturn(aResponse().withStatus(502)))
+
+        when:
+        source.get(ConfigQuery.builder().appName("foo").build())
+
+        then:
+        def exception = thrown(RuntimeException)
+        exception.getMessage().contains("HTTP 502")
+        wiremockRule.verify(maxRetries + 1, getRequestedFor(urlEqualTo(path)))
+
+        cleanup:
+        source?.close()
+
+        where:
+        maxRetries << [0, 2]
+    }
+
+    def "should not retry fetch on client error: #status"() {
+        given:
+        def path = '/forbidden.conf'
+        def source = urlSource(path, true)
+
+        and:
+        givenThat(get(urlEqualTo(path)).willReturn(aResponse().withStatus(status)))
+
+        when:
+        source.get(ConfigQuery.builder().appName("foo").build())
+
+        then:
+        def exception = thrown(RuntimeException)
+        exception.getMessage().contains("HTTP $status")
+        wiremockRule.verify(1, getRequestedFor(urlEqualTo(path)))
+
+        cleanup:
+        source?.close()
+
+        where:
+        status << [400, 401, 403]
+    }
+
+    def "should not retry fetch of malformed url"() {
+        given:
+        def source = URLConfigSource.builder()
+                                    .url("http://localhost:invalid-port/foo.conf")
+                                    .setMaxRetries(3)
+                                    .setRetryBackoff(Duration.ofSeconds(10))
+                                    .build()
+
+        when:
+        def start = System.currentTimeMillis()
+        source.get(ConfigQuery.builder().appName("foo").build())
+
+        then:
+        def exception = thrown(RuntimeException)
+        exception.getMessage().contains("Invalid config url")
+        System.currentTimeMillis() - start < 5000
+
+        cleanup:
+        source?.close()
+    }
+
+    def "builder should read http client settings from config"() {
+        given:
+        def builder = URLConfigSource.builder()
+
+        when:
+        builder.withConfig(ConfigFactory.parseMap([
+            "timeout"        : "3s",
+            "connect-timeout": "1s",
+            "max-retries"    : 5,
+            "retry-backoff"  : "50ms",
+        ]))
+
+        then:
+        builder.getTimeout() == Duration.ofSeconds(3)
+        builder.getConnectTimeout() == Duration.ofSeconds(1)
+        builder.getMaxRetries() == 5
+        builder.getRetryBackoff() == Duration.ofMillis(50)
+    }
+
+    def "builder should reject invalid retry settings"() {
+        when:
+        URLConfigSource.builder()
+                       .url("http://localhost:$PORT/foo.conf")
+                       .setMaxRetries(maxRetries)
+                       .setRetryBackoff(backoff)
+                       .build()
+
+        then:
+        thrown(IllegalArgumentException)
+
+        where:
+        maxRetries | backoff
+        -1         | Duration.ofMillis(1)
+        1          | Duration.ofMillis(-1)
+    }
+
+    def urlSource(String path, boolean conditionalFetch) {
+        URLConfigSource.builder()
+                       .url("http://localhost:$PORT$path")
+                       .setConditionalFetch(conditionalFetch)
+                       .setRetryBackoff(Duration.ofMillis(1))
+                       .build()
+    }
 
     @Override
     AbstractConfigSource dummySource(String appName) {
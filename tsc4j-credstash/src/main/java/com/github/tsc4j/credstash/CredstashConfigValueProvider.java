@@ -16,12 +16,15 @@
 
 package com.github.tsc4j.credstash;
 
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDBClientBuilder;
 import com.amazonaws.services.dynamodbv2.model.ResourceNotFoundException;
 import com.github.tsc4j.aws.common.AwsConfig;
 import com.github.tsc4j.aws.common.WithAwsConfig;
 import com.github.tsc4j.aws.sdk1.AwsSdk1Utils;
 import com.github.tsc4j.aws.sdk1.ParameterStoreValueProvider;
 import com.github.tsc4j.core.AbstractConfigValueProvider;
+import com.github.tsc4j.core.ApiCallLimiter;
 import com.github.tsc4j.core.Tsc4jCache;
 import com.github.tsc4j.core.Tsc4jException;
 import com.github.tsc4j.core.Tsc4jImplUtils;
@@ -36,26 +39,53 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.experimental.Accessors;
 import lombok.val;
 
+import java.time.Clock;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.concurrent.Callable;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * Value provider that provides values from <a href="https://github.com/fugue/credstash">credstash secrets store</a>.
+ * <p>
+ * Fetched secrets are cached for {@link Builder#getCacheTtl()}; cached secrets that are older than refresh-ahead
+ * threshold (minus random jitter) are still returned from the cache while they're re-fetched in the background, so
+ * that cached secrets don't expire all at once and callers don't need to wait for DynamoDB and KMS. Secrets that are
+ * due for refresh in a single lookup are refreshed together in one background task. Failed background refreshes are
+ * retried with exponential backoff until the secret expires.
+ * <p>
+ * Decrypted secrets are additionally kept together with their credstash version. If version probe is enabled,
+ * versions of secrets that need to be (re)fetched are first checked using cheap, batched DynamoDB lookups and only
+ * secrets whose version changed are fetched and decrypted using KMS. Batched probe can't detect versions that were
+ * stored out of sequence (ie. {@code credstash put -v}), secret versions are therefore periodically re-verified using
+ * full version lookup, at least once per {@link Builder#getVersionVerifyInterval()}.
+ *
+ * @see CredstashVersionProbe
  */
 public final class CredstashConfigValueProvider extends AbstractConfigValueProvider implements WithCache<String, ConfigValue> {
     static final String TYPE = "credstash";
     static final String DEFAULT_TABLE_NAME = "credential-store";
+    private static final String DYNAMODB_SERVICE = "dynamodb";
+
+    /**
+     * Upper bound of exponential refresh retry backoff exponent.
+     */
+    private static final int MAX_BACKOFF_SHIFT = 6;
 
     private final JCredStash credstash;
     private final String tableName;
@@ -63,13 +93,33 @@ public final class CredstashConfigValueProvider extends AbstractConfigValueProvi
     @Getter
     private final Tsc4jCache<String, ConfigValue> cache;
 
+    private final Clock clock;
+    private final Executor executor;
+    private final long ttlMillis;
+    private final long refreshAheadMillis;
+    private final long refreshJitterMillis;
+    private final long retryBackoffMillis;
+    private final long versionVerifyMillis;
+    private final Map<String, RefreshState> refreshStates = new ConcurrentHashMap<>();
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final CredstashVersionProbe versionProbe;
+
+    /**
+     * DynamoDB api call limiter; every secret fetch issues exactly one DynamoDB query and one KMS decrypt request, so
+     * that it limits KMS requests as well.
+     */
+    private final ApiCallLimiter limiter;
+    private final Map<String, VersionedSecret> versionedSecrets = new ConcurrentHashMap<>();
+    private volatile boolean batchProbeEnabled = true;
+
     /**
      * Creates new instance.
      *
      * @param builder instance builder
      */
     protected CredstashConfigValueProvider(@NonNull Builder builder) {
-        this(builder, createCredstash(builder));
+        this(builder, createCredstash(builder), createVersionProbe(builder), null);
     }
 
     /**
@@ -79,11 +129,37 @@ public final class CredstashConfigValueProvider extends AbstractConfigValueProvi
      * @param credstash credstash instance
      */
     protected CredstashConfigValueProvider(@NonNull Builder builder, @NonNull JCredStash credstash) {
-        super(builder.getName(), builder.isAllowMissing(), builder.isParallel());
+        this(builder, credstash, null, null);
+    }
+
+    /**
+     * Creates new instance.
+     *
+     * @param builder      builder
+     * @param credstash    credstash instance
+     * @param versionProbe version probe, secret versions are not probed if null
+     * @param executor     executor used for background refreshes, default tsc4j executor if null
+     */
+    CredstashConfigValueProvider(@NonNull Builder builder,
+                                 @NonNull JCredStash credstash,
+                                 CredstashVersionProbe versionProbe,
+                                 Executor executor) {
+        super(builder.checkState().getName(), builder.isAllowMissing(), builder.isParallel(),
+            builder.getMaxConcurrency());
         this.credstash = credstash;
         this.tableName = builder.getTableName();
         this.encryptionContext = Collections.unmodifiableMap(new LinkedHashMap<>(builder.getEncryptionContext()));
         this.cache = Tsc4jImplUtils.newCache(toString(), builder.getCacheTtl(), builder.getClock());
+
+        this.clock = builder.getClock();
+        this.executor = executor;
+        this.ttlMillis = builder.getCacheTtl().toMillis();
+        this.refreshAheadMillis = ttlMillis * builder.getRefreshAheadPct() / 100;
+        this.refreshJitterMillis = Math.min(refreshAheadMillis, ttlMillis * builder.getRefreshJitterPct() / 100);
+        this.retryBackoffMillis = builder.getRefreshRetryBackoff().toMillis();
+        this.versionVerifyMillis = builder.getVersionVerifyInterval().toMillis();
+        this.versionProbe = versionProbe;
+        this.limiter = AwsSdk1Utils.callLimiter(DYNAMODB_SERVICE, builder.getAwsConfig());
     }
 
     /**
@@ -111,6 +187,15 @@ public final class CredstashConfigValueProvider extends AbstractConfigValueProvi
         return new JCredStash(tableName.trim(), credentialProvider, regionProvider, new CredStashBouncyCastleCrypto());
     }
 
+    private static CredstashVersionProbe createVersionProbe(@NonNull Builder b) {
+        if (!b.isVersionProbe()) {
+            return null;
+        }
+        val dynamoDb = AwsSdk1Utils.configuredClient(AmazonDynamoDBClientBuilder::standard, b.getAwsConfig());
+        val limiter = AwsSdk1Utils.callLimiter(DYNAMODB_SERVICE, b.getAwsConfig());
+        return new CredstashVersionProbe(dynamoDb, b.getTableName(), limiter);
+    }
+
     static Supplier<JCredStash> createCredstashSupplier(@NonNull String tableName, @NonNull AwsConfig config) {
         return () -> createCredstash(tableName, config);
     }
@@ -124,31 +209,118 @@ public final class CredstashConfigValueProvider extends AbstractConfigValueProvi
         return new Builder();
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Credstash can only fetch one credential per request, concurrency is therefore handled by the base class.
+     */
+    @Override
+    protected int maxBatchSize() {
+        return 1;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * Versions of all requested secrets that are not cached are probed in batches first, secrets whose version didn't
+     * change are re-cached so that only changed and new secrets are fetched and decrypted, concurrently if this
+     * provider is parallel. Cached secrets that are due for refresh are refreshed together in background.
+     */
+    @Override
+    public Map<String, ConfigValue> get(@NonNull Collection<String> names) {
+        checkClosed();
+        val uniqNames = Tsc4jImplUtils.toUniqueList(names);
+        val cached = new ArrayList<String>();
+        val uncached = new ArrayList<String>();
+        uniqNames.forEach(name -> {
+            val fixedName = fixCredentialName(name);
+            if (!fixedName.isEmpty()) {
+                (getFromCache(fixedName).isPresent() ? cached : uncached).add(fixedName);
+            }
+        });
+
+        val unchanged = reuseUnchanged(uncached);
+        val result = unchanged.isEmpty() ? super.get(uniqNames) : getChanged(uniqNames, unchanged);
+        refreshAhead(cached);
+        return result;
+    }
+
+    private Map<String, ConfigValue> getChanged(List<String> names, Map<String, ConfigValue> unchanged) {
+        val fetched = super.get(names.stream()
+            .filter(name -> !unchanged.containsKey(fixCredentialName(name)))
+            .collect(Collectors.toList()));
+
+        val result = new LinkedHashMap<String, ConfigValue>();
+        names.forEach(name -> {
+            val value = Optional.ofNullable(unchanged.get(fixCredentialName(name))).orElseGet(() -> fetched.get(name));
+            if (value != null) {
+                result.put(name, value);
+            }
+        });
+        return result;
+    }
+
     @Override
     protected Map<String, ConfigValue> doGet(List<String> names) {
         val res = new LinkedHashMap<String, ConfigValue>();
-        runTasks(createFetchTasks(names), isParallel())
-            .stream()
-            .forEach(e -> res.putAll(e));
+        names.forEach(name -> res.putAll(getCredential(name)));
         return res;
     }
 
     @Override
     protected void doClose() {
+        refreshStates.clear();
+        versionedSecrets.clear();
         Tsc4jImplUtils.close(credstash, log);
+        if (versionProbe != null) {
+            Tsc4jImplUtils.close(versionProbe, log);
+        }
         super.doClose();
     }
 
     /**
-     * Creates fetch tasks for specified credential names.
+     * Probes versions of previously fetched secrets and re-caches secrets whose version didn't change.
      *
-     * @param credentialNames credential names
-     * @return list of callable tasks
+     * @param credentialNames sanitized credential names
+     * @return map of credential names to values of secrets whose version didn't change
      */
-    private List<Callable<Map<String, ConfigValue>>> createFetchTasks(@NonNull Collection<String> credentialNames) {
-        return credentialNames.stream()
-            .map(name -> (Callable<Map<String, ConfigValue>>) () -> getCredential(name))
-            .collect(Collectors.toList());
+    private Map<String, ConfigValue> reuseUnchanged(List<String> credentialNames) {
+        if (versionProbe == null || !batchProbeEnabled) {
+            return Collections.emptyMap();
+        }
+
+        // probe can't detect out of sequence versions, only recently verified secret versions are probed
+        val verifiedAfter = clock.millis() - versionVerifyMillis;
+        val versions = new LinkedHashMap<String, String>();
+        credentialNames.forEach(name -> Optional.ofNullable(versionedSecrets.get(name))
+            .filter(it -> it.verifiedAt > verifiedAfter)
+            .ifPresent(it -> versions.put(name, it.version)));
+        if (versions.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        final Set<String> unchanged;
+        try {
+            unchanged = versionProbe.findUnchanged(versions);
+        } catch (AmazonServiceException e) {
+            if ("AccessDeniedException".equals(e.getErrorCode())) {
+                log.warn("{} disabling batched version probe, not allowed to batch-read credstash table: {}",
+                    this, e.getMessage());
+                batchProbeEnabled = false;
+            } else {
+                log.warn("{} error probing credstash secret versions: {}", this, e.getMessage());
+            }
+            return Collections.emptyMap();
+        } catch (Exception e) {
+            log.warn("{} error probing credstash secret versions: {}", this, e.getMessage());
+            return Collections.emptyMap();
+        }
+
+        log.debug("{} {} of {} probed secrets are unchanged.", this, unchanged.size(), versions.size());
+        val result = new LinkedHashMap<String, ConfigValue>();
+        unchanged.forEach(name -> Optional.ofNullable(versionedSecrets.get(name))
+            .ifPresent(it -> result.put(name, scheduleRefresh(name, putToCache(name, it.value)))));
+        return result;
     }
 
     /**
@@ -165,9 +337,12 @@ public final class CredstashConfigValueProvider extends AbstractConfigValueProvi
 
     private Optional<ConfigValue> doGetCredential(@NonNull String credentialName) {
         try {
-            return getFromCache(credentialName)
-                .map(Optional::of)
-                .orElseGet(() -> getCredentialFromCredstash(credentialName));
+            val name = fixCredentialName(credentialName);
+            val cached = getFromCache(name);
+            if (cached.isPresent()) {
+                return cached;
+            }
+            return getCredentialFromCredstash(credentialName);
         } catch (Tsc4jException e) {
             throw e;
         } catch (Exception e) {
@@ -191,12 +366,23 @@ public final class CredstashConfigValueProvider extends AbstractConfigValueProvi
     }
 
     private Optional<ConfigValue> doGetCredentialFromCredstash(String credentialName) {
-        log.debug("{} fetching credential from credstash: '{}'", this, credentialName);
         try {
-            val secret = credstash.getSecret(credentialName, encryptionContext);
+            // version needs to be looked up before the secret, so that concurrent update is detected by next probe
+            val version = latestVersion(credentialName);
+            val versioned = versionedSecrets.get(credentialName);
+            if (version != null && versioned != null && version.equals(versioned.version)) {
+                log.debug("{} credential version didn't change, skipping decryption: '{}'", this, credentialName);
+                rememberVersion(credentialName, version, versioned.value);
+                return Optional.of(scheduleRefresh(credentialName, putToCache(credentialName, versioned.value)));
+            }
+
+            log.debug("{} fetching credential from credstash: '{}'", this, credentialName);
+            val secret = limiter.get(() -> credstash.getSecret(credentialName, encryptionContext));
             return Optional.ofNullable(secret)
                 .map(it -> toConfigValue(credentialName, it))
-                .map(it -> putToCache(credentialName, it));
+                .map(it -> rememberVersion(credentialName, version, it))
+                .map(it -> putToCache(credentialName, it))
+                .map(it -> scheduleRefresh(credentialName, it));
         } catch (ResourceNotFoundException e) {
             throw Tsc4jException.of("Cannot read credstash table '%s': %%s", e, tableName);
         } catch (RuntimeException e) {
@@ -212,6 +398,112 @@ public final class CredstashConfigValueProvider extends AbstractConfigValueProvi
         }
     }
 
+    /**
+     * Looks up latest credential version if version probe is enabled.
+     *
+     * @param credentialName credential name
+     * @return latest credential version, null if it's unknown
+     */
+    private String latestVersion(String credentialName) {
+        if (versionProbe == null) {
+            return null;
+        }
+        try {
+            return versionProbe.latestVersion(credentialName).orElse(null);
+        } catch (Exception e) {
+            log.debug("{} error looking up credential version '{}': {}", this, credentialName, e.toString());
+            return null;
+        }
+    }
+
+    private ConfigValue rememberVersion(String credentialName, String version, ConfigValue value) {
+        if (version == null) {
+            versionedSecrets.remove(credentialName);
+        } else {
+            versionedSecrets.put(credentialName, new VersionedSecret(version, value, clock.millis()));
+        }
+        return value;
+    }
+
+    /**
+     * Records time at which freshly fetched credential should be refreshed in background.
+     *
+     * @param credentialName credential name
+     * @param value          fetched credential value
+     * @return value
+     */
+    private ConfigValue scheduleRefresh(String credentialName, ConfigValue value) {
+        if (isRefreshAheadEnabled()) {
+            val jitter = (refreshJitterMillis > 0) ? ThreadLocalRandom.current().nextLong(refreshJitterMillis + 1) : 0;
+            refreshStates.put(credentialName, new RefreshState(clock.millis() + refreshAheadMillis - jitter, 0));
+        }
+        return value;
+    }
+
+    private boolean isRefreshAheadEnabled() {
+        return refreshAheadMillis > 0 && refreshAheadMillis < ttlMillis;
+    }
+
+    /**
+     * Submits single background refresh of all given cached credentials that are past their refresh time.
+     *
+     * @param credentialNames sanitized credential names
+     */
+    private void refreshAhead(List<String> credentialNames) {
+        if (refreshStates.isEmpty()) {
+            return;
+        }
+        val now = clock.millis();
+        val due = credentialNames.stream()
+            .filter(name -> isRefreshDue(name, now) && refreshing.add(name))
+            .collect(Collectors.toList());
+        if (due.isEmpty()) {
+            return;
+        }
+
+        log.debug("{} refreshing {} credential(s) ahead of expiration: {}", this, due.size(), due);
+        try {
+            val executorService = (executor == null) ? Tsc4jImplUtils.defaultExecutor() : executor;
+            executorService.execute(() -> refreshCredentials(due));
+        } catch (RejectedExecutionException e) {
+            log.debug("{} background refresh rejected, credentials will be fetched after they expire.", this);
+            refreshing.removeAll(due);
+        }
+    }
+
+    private boolean isRefreshDue(String credentialName, long now) {
+        val state = refreshStates.get(credentialName);
+        return state != null && now >= state.refreshAt;
+    }
+
+    private void refreshCredentials(List<String> credentialNames) {
+        try {
+            val unchanged = reuseUnchanged(credentialNames);
+            credentialNames.stream()
+                .filter(name -> !unchanged.containsKey(name))
+                .forEach(this::refreshCredential);
+        } finally {
+            refreshing.removeAll(credentialNames);
+        }
+    }
+
+    private void refreshCredential(String credentialName) {
+        try {
+            if (!doGetCredentialFromCredstash(credentialName).isPresent()) {
+                // credential has been removed
+                getCache().remove(credentialName);
+                refreshStates.remove(credentialName);
+                versionedSecrets.remove(credentialName);
+            }
+        } catch (Exception e) {
+            val failures = Optional.ofNullable(refreshStates.get(credentialName)).map(it -> it.failures).orElse(0);
+            val delayMillis = retryBackoffMillis << Math.min(failures, MAX_BACKOFF_SHIFT);
+            log.warn("{} error refreshing credential '{}' (attempt {}), retrying in {} msec: {}",
+                this, credentialName, failures + 1, delayMillis, e.getMessage());
+            refreshStates.put(credentialName, new RefreshState(clock.millis() + delayMillis, failures + 1));
+        }
+    }
+
     private ConfigValue toConfigValue(@NonNull String credentialName, @NonNull String value) {
         val originDescription = String.format("%s:/%s", TYPE, credentialName);
         return ConfigValueFactory.fromAnyRef(value, originDescription);
@@ -248,6 +540,23 @@ public final class CredstashConfigValueProvider extends AbstractConfigValueProvi
         return TYPE;
     }
 
+    @RequiredArgsConstructor
+    private static final class RefreshState {
+        final long refreshAt;
+        final int failures;
+    }
+
+    @RequiredArgsConstructor
+    private static final class VersionedSecret {
+        final String version;
+        final ConfigValue value;
+
+        /**
+         * Time when version was verified by full version lookup, in epoch millis.
+         */
+        final long verifiedAt;
+    }
+
     /**
      * Builder for {@link ParameterStoreValueProvider}.
      */
@@ -271,6 +580,40 @@ public final class CredstashConfigValueProvider extends AbstractConfigValueProvi
          */
         private Map<String, String> encryptionContext = Collections.emptyMap();
 
+        /**
+         * Percentage of {@link #getCacheTtl()} after which cached secret is refreshed in background (0 - 100);
+         * refresh-ahead is disabled if set to 0 or 100. (default: 75)
+         */
+        private int refreshAheadPct = 75;
+
+        /**
+         * Maximum random jitter subtracted from refresh-ahead threshold as a percentage of {@link #getCacheTtl()}
+         * (0 - 100, capped at {@link #getRefreshAheadPct()}), so that secrets fetched at the same time are not
+         * refreshed at the same time. (default: 10)
+         */
+        private int refreshJitterPct = 10;
+
+        /**
+         * Initial delay before failed background refresh is retried; delay doubles with every consecutive failure.
+         * (default: 5 seconds)
+         */
+        private Duration refreshRetryBackoff = Duration.ofSeconds(5);
+
+        /**
+         * Whether credstash secret versions should be looked up before fetching secrets, so that secrets whose
+         * version didn't change don't need to be decrypted again. Versions are looked up in batches if {@code
+         * dynamodb:BatchGetItem} is permitted on credstash table, otherwise one by one. (default: true)
+         */
+        private boolean versionProbe = true;
+
+        /**
+         * Maximum time after full secret version lookup during which secret version may be verified by batched
+         * version probe; batched probe can't detect versions stored out of sequence (ie. using {@code credstash put
+         * -v}), which are detected by the next full version lookup. Should be a few times longer than
+         * {@link #getCacheTtl()}, so that most refreshes are probed in batches. (default: 1 hour)
+         */
+        private Duration versionVerifyInterval = Duration.ofHours(1);
+
         /**
          * Sets encryption context from a {@link Config} instance.
          *
@@ -300,6 +643,18 @@ public final class CredstashConfigValueProvider extends AbstractConfigValueProvi
             if (tn.isEmpty()) {
                 throw new IllegalStateException("dynamoDb table name cannot be empty.");
             }
+            if (refreshAheadPct < 0 || refreshAheadPct > 100) {
+                throw new IllegalStateException("Invalid refresh-ahead percentage: " + refreshAheadPct);
+            }
+            if (refreshJitterPct < 0 || refreshJitterPct > 100) {
+                throw new IllegalStateException("Invalid refresh jitter percentage: " + refreshJitterPct);
+            }
+            if (refreshRetryBackoff == null || refreshRetryBackoff.isNegative() || refreshRetryBackoff.isZero()) {
+                throw new IllegalStateException("Refresh retry backoff must be positive: " + refreshRetryBackoff);
+            }
+            if (versionVerifyInterval == null || versionVerifyInterval.isNegative()) {
+                throw new IllegalStateException("Version verify interval cannot be negative: " + versionVerifyInterval);
+            }
             return super.checkState();
         }
 
@@ -311,6 +666,11 @@ public final class CredstashConfigValueProvider extends AbstractConfigValueProvi
 
             cfgString(cfg, "table-name", this::setTableName);
             cfgConfig(cfg, "encryption-context", this::withEncryptionContext);
+            cfgInt(cfg, "refresh-ahead-pct", this::setRefreshAheadPct);
+            cfgInt(cfg, "refresh-jitter-pct", this::setRefreshJitterPct);
+            cfgDuration(cfg, "refresh-retry-backoff", this::setRefreshRetryBackoff);
+            cfgBoolean(cfg, "version-probe", this::setVersionProbe);
+            cfgDuration(cfg, "version-verify-interval", this::setVersionVerifyInterval);
         }
 
         @Override
@@ -0,0 +1,239 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.github.tsc4j.credstash;
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB;
+import com.amazonaws.services.dynamodbv2.model.AttributeValue;
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest;
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes;
+import com.amazonaws.services.dynamodbv2.model.QueryRequest;
+import com.github.tsc4j.aws.sdk1.AwsSdk1Utils;
+import com.github.tsc4j.core.ApiCallLimiter;
+import com.github.tsc4j.core.Tsc4jImplUtils;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import lombok.val;
+
+import java.io.Closeable;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Cheap credstash secret version lookups that read only key attributes of credstash DynamoDB table items and don't
+ * require KMS decryption.
+ * <p>
+ * Credstash stores every secret version as a separate item with {@code name} hash key and zero-padded numeric {@code
+ * version} range key. Secret is unchanged if item for it's known version exists, while item for the next version
+ * doesn't; this can be checked for many secrets using a single {@code BatchGetItem} request. Versions that were stored
+ * out of sequence (ie. using {@code credstash put -v}) can't be detected this way, callers should therefore
+ * periodically verify versions using {@link #latestVersion(String)}.
+ */
+@Slf4j
+final class CredstashVersionProbe implements Closeable {
+    /**
+     * Max number of secrets checked by a single {@code BatchGetItem} request (2 keys per secret, 100 keys max).
+     */
+    static final int MAX_BATCH_NAMES = 50;
+    private static final int MAX_UNPROCESSED_ATTEMPTS = 3;
+
+    private static final String ATTR_NAME = "name";
+    private static final String ATTR_VERSION = "version";
+    private static final String PROJECTION = "#n, #v";
+    private static final Map<String, String> ATTR_NAMES;
+
+    static {
+        val map = new HashMap<String, String>();
+        map.put("#n", ATTR_NAME);
+        map.put("#v", ATTR_VERSION);
+        ATTR_NAMES = Collections.unmodifiableMap(map);
+    }
+
+    private final AmazonDynamoDB dynamoDb;
+    private final String tableName;
+    private final ApiCallLimiter limiter;
+
+    /**
+     * Creates new instance with call limiter that is not shared with other instances.
+     *
+     * @param dynamoDb  dynamodb client
+     * @param tableName credstash table name
+     */
+    CredstashVersionProbe(@NonNull AmazonDynamoDB dynamoDb, @NonNull String tableName) {
+        this(dynamoDb, tableName, ApiCallLimiter.builder()
+            .name("aws.dynamodb@" + tableName.trim())
+            .throttlingClassifier(AwsSdk1Utils::isThrottlingException)
+            .build());
+    }
+
+    /**
+     * Creates new instance.
+     *
+     * @param dynamoDb  dynamodb client
+     * @param tableName credstash table name
+     * @param limiter   dynamodb api call limiter
+     */
+    CredstashVersionProbe(@NonNull AmazonDynamoDB dynamoDb,
+                          @NonNull String tableName,
+                          @NonNull ApiCallLimiter limiter) {
+        this.dynamoDb = dynamoDb;
+        this.tableName = tableName.trim();
+        this.limiter = limiter;
+    }
+
+    /**
+     * Returns latest version of given secret.
+     *
+     * @param name secret name
+     * @return optional of latest secret version, empty if secret doesn't exist.
+     */
+    Optional<String> latestVersion(@NonNull String name) {
+        val request = new QueryRequest()
+            .withTableName(tableName)
+            .withKeyConditionExpression("#n = :name")
+            .withExpressionAttributeNames(ATTR_NAMES)
+            .withExpressionAttributeValues(Collections.singletonMap(":name", new AttributeValue(name)))
+            .withProjectionExpression(PROJECTION)
+            .withScanIndexForward(false)
+            .withConsistentRead(true)
+            .withLimit(1);
+
+        val items = limiter.get(() -> dynamoDb.query(request)).getItems();
+        return (items == null) ? Optional.empty() : items.stream()
+            .findFirst()
+            .map(it -> it.get(ATTR_VERSION))
+            .map(AttributeValue::getS);
+    }
+
+    /**
+     * Finds secrets whose latest version is still the given version.
+     *
+     * @param versions map of secret names to their known versions
+     * @return set of secret names with unchanged version; secrets that couldn't be checked are never included.
+     */
+    Set<String> findUnchanged(@NonNull Map<String, String> versions) {
+        val result = new HashSet<String>();
+        val names = new ArrayList<String>(versions.keySet());
+        for (val batch : Tsc4jImplUtils.partitionList(names, MAX_BATCH_NAMES)) {
+            result.addAll(findUnchangedBatch(batch, versions));
+        }
+        return result;
+    }
+
+    private Set<String> findUnchangedBatch(List<String> names, Map<String, String> versions) {
+        val keys = new ArrayList<Map<String, AttributeValue>>();
+        val nextVersions = new HashMap<String, String>();
+        for (val name : names) {
+            val version = versions.get(name);
+            nextVersion(version).ifPresent(next -> {
+                nextVersions.put(name, next);
+                keys.add(key(name, version));
+                keys.add(key(name, next));
+            });
+        }
+
+        val found = new HashSet<String>();
+        val unresolved = new HashSet<String>();
+        List<Map<String, AttributeValue>> pending = keys;
+        for (int attempt = 1; !pending.isEmpty(); attempt++) {
+            val request = new BatchGetItemRequest().withRequestItems(Collections.singletonMap(tableName,
+                new KeysAndAttributes()
+                    .withKeys(pending)
+                    .withProjectionExpression(PROJECTION)
+                    .withExpressionAttributeNames(ATTR_NAMES)
+                    .withConsistentRead(true)));
+            val response = limiter.get(() -> dynamoDb.batchGetItem(request));
+
+            Optional.ofNullable(response.getResponses())
+                .map(it -> it.get(tableName))
+                .ifPresent(items -> items.forEach(item -> found.add(keyString(item))));
+
+            pending = Optional.ofNullable(response.getUnprocessedKeys())
+                .map(it -> it.get(tableName))
+                .map(KeysAndAttributes::getKeys)
+                .<List<Map<String, AttributeValue>>>map(ArrayList::new)
+                .orElseGet(ArrayList::new);
+
+            if (!pending.isEmpty() && attempt >= MAX_UNPROCESSED_ATTEMPTS) {
+                log.debug("{} {} keys remained unprocessed after {} attempts.", this, pending.size(), attempt);
+                pending.forEach(key -> unresolved.add(key.get(ATTR_NAME).getS()));
+                break;
+            }
+        }
+
+        val result = new HashSet<String>();
+        nextVersions.forEach((name, next) -> {
+            if (!unresolved.contains(name)
+                && found.contains(keyString(name, versions.get(name)))
+                && !found.contains(keyString(name, next))) {
+                result.add(name);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Computes version that credstash assigns to the next version of a secret.
+     *
+     * @param version secret version
+     * @return optional of next secret version, empty if version is not zero-padded number.
+     */
+    static Optional<String> nextVersion(String version) {
+        if (version == null || version.isEmpty() || !version.chars().allMatch(Character::isDigit)) {
+            return Optional.empty();
+        }
+
+        // credstash pads versions to 19 digits, which doesn't necessarily fit into a long
+        val next = new BigInteger(version).add(BigInteger.ONE).toString();
+        val sb = new StringBuilder(version.length());
+        for (int i = next.length(); i < version.length(); i++) {
+            sb.append('0');
+        }
+        return Optional.of(sb.append(next).toString());
+    }
+
+    private static Map<String, AttributeValue> key(String name, String version) {
+        val key = new HashMap<String, AttributeValue>();
+        key.put(ATTR_NAME, new AttributeValue(name));
+        key.put(ATTR_VERSION, new AttributeValue(version));
+        return key;
+    }
+
+    private static String keyString(Map<String, AttributeValue> item) {
+        return keyString(item.get(ATTR_NAME).getS(), item.get(ATTR_VERSION).getS());
+    }
+
+    private static String keyString(String name, String version) {
+        return name + '\u0000' + version;
+    }
+
+    @Override
+    public void close() {
+        dynamoDb.shutdown();
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + tableName + ")";
+    }
+}
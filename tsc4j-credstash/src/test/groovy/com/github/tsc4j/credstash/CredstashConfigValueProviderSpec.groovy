@@ -17,7 +17,12 @@
 
 package com.github.tsc4j.credstash
 
+import com.amazonaws.AmazonServiceException
 import com.amazonaws.SDKGlobalConfiguration
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB
+import com.amazonaws.services.dynamodbv2.model.AttributeValue
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult
+import com.amazonaws.services.dynamodbv2.model.QueryResult
 import com.github.tsc4j.core.AbstractConfigValueProviderSpec
 import com.github.tsc4j.core.Tsc4jException
 import com.github.tsc4j.core.Tsc4jImplUtils
@@ -29,6 +34,7 @@ import spock.lang.Unroll
 import spock.util.environment.RestoreSystemProperties
 
 import java.time.Duration
+import java.util.concurrent.Executor
 
 @Unroll
 @RestoreSystemProperties
@@ -264,6 +270,350 @@ class CredstashConfigValueProviderSpec extends AbstractConfigValueProviderSpec {
         result[credNameC].unwrapped() == credValueC
     }
 
+    def "should refresh cached secret in background ahead of expiration"() {
+        given:
+        def clock = new TestClock()
+        def credstash = Mock(JCredStash)
+        def provider = refreshingProvider(credstash, clock)
+
+        when: "secret is fetched for the first time"
+        def result = provider.get(["foo"])
+
+        then:
+        1 * credstash.getSecret("foo", [:]) >> "v1"
+        result["foo"].unwrapped() == "v1"
+
+        when: "secret is requested before refresh-ahead threshold"
+        clock.plus(Duration.ofMinutes(4))
+        result = provider.get(["foo"])
+
+        then:
+        0 * credstash.getSecret(_, _)
+        result["foo"].unwrapped() == "v1"
+
+        when: "secret is requested after refresh-ahead threshold"
+        clock.plus(Duration.ofMinutes(1))
+        result = provider.get(["foo"])
+
+        then: "cached value should be returned while the secret is refreshed"
+        1 * credstash.getSecret("foo", [:]) >> "v2"
+        result["foo"].unwrapped() == "v1"
+
+        when:
+        result = provider.get(["foo"])
+
+        then: "refreshed value should be returned"
+        0 * credstash.getSecret(_, _)
+        result["foo"].unwrapped() == "v2"
+    }
+
+    def "should retry failed background refresh with backoff"() {
+        given:
+        def clock = new TestClock()
+        def credstash = Mock(JCredStash)
+        def provider = refreshingProvider(credstash, clock)
+
+        credstash.getSecret("foo", [:]) >> "v1"
+        provider.get(["foo"])
+        clock.plus(Duration.ofMinutes(5))
+
+        when: "background refresh fails"
+        def result = provider.get(["foo"])
+
+        then:
+        1 * credstash.getSecret("foo", [:]) >> { throw new RuntimeException("throttled") }
+        result["foo"].unwrapped() == "v1"
+
+        when: "secret is requested before backoff elapses"
+        clock.plus(Duration.ofSeconds(4))
+        result = provider.get(["foo"])
+
+        then:
+        0 * credstash.getSecret(_, _)
+        result["foo"].unwrapped() == "v1"
+
+        when: "backoff elapses, refresh fails again"
+        clock.plus(Duration.ofSeconds(1))
+        provider.get(["foo"])
+
+        then:
+        1 * credstash.getSecret("foo", [:]) >> { throw new RuntimeException("throttled") }
+
+        when: "backoff should be doubled"
+        clock.plus(Duration.ofSeconds(9))
+        provider.get(["foo"])
+
+        then:
+        0 * credstash.getSecret(_, _)
+
+        when:
+        clock.plus(Duration.ofSeconds(1))
+        provider.get(["foo"])
+        result = provider.get(["foo"])
+
+        then:
+        1 * credstash.getSecret("foo", [:]) >> "v2"
+        result["foo"].unwrapped() == "v2"
+    }
+
+    def "should spread refreshes of secrets fetched at the same time using jitter"() {
+        given:
+        def clock = new TestClock()
+        def credstash = Mock(JCredStash)
+        def names = (1..100).collect { "secret-$it".toString() }
+        def provider = new CredstashConfigValueProvider(
+            builder().setCacheTtl(Duration.ofMinutes(10))
+                     .setRefreshAheadPct(50)
+                     .setRefreshJitterPct(20)
+                     .setClock(clock),
+            credstash, null, { it.run() } as Executor)
+
+        credstash.getSecret(_, [:]) >> "value"
+        provider.get(names)
+
+        when: "time is before lowest possible refresh time"
+        clock.plus(Duration.ofMinutes(3).minusMillis(1))
+        provider.get(names)
+
+        then:
+        0 * credstash.getSecret(_, _)
+
+        when: "time is in the middle of jitter window"
+        clock.plus(Duration.ofMinutes(1))
+        provider.get(names)
+
+        then: "only part of secrets should be refreshed"
+        (10..90) * credstash.getSecret(_, [:]) >> "value"
+    }
+
+    def "should decrypt only secrets whose version changed"() {
+        given:
+        def credstash = Mock(JCredStash)
+        def dynamoDb = Mock(AmazonDynamoDB)
+        def probe = new CredstashVersionProbe(dynamoDb, "credential-store")
+        def provider = new CredstashConfigValueProvider(builder().setCacheTtl(Duration.ZERO), credstash, probe, null)
+
+        expect: "secrets are decrypted one by one, concurrently if provider is parallel"
+        provider.maxBatchSize() == 1
+
+        when: "secrets are fetched for the first time"
+        def result = provider.get(["a", "b"])
+
+        then:
+        1 * dynamoDb.query({ it.getExpressionAttributeValues()[":name"].getS() == "a" }) >> queryResult("a", "01")
+        1 * dynamoDb.query({ it.getExpressionAttributeValues()[":name"].getS() == "b" }) >> queryResult("b", "01")
+        1 * credstash.getSecret("a", [:]) >> "a1"
+        1 * credstash.getSecret("b", [:]) >> "b1"
+        0 * dynamoDb.batchGetItem(_)
+
+        result["a"].unwrapped() == "a1"
+        result["b"].unwrapped() == "b1"
+
+        when: "secret 'b' gets a new version"
+        result = provider.get(["a", "b"])
+
+        then:
+        1 * dynamoDb.batchGetItem(_) >> new BatchGetItemResult().withResponses([
+            "credential-store": [item("a", "01"), item("b", "01"), item("b", "02")]
+        ])
+        1 * dynamoDb.query({ it.getExpressionAttributeValues()[":name"].getS() == "b" }) >> queryResult("b", "02")
+        0 * credstash.getSecret("a", _)
+        1 * credstash.getSecret("b", [:]) >> "b2"
+
+        result["a"].unwrapped() == "a1"
+        result["b"].unwrapped() == "b2"
+    }
+
+    def "should periodically verify secret versions using full version lookup"() {
+        given:
+        def clock = new TestClock()
+        def credstash = Mock(JCredStash)
+        def dynamoDb = Mock(AmazonDynamoDB)
+        def probe = new CredstashVersionProbe(dynamoDb, "credential-store")
+        def builder = builder().setCacheTtl(Duration.ZERO)
+                               .setVersionVerifyInterval(Duration.ofMinutes(10))
+                               .setClock(clock)
+        def provider = new CredstashConfigValueProvider(builder, credstash, probe, null)
+
+        when:
+        def result = provider.get(["a"])
+
+        then:
+        1 * dynamoDb.query(_) >> queryResult("a", "01")
+        1 * credstash.getSecret("a", [:]) >> "a1"
+        result["a"].unwrapped() == "a1"
+
+        when: "version is verified by batched probe"
+        clock.plus(Duration.ofMinutes(9))
+        result = provider.get(["a"])
+
+        then:
+        1 * dynamoDb.batchGetItem(_) >> new BatchGetItemResult().withResponses([
+            "credential-store": [item("a", "01")]
+        ])
+        0 * dynamoDb.query(_)
+        0 * credstash.getSecret(*_)
+        result["a"].unwrapped() == "a1"
+
+        when: "secret got out of sequence version, verify interval elapsed"
+        clock.plus(Duration.ofMinutes(1))
+        result = provider.get(["a"])
+
+        then:
+        0 * dynamoDb.batchGetItem(_)
+        1 * dynamoDb.query(_) >> queryResult("a", "05")
+        1 * credstash.getSecret("a", [:]) >> "a5"
+        result["a"].unwrapped() == "a5"
+    }
+
+    def "should probe versions of all secrets that are due for refresh in a single batch"() {
+        given:
+        def clock = new TestClock()
+        def credstash = Mock(JCredStash)
+        def dynamoDb = Mock(AmazonDynamoDB)
+        def probe = new CredstashVersionProbe(dynamoDb, "credential-store")
+        def builder = builder().setCacheTtl(Duration.ofMinutes(15))
+                               .setRefreshJitterPct(0)
+                               .setClock(clock)
+        def provider = new CredstashConfigValueProvider(builder, credstash, probe, { it.run() } as Executor)
+
+        when:
+        provider.get(["a", "b", "c"])
+
+        then:
+        3 * dynamoDb.query(_) >> { args ->
+            queryResult(args[0].getExpressionAttributeValues()[":name"].getS(), "01")
+        }
+        3 * credstash.getSecret(_, [:]) >> "value"
+
+        when: "all secrets are due for refresh"
+        clock.plus(Duration.ofMinutes(12))
+        def result = provider.get(["a", "b", "c"])
+
+        then: "versions are probed in one batch"
+        1 * dynamoDb.batchGetItem(_) >> new BatchGetItemResult().withResponses([
+            "credential-store": [item("a", "01"), item("b", "01"), item("c", "01")]
+        ])
+        0 * dynamoDb.query(_)
+        0 * credstash.getSecret(*_)
+        result.size() == 3
+
+        when: "secrets are due again and probed versions are still within verify interval"
+        clock.plus(Duration.ofMinutes(12))
+        provider.get(["a", "b", "c"])
+
+        then:
+        1 * dynamoDb.batchGetItem(_) >> new BatchGetItemResult().withResponses([
+            "credential-store": [item("a", "01"), item("b", "01"), item("c", "01")]
+        ])
+        0 * dynamoDb.query(_)
+        0 * credstash.getSecret(*_)
+    }
+
+    def "should skip decryption if secret version didn't change and batch probe is not permitted"() {
+        given:
+        def credstash = Mock(JCredStash)
+        def dynamoDb = Mock(AmazonDynamoDB)
+        def probe = new CredstashVersionProbe(dynamoDb, "credential-store")
+        def provider = new CredstashConfigValueProvider(builder().setCacheTtl(Duration.ZERO), credstash, probe, null)
+        def accessDenied = new AmazonServiceException("denied")
+        accessDenied.setErrorCode("AccessDeniedException")
+
+        when:
+        def results = (1..3).collect { provider.get(["a"]) }
+
+        then:
+        3 * dynamoDb.query(_) >> queryResult("a", "01")
+        1 * dynamoDb.batchGetItem(_) >> { throw accessDenied }
+        1 * credstash.getSecret("a", [:]) >> "a1"
+
+        results.every { it["a"].unwrapped() == "a1" }
+    }
+
+    def "withConfig() should configure version probe"() {
+        given:
+        def builder = builder()
+
+        expect:
+        builder.isVersionProbe()
+
+        when:
+        builder.withConfig(ConfigFactory.parseMap(["version-probe": false]))
+
+        then:
+        !builder.isVersionProbe()
+    }
+
+    def "withConfig() should configure version verify interval"() {
+        given:
+        def builder = builder()
+
+        expect:
+        builder.getVersionVerifyInterval() == Duration.ofHours(1)
+
+        when:
+        builder.withConfig(ConfigFactory.parseMap(["version-verify-interval": "2m"]))
+
+        then:
+        builder.getVersionVerifyInterval() == Duration.ofMinutes(2)
+    }
+
+    def "withConfig() should configure refresh-ahead settings"() {
+        given:
+        def config = ConfigFactory.parseMap([
+            "refresh-ahead-pct"    : 60,
+            "refresh-jitter-pct"   : 15,
+            "refresh-retry-backoff": "2s",
+        ])
+        def builder = builder()
+
+        when:
+        builder.withConfig(config)
+
+        then:
+        builder.getRefreshAheadPct() == 60
+        builder.getRefreshJitterPct() == 15
+        builder.getRefreshRetryBackoff() == Duration.ofSeconds(2)
+    }
+
+    def "should throw on invalid refresh settings: ahead: #ahead, jitter: #jitter, backoff: #backoff"() {
+        given:
+        def builder = builder().setRefreshAheadPct(ahead)
+                               .setRefreshJitterPct(jitter)
+                               .setRefreshRetryBackoff(backoff)
+
+        when:
+        new CredstashConfigValueProvider(builder, Mock(JCredStash))
+
+        then:
+        thrown(IllegalStateException)
+
+        where:
+        ahead | jitter | backoff
+        -1    | 0      | Duration.ofSeconds(1)
+        101   | 0      | Duration.ofSeconds(1)
+        50    | -1     | Duration.ofSeconds(1)
+        50    | 101    | Duration.ofSeconds(1)
+        50    | 10     | Duration.ZERO
+    }
+
+    static QueryResult queryResult(String name, String version) {
+        new QueryResult().withItems([item(name, version)])
+    }
+
+    static Map<String, AttributeValue> item(String name, String version) {
+        [name: new AttributeValue(name), version: new AttributeValue(version)]
+    }
+
+    CredstashConfigValueProvider refreshingProvider(JCredStash credstash, TestClock clock) {
+        def builder = builder().setCacheTtl(Duration.ofMinutes(10))
+                               .setRefreshAheadPct(50)
+                               .setRefreshJitterPct(0)
+                               .setRefreshRetryBackoff(Duration.ofSeconds(5))
+                               .setClock(clock)
+        new CredstashConfigValueProvider(builder, credstash, null, { it.run() } as Executor)
+    }
+
     CredstashConfigValueProvider.Builder builder() {
         CredstashConfigValueProvider.builder().setRegion("us-west-1")
     }
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2017 - 2021 tsc4j project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ */
+
+package com.github.tsc4j.credstash
+
+import com.amazonaws.services.dynamodbv2.AmazonDynamoDB
+import com.amazonaws.services.dynamodbv2.model.AttributeValue
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemRequest
+import com.amazonaws.services.dynamodbv2.model.BatchGetItemResult
+import com.amazonaws.services.dynamodbv2.model.KeysAndAttributes
+import com.amazonaws.services.dynamodbv2.model.QueryRequest
+import com.amazonaws.services.dynamodbv2.model.QueryResult
+import spock.lang.Specification
+import spock.lang.Unroll
+
+@Unroll
+class CredstashVersionProbeSpec extends Specification {
+    static final def TABLE = "credential-store"
+
+    def dynamoDb = Mock(AmazonDynamoDB)
+    def probe = new CredstashVersionProbe(dynamoDb, " $TABLE ")
+
+    def "nextVersion('#version') should return '#expected'"() {
+        expect:
+        CredstashVersionProbe.nextVersion(version).orElse(null) == expected
+
+        where:
+        version               | expected
+        null                  | null
+        ""                    | null
+        "1.0"                 | null
+        "abc"                 | null
+        "0"                   | "1"
+        "9"                   | "10"
+        "0000000000000000001" | "0000000000000000002"
+        "0000000000000000009" | "0000000000000000010"
+        "9999999999999999999" | "10000000000000000000"
+    }
+
+    def "latestVersion() should query latest version"() {
+        when:
+        def result = probe.latestVersion("foo")
+
+        then:
+        1 * dynamoDb.query({ QueryRequest it ->
+            it.getTableName() == TABLE &&
+                it.getExpressionAttributeValues()[":name"].getS() == "foo" &&
+                !it.getScanIndexForward() &&
+                it.getLimit() == 1
+        }) >> new QueryResult().withItems([item("foo", "0000000000000000003")])
+
+        result.get() == "0000000000000000003"
+    }
+
+    def "latestVersion() should return empty optional for non-existing secret"() {
+        when:
+        def result = probe.latestVersion("foo")
+
+        then:
+        1 * dynamoDb.query(_) >> new QueryResult().withItems([])
+
+        !result.isPresent()
+    }
+
+    def "findUnchanged() should return secrets without newer version"() {
+        given:
+        def versions = [
+            unchanged : "0000000000000000001",
+            changed   : "0000000000000000001",
+            deleted   : "0000000000000000005",
+            unprobable: "v1",
+        ]
+        def requestedKeys = []
+
+        when:
+        def result = probe.findUnchanged(versions)
+
+        then:
+        1 * dynamoDb.batchGetItem(_) >> { BatchGetItemRequest request ->
+            requestedKeys = request.getRequestItems()[TABLE].getKeys()
+            response([
+                item("unchanged", "0000000000000000001"),
+                item("changed", "0000000000000000001"),
+                item("changed", "0000000000000000002"),
+            ])
+        }
+
+        result == ["unchanged"] as Set
+        requestedKeys.size() == 6
+    }
+
+    def "findUnchanged() should retry unprocessed keys and never report unresolved secrets as unchanged"() {
+        given:
+        def versions = [a: "01", b: "01"]
+
+        when:
+        def result = probe.findUnchanged(versions)
+
+        then:
+        1 * dynamoDb.batchGetItem(_) >> response([item("a", "01")], [key("a", "02"), key("b", "01"), key("b", "02")])
+        1 * dynamoDb.batchGetItem(_) >> response([item("b", "01")], [key("a", "02")])
+        1 * dynamoDb.batchGetItem(_) >> response([], [key("a", "02")])
+        0 * dynamoDb.batchGetItem(_)
+
+        result == ["b"] as Set
+    }
+
+    def "findUnchanged() should split large requests into batches"() {
+        given:
+        def versions = (1..120).collectEntries { ["secret-$it".toString(), "1"] }
+
+        when:
+        def result = probe.findUnchanged(versions)
+
+        then:
+        3 * dynamoDb.batchGetItem({ it.getRequestItems()[TABLE].getKeys().size() <= 100 }) >> { BatchGetItemRequest r ->
+            response(r.getRequestItems()[TABLE].getKeys().findAll { it.version.getS() == "1" })
+        }
+        result.size() == 120
+    }
+
+    def "close() should shut down dynamodb client"() {
+        when:
+        probe.close()
+
+        then:
+        1 * dynamoDb.shutdown()
+    }
+
+    static Map<String, AttributeValue> item(String name, String version) {
+        [name: new AttributeValue(name), version: new AttributeValue(version)]
+    }
+
+    static Map<String, AttributeValue> key(String name, String version) {
+        item(name, version)
+    }
+
+    static BatchGetItemResult response(List<Map<String, AttributeValue>> items,
+                                       List<Map<String, AttributeValue>> unprocessed = []) {
+        def result = new BatchGetItemResult().withResponses([(TABLE): items])
+        if (unprocessed) {
+            result.withUnprocessedKeys([(TABLE): new KeysAndAttributes().withKeys(unprocessed)])
+        }
+        result
+    }
+}
@@ -17,6 +17,7 @@
 package com.github.tsc4j.gcp;
 
 
+import com.github.tsc4j.core.ApiCallLimiter;
 import com.github.tsc4j.core.ConfigQuery;
 import com.github.tsc4j.core.ConfigSource;
 import com.github.tsc4j.core.FilesystemLikeConfigSource;
@@ -24,11 +25,16 @@ import com.github.tsc4j.core.Tsc4jCache;
 import com.github.tsc4j.core.Tsc4jException;
 import com.github.tsc4j.core.Tsc4jImplUtils;
 import com.github.tsc4j.core.WithCache;
+import com.google.api.gax.paging.Page;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.storage.Blob;
+import com.google.cloud.storage.BlobId;
 import com.google.cloud.storage.Storage;
+import com.google.cloud.storage.Storage.BlobField;
 import com.google.cloud.storage.Storage.BlobListOption;
+import com.google.cloud.storage.StorageException;
 import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.Getter;
@@ -42,12 +48,13 @@ import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.Reader;
 import java.nio.charset.StandardCharsets;
-import java.util.Collections;
+import java.time.Duration;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -65,11 +72,29 @@ public final class GCSConfigSource
     private static final Pattern GCS_URL_PATTERN = Pattern.compile("^" + GCS_URL_PREFIX + "([\\w\\-\\.]+)/(.*)");
     static final String TYPE = "gcp.gcs";
 
+    /**
+     * Blob fields requested when listing buckets; listings contain only metadata, blob content is downloaded only
+     * for blobs whose parsed configuration is not cached.
+     */
+    private static final BlobField[] LISTING_FIELDS = {
+        BlobField.BUCKET, BlobField.NAME, BlobField.GENERATION, BlobField.SIZE
+    };
+
     @Getter
     private final Tsc4jCache<String, Config> cache;
 
     private final Storage storage;
 
+    /**
+     * GCS api call limiter, shared with other GCS config sources.
+     */
+    private final ApiCallLimiter limiter;
+
+    /**
+     * Latest known generation of every cached blob, used to evict cached configs of superseded blob generations.
+     */
+    private final Map<String, Long> cachedGenerations = new ConcurrentHashMap<>();
+
     /**
      * Creates new instance.
      */
@@ -77,6 +102,41 @@ public final class GCSConfigSource
         super(builder);
         this.storage = createStorage(builder);
         this.cache = Tsc4jImplUtils.newCache(toString(), builder.getCacheTtl(), builder.getClock());
+        this.limiter = createLimiter(builder);
+    }
+
+    /**
+     * Creates new instance.
+     *
+     * @param builder builder
+     * @param storage storage client
+     */
+    GCSConfigSource(@NonNull Builder builder, @NonNull Storage storage) {
+        super(builder);
+        this.storage = storage;
+        this.cache = Tsc4jImplUtils.newCache(toString(), builder.getCacheTtl(), builder.getClock());
+        this.limiter = createLimiter(builder);
+    }
+
+    private static ApiCallLimiter createLimiter(Builder builder) {
+        return ApiCallLimiter.shared(TYPE, builder.getMaxRequestRate(), builder.getMaxConcurrentRequests(),
+            GCSConfigSource::isThrottlingException);
+    }
+
+    /**
+     * Tells whether given exception means that GCS request was throttled.
+     *
+     * @param e exception
+     * @return true/false
+     */
+    static boolean isThrottlingException(Throwable e) {
+        if (e instanceof StorageException) {
+            val se = (StorageException) e;
+            return se.getCode() == 429
+                || "rateLimitExceeded".equals(se.getReason())
+                || "userRateLimitExceeded".equals(se.getReason());
+        }
+        return false;
     }
 
     private Storage createStorage(Builder builder) {
@@ -125,6 +185,12 @@ public final class GCSConfigSource
         return TYPE;
     }
 
+    @Override
+    protected void doClose() {
+        super.doClose();
+        cachedGenerations.clear();
+    }
+
     @Override
     protected boolean sanitizePathFilter(@NonNull String path) {
         if (!path.startsWith(GCS_URL_PREFIX)) {
@@ -184,26 +250,105 @@ public final class GCSConfigSource
 
     @Override
     protected Config loadConfig(@NonNull String gcsUrl, @NonNull Map<String, Blob> context) {
-        val etag = Optional.ofNullable(context.get(gcsUrl))
-            .map(blob -> blob.getEtag())
-            .orElse("");
-        val cacheKey = cacheKey(gcsUrl, etag);
+        val blob = context.get(gcsUrl);
+        if (blob == null) {
+            return super.loadConfig(gcsUrl, context);
+        }
+
+        // blob content is downloaded only on cache miss, this method is invoked in parallel for all config paths if
+        // source is parallel.
+        val cacheKey = cacheKey(gcsUrl, blob.getGeneration());
         return getFromCache(cacheKey)
-            .orElseGet(() -> putToCache(cacheKey, loadConfig(gcsUrl, context)));
+            .orElseGet(() -> downloadListedGeneration(blob)
+                .map(bytes -> {
+                    val config = debugLoadedConfig(gcsUrl, readConfig(bytes, gcsUrl));
+                    putToCache(cacheKey, config);
+                    evictSupersededConfig(gcsUrl, blob.getGeneration());
+                    return config;
+                })
+                .orElseGet(() -> {
+                    // live blob is newer than the listed generation, it's not cached under listed generation and
+                    // gets cached on next fetch, when its generation gets listed.
+                    val bytes = downloadLiveBlob(blob);
+                    val config = (bytes == null) ? ConfigFactory.empty() : readConfig(bytes, gcsUrl);
+                    return debugLoadedConfig(gcsUrl, config);
+                }));
+    }
+
+    /**
+     * Removes cached config of previous generation of given blob.
+     *
+     * @param gcsUrl     gcs blob url
+     * @param generation generation of latest cached blob
+     */
+    private void evictSupersededConfig(String gcsUrl, long generation) {
+        val previousGeneration = cachedGenerations.put(gcsUrl, generation);
+        if (previousGeneration != null && previousGeneration != generation) {
+            log.debug("{} gcs blob {} changed, evicting cached config of generation {}",
+                this, gcsUrl, previousGeneration);
+            getCache().remove(cacheKey(gcsUrl, previousGeneration));
+        }
     }
 
     @Override
     protected Optional<Reader> openConfig(@NonNull String gcsUrl, @NonNull Map<String, Blob> context) {
         return Optional.ofNullable(context.get(gcsUrl))
-            .map(blob -> blob.getContent())
+            .map(blob -> downloadListedGeneration(blob).orElseGet(() -> downloadLiveBlob(blob)))
             .map(ByteArrayInputStream::new)
             .map(is -> new InputStreamReader(is, StandardCharsets.UTF_8));
     }
 
-    private String cacheKey(String url, String etag) {
-        return url + "|" + etag;
+    /**
+     * Downloads content of exactly the blob generation that was listed in the fetch context.
+     *
+     * @param blob listed blob
+     * @return optional of blob content, empty if listed generation doesn't exist anymore because blob has been
+     *     overwritten or deleted after listing
+     */
+    private Optional<byte[]> downloadListedGeneration(@NonNull Blob blob) {
+        log.debug("{} downloading gcs blob: {} (generation: {})", this, blob.getName(), blob.getGeneration());
+        try {
+            return Optional.of(limiter.get(() -> storage.readAllBytes(blob.getBlobId())));
+        } catch (StorageException e) {
+            if (e.getCode() == 404) {
+                return Optional.empty();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Downloads live generation of a blob whose listed generation doesn't exist anymore (non-versioned buckets keep
+     * only live generation).
+     *
+     * @param blob listed blob
+     * @return blob content, null if blob has been deleted
+     */
+    private byte[] downloadLiveBlob(@NonNull Blob blob) {
+        log.debug("{} gcs blob {} generation {} doesn't exist anymore, downloading live blob",
+            this, blob.getName(), blob.getGeneration());
+        try {
+            return limiter.get(() -> storage.readAllBytes(BlobId.of(blob.getBucket(), blob.getName())));
+        } catch (StorageException e) {
+            if (e.getCode() == 404) {
+                log.debug("{} gcs blob {} has been deleted after listing", this, blob.getName());
+                return null;
+            }
+            throw e;
+        }
+    }
+
+    private String cacheKey(String url, long generation) {
+        return url + "|" + generation;
     }
 
+    /**
+     * Lists metadata of all blobs under given gcs url.
+     *
+     * @param gcsUrl gcs url with path
+     * @return map of blobs; empty map is returned if bucket doesn't exist.
+     * @throws RuntimeException if there was a problem listing blobs.
+     */
     private Map<String, Blob> fetchGsUrlSummary(@NonNull String gcsUrl) {
         val bucketName = bucketName(gcsUrl);
         val path = bucketPath(gcsUrl);
@@ -211,14 +356,24 @@ public final class GCSConfigSource
 
         try {
             val map = new LinkedHashMap<String, Blob>();
-            Optional.ofNullable(storage.get(bucketName))
-                .map(bucket -> bucket.list(BlobListOption.prefix(path)).iterateAll())
-                .orElse(Collections.emptyList())
-                .forEach(blob -> {
+            // every page is a separate api call
+            Page<Blob> page = limiter.get(() ->
+                storage.list(bucketName, BlobListOption.prefix(path), BlobListOption.fields(LISTING_FIELDS)));
+            while (page != null) {
+                page.getValues().forEach(blob -> {
                     val url = GCS_URL_PREFIX + blob.getBucket() + "/" + blob.getName();
                     map.put(url, blob);
                 });
+                val current = page;
+                page = current.hasNextPage() ? limiter.get(current::getNextPage) : null;
+            }
             return map;
+        } catch (StorageException e) {
+            if (e.getCode() == 404) {
+                log.debug("{} gcs bucket doesn't exist: {}", this, bucketName);
+                return new LinkedHashMap<>();
+            }
+            throw Tsc4jException.of("Error fetching GCS url summary of %s: %%s", e, gcsUrl);
         } catch (Exception e) {
             throw Tsc4jException.of("Error fetching GCS url summary of %s: %%s", e, gcsUrl);
         }
@@ -280,12 +435,31 @@ public final class GCSConfigSource
         @Getter
         private String credentialsString = null;
 
+        /**
+         * Maximum number of GCS requests per second issued by all GCS config sources in the JVM; requests are
+         * additionally paused when GCS throttles them. (default: 0, unlimited)
+         */
+        private double maxRequestRate = 0;
+
+        /**
+         * Maximum number of concurrent GCS requests issued by all GCS config sources in the JVM; limit is additionally
+         * lowered automatically when requests are throttled. (default: 0, unlimited)
+         */
+        private int maxConcurrentRequests = 0;
+
+        @Override
+        protected Duration defaultCacheTtl() {
+            return Duration.ofDays(7);
+        }
+
         @Override
         public void withConfig(@NonNull Config config) {
             super.withConfig(config);
 
             cfgString(config, "credentials-file", this::setCredentialsFile);
             cfgString(config, "credentials-string", this::setCredentialsString);
+            cfgDouble(config, "max-request-rate", this::setMaxRequestRate);
+            cfgInt(config, "max-concurrent-requests", this::setMaxConcurrentRequests);
         }
 
         @Override
@@ -18,9 +18,15 @@
 package com.github.tsc4j.gcp
 
 import com.github.tsc4j.core.AbstractConfigSource
+import com.github.tsc4j.core.ConfigQuery
 import com.github.tsc4j.core.ConfigSourceBuilder
 import com.github.tsc4j.core.FilesystemLikeConfigSourceSpec
 import com.github.tsc4j.core.Tsc4jImplUtils
+import com.google.api.gax.paging.Page
+import com.google.cloud.storage.Blob
+import com.google.cloud.storage.BlobId
+import com.google.cloud.storage.Storage
+import com.google.cloud.storage.StorageException
 import com.typesafe.config.ConfigValueFactory
 import groovy.util.logging.Slf4j
 import spock.lang.Ignore
@@ -114,8 +120,10 @@ class GCSConfigSourceSpec extends FilesystemLikeConfigSourceSpec {
     def "withConfig() should set gcs specific map properties"() {
         given:
         def map = [
-            "credentialsFile"  : UUID.randomUUID().toString(),
-            "credentialsString": UUID.randomUUID().toString()
+            "credentialsFile"      : UUID.randomUUID().toString(),
+            "credentialsString"    : UUID.randomUUID().toString(),
+            "maxRequestRate"       : 12.5,
+            "maxConcurrentRequests": 4
         ]
         def value = ConfigValueFactory.fromAnyRef(map)
         def config = empty().withFallback(value)
@@ -129,6 +137,8 @@ class GCSConfigSourceSpec extends FilesystemLikeConfigSourceSpec {
         then:
         builder.getCredentialsFile() == map['credentialsFile']
         builder.getCredentialsString() == map['credentialsString']
+        builder.getMaxRequestRate() == 12.5
+        builder.getMaxConcurrentRequests() == 4
     }
 
     def "should create GCS config source instance: #impl"() {
@@ -153,6 +163,128 @@ class GCSConfigSourceSpec extends FilesystemLikeConfigSourceSpec {
         ]
     }
 
+    def "should download only blobs with changed generation"() {
+        given:
+        def storage = Mock(Storage)
+        def source = new GCSConfigSource(builder().withPath("gs://bucket/app").setConfdEnabled(false), storage)
+        def query = ConfigQuery.builder().appName("app").envs(["default"]).build()
+        def generation = 1L
+
+        and:
+        storage.list("bucket", _) >> { page([blob("bucket", "app/application.conf", generation)]) }
+
+        when:
+        def config = source.get(query)
+
+        then:
+        1 * storage.readAllBytes(BlobId.of("bucket", "app/application.conf", 1L)) >> "foo: 1".getBytes()
+        config.getInt("foo") == 1
+
+        when: "blob is not modified"
+        config = source.get(query)
+
+        then:
+        0 * storage.readAllBytes(*_)
+        config.getInt("foo") == 1
+
+        when: "blob is modified"
+        generation = 2L
+        config = source.get(query)
+
+        then:
+        1 * storage.readAllBytes(BlobId.of("bucket", "app/application.conf", 2L)) >> "foo: 2".getBytes()
+        config.getInt("foo") == 2
+        source.getCache().size() == 1
+
+        cleanup:
+        source?.close()
+    }
+
+    def "should download live blob if listed generation has been overwritten"() {
+        given:
+        def storage = Mock(Storage)
+        def source = new GCSConfigSource(builder().withPath("gs://bucket/app").setConfdEnabled(false), storage)
+        def query = ConfigQuery.builder().appName("app").envs(["default"]).build()
+
+        and:
+        storage.list("bucket", _) >> { page([blob("bucket", "app/application.conf", 1L)]) }
+
+        when:
+        def config = source.get(query)
+
+        then:
+        1 * storage.readAllBytes(BlobId.of("bucket", "app/application.conf", 1L)) >> {
+            throw new StorageException(404, "Not Found")
+        }
+        1 * storage.readAllBytes(BlobId.of("bucket", "app/application.conf")) >> "foo: 2".getBytes()
+        config.getInt("foo") == 2
+
+        and: "live blob content is not cached under listed generation"
+        source.getCache().size() == 0
+
+        cleanup:
+        source?.close()
+    }
+
+    def "should list blobs from all pages"() {
+        given:
+        def storage = Mock(Storage)
+        def source = new GCSConfigSource(builder().withPath("gs://bucket/app").setConfdEnabled(false), storage)
+        def query = ConfigQuery.builder().appName("app").envs(["default"]).build()
+
+        and:
+        def secondPage = page([blob("bucket", "app/application.json", 1L)])
+        def firstPage = page([blob("bucket", "app/application.conf", 1L)], secondPage)
+
+        when:
+        def config = source.get(query)
+
+        then:
+        1 * storage.list("bucket", _) >> firstPage
+        1 * storage.readAllBytes(BlobId.of("bucket", "app/application.conf", 1L)) >> "foo: 1".getBytes()
+        1 * storage.readAllBytes(BlobId.of("bucket", "app/application.json", 1L)) >> '{"bar": 2}'.getBytes()
+        config.getInt("foo") == 1
+        config.getInt("bar") == 2
+
+        cleanup:
+        source?.close()
+    }
+
+    def "should return empty config for non-existing bucket"() {
+        given:
+        def storage = Mock(Storage)
+        def source = new GCSConfigSource(builder().withPath("gs://bucket/app").setConfdEnabled(false), storage)
+        def query = ConfigQuery.builder().appName("app").envs(["default"]).build()
+
+        when:
+        def config = source.get(query)
+
+        then:
+        1 * storage.list("bucket", _) >> { throw new StorageException(404, "Not Found") }
+        0 * storage.readAllBytes(*_)
+        config.isEmpty()
+
+        cleanup:
+        source?.close()
+    }
+
+    Page<Blob> page(List<Blob> blobs, Page<Blob> nextPage = null) {
+        def page = Mock(Page)
+        page.getValues() >> blobs
+        page.hasNextPage() >> (nextPage != null)
+        page.getNextPage() >> nextPage
+        page
+    }
+
+    Blob blob(String bucket, String name, long generation) {
+        def blob = Mock(Blob)
+        blob.getBucket() >> bucket
+        blob.getName() >> name
+        blob.getGeneration() >> generation
+        blob.getBlobId() >> BlobId.of(bucket, name, generation)
+        blob
+    }
+
     GCSConfigSource.Builder builder(appName = "appName") {
         GCSConfigSource.builder()
     }